@@ -0,0 +1,247 @@
+package de.openfabtwin.bimserver.idschecker.bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.report.JsonReport;
+import de.openfabtwin.bimserver.idschecker.report.Reporter;
+import de.openfabtwin.bimserver.idschecker.synthetic.SyntheticIds;
+import de.openfabtwin.bimserver.idschecker.synthetic.SyntheticModels;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end throughput: {@link Ids#validate} plus a JSON report for every combination of IDS size
+ * and model size, on {@link SyntheticModels} and {@link SyntheticIds}. Each scenario runs
+ * {@code e2e.runs} times; the median wall time, the highest peak heap and the median GC time are
+ * written to {@code e2e.results}.
+ *
+ * <p>Scenarios listed in the {@code e2e.baseline} file are tracked: if the wall time or peak heap of
+ * one exceeds its baseline by more than {@code e2e.threshold} (or the scenario's own
+ * {@code threshold}), the run exits with status 1, which fails the build. So does a missing baseline
+ * file or a tracked scenario without measurements. With {@code e2e.updateBaseline=true} the results
+ * replace the baseline instead.
+ *
+ * <p>The defaults are the tracked scenarios (10 and 100 specifications, 10k and 100k objects); the
+ * full matrix up to 2,000 specifications and 5M objects is opt-in.
+ *
+ * <p>System properties: {@code e2e.specs} and {@code e2e.objects} (comma separated), {@code e2e.runs},
+ * {@code e2e.threshold}, {@code e2e.results}, {@code e2e.baseline}, {@code e2e.updateBaseline}.
+ */
+public final class EndToEndBenchmark {
+
+    /** Metrics of one scenario; times in ms, heap in bytes. */
+    record Outcome(String name, int specifications, long objects, int elements,
+                   long wallMs, long validateMs, long reportMs, long peakHeapBytes, long gcMs, long reportBytes) {}
+
+    private EndToEndBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int[] specs = ints(System.getProperty("e2e.specs", "10,100"));
+        long[] objects = Arrays.stream(ints(System.getProperty("e2e.objects", "10000,100000")))
+                .asLongStream().toArray();
+        int runs = Integer.getInteger("e2e.runs", 3);
+        double threshold = Double.parseDouble(System.getProperty("e2e.threshold", "0.15"));
+        Path results = Paths.get(System.getProperty("e2e.results", "target/e2e-results.json"));
+        Path baseline = Paths.get(System.getProperty("e2e.baseline", "benchmarks/e2e-baseline.json"));
+
+        List<Outcome> outcomes = new ArrayList<>();
+        for (long objectCount : objects) {
+            SyntheticModels.Shape shape = SyntheticModels.shape();
+            shape.elements((int) Math.max(1, objectCount / (shape.estimatedObjects() / shape.getElements())));
+            IfcModelInterface model = SyntheticModels.generate(shape);
+            for (int specCount : specs) {
+                Ids ids = SyntheticIds.generate(specCount, shape);
+                Outcome outcome = scenario(model, shape, ids, specCount, objectCount, runs);
+                outcomes.add(outcome);
+                System.out.printf("%-28s wall %7d ms (validate %7d, report %6d)  peak heap %6d MB  gc %6d ms%n",
+                        outcome.name(), outcome.wallMs(), outcome.validateMs(), outcome.reportMs(),
+                        outcome.peakHeapBytes() >> 20, outcome.gcMs());
+            }
+        }
+
+        write(results, outcomes, runs);
+        System.out.println("Results written to " + results.toAbsolutePath());
+
+        if (Boolean.getBoolean("e2e.updateBaseline")) {
+            write(baseline, outcomes, runs);
+            System.out.println("Baseline updated: " + baseline.toAbsolutePath());
+            return;
+        }
+        List<String> regressions = compare(outcomes, baseline, threshold);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(r -> System.err.println("REGRESSION " + r));
+            System.exit(1);
+        }
+    }
+
+    private static Outcome scenario(IfcModelInterface model, SyntheticModels.Shape shape, Ids ids,
+                                    int specCount, long objectCount, int runs) throws IOException {
+        SProject project = new SProject();
+        project.setSchema(shape.getSchema() == SyntheticModels.IfcSchema.IFC2X3 ? "ifc2x3tc1" : "ifc4");
+
+        long[] wall = new long[runs], validate = new long[runs], report = new long[runs], gc = new long[runs];
+        long peak = 0, bytes = 0;
+        for (int r = 0; r < runs; r++) {
+            System.gc();
+            resetPeaks();
+            long gcBefore = gcMillis();
+            long start = System.nanoTime();
+            ids.validate(project, model);
+            long validated = System.nanoTime();
+            CountingStream out = new CountingStream();
+            new JsonReport(ids).setDetail(Reporter.Detail.FAILURES).report(out);
+            long end = System.nanoTime();
+
+            wall[r] = (end - start) / 1_000_000;
+            validate[r] = (validated - start) / 1_000_000;
+            report[r] = (end - validated) / 1_000_000;
+            gc[r] = gcMillis() - gcBefore;
+            peak = Math.max(peak, peakHeap());
+            bytes = out.count;
+        }
+        String name = "specs=" + specCount + ",objects=" + objectCount;
+        return new Outcome(name, specCount, model.size(), shape.getElements(),
+                median(wall), median(validate), median(report), peak, median(gc), bytes);
+    }
+
+    // ---- JVM metrics ----
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /** Sum of the per-pool heap peaks since {@link #resetPeaks()}; an upper bound of the real peak. */
+    private static long peakHeap() {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) sum += pool.getPeakUsage().getUsed();
+        }
+        return sum;
+    }
+
+    private static long gcMillis() {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sum += Math.max(0, gc.getCollectionTime());
+        }
+        return sum;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // ---- results and baseline ----
+
+    private static void write(Path file, List<Outcome> outcomes, int runs) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.now().toString());
+            json.writeStringField("java", System.getProperty("java.version"));
+            json.writeNumberField("maxHeapBytes", Runtime.getRuntime().maxMemory());
+            json.writeNumberField("runs", runs);
+            json.writeArrayFieldStart("scenarios");
+            for (Outcome o : outcomes) {
+                json.writeStartObject();
+                json.writeStringField("name", o.name());
+                json.writeNumberField("specifications", o.specifications());
+                json.writeNumberField("objects", o.objects());
+                json.writeNumberField("elements", o.elements());
+                json.writeNumberField("wallMs", o.wallMs());
+                json.writeNumberField("validateMs", o.validateMs());
+                json.writeNumberField("reportMs", o.reportMs());
+                json.writeNumberField("peakHeapBytes", o.peakHeapBytes());
+                json.writeNumberField("gcMs", o.gcMs());
+                json.writeNumberField("reportBytes", o.reportBytes());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Tracked scenarios that got slower or bigger than their baseline allows, or that have no
+     * measurements to compare with; a missing baseline file is a failure of its own.
+     */
+    static List<String> compare(List<Outcome> outcomes, Path baseline, double threshold) throws IOException {
+        if (!Files.isRegularFile(baseline)) {
+            return List.of("no baseline at " + baseline.toAbsolutePath() + "; record one with -De2e.updateBaseline=true");
+        }
+        Map<String, JsonNode> tracked = new LinkedHashMap<>();
+        try (InputStream in = Files.newInputStream(baseline)) {
+            for (JsonNode scenario : new ObjectMapper().readTree(in).path("scenarios")) {
+                tracked.put(scenario.path("name").asText(), scenario);
+            }
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Outcome o : outcomes) {
+            JsonNode base = tracked.remove(o.name());
+            if (base == null) continue;
+            if (!base.has("wallMs") || !base.has("peakHeapBytes")) {
+                regressions.add(o.name() + ": tracked but not measured; record the baseline with -De2e.updateBaseline=true");
+                continue;
+            }
+            double limit = 1 + (base.has("threshold") ? Double.parseDouble(base.path("threshold").asText()) : threshold);
+            check(regressions, o.name(), "wall time", o.wallMs(), base.path("wallMs").asLong(), limit, "ms");
+            check(regressions, o.name(), "peak heap", o.peakHeapBytes() >> 20, base.path("peakHeapBytes").asLong() >> 20, limit, "MB");
+        }
+        tracked.keySet().forEach(name -> System.err.println("WARNING tracked scenario " + name + " was not run"));
+        return regressions;
+    }
+
+    private static void check(List<String> regressions, String scenario, String metric,
+                              long actual, long base, double limit, String unit) {
+        if (base > 0 && actual > base * limit) {
+            regressions.add(String.format("%s: %s %d %s exceeds baseline %d %s by more than %.0f%%",
+                    scenario, metric, actual, unit, base, unit, (limit - 1) * 100));
+        }
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /** Discards the report, counting its size. */
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.openfabtwin.bimserver.idschecker.bench;
+
+import de.openfabtwin.bimserver.idschecker.model.RestrictionValue;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.access.EmfModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Classification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+import de.openfabtwin.bimserver.idschecker.synthetic.SyntheticModels;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.MetaDataManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the facet hot paths over a synthetic model of walls. One operation is a pass over
+ * every wall ({@code filter} once, {@code matches} per wall), so ops/s times {@code walls} is the
+ * per-element rate. Run with {@code -prof gc} (the default of the jmh profile) for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacetBenchmark {
+
+    @Param({"1000", "10000"})
+    public int walls;
+
+    private EmfModelAccess model;
+    private List<IdEObject> elements;
+
+    private Entity entity;
+    private Attribute attribute;
+    private Property property;
+    private Classification classification;
+    private PartOf partOf;
+
+    @Setup
+    public void setUp() throws Exception {
+        MetaDataManager metaDataManager = new MetaDataManager(Files.createTempDirectory("ids-meta-"));
+        metaDataManager.init();
+        model = new EmfModelAccess(SyntheticModels.walls(metaDataManager.getPackageMetaData("ifc4"), walls));
+
+        entity = new Entity(new SimpleValue("IFCWALL"), null, null);
+        elements = entity.filter(model);
+        attribute = new Attribute(new SimpleValue("Name"),
+                new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "Wall \\d+", null, null, null, null),
+                "required", null);
+        property = new Property(new SimpleValue("Pset_WallCommon"), new SimpleValue("FireRating"),
+                new SimpleValue("REI60"), "IFCLABEL", null, "required", null);
+        classification = new Classification(new SimpleValue("Uniclass"), new SimpleValue("EF_25_10"), null, "required", null);
+        partOf = new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IFCRELCONTAINEDINSPATIALSTRUCTURE", "required", null);
+    }
+
+    @Benchmark
+    public List<IdEObject> entityFilter() {
+        return entity.filter(model);
+    }
+
+    @Benchmark
+    public void attributeMatches(Blackhole bh) {
+        for (int i = 0; i < elements.size(); i++) bh.consume(attribute.matches(model, elements.get(i)));
+    }
+
+    @Benchmark
+    public void propertyMatches(Blackhole bh) {
+        for (int i = 0; i < elements.size(); i++) bh.consume(property.matches(model, elements.get(i)));
+    }
+
+    @Benchmark
+    public void classificationMatches(Blackhole bh) {
+        for (int i = 0; i < elements.size(); i++) bh.consume(classification.matches(model, elements.get(i)));
+    }
+
+    @Benchmark
+    public void partOfMatches(Blackhole bh) {
+        for (int i = 0; i < elements.size(); i++) bh.consume(partOf.matches(model, elements.get(i)));
+    }
+}
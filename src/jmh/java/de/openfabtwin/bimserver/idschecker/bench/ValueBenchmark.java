@@ -0,0 +1,83 @@
+package de.openfabtwin.bimserver.idschecker.bench;
+
+import de.openfabtwin.bimserver.idschecker.model.RestrictionValue;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@code Value} matchers on typical candidates; one operation is one
+ * {@code matches} call. Candidates mix hits and misses so neither branch is favoured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueBenchmark {
+
+    private static final int CANDIDATES = 8;
+
+    private final String[] strings = {"REI60", "REI90", "rei60", " REI60 ", "EI30", "", "REI60x", "R60"};
+    private final String[] numbers = {"42", "42.0", "42.", "4.2e1", "-7", "1000000", "abc", "0.5"};
+
+    private SimpleValue simpleString;
+    private SimpleValue simpleNumber;
+    private RestrictionValue enumeration;
+    private RestrictionValue pattern;
+    private RestrictionValue bounds;
+
+    @Setup
+    public void setUp() {
+        simpleString = new SimpleValue("REI60");
+        simpleNumber = new SimpleValue("42");
+        enumeration = new RestrictionValue(RestrictionValue.XsdBase.STRING,
+                List.of("EI30", "REI60", "REI90", "REI120"), null, null, null, null, null);
+        pattern = new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "R?EI\\d{2,3}", null, null, null, null);
+        bounds = new RestrictionValue(RestrictionValue.XsdBase.DOUBLE, List.of(), null, "0", "100", null, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void simpleValueString(Blackhole bh) {
+        for (String s : strings) bh.consume(simpleString.matches(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void simpleValueNumber(Blackhole bh) {
+        for (String s : numbers) bh.consume(simpleNumber.matches(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void restrictionEnumeration(Blackhole bh) {
+        for (String s : strings) bh.consume(enumeration.matches(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void restrictionPattern(Blackhole bh) {
+        for (String s : strings) bh.consume(pattern.matches(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void restrictionBounds(Blackhole bh) {
+        for (String s : numbers) bh.consume(bounds.matches(s));
+    }
+}
@@ -0,0 +1,184 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs IDS checks off the BIMserver notification thread on a fixed pool of workers.
+ *
+ * <p>The queue is bounded. When it is full the submitting thread runs the check itself, which slows
+ * down check-ins instead of letting work pile up without limit. A check that is still queued when a
+ * newer revision of the same project arrives is not run twice: the queued check is switched to the
+ * newer revision and the older one counts as superseded. Checks of one project never run at the
+ * same time, so per-project state (incremental results, the result store) sees revisions in order.
+ * Queues that share their {@link ProjectLocks} keep that order across each other, e.g. while a
+ * replaced queue still finishes its checks.
+ */
+public class CheckQueue implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckQueue.class);
+
+    /** A check of one revision. */
+    @FunctionalInterface
+    public interface Check {
+        void run() throws Exception;
+    }
+
+    public record Status(int queued, int running, long completed, long failed, long superseded) {}
+
+    /**
+     * One lock per project, held while a check of it runs. A project's lock only exists while one of
+     * its checks holds or waits for it, so projects that are no longer checked leave nothing behind.
+     */
+    public static final class ProjectLocks {
+        private final Map<Long, Lock> locks = new ConcurrentHashMap<>();
+
+        /** Changed only inside {@code compute} for its project. */
+        private static final class Lock {
+            int users;
+        }
+
+        void run(long poid, Check check) throws Exception {
+            Lock lock = locks.compute(poid, (k, l) -> {
+                if (l == null) l = new Lock();
+                l.users++;
+                return l;
+            });
+            try {
+                synchronized (lock) {
+                    check.run();
+                }
+            } finally {
+                locks.compute(poid, (k, l) -> --l.users == 0 ? null : l);
+            }
+        }
+
+        int size() {
+            return locks.size();
+        }
+    }
+
+    private final int workers;
+    private final int capacity;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, Job> queued = new ConcurrentHashMap<>();
+    private final ProjectLocks projectLocks;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+
+    public CheckQueue(int workers, int capacity) {
+        this(workers, capacity, new ProjectLocks());
+    }
+
+    /** A queue whose checks take the per-project locks in {@code projectLocks}, which other queues may share. */
+    public CheckQueue(int workers, int capacity, ProjectLocks projectLocks) {
+        this.workers = workers;
+        this.capacity = capacity;
+        this.projectLocks = projectLocks;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), r -> {
+                    Thread t = new Thread(r, "ids-check-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (job, pool) -> job.run());   // unlike CallerRunsPolicy also after shutdown, so no check is lost
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Queue the check of revision {@code roid}, replacing a still queued check of the same project. */
+    public void submit(long poid, long roid, Check check) {
+        Job[] created = {null};
+        queued.compute(poid, (k, job) -> {
+            if (job != null && job.replace(roid, check)) {
+                superseded.incrementAndGet();
+                return job;
+            }
+            created[0] = new Job(poid, roid, check);
+            return created[0];
+        });
+        // Outside compute: with a full queue the caller runs the job, which removes itself from the map.
+        if (created[0] != null) executor.execute(created[0]);
+    }
+
+    public Status getStatus() {
+        return new Status(queued.size(), running.get(), completed.get(), failed.get(), superseded.get());
+    }
+
+    /** Stop taking checks and wait up to {@code timeout} for the queued ones to finish. */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private final class Job implements Runnable {
+        private final long poid;
+        private long roid;
+        private Check check;
+        private boolean started;
+
+        Job(long poid, long roid, Check check) {
+            this.poid = poid;
+            this.roid = roid;
+            this.check = check;
+        }
+
+        synchronized boolean replace(long roid, Check check) {
+            if (started) return false;
+            LOGGER.debug("IDS check of revision {} superseded by revision {}", this.roid, roid);
+            this.roid = roid;
+            this.check = check;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            long roid;
+            Check check;
+            synchronized (this) {
+                started = true;
+                roid = this.roid;
+                check = this.check;
+            }
+            queued.remove(poid, this);
+            running.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                projectLocks.run(poid, check);
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                LOGGER.error("IDS check of revision {} failed", roid, e);
+            } catch (Error e) {
+                // typically an OutOfMemoryError on a very large model; the worker dies, the pool replaces it
+                failed.incrementAndGet();
+                LOGGER.error("IDS check of revision {} failed", roid, e);
+                throw e;
+            } finally {
+                running.decrementAndGet();
+                LOGGER.info("IDS check of revision {} took {} ms; {}", roid,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), getStatus());
+            }
+        }
+    }
+}
@@ -1,17 +1,74 @@
 package de.openfabtwin.bimserver.idschecker;
 
+import de.openfabtwin.bimserver.idschecker.events.ModelIndexEvent;
+import de.openfabtwin.bimserver.idschecker.events.ModelLoadEvent;
+import de.openfabtwin.bimserver.idschecker.events.ReportEvent;
+import de.openfabtwin.bimserver.idschecker.incremental.IncrementalValidator;
+import de.openfabtwin.bimserver.idschecker.metrics.MetricsRegistry;
+import de.openfabtwin.bimserver.idschecker.metrics.SpecificationMetrics;
 import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.IdsFetcher;
 import de.openfabtwin.bimserver.idschecker.model.IdsMapper;
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.report.BcfReport;
+import de.openfabtwin.bimserver.idschecker.report.HtmlReport;
+import de.openfabtwin.bimserver.idschecker.report.JsonReport;
+import de.openfabtwin.bimserver.idschecker.report.ReportCompression;
+import de.openfabtwin.bimserver.idschecker.report.ReportFormat;
+import de.openfabtwin.bimserver.idschecker.report.Reporter;
 import de.openfabtwin.bimserver.idschecker.report.TextReport;
+import de.openfabtwin.bimserver.idschecker.spill.ResultBudget;
+import de.openfabtwin.bimserver.idschecker.store.ResultStore;
 import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SExtendedData;
+import org.bimserver.interfaces.objects.SExtendedDataSchema;
+import org.bimserver.interfaces.objects.SFile;
+import org.bimserver.interfaces.objects.SInternalServicePluginConfiguration;
 import org.bimserver.interfaces.objects.SObjectType;
 import org.bimserver.interfaces.objects.SProject;
 import org.bimserver.models.store.*;
+import org.bimserver.plugins.PluginConfiguration;
 import org.bimserver.plugins.SchemaName;
 import org.bimserver.plugins.services.AbstractAddExtendedDataService;
 import org.bimserver.plugins.services.BimServerClientInterface;
+import org.bimserver.shared.exceptions.UserException;
+import org.eclipse.emf.ecore.EClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class IdsModelChecking extends AbstractAddExtendedDataService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdsModelChecking.class);
+    private static final String REPORT_TITLE = "IDS Report";
+
+    private final IncrementalValidator incrementalValidator = new IncrementalValidator();
+    private final Map<Path, ResultStore> resultStores = new ConcurrentHashMap<>();
+    private final Map<String, IdsFetcher> idsFetchers = new ConcurrentHashMap<>();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    /** Outlives the check queues, so a replaced queue and its successor never check one project at once. */
+    private final CheckQueue.ProjectLocks projectLocks = new CheckQueue.ProjectLocks();
+    private CheckQueue checkQueue;
+
     public IdsModelChecking() {
         super(SchemaName.UNSTRUCTURED_UTF8_TEXT_1_0.name());
     }
@@ -20,43 +77,466 @@ public class IdsModelChecking extends AbstractAddExtendedDataService {
     public ObjectDefinition getUserSettingsDefinition() {
         ObjectDefinition objectDefinition = StoreFactory.eINSTANCE.createObjectDefinition();
 
+        StringType defaultValue = StoreFactory.eINSTANCE.createStringType();
+        defaultValue.setValue("");
+        addParameter(objectDefinition, "IdsFile", "IDS File",
+                "URL to the IDS file to be used for checking. Several URLs separated by ';' or line breaks are checked against one model load and reported together.",
+                PrimitiveEnum.STRING, defaultValue);
+
+        StringType defaultCache = StoreFactory.eINSTANCE.createStringType();
+        defaultCache.setValue("");
+        addParameter(objectDefinition, "IdsCacheDirectory", "IDS Cache Directory",
+                "Where downloaded IDS files are mirrored and revalidated with ETag/Last-Modified; a cached copy is used when the host is unreachable. Empty uses ids-cache in the temp directory.",
+                PrimitiveEnum.STRING, defaultCache);
+
+        LongType defaultStale = StoreFactory.eINSTANCE.createLongType();
+        defaultStale.setValue(0L);
+        addParameter(objectDefinition, "IdsStaleSeconds", "IDS Stale-While-Revalidate (s)",
+                "A cached IDS file younger than this is used without waiting for the host and revalidated in the background. 0 revalidates before every check.",
+                PrimitiveEnum.LONG, defaultStale);
+
+        StringType defaultDetail = StoreFactory.eINSTANCE.createStringType();
+        defaultDetail.setValue(Reporter.Detail.FULL.name());
+        addParameter(objectDefinition, "ReportDetail", "Report Detail",
+                "Level of detail in the report: SUMMARY (outcomes only), FAILURES (list failing elements) or FULL (list all checked elements).",
+                PrimitiveEnum.STRING, defaultDetail);
+
+        LongType defaultMaxListed = StoreFactory.eINSTANCE.createLongType();
+        defaultMaxListed.setValue(0);
+        addParameter(objectDefinition, "MaxListedElements", "Max Listed Elements",
+                "Maximum number of elements listed per requirement; the rest is summarised as \"and N more\". 0 lists all.",
+                PrimitiveEnum.LONG, defaultMaxListed);
+
+        StringType defaultLoading = StoreFactory.eINSTANCE.createStringType();
+        defaultLoading.setValue(ModelLoading.FULL.name());
+        addParameter(objectDefinition, "ModelLoading", "Model Loading",
+                "FULL loads the whole revision; PARTIAL loads only the IFC classes the IDS facets read (falls back to FULL when a facet needs everything).",
+                PrimitiveEnum.STRING, defaultLoading);
+
+        StringType defaultFormat = StoreFactory.eINSTANCE.createStringType();
+        defaultFormat.setValue(ReportFormat.TEXT.name());
+        addParameter(objectDefinition, "ReportFormat", "Report Format",
+                "Format of the stored report: TEXT (result.txt), JSON (result.json), HTML (result.html) or BCF (result.bcfzip, BCF 2.1 issues for failing elements).",
+                PrimitiveEnum.STRING, defaultFormat);
+
+        StringType defaultGrouping = StoreFactory.eINSTANCE.createStringType();
+        defaultGrouping.setValue(BcfReport.Grouping.ELEMENT.name());
+        addParameter(objectDefinition, "BcfGrouping", "BCF Grouping",
+                "BCF topics: ELEMENT (one per failing element and requirement) or REQUIREMENT (one per failing requirement of a specification).",
+                PrimitiveEnum.STRING, defaultGrouping);
+
+        StringType defaultCompression = StoreFactory.eINSTANCE.createStringType();
+        defaultCompression.setValue(ReportCompression.NONE.name());
+        addParameter(objectDefinition, "ReportCompression", "Report Compression",
+                "Compression of a TEXT, JSON or HTML report: NONE, GZIP (result.txt.gz) or ZIP (result.zip).",
+                PrimitiveEnum.STRING, defaultCompression);
+
+        BooleanType defaultIncremental = StoreFactory.eINSTANCE.createBooleanType();
+        defaultIncremental.setValue(false);
+        addParameter(objectDefinition, "Incremental", "Incremental Validation",
+                "Re-evaluate only elements that changed since the previous revision checked with the same IDS file; replay the results of all others.",
+                PrimitiveEnum.BOOLEAN, defaultIncremental);
+
+        StringType defaultStore = StoreFactory.eINSTANCE.createStringType();
+        defaultStore.setValue("");
+        addParameter(objectDefinition, "ResultStore", "Result Store Directory",
+                "Directory of the on-disk store that keeps the pass/fail outcome of every element per revision. Empty disables it.",
+                PrimitiveEnum.STRING, defaultStore);
+
+        LongType defaultWorkers = StoreFactory.eINSTANCE.createLongType();
+        defaultWorkers.setValue(0L);
+        addParameter(objectDefinition, "CheckWorkers", "Check Workers",
+                "Number of background threads that run checks. 0 runs each check on the notification thread during check-in.",
+                PrimitiveEnum.LONG, defaultWorkers);
+
+        LongType defaultQueue = StoreFactory.eINSTANCE.createLongType();
+        defaultQueue.setValue(16L);
+        addParameter(objectDefinition, "CheckQueueCapacity", "Check Queue Capacity",
+                "Checks waiting for a worker. When the queue is full the check-in runs its check itself. A waiting check is replaced by a newer revision of the same project.",
+                PrimitiveEnum.LONG, defaultQueue);
+
+        LongType defaultBudget = StoreFactory.eINSTANCE.createLongType();
+        defaultBudget.setValue(0L);
+        addParameter(objectDefinition, "ResultMemoryBudget", "Result Memory Budget (MB)",
+                "Heap for per-element results of one check. Results beyond it are written to temporary files and read back for the report. 0 keeps all results in memory.",
+                PrimitiveEnum.LONG, defaultBudget);
+
+        BooleanType defaultMetrics = StoreFactory.eINSTANCE.createBooleanType();
+        defaultMetrics.setValue(false);
+        addParameter(objectDefinition, "PerformanceMetrics", "Performance Metrics",
+                "Time every specification and facet and count its matches calls and outcomes. Adds a Performance section to TEXT reports.",
+                PrimitiveEnum.BOOLEAN, defaultMetrics);
+
+        LongType defaultSlowRule = StoreFactory.eINSTANCE.createLongType();
+        defaultSlowRule.setValue(0L);
+        addParameter(objectDefinition, "SlowRuleMillis", "Slow Rule Warning (ms)",
+                "With Performance Metrics on, log a warning for every specification whose validation takes longer. 0 disables the warning.",
+                PrimitiveEnum.LONG, defaultSlowRule);
+
+        return objectDefinition;
+    }
+
+    /** Per-specification totals of all checks run with Performance Metrics on. */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    private static void addParameter(ObjectDefinition objectDefinition, String identifier, String name,
+                                     String description, PrimitiveEnum primitive, Type defaultValue) {
         ParameterDefinition parameter = StoreFactory.eINSTANCE.createParameterDefinition();
-        parameter.setIdentifier("IdsFile");
-        parameter.setDescription("URL to the IDS file to be used for checking.");
-        parameter.setName("IDS File");
+        parameter.setIdentifier(identifier);
+        parameter.setDescription(description);
+        parameter.setName(name);
 
         PrimitiveDefinition type = StoreFactory.eINSTANCE.createPrimitiveDefinition();
-        type.setType(PrimitiveEnum.STRING);
+        type.setType(primitive);
         parameter.setType(type);
-        StringType defaultValue = StoreFactory.eINSTANCE.createStringType();
-        defaultValue.setValue("");
         parameter.setDefaultValue(defaultValue);
 
         objectDefinition.getParameters().add(parameter);
-        return objectDefinition;
     }
 
     @Override
     public void newRevision(RunningService runningService, BimServerClientInterface bimServerClientInterface, long poid, long roid, String userToken, long soid, SObjectType settings) throws Exception {
+        PluginConfiguration configuration = runningService.getPluginConfiguration();
+        int workers = intSetting(configuration, "CheckWorkers", 0);
+        if (workers <= 0) {
+            check(configuration, bimServerClientInterface, poid, roid);
+            return;
+        }
+        CheckQueue queue = checkQueue(workers, Math.max(1, intSetting(configuration, "CheckQueueCapacity", 16)));
+        queue.submit(poid, roid, () -> check(configuration, bimServerClientInterface, poid, roid));
+        LOGGER.debug("Queued IDS check of revision {}; {}", roid, queue.getStatus());
+    }
 
-        final String URL_IDS = runningService.getPluginConfiguration().getString("IdsFile");
+    /** Let queued checks finish, then close the result stores they write to. */
+    @Override
+    public void unregister(SInternalServicePluginConfiguration internalService) {
+        super.unregister(internalService);
+        CheckQueue queue;
+        synchronized (this) {
+            queue = checkQueue;
+            checkQueue = null;
+        }
+        try {
+            if (queue != null && !queue.shutdown(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("IDS checks still running at shutdown; {}", queue.getStatus());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (resultStores) {
+            for (Map.Entry<Path, ResultStore> entry : resultStores.entrySet()) {
+                try {
+                    entry.getValue().close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not close the IDS result store in {}", entry.getKey(), e);
+                }
+            }
+            resultStores.clear();
+        }
+    }
 
-        String report = null;
-        if (URL_IDS == null || URL_IDS.isEmpty()) {
-            report = "Missing or invalid IDS URL.";
-        } else {
-            Ids ids = IdsMapper.read(URL_IDS);
+    /** The queue for the configured pool size; a changed configuration replaces it once its checks are done. */
+    private synchronized CheckQueue checkQueue(int workers, int capacity) {
+        if (checkQueue == null || checkQueue.getWorkers() != workers || checkQueue.getCapacity() != capacity) {
+            if (checkQueue != null) checkQueue.close();
+            checkQueue = new CheckQueue(workers, capacity, projectLocks);
+        }
+        return checkQueue;
+    }
 
-            SProject project = bimServerClientInterface.getServiceInterface().getProjectByPoid(poid);
-            IfcModelInterface model = bimServerClientInterface.getModel(project, roid, true, false);
+    private static int intSetting(PluginConfiguration configuration, String key, int defaultValue) {
+        Long value = configuration.getLong(key);
+        return value == null ? defaultValue : (int) Math.max(Integer.MIN_VALUE, Math.min(value, Integer.MAX_VALUE));
+    }
 
-            ids.validate(project, model);
-            TextReport txtReport = new TextReport(ids);
-            txtReport.report();
-            report = txtReport.to_string();
+    private void check(PluginConfiguration configuration, BimServerClientInterface bimServerClientInterface,
+                       long poid, long roid) throws Exception {
+        final List<String> URLS_IDS = idsSources(configuration.getString("IdsFile"));
+        final ReportFormat format = ReportFormat.fromString(configuration.getString("ReportFormat"));
+        final ReportCompression compression = format.isCompressible()
+                ? ReportCompression.fromString(configuration.getString("ReportCompression"))
+                : ReportCompression.NONE;
+
+        if (URLS_IDS.isEmpty()) {
+            addExtendedData("Missing or invalid IDS URL.".getBytes(StandardCharsets.UTF_8), ReportFormat.TEXT.getFileName(),
+                    REPORT_TITLE, ReportFormat.TEXT.getMime(), bimServerClientInterface, roid);
+            return;
         }
 
-        addExtendedData(report.getBytes(), "result.txt", "IDS Report", "text/plain", bimServerClientInterface, roid);
+        List<Ids> sources = new ArrayList<>(URLS_IDS.size());
+        IdsFetcher fetcher = idsFetcher(configuration);
+        for (String url : URLS_IDS) sources.add(IdsMapper.read(url, fetcher));
+        boolean collectMetrics = Boolean.TRUE.equals(configuration.getBoolean("PerformanceMetrics"));
+        for (Ids ids : sources) ids.setCollectMetrics(collectMetrics);
+        SProject project = bimServerClientInterface.getServiceInterface().getProjectByPoid(poid);
+        ModelLoading loading = ModelLoading.fromString(configuration.getString("ModelLoading"));
+        ModelLoadEvent loadEvent = new ModelLoadEvent();
+        loadEvent.begin();
+        IfcModelInterface model = loading.load(bimServerClientInterface, project, roid, sources);
+        if (loadEvent.shouldCommit()) {
+            loadEvent.roid = roid;
+            loadEvent.loading = loading.name();
+            loadEvent.objects = model.size();
+            loadEvent.commit();
+        }
+        int budgetMb = intSetting(configuration, "ResultMemoryBudget", 0);
+        ResultBudget budget = budgetMb > 0
+                ? new ResultBudget((long) budgetMb << 20, Paths.get(System.getProperty("java.io.tmpdir")), model::get)
+                : null;
+        try {
+            if (budget != null) for (Ids ids : sources) ids.setResultBudget(budget);
+            validate(Boolean.TRUE.equals(configuration.getBoolean("Incremental")), poid, roid, sources, project, model,
+                    loading == ModelLoading.FULL);
+            if (collectMetrics) recordMetrics(sources, roid, intSetting(configuration, "SlowRuleMillis", 0));
+            storeResults(configuration.getString("ResultStore"), poid, roid, sources);
+            upload(createReporter(format, sources, configuration, poid + "/" + roid), format, compression, bimServerClientInterface, roid);
+        } finally {
+            if (budget != null) {
+                if (budget.getSpilled() > 0) LOGGER.info("IDS check of revision {} spilled {} results to disk", roid, budget.getSpilled());
+                try {
+                    budget.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not delete spilled IDS results of revision {}", roid, e);
+                }
+            }
+        }
+    }
+
+    /** The fetcher for the configured cache; shared between checks so background revalidations are too. */
+    private IdsFetcher idsFetcher(PluginConfiguration configuration) {
+        String directory = configuration.getString("IdsCacheDirectory");
+        Path cache = directory == null || directory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "ids-cache")
+                : Paths.get(directory.trim());
+        int staleSeconds = Math.max(0, intSetting(configuration, "IdsStaleSeconds", 0));
+        return idsFetchers.computeIfAbsent(cache.toAbsolutePath().normalize() + "|" + staleSeconds,
+                k -> new IdsFetcher(cache, Duration.ofSeconds(staleSeconds)));
+    }
+
+    /** The IDS URLs of the IdsFile setting. */
+    static List<String> idsSources(String setting) {
+        List<String> urls = new ArrayList<>();
+        if (setting == null) return urls;
+        for (String url : setting.split("[;\\r\\n]+")) {
+            if (!url.isBlank()) urls.add(url.trim());
+        }
+        return urls;
+    }
+
+    /**
+     * Check the model against every source. Several sources run in parallel on a fully loaded model:
+     * its per-class index is built once up front and only read afterwards. A partially loaded model
+     * may still fetch objects on access, so its sources are checked one after another.
+     */
+    private void validate(boolean incremental, long poid, long roid, List<Ids> sources, SProject project,
+                          IfcModelInterface model, boolean parallel) throws Exception {
+        if (incremental) incrementalValidator.forget(poid, sources.size());
+        else incrementalValidator.forget(poid);
+
+        List<Callable<Void>> checks = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            int source = i;
+            Ids ids = sources.get(i);
+            checks.add(() -> {
+                if (incremental) {
+                    IncrementalValidator.Stats stats = incrementalValidator.validate(poid, source, ids, project, model);
+                    LOGGER.info("Incremental IDS check {} of revision {}: {}", source + 1, roid, stats);
+                } else {
+                    ids.validate(project, model);
+                }
+                return null;
+            });
+        }
+
+        int threads = Math.min(sources.size(), Runtime.getRuntime().availableProcessors());
+        if (!parallel || threads <= 1) {
+            for (Callable<Void> check : checks) check.call();
+            return;
+        }
+        ModelIndexEvent indexEvent = new ModelIndexEvent();
+        indexEvent.begin();
+        List<EClass> classes = ModelRequirements.of(sources, model.getPackageMetaData()).getClasses();
+        for (EClass eClass : classes) {
+            model.getAllWithSubTypes(eClass);
+        }
+        if (indexEvent.shouldCommit()) {
+            indexEvent.classes = classes.size();
+            indexEvent.commit();
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> done : pool.invokeAll(checks)) done.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void upload(Reporter reporter, ReportFormat format, ReportCompression compression,
+                        BimServerClientInterface bimServerClientInterface, long roid) throws Exception {
+        // The report is streamed (and compressed) to a temp file while it is generated; only the
+        // finished file is read back, because the extended-data upload takes the content as a single byte[].
+        String fileName = compression.fileName(format.getFileName());
+        Path reportFile = Files.createTempFile("ids-report-", "-" + fileName);
+        try {
+            ReportEvent event = new ReportEvent();
+            event.begin();
+            try (OutputStream out = compression.wrap(new BufferedOutputStream(Files.newOutputStream(reportFile)), format.getFileName())) {
+                reporter.report(out);
+            }
+            if (event.shouldCommit()) {
+                event.roid = roid;
+                event.format = format.name();
+                event.compression = compression.name();
+                event.bytes = Files.size(reportFile);
+                event.commit();
+            }
+            byte[] data = Files.readAllBytes(reportFile);
+            if (format == ReportFormat.TEXT && compression == ReportCompression.NONE) {
+                addExtendedData(data, fileName, REPORT_TITLE, format.getMime(), bimServerClientInterface, roid);
+            } else {
+                addExtendedData(data, fileName, REPORT_TITLE, compression.mime(format.getMime()),
+                        compression.schemaName(format.getSchemaName()), bimServerClientInterface, roid);
+            }
+        } finally {
+            deleteQuietly(reportFile);
+        }
+    }
+
+    private void recordMetrics(List<Ids> sources, long roid, int slowRuleMillis) {
+        for (Ids ids : sources) {
+            metrics.record(ids);
+            if (slowRuleMillis <= 0) continue;
+            for (Specification spec : ids.getSpecifications()) {
+                SpecificationMetrics m = spec.getMetrics();
+                if (m != null && m.getNanos() > slowRuleMillis * 1_000_000L) {
+                    LOGGER.warn("Slow IDS rule in revision {}: '{}' took {} ms ({} candidates, {} matches calls)",
+                            roid, spec.getName(), m.getNanos() / 1_000_000, m.getCandidates(), m.getMatchesCalls());
+                }
+            }
+        }
+    }
+
+    /**
+     * Persist the outcomes if a result store is configured, and log how the failures of each rule
+     * changed since the last stored revision of the project. A store failure does not fail the check.
+     */
+    private void storeResults(String directory, long poid, long roid, List<Ids> sources) {
+        if (directory == null || directory.isBlank()) return;
+        try {
+            Path path = Paths.get(directory.trim()).toAbsolutePath().normalize();
+            ResultStore store = resultStores.get(path);
+            if (store == null) {
+                synchronized (resultStores) {
+                    store = resultStores.get(path);
+                    if (store == null) {
+                        store = ResultStore.open(path);
+                        resultStores.put(path, store);
+                    }
+                }
+            }
+            long previous = store.previous(poid, roid);
+            store.append(poid, roid, sources);
+            if (previous < 0) return;
+            for (ResultStore.Trend trend : store.trend(poid, previous, roid)) {
+                if (trend.failedBefore() == trend.failedAfter()) continue;
+                LOGGER.info("IDS rule '{}': {} failures in revision {}, {} in revision {}",
+                        trend.name(), trend.failedBefore(), previous, trend.failedAfter(), roid);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not store IDS results of revision {} in {}", roid, directory, e);
+        }
+    }
+
+    private static Reporter createReporter(ReportFormat format, List<Ids> sources, PluginConfiguration configuration, String revision) {
+        Reporter reporter = switch (format) {
+            case BCF -> new BcfReport(sources).setRevision(revision)
+                    .setGrouping(BcfReport.Grouping.fromString(configuration.getString("BcfGrouping")));
+            case JSON -> new JsonReport(sources);
+            case HTML -> new HtmlReport(sources);
+            case TEXT -> new TextReport(sources).setPerformance(Boolean.TRUE.equals(configuration.getBoolean("PerformanceMetrics")));
+        };
+        return reporter
+                .setDetail(Reporter.Detail.fromString(configuration.getString("ReportDetail")))
+                .setMaxListedElements(intSetting(configuration, "MaxListedElements", 0));
+    }
+
+    /**
+     * Variant of {@link #addExtendedData(byte[], String, String, String, BimServerClientInterface, long)}
+     * for artifacts that do not match the service's output schema. The schema is found among the
+     * server's schemas by name and registered with the server the first time it is used.
+     */
+    private void addExtendedData(byte[] data, String filename, String title, String mime, String schemaName,
+                                 BimServerClientInterface bimServerClientInterface, long roid) throws Exception {
+        var service = bimServerClientInterface.getServiceInterface();
+
+        // Listed and matched by name: a failed lookup by name only tells "no such schema" apart from
+        // other errors by its message, which may be reworded or localised.
+        SExtendedDataSchema existing = null;
+        List<SExtendedDataSchema> schemas;
+        try {
+            schemas = service.getAllExtendedDataSchemas();
+        } catch (UserException e) {
+            LOGGER.debug("Could not list extended data schemas, looking up {} by name", schemaName, e);
+            schemas = null;
+        }
+        if (schemas != null) {
+            for (SExtendedDataSchema schema : schemas) {
+                if (schemaName.equals(schema.getName())) {
+                    existing = schema;
+                    break;
+                }
+            }
+        } else {
+            try {
+                existing = service.getExtendedDataSchemaByName(schemaName);
+            } catch (UserException e) {
+                // Only "no such schema" means it has to be registered; anything else (permissions, a
+                // server error) must not lead to a second schema of the same name.
+                if (!isNotFound(e)) throw e;
+            }
+        }
+        long schemaId;
+        if (existing != null) {
+            schemaId = existing.getOid();
+        } else {
+            SExtendedDataSchema schema = new SExtendedDataSchema();
+            schema.setName(schemaName);
+            schema.setContentType(mime);
+            schema.setDescription(title + " (" + mime + ")");
+            schema.setUrl("");
+            schemaId = service.addExtendedDataSchema(schema);
+        }
+
+        SFile file = new SFile();
+        file.setData(data);
+        file.setFilename(filename);
+        file.setMime(mime);
+        file.setSize(data.length);
+        long fileId = service.uploadFile(file);
+
+        SExtendedData extendedData = new SExtendedData();
+        extendedData.setTitle(title);
+        extendedData.setFileId(fileId);
+        extendedData.setSchemaId(schemaId);
+        service.addExtendedDataToRevision(roid, extendedData);
+    }
+
+    /** Whether the server rejected a lookup because nothing has that name. */
+    private static boolean isNotFound(UserException e) {
+        String message = e.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("not found");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // a leftover temp file is harmless
+        }
     }
 
 }
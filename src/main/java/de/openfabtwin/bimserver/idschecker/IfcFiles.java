@@ -0,0 +1,132 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
+import de.openfabtwin.bimserver.idschecker.step.StepIndex;
+import de.openfabtwin.bimserver.idschecker.step.StepSlice;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.emf.MetaDataManager;
+import org.bimserver.ifc.step.deserializer.Ifc2x3tc1StepDeserializer;
+import org.bimserver.ifc.step.deserializer.Ifc4StepDeserializer;
+import org.bimserver.ifc.step.deserializer.IfcStepDeserializer;
+import org.bimserver.interfaces.objects.SProject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads IFC STEP files straight into an {@link IfcModelInterface}, without a BIMserver, for checks
+ * outside the plugin. The deserializer is picked from the {@code FILE_SCHEMA} of the file header.
+ *
+ * <p>{@link #load(Path, List)} reads a file for given IDS documents in two streaming passes: the
+ * first indexes the type of every instance ({@link StepIndex}), the second keeps only the instances
+ * of the classes the IDS facets read ({@link ModelRequirements}) and hands that {@link StepSlice} to
+ * the deserializer. Geometry and presentation, usually most of a large file, never reach the heap.
+ */
+public final class IfcFiles {
+
+    private static final Pattern FILE_SCHEMA = Pattern.compile("FILE_SCHEMA\\s*\\(\\s*\\(\\s*'([^']+)'");
+
+    private static volatile MetaDataManager metaDataManager;
+
+    private IfcFiles() {}
+
+    /** The first schema of the STEP header, e.g. {@code IFC4}; {@code IFC2X3_TC1} counts as {@code IFC2X3}. */
+    public static String schemaOf(Path ifcFile) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(ifcFile, StandardCharsets.ISO_8859_1)) {
+            StringBuilder header = new StringBuilder();
+            String line;
+            while ((line = r.readLine()) != null && !line.trim().startsWith("DATA;")) {
+                header.append(line).append(' ');
+            }
+            Matcher m = FILE_SCHEMA.matcher(header);
+            if (!m.find()) {
+                throw new IOException("No FILE_SCHEMA in " + ifcFile);
+            }
+            String schema = m.group(1).toUpperCase();
+            return schema.startsWith("IFC2X3") ? "IFC2X3" : schema;
+        }
+    }
+
+    /** The BIMserver package name of a header schema, as a project stores it. */
+    public static String packageName(String schema) {
+        return switch (schema) {
+            case "IFC2X3" -> "ifc2x3tc1";
+            case "IFC4" -> "ifc4";
+            default -> throw new IllegalArgumentException("Unsupported schema " + schema);
+        };
+    }
+
+    /** A project of {@code ifcFile}'s schema, for {@link de.openfabtwin.bimserver.idschecker.model.Ids#validate}. */
+    public static SProject project(Path ifcFile) throws IOException {
+        SProject project = new SProject();
+        project.setName(ifcFile.getFileName().toString());
+        project.setSchema(packageName(schemaOf(ifcFile)));
+        return project;
+    }
+
+    /** Parse {@code ifcFile} completely into memory. Safe to call from several threads. */
+    public static IfcModelInterface load(Path ifcFile) throws Exception {
+        String schema = schemaOf(ifcFile);
+        return read(schema, ifcFile, ifcFile.getFileName().toString());
+    }
+
+    /**
+     * Parse only what {@code sources} read from {@code ifcFile}. Validating them gives the results of
+     * a complete load, as far as the facets declare what they read (see
+     * {@link de.openfabtwin.bimserver.idschecker.model.facet.Facet#require}). Falls back to {@link #load(Path)} if a facet cannot tell what it
+     * reads. The slice goes to a temporary file, which is deleted afterwards.
+     */
+    public static IfcModelInterface load(Path ifcFile, List<Ids> sources) throws Exception {
+        String schema = schemaOf(ifcFile);
+        ModelRequirements requirements = ModelRequirements.of(sources, metaDataManager().getPackageMetaData(packageName(schema)));
+        if (requirements.isEverything()) return load(ifcFile);
+
+        Path slice = Files.createTempFile("ids-slice-", ".ifc");
+        try {
+            StepIndex index = StepIndex.build(ifcFile);
+            try (InputStream in = Files.newInputStream(ifcFile);
+                 Writer out = Files.newBufferedWriter(slice, StandardCharsets.ISO_8859_1)) {
+                StepSlice.write(in, index, requirements.getTypeNames()::contains, out);
+            }
+            return read(schema, slice, ifcFile.getFileName().toString());
+        } finally {
+            Files.deleteIfExists(slice);
+        }
+    }
+
+    private static IfcModelInterface read(String schema, Path stepFile, String name) throws Exception {
+        IfcStepDeserializer deserializer = switch (schema) {
+            case "IFC2X3" -> new Ifc2x3tc1StepDeserializer();
+            case "IFC4" -> new Ifc4StepDeserializer();
+            default -> throw new IllegalArgumentException("Unsupported schema " + schema + " in " + name);
+        };
+        deserializer.init(metaDataManager().getPackageMetaData(packageName(schema)));
+        try (InputStream in = Files.newInputStream(stepFile)) {
+            return deserializer.read(in, name, Files.size(stepFile), null);
+        }
+    }
+
+    private static MetaDataManager metaDataManager() throws Exception {
+        MetaDataManager manager = metaDataManager;
+        if (manager == null) {
+            synchronized (IfcFiles.class) {
+                manager = metaDataManager;
+                if (manager == null) {
+                    manager = new MetaDataManager(Files.createTempDirectory("ids-meta-"));
+                    manager.init();
+                    metaDataManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,55 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+import org.bimserver.plugins.services.BimServerClientInterface;
+import org.eclipse.emf.ecore.EClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * How a revision is fetched from the server before it is checked. Geometry is never loaded; no facet
+ * looks at it.
+ */
+public enum ModelLoading {
+    /** Load every object of the revision up front. */
+    FULL,
+    /**
+     * Open the revision lazily and bulk-load only the classes the IDS facets read (see
+     * {@link ModelRequirements}), one query per class. Anything else a facet happens to reach is
+     * still loaded on access, so results are the same as with {@link #FULL}. Falls back to a full
+     * load if a facet cannot tell what it reads or the partial load fails.
+     */
+    PARTIAL;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelLoading.class);
+
+    public static ModelLoading fromString(String s) {
+        if (s == null || s.isBlank()) return FULL;
+        return switch (s.trim().toLowerCase()) {
+            case "partial" -> PARTIAL;
+            default -> FULL;
+        };
+    }
+
+    /** Load the revision for checking it against all of {@code sources}. */
+    public IfcModelInterface load(BimServerClientInterface client, SProject project, long roid, List<Ids> sources) throws Exception {
+        if (this == PARTIAL) {
+            try {
+                IfcModelInterface model = client.getModel(project, roid, false, false, false);
+                ModelRequirements requirements = ModelRequirements.of(sources, model.getPackageMetaData());
+                if (!requirements.isEverything()) {
+                    for (EClass eClass : requirements.getClasses()) model.getAllWithSubTypes(eClass);
+                    return model;
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Partial loading of revision {} failed, loading it completely", roid, e);
+            }
+        }
+        return client.getModel(project, roid, true, false, false);
+    }
+}
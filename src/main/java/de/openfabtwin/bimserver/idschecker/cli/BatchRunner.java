@@ -0,0 +1,93 @@
+package de.openfabtwin.bimserver.idschecker.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Checks many models on a bounded pool while keeping the estimated heap of the models in memory at
+ * the same time within a budget. A model reserves {@link #HEAP_PER_FILE_BYTE} times its file size
+ * (in MB, from a fair semaphore) before it is loaded and releases it when its check is done; a model
+ * larger than the whole budget runs alone. Models are started largest first, so the big ones do
+ * not end up as a long tail and small ones fill the gaps.
+ */
+final class BatchRunner {
+
+    /** Heap an in-memory model takes per byte of its STEP file; a rough upper bound for EMF models. */
+    static final int HEAP_PER_FILE_BYTE = 10;
+
+    /** One model to check and where its report goes. */
+    record Input(Path model, Path report) {}
+
+    private final int threads;
+    private final int budgetMb;
+    private final Semaphore memory;
+
+    BatchRunner(int threads, long budgetBytes) {
+        this.threads = Math.max(1, threads);
+        this.budgetMb = (int) Math.max(1, Math.min(budgetBytes >> 20, Integer.MAX_VALUE));
+        this.memory = new Semaphore(this.budgetMb, true);
+    }
+
+    /** MB a model file of {@code fileSize} bytes reserves; never more than the whole budget. */
+    int reservation(long fileSize) {
+        long mb = (fileSize * HEAP_PER_FILE_BYTE + (1 << 20) - 1) >> 20;
+        return (int) Math.max(1, Math.min(mb, budgetMb));
+    }
+
+    /**
+     * Run {@code check} for every input and hand each result to {@code done} on the calling thread, in
+     * the order the checks finish. {@code check} should report failures in its result rather than throw.
+     */
+    <T> void run(List<Input> inputs, Function<Input, T> check, Consumer<T> done) throws InterruptedException {
+        List<Sized> sized = new ArrayList<>(inputs.size());
+        for (Input input : inputs) sized.add(new Sized(input, size(input.model())));
+        sized.sort(Comparator.comparingLong(Sized::bytes).reversed());
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, inputs.size())));
+        try {
+            CompletionService<T> completed = new ExecutorCompletionService<>(pool);
+            for (Sized s : sized) {
+                int permits = reservation(s.bytes());
+                completed.submit(() -> {
+                    memory.acquire(permits);
+                    try {
+                        return check.apply(s.input());
+                    } finally {
+                        memory.release(permits);
+                    }
+                });
+            }
+            for (int i = 0; i < sized.size(); i++) {
+                try {
+                    done.accept(completed.take().get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Check failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;   // the check itself reports the missing file
+        }
+    }
+
+    private record Sized(Input input, long bytes) {}
+}
@@ -0,0 +1,95 @@
+package de.openfabtwin.bimserver.idschecker.cli;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals of a run over many models: how many passed, failed or could not be checked, and for every
+ * specification how many models failed it. Written as {@code ids-summary.json} next to the reports.
+ */
+final class BatchSummary {
+
+    static final String FILE_NAME = "ids-summary.json";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final List<IdsCheck.Outcome> outcomes = new ArrayList<>();
+    private final Map<String, Integer> failedModels = new LinkedHashMap<>();
+    private int passed, failed, errors;
+
+    void add(IdsCheck.Outcome outcome) {
+        outcomes.add(outcome);
+        if (outcome.error() != null) errors++;
+        else if (outcome.isPass()) passed++;
+        else failed++;
+        for (String spec : outcome.failedSpecifications()) failedModels.merge(spec, 1, Integer::sum);
+    }
+
+    int getPassed() { return passed; }
+    int getFailed() { return failed; }
+    int getErrors() { return errors; }
+
+    /** Specifications with the number of models failing them, the most failed first. */
+    List<Map.Entry<String, Integer>> failedSpecifications() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(failedModels.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return entries;
+    }
+
+    void print(PrintStream out, long millis, int top) {
+        out.printf("Checked %d models in %.1f s: %d passed, %d failed, %d errors%n",
+                outcomes.size(), millis / 1000.0, passed, failed, errors);
+        List<Map.Entry<String, Integer>> specs = failedSpecifications();
+        for (int i = 0; i < Math.min(top, specs.size()); i++) {
+            out.printf("  %6d models fail %s%n", specs.get(i).getValue(), specs.get(i).getKey());
+        }
+    }
+
+    void write(Path file, long millis) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file);
+             JsonGenerator json = JSON.createGenerator(os, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeNumberField("models", outcomes.size());
+            json.writeNumberField("passed", passed);
+            json.writeNumberField("failed", failed);
+            json.writeNumberField("errors", errors);
+            json.writeNumberField("wallMs", millis);
+
+            json.writeArrayFieldStart("specifications");
+            for (Map.Entry<String, Integer> e : failedSpecifications()) {
+                json.writeStartObject();
+                json.writeStringField("specification", e.getKey());
+                json.writeNumberField("failedModels", e.getValue());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("files");
+            for (IdsCheck.Outcome o : outcomes) {
+                json.writeStartObject();
+                json.writeStringField("model", o.model().toString());
+                json.writeStringField("status", o.error() != null ? "ERROR" : o.isPass() ? "PASS" : "FAIL");
+                json.writeNumberField("passed", o.passed());
+                json.writeNumberField("specifications", o.specifications());
+                json.writeNumberField("ms", o.millis());
+                if (o.report() != null) json.writeStringField("report", o.report().toString());
+                if (o.error() != null) json.writeStringField("error", o.error());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package de.openfabtwin.bimserver.idschecker.cli;
+
+import de.openfabtwin.bimserver.idschecker.IfcFiles;
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.IdsBinary;
+import de.openfabtwin.bimserver.idschecker.model.IdsFetcher;
+import de.openfabtwin.bimserver.idschecker.model.IdsMapper;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.report.BcfReport;
+import de.openfabtwin.bimserver.idschecker.report.HtmlReport;
+import de.openfabtwin.bimserver.idschecker.report.JsonReport;
+import de.openfabtwin.bimserver.idschecker.report.ReportFormat;
+import de.openfabtwin.bimserver.idschecker.report.Reporter;
+import de.openfabtwin.bimserver.idschecker.report.TextReport;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Command-line checker: validates IFC files against IDS documents without a BIMserver and writes one
+ * report per IFC file plus an {@code ids-summary.json} over all of them. Exits with 0 when every
+ * model passes, 1 when one fails and 2 when the arguments are wrong or a file cannot be checked.
+ *
+ * <pre>
+ * java -jar IdsModelPlugins-cli.jar --ids rules.ids [--ids more.ids] [options] model.ifc|directory...
+ * java -jar IdsModelPlugins-cli.jar --ids rules.idsb --manifest nightly.txt --memory 24000 --output reports
+ * java -jar IdsModelPlugins-cli.jar --compile rules.ids rules.idsb
+ * </pre>
+ *
+ * Each IDS is read and validated once and compiled in memory (see {@link IdsBinary}); every model
+ * gets its own copy, and the schema metadata is shared, so models are checked in parallel by a
+ * {@link BatchRunner} within the {@code --memory} budget. Reports of models found in a directory or
+ * manifest keep their relative path under {@code --output}.
+ */
+public final class IdsCheck {
+
+    static final int PASSED = 0, FAILED = 1, ERROR = 2;
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ids-check --ids <file|url> [--ids <file|url>]... [options] <model.ifc|directory>...",
+            "       ids-check --compile <file|url> <target.idsb>",
+            "Options:",
+            "  --format text|json|html|bcf     report format (default text)",
+            "  --detail summary|failures|full  elements listed per requirement (default full)",
+            "  --max-listed <n>                cap on the elements listed per requirement and outcome (default 0, all)",
+            "  --manifest <file>               models to check, one path per line, relative to the manifest",
+            "  --output <dir>                  directory for the reports and ids-summary.json (default: the current directory)",
+            "  --threads <n>                   models checked in parallel (default: available processors)",
+            "  --memory <MB>                   heap for models loaded at the same time (default: 3/4 of the maximum heap)",
+            "  --streaming                     load only what the IDS reads, in two passes over each file;",
+            "                                  always on for files too large for the memory budget",
+            "  --performance                   time specifications and facets; text reports get a Performance section");
+
+    /** Parsed command line; {@code models} are files or directories. */
+    record Options(List<String> ids, List<Path> models, List<Path> manifests, ReportFormat format,
+                   Reporter.Detail detail, int maxListed, Path output, int threads, long memoryBytes,
+                   boolean streaming, boolean performance) {}
+
+    /**
+     * Outcome of one model; {@code error} is set if it could not be checked. Failed specifications
+     * are named {@code <IDS title>: <specification>}.
+     */
+    record Outcome(Path model, Path report, int passed, int specifications, List<String> failedSpecifications,
+                   long millis, String error) {
+
+        boolean isPass() {
+            return error == null && passed == specifications && specifications > 0;
+        }
+    }
+
+    private IdsCheck() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length == 3 && "--compile".equals(args[0])) {
+            try {
+                IdsBinary.compile(args[1], Paths.get(args[2]));
+                out.println("Compiled " + args[1] + " to " + args[2]);
+                return PASSED;
+            } catch (Exception e) {
+                err.println("Cannot compile " + args[1] + ": " + e.getMessage());
+                return ERROR;
+            }
+        }
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return ERROR;
+        }
+
+        List<byte[]> compiled = new ArrayList<>(options.ids().size());
+        try {
+            IdsFetcher fetcher = IdsFetcher.uncached();
+            for (String url : options.ids()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                IdsBinary.write(IdsMapper.read(url, fetcher), bytes);
+                compiled.add(bytes.toByteArray());
+            }
+            Files.createDirectories(options.output());
+        } catch (Exception e) {
+            err.println("Cannot read IDS: " + e.getMessage());
+            return ERROR;
+        }
+
+        List<BatchRunner.Input> inputs;
+        try {
+            inputs = inputs(options);
+        } catch (IOException | IllegalArgumentException e) {
+            err.println("Cannot list models: " + e.getMessage());
+            return ERROR;
+        }
+        if (inputs.isEmpty()) {
+            err.println("No IFC files found");
+            return ERROR;
+        }
+
+        long start = System.nanoTime();
+        BatchSummary summary = new BatchSummary();
+        try {
+            new BatchRunner(options.threads(), options.memoryBytes()).run(inputs, input -> check(options, compiled, input), o -> {
+                summary.add(o);
+                if (o.error() != null) {
+                    err.println("ERROR " + o.model() + ": " + o.error());
+                } else {
+                    out.printf("%s %s: %d/%d specifications passed in %d ms, report %s%n", o.isPass() ? "PASS" : "FAIL",
+                            o.model(), o.passed(), o.specifications(), o.millis(), o.report());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ERROR;
+        } catch (IllegalStateException e) {
+            // a check that threw rather than reporting an error: a tool failure, not a failed model
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            err.println("ERROR " + cause);
+            return ERROR;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        summary.print(out, millis, 10);
+        try {
+            summary.write(options.output().resolve(BatchSummary.FILE_NAME), millis);
+        } catch (IOException e) {
+            err.println("Cannot write " + BatchSummary.FILE_NAME + ": " + e.getMessage());
+            return ERROR;
+        }
+        if (summary.getErrors() > 0) return ERROR;
+        return summary.getFailed() > 0 ? FAILED : PASSED;
+    }
+
+    static Options parse(String[] args) {
+        List<String> ids = new ArrayList<>();
+        List<Path> models = new ArrayList<>();
+        List<Path> manifests = new ArrayList<>();
+        ReportFormat format = ReportFormat.TEXT;
+        Reporter.Detail detail = Reporter.Detail.FULL;
+        int maxListed = 0;
+        Path output = Paths.get(".");
+        int threads = Runtime.getRuntime().availableProcessors();
+        long memoryBytes = Runtime.getRuntime().maxMemory() / 4 * 3;
+        boolean streaming = false;
+        boolean performance = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--ids" -> ids.add(value(args, ++i, arg));
+                case "--format" -> format = format(value(args, ++i, arg));
+                case "--detail" -> detail = Reporter.Detail.fromString(value(args, ++i, arg));
+                case "--max-listed" -> maxListed = number(value(args, ++i, arg), arg);
+                case "--manifest" -> manifests.add(Paths.get(value(args, ++i, arg)));
+                case "--output" -> output = Paths.get(value(args, ++i, arg));
+                case "--threads" -> threads = Math.max(1, number(value(args, ++i, arg), arg));
+                case "--memory" -> memoryBytes = (long) Math.max(1, number(value(args, ++i, arg), arg)) << 20;
+                case "--streaming" -> streaming = true;
+                case "--performance" -> performance = true;
+                default -> {
+                    if (arg.startsWith("--")) throw new IllegalArgumentException("Unknown option " + arg);
+                    models.add(Paths.get(arg));
+                }
+            }
+        }
+        if (ids.isEmpty()) throw new IllegalArgumentException("No IDS given");
+        if (models.isEmpty() && manifests.isEmpty()) throw new IllegalArgumentException("No IFC file given");
+        return new Options(ids, models, manifests, format, detail, maxListed, output, threads, memoryBytes, streaming, performance);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " needs a value");
+        return args[i];
+    }
+
+    private static int number(String value, String option) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " needs a number, got " + value);
+        }
+    }
+
+    /** Like {@link ReportFormat#fromString}, but an unknown format is an error rather than TEXT. */
+    private static ReportFormat format(String value) {
+        for (ReportFormat f : ReportFormat.values()) {
+            if (f.name().equalsIgnoreCase(value.trim())) return f;
+        }
+        if ("bcfzip".equalsIgnoreCase(value.trim())) return ReportFormat.BCF;
+        throw new IllegalArgumentException("Unknown format " + value);
+    }
+
+    /**
+     * The models of the command line: files as given, {@code .ifc} files under directories and the
+     * lines of manifests, each with its report path. Models that would share a report path, e.g. two
+     * {@code model.ifc} from different directories given as files, get a numbered suffix.
+     */
+    static List<BatchRunner.Input> inputs(Options options) throws IOException {
+        List<BatchRunner.Input> inputs = new ArrayList<>();
+        for (Path model : options.models()) {
+            if (Files.isDirectory(model)) {
+                try (Stream<Path> files = Files.walk(model)) {
+                    files.filter(f -> Files.isRegularFile(f) && f.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".ifc"))
+                            .sorted()
+                            .forEach(f -> inputs.add(new BatchRunner.Input(f, reportPath(options, model, f))));
+                }
+            } else {
+                inputs.add(new BatchRunner.Input(model, reportPath(options, null, model)));
+            }
+        }
+        for (Path manifest : options.manifests()) {
+            Path base = manifest.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                Path model = base.resolve(line).normalize();
+                inputs.add(new BatchRunner.Input(model, reportPath(options, model.startsWith(base) ? base : null, model)));
+            }
+        }
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            BatchRunner.Input input = inputs.get(i);
+            Path report = input.report();
+            for (int n = 2; !used.add(report.toAbsolutePath().normalize().toString().toLowerCase(Locale.ROOT)); n++) {
+                report = numbered(input.report(), n, options.format());
+            }
+            if (report != input.report()) inputs.set(i, new BatchRunner.Input(input.model(), report));
+        }
+        return inputs;
+    }
+
+    /** {@code dir/walls.result.txt} as {@code dir/walls-2.result.txt}. */
+    private static Path numbered(Path report, int n, ReportFormat format) {
+        String name = report.getFileName().toString();
+        String suffix = "." + format.getFileName();
+        String stem = name.substring(0, name.length() - suffix.length());
+        return report.resolveSibling(stem + "-" + n + suffix);
+    }
+
+    /** {@code <output>/<path of model relative to base>/<report name>}; just the name without a base. */
+    private static Path reportPath(Options options, Path base, Path model) {
+        Path dir = options.output();
+        Path parent = base == null ? null : base.relativize(model).getParent();
+        if (parent != null) dir = dir.resolve(parent.toString());
+        return dir.resolve(reportName(model, options.format()));
+    }
+
+    private static Outcome check(Options options, List<byte[]> compiled, BatchRunner.Input input) {
+        Path model = input.model();
+        long start = System.nanoTime();
+        try {
+            List<Ids> sources = new ArrayList<>(compiled.size());
+            for (byte[] bytes : compiled) {
+                Ids ids = IdsBinary.read(bytes);
+                ids.setCollectMetrics(options.performance());
+                sources.add(ids);
+            }
+            boolean streaming = options.streaming()
+                    || Files.size(model) * BatchRunner.HEAP_PER_FILE_BYTE > options.memoryBytes();
+            IfcModelInterface ifc = streaming ? IfcFiles.load(model, sources) : IfcFiles.load(model);
+            SProject project = IfcFiles.project(model);
+            for (Ids ids : sources) ids.validate(project, ifc);
+
+            Path report = input.report();
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(report))) {
+                reporter(options, sources, model).report(out);
+            }
+            int passed = 0, total = 0;
+            List<String> failed = new ArrayList<>();
+            for (Ids ids : sources) {
+                Object title = ids.getInfo().get("title");
+                for (Specification spec : ids.getSpecifications()) {
+                    total++;
+                    if (spec.getStatus()) passed++;
+                    else failed.add((title == null ? "IDS" : title) + ": " + spec.getName());
+                }
+            }
+            return new Outcome(model, report, passed, total, failed, (System.nanoTime() - start) / 1_000_000, null);
+        } catch (Exception e) {
+            return new Outcome(model, null, 0, 0, List.of(), (System.nanoTime() - start) / 1_000_000, String.valueOf(e));
+        }
+    }
+
+    private static Reporter reporter(Options options, List<Ids> sources, Path model) {
+        Reporter reporter = switch (options.format()) {
+            case BCF -> new BcfReport(sources).setRevision(model.toAbsolutePath().normalize().toString());
+            case JSON -> new JsonReport(sources);
+            case HTML -> new HtmlReport(sources);
+            case TEXT -> new TextReport(sources).setPerformance(options.performance());
+        };
+        return reporter.setDetail(options.detail()).setMaxListedElements(options.maxListed());
+    }
+
+    /** {@code wall.ifc} with a TEXT report becomes {@code wall.result.txt}. */
+    static String reportName(Path model, ReportFormat format) {
+        String name = model.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "." + format.getFileName();
+    }
+}
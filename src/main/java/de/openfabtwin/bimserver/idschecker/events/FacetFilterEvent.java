@@ -0,0 +1,24 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Collecting the candidate elements of a specification with one applicability facet. */
+@Name("de.openfabtwin.ids.FacetFilter")
+@Label("Facet Filter")
+@Category({"IDS Model Checker", "Validation"})
+@Description("Collecting the candidate elements of a specification with its filtering applicability facet")
+public class FacetFilterEvent extends Event {
+
+    @Label("Specification")
+    public String specification;
+
+    @Label("Facet")
+    public String facet;
+
+    @Label("Elements")
+    public int elements;
+}
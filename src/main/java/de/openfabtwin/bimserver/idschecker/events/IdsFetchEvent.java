@@ -0,0 +1,23 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Fetching an IDS document from its URL, including the disk cache. */
+@Name("de.openfabtwin.ids.IdsFetch")
+@Label("IDS Fetch")
+@Category({"IDS Model Checker", "IDS"})
+@Description("Fetching an IDS document from its URL or the IDS cache")
+public class IdsFetchEvent extends Event {
+
+    @Label("URL")
+    public String url;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
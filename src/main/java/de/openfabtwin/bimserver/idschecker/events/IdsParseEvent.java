@@ -0,0 +1,25 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Turning a fetched IDS document, XML or compiled, into specifications and facets. */
+@Name("de.openfabtwin.ids.IdsParse")
+@Label("IDS Parse")
+@Category({"IDS Model Checker", "IDS"})
+@Description("Unmarshalling an IDS document into specifications and facets")
+public class IdsParseEvent extends Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Compiled")
+    @Description("Whether the document was in the compiled binary format")
+    public boolean binary;
+
+    @Label("Specifications")
+    public int specifications;
+}
@@ -0,0 +1,23 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Validating an IDS document against the IDS XML schema. */
+@Name("de.openfabtwin.ids.IdsSchemaValidation")
+@Label("IDS Schema Validation")
+@Category({"IDS Model Checker", "IDS"})
+@Description("Validating an IDS document against the IDS XML schema")
+public class IdsSchemaValidationEvent extends Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
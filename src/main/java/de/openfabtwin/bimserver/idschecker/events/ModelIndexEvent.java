@@ -0,0 +1,18 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Building the per-class index of a loaded model before parallel checks read it. */
+@Name("de.openfabtwin.ids.ModelIndex")
+@Label("Model Index")
+@Category({"IDS Model Checker", "Model"})
+@Description("Building the per-class index of the model before several IDS run in parallel")
+public class ModelIndexEvent extends Event {
+
+    @Label("Classes")
+    public int classes;
+}
@@ -0,0 +1,25 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Loading the checked revision from the server. */
+@Name("de.openfabtwin.ids.ModelLoad")
+@Label("Model Load")
+@Category({"IDS Model Checker", "Model"})
+@Description("Loading the revision to check from BIMserver")
+public class ModelLoadEvent extends Event {
+
+    @Label("Revision")
+    public long roid;
+
+    @Label("Loading")
+    @Description("FULL or PARTIAL")
+    public String loading;
+
+    @Label("Objects")
+    public long objects;
+}
@@ -0,0 +1,29 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Writing the report of a check. */
+@Name("de.openfabtwin.ids.Report")
+@Label("Report")
+@Category({"IDS Model Checker", "Report"})
+@Description("Generating the report of a check, including compression")
+public class ReportEvent extends Event {
+
+    @Label("Revision")
+    public long roid;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Compression")
+    public String compression;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
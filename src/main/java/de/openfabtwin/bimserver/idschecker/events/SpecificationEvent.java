@@ -0,0 +1,32 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Validating one specification against the model. */
+@Name("de.openfabtwin.ids.Specification")
+@Label("Specification Validation")
+@Category({"IDS Model Checker", "Validation"})
+@Description("Validating one IDS specification against the model")
+public class SpecificationEvent extends Event {
+
+    @Label("Specification")
+    public String specification;
+
+    @Label("Candidates")
+    @Description("Elements returned by the filtering applicability facet")
+    public int candidates;
+
+    @Label("Applicable")
+    public int applicable;
+
+    @Label("Failures")
+    @Description("Failed requirement checks")
+    public int failures;
+
+    @Label("Passed")
+    public boolean status;
+}
@@ -0,0 +1,11 @@
+/**
+ * Java Flight Recorder events of an IDS check: fetching, schema validation and parsing of the IDS,
+ * loading and indexing of the model, each specification and its filtering facet, and the report.
+ *
+ * <p>The events are disabled unless a recording enables them, e.g.
+ * {@code -XX:StartFlightRecording:filename=ids.jfr} (the default settings enable all custom events)
+ * or {@code jcmd <pid> JFR.start}. While disabled, {@code begin()}, {@code shouldCommit()} and
+ * {@code commit()} are no-ops the JIT removes along with the event allocation, and the event fields
+ * are only filled in after {@code shouldCommit()}.
+ */
+package de.openfabtwin.bimserver.idschecker.events;
@@ -0,0 +1,161 @@
+package de.openfabtwin.bimserver.idschecker.incremental;
+
+import org.bimserver.emf.IdEObject;
+import org.eclipse.emf.common.util.Enumerator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 64-bit content hash of an element and everything an IDS facet can look at from it: its own
+ * attributes, its property sets and quantities, its type (with the type's property sets,
+ * classifications and materials), its classification and material associations, and the chain of
+ * containers, aggregates, groups and nests it belongs to. Two revisions of an element with equal
+ * fingerprints produce equal facet results.
+ *
+ * <p>Relationships are followed on their relating side only ({@code RelatingPropertyDefinition},
+ * {@code RelatingStructure}, ...), never back out to sibling elements, so hashing an element costs
+ * its own neighbourhood rather than the model. Containers reached this way are memoised per
+ * instance. Geometry and placement are hashed by presence only.
+ *
+ * <p>Hashes are built from {@link String#hashCode()} of scalar values, so they are stable across
+ * JVMs and may be persisted. Not thread-safe; use one instance per validation run.
+ */
+public class ElementFingerprint {
+
+    /** Inverse features through which relationships reach an element or type. */
+    private static final Set<String> NEIGHBOURHOOD = Set.of(
+            "IsDefinedBy", "IsTypedBy", "HasAssociations", "ContainedInStructure",
+            "Decomposes", "Nests", "HasAssignments", "FillsVoids", "VoidsElements");
+
+    /** Forward references hashed by presence and class only. */
+    private static final Set<String> SHALLOW = Set.of(
+            "Representation", "ObjectPlacement", "RepresentationMaps", "OwnerHistory");
+
+    private static final int DEPTH = 6;
+    private static final long PRIME = 0x100000001b3L;
+
+    private final Map<Long, Long> memo = new HashMap<>();
+
+    public long of(IdEObject element) {
+        return finish(hashObject(element, DEPTH));
+    }
+
+    private long hashObject(IdEObject obj, int depth) {
+        EClass eClass = obj.eClass();
+        long h = mix(0xcbf29ce484222325L, eClass.getName().hashCode());
+        List<EAttribute> attributes = eClass.getEAllAttributes();
+        for (int i = 0; i < attributes.size(); i++) {
+            EAttribute attribute = attributes.get(i);
+            if (attribute.isDerived()) continue;
+            h = mix(h, hashValue(obj.eGet(attribute)));
+        }
+        List<EReference> references = eClass.getEAllReferences();
+        for (int i = 0; i < references.size(); i++) {
+            EReference reference = references.get(i);
+            String name = reference.getName();
+            if (NEIGHBOURHOOD.contains(name)) {
+                for (Object rel : values(obj, reference)) {
+                    if (rel instanceof IdEObject r) h = mix(h, hashRelationship(r, depth));
+                }
+            } else if (!isInverse(reference)) {
+                boolean shallow = SHALLOW.contains(name);
+                for (Object target : values(obj, reference)) {
+                    h = mix(h, hashTarget(target, shallow ? 0 : depth - 1));
+                }
+            }
+        }
+        return h;
+    }
+
+    /** A relationship contributes its class and its relating side, e.g. the property set or container. */
+    private long hashRelationship(IdEObject rel, int depth) {
+        EClass eClass = rel.eClass();
+        long h = mix(0x84222325cbf29ce4L, eClass.getName().hashCode());
+        if (depth <= 0) return h;
+        List<EReference> references = eClass.getEAllReferences();
+        for (int i = 0; i < references.size(); i++) {
+            EReference reference = references.get(i);
+            if (!reference.getName().startsWith("Relating")) continue;
+            for (Object target : values(rel, reference)) {
+                if (target instanceof IdEObject t) h = mix(h, memoised(t, depth - 1));
+            }
+        }
+        return h;
+    }
+
+    private long hashTarget(Object target, int depth) {
+        if (!(target instanceof IdEObject t)) return hashValue(target);
+        // Other products are referenced by identity; their content is their own fingerprint's business.
+        String guid = globalId(t);
+        if (guid != null && isObject(t.eClass())) return guid.hashCode();
+        if (depth <= 0) return t.eClass().getName().hashCode();
+        return hashObject(t, depth);
+    }
+
+    private long memoised(IdEObject obj, int depth) {
+        long key = (obj.getOid() << 4) | depth;
+        Long cached = memo.get(key);
+        if (cached != null) return cached;
+        long h = hashObject(obj, depth);
+        memo.put(key, h);
+        return h;
+    }
+
+    private long hashValue(Object v) {
+        if (v == null) return 0;
+        if (v instanceof IdEObject e) {
+            // Value wrappers (IfcLabel, IfcBoolean, ...) hash like their wrapped value.
+            EStructuralFeature wrapped = e.eClass().getEStructuralFeature("wrappedValue");
+            return wrapped != null ? hashValue(e.eGet(wrapped)) : e.eClass().getName().hashCode();
+        }
+        if (v instanceof List<?> list) {
+            long h = list.size();
+            for (Object o : list) h = mix(h, hashValue(o));
+            return h;
+        }
+        if (v instanceof Enumerator e) return e.getLiteral().hashCode();
+        return v.toString().hashCode();
+    }
+
+    private static Iterable<?> values(IdEObject obj, EStructuralFeature feature) {
+        Object v = obj.eGet(feature);
+        if (v == null) return List.of();
+        if (v instanceof List<?> list) return list;
+        return List.of(v);
+    }
+
+    private static boolean isInverse(EReference reference) {
+        return reference.getEAnnotation("inverse") != null;
+    }
+
+    private static boolean isObject(EClass eClass) {
+        if ("IfcObject".equals(eClass.getName())) return true;
+        for (EClass s : eClass.getEAllSuperTypes()) if ("IfcObject".equals(s.getName())) return true;
+        return false;
+    }
+
+    private static String globalId(IdEObject obj) {
+        EStructuralFeature f = obj.eClass().getEStructuralFeature("GlobalId");
+        Object v = f == null ? null : obj.eGet(f);
+        return v == null ? null : v.toString();
+    }
+
+    private static long mix(long h, long v) {
+        return (h ^ v) * PRIME;
+    }
+
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,149 @@
+package de.openfabtwin.bimserver.idschecker.incremental;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.SpecificationCache;
+import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.getString;
+
+/**
+ * Validates revisions of a project incrementally. The requirement results of every element are kept
+ * per project, keyed by GlobalId, together with the element's {@link ElementFingerprint}. On the next
+ * revision only added elements and elements whose fingerprint changed (their own data or a property
+ * set, type, classification, material or container they depend on) are evaluated; the results of
+ * all others are replayed. The specifications end up fully populated either way, so any reporter
+ * renders the complete merged state.
+ *
+ * <p>Kept results are only reused for the same IDS document (by {@link Ids#getChecksum()}); elements
+ * without a GlobalId are always evaluated.
+ */
+public class IncrementalValidator {
+
+    public record Stats(int added, int changed, int unchanged, int removed, int evaluated, int replayed) {}
+
+    private static final class ElementState {
+        final long oid;
+        final long fingerprint;
+        final Result[][] results;   // per specification; null = not evaluated yet
+
+        ElementState(long oid, long fingerprint, Result[][] results) {
+            this.oid = oid;
+            this.fingerprint = fingerprint;
+            this.results = results;
+        }
+    }
+
+    private record ProjectState(String idsChecksum, Map<String, ElementState> elements) {}
+
+    /** A project checked against the IDS document at position {@code source} of its configured list. */
+    private record Key(long poid, int source) {}
+
+    private final Map<Key, ProjectState> projects = new ConcurrentHashMap<>();
+
+    public Stats validate(long poid, Ids ids, SProject project, IfcModelInterface model) {
+        return validate(poid, 0, ids, project, model);
+    }
+
+    /**
+     * Validate against the {@code source}-th of several IDS documents checked on the same project;
+     * each keeps its own results. Different sources may be validated concurrently.
+     */
+    public Stats validate(long poid, int source, Ids ids, SProject project, IfcModelInterface model) {
+        Key key = new Key(poid, source);
+        List<Specification> specifications = ids.getSpecifications();
+        ProjectState previous = projects.get(key);
+        Map<String, ElementState> before = previous != null && ids.getChecksum() != null
+                && ids.getChecksum().equals(previous.idsChecksum()) ? previous.elements() : Map.of();
+
+        Run run = new Run(before, specifications.size());
+        for (int s = 0; s < specifications.size(); s++) {
+            Specification spec = specifications.get(s);
+            spec.reset();
+            spec.validate(project, model, run.cache(s));
+        }
+
+        if (ids.getChecksum() != null) projects.put(key, new ProjectState(ids.getChecksum(), run.after));
+        else projects.remove(key);
+        return run.stats();
+    }
+
+    /** Drop the kept results of a project, e.g. after it was deleted. */
+    public void forget(long poid) {
+        projects.keySet().removeIf(key -> key.poid() == poid);
+    }
+
+    /** Drop the kept results of sources at position {@code sources} and beyond, e.g. after the list got shorter. */
+    public void forget(long poid, int sources) {
+        projects.keySet().removeIf(key -> key.poid() == poid && key.source() >= sources);
+    }
+
+    private static final class Run {
+        final Map<String, ElementState> before;
+        final Map<String, ElementState> after = new HashMap<>();
+        final int specifications;
+        final ElementFingerprint fingerprint = new ElementFingerprint();
+        int added, changed, unchanged, evaluated, replayed;
+
+        Run(Map<String, ElementState> before, int specifications) {
+            this.before = before;
+            this.specifications = specifications;
+        }
+
+        SpecificationCache cache(int s) {
+            return new SpecificationCache() {
+                @Override
+                public Result[] lookup(IdEObject element) {
+                    ElementState state = state(element);
+                    Result[] results = state == null ? null : state.results[s];
+                    if (results != null) replayed++;
+                    else evaluated++;
+                    return results;
+                }
+
+                @Override
+                public void store(IdEObject element, Result[] results) {
+                    ElementState state = state(element);
+                    if (state != null) state.results[s] = results;
+                }
+            };
+        }
+
+        /** This run's state of the element, created on first sight; null if it cannot be tracked. */
+        private ElementState state(IdEObject element) {
+            String guid = getString(element, "GlobalId");
+            if (guid == null) return null;
+            ElementState state = after.get(guid);
+            if (state != null) return state.oid == element.getOid() ? state : null;   // duplicate GlobalId
+
+            long fp = fingerprint.of(element);
+            ElementState old = before.get(guid);
+            Result[][] results;
+            if (old != null && old.fingerprint == fp && old.results.length == specifications) {
+                results = old.results.clone();
+                unchanged++;
+            } else {
+                results = new Result[specifications][];
+                if (old == null) added++;
+                else changed++;
+            }
+            state = new ElementState(element.getOid(), fp, results);
+            after.put(guid, state);
+            return state;
+        }
+
+        Stats stats() {
+            int removed = 0;
+            for (String guid : before.keySet()) if (!after.containsKey(guid)) removed++;
+            return new Stats(added, changed, unchanged, removed, evaluated, replayed);
+        }
+    }
+}
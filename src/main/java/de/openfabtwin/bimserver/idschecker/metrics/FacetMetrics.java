@@ -0,0 +1,37 @@
+package de.openfabtwin.bimserver.idschecker.metrics;
+
+/**
+ * Counters of one facet of a specification in one validation: how often {@code matches} ran, how long
+ * it took, and how many elements passed or failed. Results replayed from the incremental cache count
+ * as passes and failures but not as calls.
+ */
+public final class FacetMetrics {
+
+    private final String facet;
+    private long calls, nanos, passes, failures;
+
+    public FacetMetrics(String facet) {
+        this.facet = facet;
+    }
+
+    /** One {@code matches} call that took {@code nanos}. */
+    public void time(long nanos) {
+        this.calls++;
+        this.nanos += nanos;
+    }
+
+    public void pass() {
+        this.passes++;
+    }
+
+    public void fail() {
+        this.failures++;
+    }
+
+    /** The facet type, e.g. {@code Property}. */
+    public String getFacet() { return facet; }
+    public long getCalls() { return calls; }
+    public long getNanos() { return nanos; }
+    public long getPasses() { return passes; }
+    public long getFailures() { return failures; }
+}
@@ -0,0 +1,66 @@
+package de.openfabtwin.bimserver.idschecker.metrics;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-rule totals over all checks, for spotting expensive specifications. A rule is a specification
+ * of an IDS document, identified by the IDS title (or file name) and the specification name. Safe
+ * for concurrent checks.
+ */
+public final class MetricsRegistry {
+
+    /** Totals of one rule; a snapshot when returned by {@link #getRules()}. */
+    public record RuleStats(String ids, String specification, long checks, long totalNanos, long maxNanos,
+                            long lastNanos, long matchesCalls, long failures, long cacheHits, long cacheLookups) {
+
+        public long meanNanos() {
+            return checks == 0 ? 0 : totalNanos / checks;
+        }
+
+        RuleStats add(SpecificationMetrics m) {
+            long failed = 0;
+            for (FacetMetrics f : m.getRequirements()) failed += f.getFailures();
+            return new RuleStats(ids, specification, checks + 1, totalNanos + m.getNanos(), Math.max(maxNanos, m.getNanos()),
+                    m.getNanos(), matchesCalls + m.getMatchesCalls(), failures + failed,
+                    cacheHits + m.getCacheHits(), cacheLookups + m.getCacheHits() + m.getCacheMisses());
+        }
+    }
+
+    private final Map<String, RuleStats> rules = new ConcurrentHashMap<>();
+
+    /** Add the metrics of the last validation of every specification of {@code ids} that collected some. */
+    public void record(Ids ids) {
+        String source = source(ids);
+        for (Specification spec : ids.getSpecifications()) {
+            SpecificationMetrics m = spec.getMetrics();
+            if (m == null) continue;
+            rules.merge(source + "\u0000" + spec.getName(),
+                    new RuleStats(source, spec.getName(), 0, 0, 0, 0, 0, 0, 0, 0).add(m),
+                    (old, fresh) -> old.add(m));
+        }
+    }
+
+    /** All rules, the most expensive in total first. */
+    public List<RuleStats> getRules() {
+        List<RuleStats> all = new ArrayList<>(rules.values());
+        all.sort(Comparator.comparingLong(RuleStats::totalNanos).reversed());
+        return all;
+    }
+
+    public void clear() {
+        rules.clear();
+    }
+
+    private static String source(Ids ids) {
+        Object title = ids.getInfo().get("title");
+        if (title == null) title = ids.getInfo().get("filename");
+        return title == null ? "IDS" : title.toString();
+    }
+}
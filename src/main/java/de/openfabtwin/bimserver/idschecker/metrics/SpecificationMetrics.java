@@ -0,0 +1,79 @@
+package de.openfabtwin.bimserver.idschecker.metrics;
+
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timings and counters of one specification in one validation, with a {@link FacetMetrics} for each
+ * applicability and requirement facet in IDS order.
+ */
+public final class SpecificationMetrics {
+
+    private final String specification;
+    private final List<FacetMetrics> applicability;
+    private final List<FacetMetrics> requirements;
+    private long nanos, filterNanos;
+    private int candidates, applicable;
+    private long cacheHits, cacheMisses;
+
+    public SpecificationMetrics(String specification, List<Facet> applicability, List<Facet> requirements) {
+        this.specification = specification;
+        this.applicability = metrics(applicability);
+        this.requirements = metrics(requirements);
+    }
+
+    private static List<FacetMetrics> metrics(List<Facet> facets) {
+        List<FacetMetrics> metrics = new ArrayList<>(facets.size());
+        for (Facet f : facets) metrics.add(new FacetMetrics(f.getClass().getSimpleName()));
+        return Collections.unmodifiableList(metrics);
+    }
+
+    public void finish(long nanos, int candidates, int applicable) {
+        this.nanos = nanos;
+        this.candidates = candidates;
+        this.applicable = applicable;
+    }
+
+    public void filtered(long nanos) {
+        this.filterNanos = nanos;
+    }
+
+    public void cacheHit() {
+        this.cacheHits++;
+    }
+
+    public void cacheMiss() {
+        this.cacheMisses++;
+    }
+
+    public String getSpecification() { return specification; }
+    public FacetMetrics getApplicability(int index) { return applicability.get(index); }
+    public FacetMetrics getRequirement(int index) { return requirements.get(index); }
+    public List<FacetMetrics> getApplicability() { return applicability; }
+    public List<FacetMetrics> getRequirements() { return requirements; }
+    /** Wall time of the whole validation, filtering included. */
+    public long getNanos() { return nanos; }
+    /** Wall time of collecting the candidates with the filtering applicability facet. */
+    public long getFilterNanos() { return filterNanos; }
+    public int getCandidates() { return candidates; }
+    public int getApplicable() { return applicable; }
+    public long getCacheHits() { return cacheHits; }
+    public long getCacheMisses() { return cacheMisses; }
+
+    /** Share of candidates whose results came from the incremental cache; {@code NaN} without a cache. */
+    public double getCacheHitRate() {
+        long lookups = cacheHits + cacheMisses;
+        return lookups == 0 ? Double.NaN : (double) cacheHits / lookups;
+    }
+
+    /** {@code matches} calls of all facets. */
+    public long getMatchesCalls() {
+        long calls = 0;
+        for (FacetMetrics f : applicability) calls += f.getCalls();
+        for (FacetMetrics f : requirements) calls += f.getCalls();
+        return calls;
+    }
+}
@@ -1,5 +1,6 @@
 package de.openfabtwin.bimserver.idschecker.model;
 
+import de.openfabtwin.bimserver.idschecker.spill.ResultBudget;
 import org.bimserver.emf.IfcModelInterface;
 import org.bimserver.interfaces.objects.SProject;
 
@@ -8,10 +9,28 @@ import java.util.*;
 public class Ids {
     private final Map<String, Object> info = new LinkedHashMap<>();
     private final List<Specification> specifications = new ArrayList<>();
+    private String checksum;
 
     public Map<String, Object> getInfo() { return info; }
     public List<Specification> getSpecifications() { return specifications; }
 
+    /** SHA-256 of the IDS document this was read from, or {@code null} if built in code. */
+    public String getChecksum() { return checksum; }
+    public void setChecksum(String checksum) { this.checksum = checksum; }
+
+    /**
+     * Bound the heap the results of the next validations take; what does not fit is spilled to
+     * disk and read back by the reporters. The budget must stay open until the report is written.
+     */
+    public void setResultBudget(ResultBudget budget) {
+        for (Specification spec : specifications) spec.setResultBudget(budget);
+    }
+
+    /** Collect {@link de.openfabtwin.bimserver.idschecker.metrics.SpecificationMetrics} in the next validations. */
+    public void setCollectMetrics(boolean collectMetrics) {
+        for (Specification spec : specifications) spec.setCollectMetrics(collectMetrics);
+    }
+
     public void validate(SProject project, IfcModelInterface model) {
 
         for (Specification spec : specifications) {
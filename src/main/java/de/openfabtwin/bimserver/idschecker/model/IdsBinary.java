@@ -0,0 +1,352 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.facet.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled form of an {@link Ids}: the specifications, facets and {@link Value} matchers as
+ * {@link IdsMapper} produces them, written to a compact binary file that loads without XML parsing,
+ * schema validation or JAXB. Meant for short-lived jobs that read the same IDS on every start.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ *   magic    "IDSB"
+ *   version  u16
+ *   flags    u16      bit 0: source checksum present
+ *   source   32 bytes SHA-256 of the IDS document the file was compiled from
+ *   length   u32      body length
+ *   crc      u32      CRC-32 of the body
+ *   body     info, then specifications with their facets
+ * </pre>
+ * The source checksum is restored as {@link Ids#getChecksum()}, so a loaded file is traceable to its
+ * IDS. Files of another {@link #VERSION} are rejected; recompile them from the IDS.
+ */
+public final class IdsBinary {
+
+    public static final int VERSION = 1;
+    /** Conventional file extension of compiled IDS files. */
+    public static final String EXTENSION = ".idsb";
+
+    private static final byte[] MAGIC = {'I', 'D', 'S', 'B'};
+    private static final int HEADER = 4 + 2 + 2 + 32 + 4 + 4;
+    private static final int FLAG_CHECKSUM = 1;
+
+    private static final byte ENTITY = 1, PART_OF = 2, CLASSIFICATION = 3, ATTRIBUTE = 4, PROPERTY = 5, MATERIAL = 6;
+    private static final byte NO_VALUE = 0, SIMPLE = 1, RESTRICTION = 2;
+    private static final byte INFO_NULL = 0, INFO_STRING = 1, INFO_DATE = 2;
+
+    private IdsBinary() {}
+
+    /** Whether {@code content} starts like a compiled IDS file. */
+    public static boolean isBinary(byte[] content) {
+        if (content.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (content[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    // ---- writing ----
+
+    /** Read, validate and map the IDS at {@code url} once and write its compiled form to {@code target}. */
+    public static void compile(String url, Path target) throws Exception {
+        write(IdsMapper.read(url), target);
+    }
+
+    /** Write {@code ids} to {@code file}, replacing it atomically. */
+    public static void write(Ids ids, Path file) throws IOException {
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "ids-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                write(ids, out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static void write(Ids ids, OutputStream target) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bytes);
+        writeInfo(body, ids.getInfo());
+        body.writeInt(ids.getSpecifications().size());
+        for (Specification spec : ids.getSpecifications()) writeSpecification(body, spec);
+        body.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        DataOutputStream out = new DataOutputStream(target);
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(ids.getChecksum() == null ? 0 : FLAG_CHECKSUM);
+        out.write(sourceChecksum(ids));
+        out.writeInt(bytes.size());
+        out.writeInt((int) crc.getValue());
+        bytes.writeTo(out);
+        out.flush();
+    }
+
+    private static byte[] sourceChecksum(Ids ids) {
+        if (ids.getChecksum() == null) return new byte[32];
+        byte[] sha256 = HexFormat.of().parseHex(ids.getChecksum());
+        if (sha256.length != 32) throw new IllegalArgumentException("Not a SHA-256 checksum: " + ids.getChecksum());
+        return sha256;
+    }
+
+    private static void writeInfo(DataOutputStream out, Map<String, Object> info) throws IOException {
+        out.writeInt(info.size());
+        for (Map.Entry<String, Object> e : info.entrySet()) {
+            writeString(out, e.getKey());
+            Object v = e.getValue();
+            if (v == null) {
+                out.writeByte(INFO_NULL);
+            } else if (v instanceof LocalDate date) {
+                out.writeByte(INFO_DATE);
+                writeString(out, date.toString());
+            } else {
+                out.writeByte(INFO_STRING);
+                writeString(out, v.toString());
+            }
+        }
+    }
+
+    private static void writeSpecification(DataOutputStream out, Specification spec) throws IOException {
+        writeString(out, spec.getName());
+        out.writeInt(spec.getIfcVersion().size());
+        for (Specification.IfcVersion v : spec.getIfcVersion()) out.writeByte(v == null ? -1 : v.ordinal());
+        writeString(out, spec.getIdentifier());
+        writeString(out, spec.getDescription());
+        writeString(out, spec.getInstructions());
+        writeString(out, spec.getMinOccurs());
+        writeString(out, spec.getMaxOccurs());
+        writeFacets(out, spec.getApplicability());
+        writeFacets(out, spec.getRequirements());
+    }
+
+    private static void writeFacets(DataOutputStream out, List<Facet> facets) throws IOException {
+        out.writeInt(facets.size());
+        for (Facet facet : facets) {
+            if (facet instanceof Entity f) {
+                out.writeByte(ENTITY);
+                writeValue(out, f.getName());
+                writeValue(out, f.getPredefinedType());
+                writeString(out, f.getInstructions());
+                continue;   // entities have no cardinality
+            } else if (facet instanceof PartOf f) {
+                out.writeByte(PART_OF);
+                writeValue(out, f.getName());
+                writeValue(out, f.getPredefinedType());
+                writeString(out, f.getRelation());
+                writeString(out, f.getInstructions());
+            } else if (facet instanceof Classification f) {
+                out.writeByte(CLASSIFICATION);
+                writeValue(out, f.getSystem());
+                writeValue(out, f.getValue());
+                writeString(out, f.getUri());
+                writeString(out, f.getInstructions());
+            } else if (facet instanceof Attribute f) {
+                out.writeByte(ATTRIBUTE);
+                writeValue(out, f.getName());
+                writeValue(out, f.getValue());
+                writeString(out, f.getInstructions());
+            } else if (facet instanceof Property f) {
+                out.writeByte(PROPERTY);
+                writeValue(out, f.getPropertySet());
+                writeValue(out, f.getBaseName());
+                writeValue(out, f.getValue());
+                writeString(out, f.getDataType());
+                writeString(out, f.getUri());
+                writeString(out, f.getInstructions());
+            } else if (facet instanceof Material f) {
+                out.writeByte(MATERIAL);
+                writeValue(out, f.getValue());
+                writeString(out, f.getUri());
+                writeString(out, f.getInstructions());
+            } else {
+                throw new IllegalArgumentException("Cannot compile facet " + facet.getClass().getName());
+            }
+            out.writeByte(facet.getCardinality() == null ? -1 : facet.getCardinality().ordinal());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Value value) throws IOException {
+        if (value == null) {
+            out.writeByte(NO_VALUE);
+        } else if (value instanceof SimpleValue v) {
+            out.writeByte(SIMPLE);
+            writeString(out, v.value());
+            out.writeByte(v.type().ordinal());   // the type is kept, so loading skips the number regexes
+        } else if (value instanceof RestrictionValue v) {
+            out.writeByte(RESTRICTION);
+            out.writeByte(v.base() == null ? -1 : v.base().ordinal());
+            out.writeInt(v.enums() == null ? -1 : v.enums().size());
+            if (v.enums() != null) for (String e : v.enums()) writeString(out, e);
+            writeString(out, v.pattern());
+            writeString(out, v.minInclusive());
+            writeString(out, v.maxInclusive());
+            writeString(out, v.minExclusive());
+            writeString(out, v.maxExclusive());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    // ---- reading ----
+
+    /** Load a compiled file through a read-only memory mapping. */
+    public static Ids read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Ids read(byte[] content) throws IOException {
+        return read(ByteBuffer.wrap(content));
+    }
+
+    public static Ids read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.remaining() < HEADER) throw new IOException("Not a compiled IDS file: too short");
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!isBinary(magic)) throw new IOException("Not a compiled IDS file");
+            int version = buffer.getShort() & 0xFFFF;
+            if (version != VERSION) {
+                throw new IOException("Compiled IDS file has version " + version + ", expected " + VERSION
+                        + "; compile it again from the IDS");
+            }
+            int flags = buffer.getShort() & 0xFFFF;
+            byte[] source = new byte[32];
+            buffer.get(source);
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) throw new IOException("Compiled IDS file is truncated");
+
+            ByteBuffer body = buffer.slice(buffer.position(), length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) throw new IOException("Compiled IDS file is corrupt (CRC mismatch)");
+
+            Ids ids = new Ids();
+            if ((flags & FLAG_CHECKSUM) != 0) ids.setChecksum(HexFormat.of().formatHex(source));
+            readInfo(body, ids.getInfo());
+            int specifications = body.getInt();
+            for (int i = 0; i < specifications; i++) ids.getSpecifications().add(readSpecification(body));
+            return ids;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Compiled IDS file is malformed", e);
+        }
+    }
+
+    private static void readInfo(ByteBuffer in, Map<String, Object> info) {
+        int entries = in.getInt();
+        for (int i = 0; i < entries; i++) {
+            String key = readString(in);
+            byte tag = in.get();
+            info.put(key, switch (tag) {
+                case INFO_NULL -> null;
+                case INFO_DATE -> LocalDate.parse(readString(in));
+                case INFO_STRING -> readString(in);
+                default -> throw new IllegalArgumentException("Unknown info tag " + tag);
+            });
+        }
+    }
+
+    private static Specification readSpecification(ByteBuffer in) {
+        Specification spec = new Specification();
+        spec.setName(readString(in));
+        int versions = in.getInt();
+        for (int i = 0; i < versions; i++) spec.getIfcVersion().add(constant(Specification.IfcVersion.values(), in.get()));
+        spec.setIdentifier(readString(in));
+        spec.setDescription(readString(in));
+        spec.setInstructions(readString(in));
+        spec.setMinOccurs(readString(in));
+        spec.setMaxOccurs(readString(in));
+        readFacets(in, spec.getApplicability());
+        readFacets(in, spec.getRequirements());
+        return spec;
+    }
+
+    private static void readFacets(ByteBuffer in, List<Facet> facets) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            byte tag = in.get();
+            if (tag == ENTITY) {
+                facets.add(new Entity(readValue(in), readValue(in), readString(in)));
+                continue;
+            }
+            // Arguments are evaluated left to right, which is the order they were written in.
+            Facet facet = switch (tag) {
+                case PART_OF -> new PartOf(readValue(in), readValue(in), readString(in), null, readString(in));
+                case CLASSIFICATION -> new Classification(readValue(in), readValue(in), readString(in), null, readString(in));
+                case ATTRIBUTE -> new Attribute(readValue(in), readValue(in), null, readString(in));
+                case PROPERTY -> new Property(readValue(in), readValue(in), readValue(in), readString(in), readString(in), null, readString(in));
+                case MATERIAL -> new Material(readValue(in), readString(in), null, readString(in));
+                default -> throw new IllegalArgumentException("Unknown facet tag " + tag);
+            };
+            facet.setCardinality(constant(Facet.Cardinality.values(), in.get()));
+            facets.add(facet);
+        }
+    }
+
+    private static Value readValue(ByteBuffer in) {
+        byte tag = in.get();
+        return switch (tag) {
+            case NO_VALUE -> null;
+            case SIMPLE -> new SimpleValue(readString(in), constant(SimpleValue.Type.values(), in.get()));
+            case RESTRICTION -> {
+                RestrictionValue.XsdBase base = constant(RestrictionValue.XsdBase.values(), in.get());
+                int size = in.getInt();
+                List<String> enums = null;
+                if (size >= 0) {
+                    enums = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) enums.add(readString(in));
+                }
+                yield new RestrictionValue(base, enums, readString(in),
+                        readString(in), readString(in), readString(in), readString(in));
+            }
+            default -> throw new IllegalArgumentException("Unknown value tag " + tag);
+        };
+    }
+
+    private static <E extends Enum<E>> E constant(E[] values, byte ordinal) {
+        if (ordinal == -1) return null;
+        if (ordinal < 0 || ordinal >= values.length) throw new IllegalArgumentException("Unknown constant " + ordinal);
+        return values[ordinal];
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,261 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fetches IDS documents for {@link IdsMapper}.
+ *
+ * <p>{@code file:} URLs, plain paths and {@code classpath:} resources are read directly. HTTP(S)
+ * documents go through one shared {@link HttpClient} and, when a cache directory is set, are
+ * mirrored on disk together with their {@code ETag} and {@code Last-Modified}. A cached copy younger
+ * than the stale-while-revalidate window is returned at once and revalidated in the background;
+ * older copies are revalidated with a conditional request before use. If the host is slow or down,
+ * the cached copy is used anyway, so an unreachable IDS host only fails checks that have never seen
+ * the document.
+ */
+public class IdsFetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdsFetcher.class);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.ALWAYS)
+            .build();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long RETRY_DELAY_MS = 500;
+    /** Background revalidations block on HTTP, so they get their own threads rather than the common pool. */
+    private static final ExecutorService REVALIDATION = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "ids-revalidate");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A fetched document and the file name it was published under. */
+    public record Fetched(String fileName, byte[] content) {}
+
+    private final Path cacheDirectory;
+    private final Duration staleWhileRevalidate;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param cacheDirectory       where fetched documents are mirrored; {@code null} disables the cache
+     * @param staleWhileRevalidate how old a cached copy may be to be used without waiting for the host
+     */
+    public IdsFetcher(Path cacheDirectory, Duration staleWhileRevalidate) {
+        this.cacheDirectory = cacheDirectory;
+        this.staleWhileRevalidate = staleWhileRevalidate == null ? Duration.ZERO : staleWhileRevalidate;
+    }
+
+    /** A fetcher without disk cache: every HTTP fetch downloads the document. */
+    public static IdsFetcher uncached() {
+        return new IdsFetcher(null, Duration.ZERO);
+    }
+
+    public Fetched fetch(String url) throws IOException, InterruptedException {
+        url = url.trim();
+        if (url.startsWith("classpath:")) return fromClasspath(url.substring("classpath:".length()));
+        URI uri = toUri(url);
+        if (uri == null || "file".equalsIgnoreCase(uri.getScheme())) {
+            Path path = uri == null ? Paths.get(url) : Paths.get(uri);
+            return checked(new Fetched(path.getFileName().toString(), Files.readAllBytes(path)), url);
+        }
+        uri = URI.create(normalizeToDirectDownload(url));
+        return cacheDirectory == null ? download(uri, null).fetched() : cached(uri);
+    }
+
+    /** A URI for {@code url}, or {@code null} if it is a plain file path (including {@code C:\...}). */
+    private static URI toUri(String url) {
+        int colon = url.indexOf(':');
+        if (colon <= 1) return null;
+        try {
+            return new URI(url);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Fetched fromClasspath(String resource) throws IOException {
+        String name = resource.replaceFirst("^/+", "");
+        try (InputStream in = IdsFetcher.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) throw new IOException("IDS not found on the classpath: " + name);
+            return checked(new Fetched(Paths.get(name).getFileName().toString(), in.readAllBytes()), resource);
+        }
+    }
+
+    // ---- HTTP with disk cache ----
+
+    private record Entry(Path content, Path meta) {}
+
+    private record Response(int status, Fetched fetched, String etag, String lastModified) {}
+
+    private Fetched cached(URI uri) throws IOException, InterruptedException {
+        Files.createDirectories(cacheDirectory);
+        String key = IdsMapper.sha256(uri.toString().getBytes(StandardCharsets.UTF_8));
+        Entry entry = new Entry(cacheDirectory.resolve(key + ".ids"), cacheDirectory.resolve(key + ".properties"));
+        Properties meta = readMeta(entry);
+        if (meta == null) return revalidate(uri, entry, null);
+
+        long age = System.currentTimeMillis() - Long.parseLong(meta.getProperty("fetched", "0"));
+        if (age < staleWhileRevalidate.toMillis()) {
+            if (revalidating.add(key)) {
+                REVALIDATION.execute(() -> {
+                    try {
+                        revalidate(uri, entry, readMeta(entry));
+                    } catch (Exception e) {
+                        LOGGER.warn("Background revalidation of {} failed", uri, e);
+                    } finally {
+                        revalidating.remove(key);
+                    }
+                });
+            }
+            return load(entry, meta);
+        }
+        try {
+            return revalidate(uri, entry, meta);
+        } catch (IOException e) {
+            LOGGER.warn("Could not revalidate {}, using the copy cached {} s ago", uri, age / 1000, e);
+            return load(entry, meta);
+        }
+    }
+
+    /** Conditional GET; stores a changed document and refreshes the timestamp of an unchanged one. */
+    private Fetched revalidate(URI uri, Entry entry, Properties meta) throws IOException, InterruptedException {
+        Response response = download(uri, meta);
+        if (response.status() == 304 && meta != null) {
+            meta.setProperty("fetched", Long.toString(System.currentTimeMillis()));
+            writeMeta(entry, meta);
+            LOGGER.info("IDS file {} unchanged", uri);
+            return load(entry, meta);
+        }
+        Fetched fetched = response.fetched();
+        if (fetched == null) throw new IOException("Unexpected HTTP 304 for an uncached request to " + uri);
+        Path tmp = Files.createTempFile(cacheDirectory, "fetch-", ".tmp");
+        Files.write(tmp, fetched.content());
+        Files.move(tmp, entry.content(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Properties updated = new Properties();
+        updated.setProperty("url", uri.toString());
+        updated.setProperty("fileName", fetched.fileName());
+        updated.setProperty("fetched", Long.toString(System.currentTimeMillis()));
+        if (response.etag() != null) updated.setProperty("etag", response.etag());
+        if (response.lastModified() != null) updated.setProperty("lastModified", response.lastModified());
+        writeMeta(entry, updated);
+        return fetched;
+    }
+
+    private Response download(URI uri, Properties meta) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/octet-stream, text/xml, application/xml, */*")
+                .GET();
+        if (meta != null) {
+            String etag = meta.getProperty("etag");
+            String lastModified = meta.getProperty("lastModified");
+            if (etag != null) request.header("If-None-Match", etag);
+            if (lastModified != null) request.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException first) {
+            // One retry for connection resets and the like; GET is idempotent.
+            LOGGER.info("Fetching {} failed ({}), retrying", uri, first.toString());
+            Thread.sleep(RETRY_DELAY_MS);
+            response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (response.statusCode() == 304) return new Response(304, null, etag, lastModified);
+        if (response.statusCode() != 200 || response.body() == null) {
+            throw new IOException("Failed to fetch IDS: HTTP " + response.statusCode() + " from " + uri);
+        }
+
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        if (contentType.contains("text/html")) {
+            // e.g. a login or captive-portal page; an I/O failure, so a cached copy is still used
+            throw new IOException(
+                    "URL returned an HTML page instead of an IDS file. " +
+                            "Make sure the URL is a direct download link: " + uri);
+        }
+
+        String path = uri.getPath();
+        String fileName = (path != null && !path.isBlank() && !path.endsWith("/"))
+                ? Paths.get(path).getFileName().toString()
+                : "unknown.ids";
+        String disposition = response.headers().firstValue("Content-Disposition").orElse(null);
+        if (disposition != null) {
+            for (String part : disposition.split(";")) {
+                part = part.trim();
+                if (part.toLowerCase().startsWith("filename=")) {
+                    String resolved = part.substring("filename=".length()).replace("\"", "").trim();
+                    if (!resolved.isBlank()) fileName = resolved;
+                }
+            }
+        }
+
+        LOGGER.info("Fetched IDS file: {} ({} bytes)", fileName, response.body().length);
+        return new Response(200, checked(new Fetched(fileName, response.body()), uri.toString()), etag, lastModified);
+    }
+
+    private static Fetched checked(Fetched fetched, String source) {
+        String name = fetched.fileName().toLowerCase();
+        if (!name.endsWith(".ids") && !name.endsWith(IdsBinary.EXTENSION)) {
+            throw new RuntimeException(
+                    "Downloaded file \"" + fetched.fileName() + "\" is not an .ids file. " +
+                            "Check that the URL points to a valid IDS file: " + source);
+        }
+        return fetched;
+    }
+
+    private static Fetched load(Entry entry, Properties meta) throws IOException {
+        return new Fetched(meta.getProperty("fileName", "unknown.ids"), Files.readAllBytes(entry.content()));
+    }
+
+    private static Properties readMeta(Entry entry) {
+        if (!Files.isRegularFile(entry.meta()) || !Files.isRegularFile(entry.content())) return null;
+        Properties meta = new Properties();
+        try (Reader in = Files.newBufferedReader(entry.meta(), StandardCharsets.UTF_8)) {
+            meta.load(in);
+            return meta;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;   // unreadable entry: fetch again
+        }
+    }
+
+    private static void writeMeta(Entry entry, Properties meta) throws IOException {
+        Path tmp = Files.createTempFile(entry.meta().getParent(), "meta-", ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            meta.store(out, null);
+        }
+        Files.move(tmp, entry.meta(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String normalizeToDirectDownload(String url) {
+        if (url.contains("github.com") && url.contains("/blob/")) {
+            return url.replace("github.com", "raw.githubusercontent.com")
+                    .replace("/blob/", "/");
+        }
+        return url;
+    }
+}
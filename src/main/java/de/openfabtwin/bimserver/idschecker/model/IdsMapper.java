@@ -1,6 +1,9 @@
 package de.openfabtwin.bimserver.idschecker.model;
 
 import de.openfabtwin.bimserver.idschecker.dto.IdsXml;
+import de.openfabtwin.bimserver.idschecker.events.IdsFetchEvent;
+import de.openfabtwin.bimserver.idschecker.events.IdsParseEvent;
+import de.openfabtwin.bimserver.idschecker.events.IdsSchemaValidationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.bootstrap.DOMImplementationRegistry;
@@ -20,21 +23,17 @@ import javax.xml.validation.Validator;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
 import java.net.URL;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Paths;
-import java.time.Duration;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 import static de.openfabtwin.bimserver.idschecker.model.Mappers.*;
 
 public class IdsMapper {
     static Logger LOGGER = LoggerFactory.getLogger(IdsMapper.class);
     private static final JAXBContext IDS_CTX = initCtx();
-    private static String idsFile;
 
     private static JAXBContext initCtx() {
         try { return JAXBContext.newInstance(IdsXml.class); }
@@ -44,18 +43,64 @@ public class IdsMapper {
     public IdsMapper() {}
 
     public static Ids read(String url) throws Exception {
-        byte[] bytes = fetchURL(url);
-        bytes = normalizeIfcVersion(bytes);
+        return read(url, IdsFetcher.uncached());
+    }
+
+    public static Ids read(String url, IdsFetcher fetcher) throws Exception {
+        IdsFetchEvent fetchEvent = new IdsFetchEvent();
+        fetchEvent.begin();
+        IdsFetcher.Fetched fetched = fetcher.fetch(url);
+        if (fetchEvent.shouldCommit()) {
+            fetchEvent.url = url;
+            fetchEvent.bytes = fetched.content().length;
+            fetchEvent.commit();
+        }
+
+        IdsParseEvent parseEvent = new IdsParseEvent();
+        if (IdsBinary.isBinary(fetched.content())) {
+            parseEvent.begin();
+            Ids ids = IdsBinary.read(fetched.content());
+            commit(parseEvent, fetched, true, ids);
+            return ids;
+        }
+        byte[] bytes = normalizeIfcVersion(fetched.content());
         Schema schema = getSchema();
+        IdsSchemaValidationEvent validationEvent = new IdsSchemaValidationEvent();
+        validationEvent.begin();
         validate(bytes, schema);
+        if (validationEvent.shouldCommit()) {
+            validationEvent.fileName = fetched.fileName();
+            validationEvent.bytes = bytes.length;
+            validationEvent.commit();
+        }
+        parseEvent.begin();
         IdsXml dto = unmarshal(bytes, schema);
-        return toDomain(dto);
+        Ids ids = toDomain(dto, fetched.fileName());
+        ids.setChecksum(sha256(bytes));
+        commit(parseEvent, fetched, false, ids);
+        return ids;
     }
 
-    static Ids toDomain(IdsXml idsXml) {
+    private static void commit(IdsParseEvent event, IdsFetcher.Fetched fetched, boolean binary, Ids ids) {
+        if (!event.shouldCommit()) return;
+        event.fileName = fetched.fileName();
+        event.binary = binary;
+        event.specifications = ids.getSpecifications().size();
+        event.commit();
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JRE ships SHA-256
+        }
+    }
+
+    static Ids toDomain(IdsXml idsXml, String fileName) {
         Ids ids = new Ids();
         if (idsXml.getInfo() != null) {
-            ids.getInfo().put("filename",    idsFile); // add filename to info
+            ids.getInfo().put("filename",    fileName); // add filename to info
             ids.getInfo().put("title", idsXml.getInfo().getTitle());
             ids.getInfo().put("description", idsXml.getInfo().getDescription());
             ids.getInfo().put("copyright",   idsXml.getInfo().getCopyright());
@@ -177,74 +222,12 @@ public class IdsMapper {
         }
     }
 
-    private static byte[] fetchURL(String url) throws IOException, InterruptedException {
-        url = normalizeToDirectDownload(url);
-        URI uri = URI.create(url);
-
-        String path = uri.getPath();
-        idsFile = (path != null && !path.isBlank())
-                ? Paths.get(path).getFileName().toString()
-                : "unknown.ids";
-
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .followRedirects(HttpClient.Redirect.ALWAYS)
-                .build();
-
-        HttpRequest request = HttpRequest.newBuilder(uri)
-                .timeout(Duration.ofSeconds(30))
-                .header("Accept", "application/octet-stream, text/xml, application/xml, */*")
-                .GET()
-                .build();
-
-        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-
-        if (response.statusCode() != 200 || response.body() == null)
-            throw new RuntimeException("Failed to fetch IDS: HTTP " + response.statusCode() + " from " + url);
-
-        String contentType = response.headers().firstValue("Content-Type").orElse("");
-        if (contentType.contains("text/html")) {
-            throw new RuntimeException(
-                    "URL returned an HTML page instead of an IDS file. " +
-                            "Make sure the URL is a direct download link: " + url);
-        }
-
-        response.headers().firstValue("Content-Disposition").ifPresent(cd -> {
-            for (String part : cd.split(";")) {
-                part = part.trim();
-                if (part.toLowerCase().startsWith("filename=")) {
-                    String resolved = part.substring("filename=".length())
-                            .replace("\"", "")
-                            .trim();
-                    if (!resolved.isBlank()) idsFile = resolved;
-                }
-            }
-        });
-
-        if (!idsFile.toLowerCase().endsWith(".ids")) {
-            throw new RuntimeException(
-                    "Downloaded file \"" + idsFile + "\" is not an .ids file. " +
-                            "Check that the URL points to a valid IDS file.");
-        }
-
-        LOGGER.info("Fetched IDS file: {} ({} bytes)", idsFile, response.body().length);
-        return response.body();
-    }
-
     private static byte[] normalizeIfcVersion(byte[] bytes) {
         String xml = new String(bytes, StandardCharsets.UTF_8);
         xml = xml.replaceAll("\\bIFC4X3\\b(?!_ADD2)", "IFC4X3_ADD2");
         return xml.getBytes(StandardCharsets.UTF_8);
     }
 
-    private static String normalizeToDirectDownload(String url) {
-        if (url.contains("github.com") && url.contains("/blob/")) {
-            return url.replace("github.com", "raw.githubusercontent.com")
-                    .replace("/blob/", "/");
-        }
-        return url;
-    }
-
 }
 
 
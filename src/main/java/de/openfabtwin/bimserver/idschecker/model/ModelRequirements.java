@@ -0,0 +1,127 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import org.bimserver.emf.PackageMetaData;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EReference;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The IFC classes an {@link Ids} reads, collected from its facets for one schema, so that a model can
+ * be loaded without everything no facet ever looks at (geometry, presentation, ...). Each class
+ * stands for itself and all its subtypes; names the schema does not define are ignored.
+ */
+public class ModelRequirements {
+
+    private final PackageMetaData meta;
+    private final Set<EClass> classes = new LinkedHashSet<>();
+    private boolean everything;
+
+    public ModelRequirements(PackageMetaData meta) {
+        this.meta = meta;
+    }
+
+    public static ModelRequirements of(Ids ids, PackageMetaData meta) {
+        return of(List.of(ids), meta);
+    }
+
+    /** The union of what several IDS documents read, for checking them against one loaded model. */
+    public static ModelRequirements of(List<Ids> sources, PackageMetaData meta) {
+        ModelRequirements requirements = new ModelRequirements(meta);
+        for (Ids ids : sources) {
+            for (Specification spec : ids.getSpecifications()) {
+                for (Facet f : spec.getApplicability()) f.require(requirements);
+                for (Facet f : spec.getRequirements()) f.require(requirements);
+                Facet filtering = spec.getFilterFacet();
+                if (filtering != null) filtering.requireCandidates(requirements);
+            }
+        }
+        // Units give property values their meaning and are shared by the whole project.
+        requirements.require("IfcProject", "IfcUnitAssignment", "IfcNamedUnit", "IfcDerivedUnit", "IfcMonetaryUnit");
+        return requirements;
+    }
+
+    /** Require the named classes (with subtypes). */
+    public void require(String... classNames) {
+        for (String name : classNames) {
+            EClassifier c = meta.getEClassifier(name);
+            if (c instanceof EClass ec) classes.add(ec);
+        }
+    }
+
+    /**
+     * Require the relationship class {@code relClass} and the classes its {@code references} point
+     * to, e.g. the spatial structures {@code RelatingStructure} of a containment can hold. A reference
+     * the schema does not define is skipped.
+     */
+    public void requireRelationship(String relClass, String... references) {
+        if (!(meta.getEClassifier(relClass) instanceof EClass rel)) return;
+        classes.add(rel);
+        for (String name : references) {
+            if (rel.getEStructuralFeature(name) instanceof EReference r) classes.add(r.getEReferenceType());
+        }
+    }
+
+    /** Require every class of the schema the predicate accepts. */
+    public void requireMatching(Predicate<EClass> predicate) {
+        for (EClassifier c : meta.getEPackage().getEClassifiers()) {
+            if (c instanceof EClass ec && predicate.test(ec)) classes.add(ec);
+        }
+    }
+
+    public void require(EClass eClass) {
+        classes.add(eClass);
+    }
+
+    /** The facet cannot tell what it reads; the model has to be loaded completely. */
+    public void requireEverything() {
+        this.everything = true;
+    }
+
+    public boolean isEverything() {
+        return everything;
+    }
+
+    /** The required classes without those already covered as a subtype of another required class. */
+    public List<EClass> getClasses() {
+        List<EClass> top = new ArrayList<>();
+        for (EClass ec : classes) {
+            boolean covered = false;
+            for (EClass other : classes) {
+                if (other != ec && ec.getEAllSuperTypes().contains(other)) { covered = true; break; }
+            }
+            if (!covered) top.add(ec);
+        }
+        return top;
+    }
+
+    /**
+     * Upper-case names of the required classes and all their subtypes, as STEP files spell the
+     * entity types, e.g. {@code IFCWALLSTANDARDCASE} for a required {@code IfcWall}.
+     */
+    public Set<String> getTypeNames() {
+        Set<String> names = new HashSet<>();
+        for (EClassifier c : meta.getEPackage().getEClassifiers()) {
+            if (!(c instanceof EClass ec)) continue;
+            for (EClass required : classes) {
+                if (ec == required || ec.getEAllSuperTypes().contains(required)) {
+                    names.add(ec.getName().toUpperCase(Locale.ROOT));
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+
+    public PackageMetaData getPackageMetaData() {
+        return meta;
+    }
+}
@@ -1,7 +1,9 @@
 package de.openfabtwin.bimserver.idschecker.model;
 
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.math.BigDecimal;
 
@@ -10,6 +12,9 @@ import static de.openfabtwin.bimserver.idschecker.model.RestrictionValue.XsdBase
 public record RestrictionValue(XsdBase base, List<String> enums, String pattern, String minInclusive, String maxInclusive, String minExclusive, String maxExclusive) implements Value {
     public enum XsdBase { STRING, INTEGER, DOUBLE, BOOLEAN }
 
+    // Patterns are compiled once and shared; matches() runs per element.
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
     public static XsdBase xsdBaseFromString(String s) {
         if (s.endsWith(":string") || s.equals("xs:string")) return STRING;
         if (s.endsWith(":integer") || s.equals("xs:integer") || s.endsWith(":int") || s.equals("xs:int")) return XsdBase.INTEGER;
@@ -30,7 +35,7 @@ public record RestrictionValue(XsdBase base, List<String> enums, String pattern,
 
         // Check pattern
         if (pattern != null) {
-            Pattern p = Pattern.compile(pattern);
+            Pattern p = PATTERNS.computeIfAbsent(pattern, Pattern::compile);
             if (!p.matcher(candidate).matches()) return false;
         }
 
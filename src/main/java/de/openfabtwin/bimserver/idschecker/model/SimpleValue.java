@@ -3,14 +3,19 @@ package de.openfabtwin.bimserver.idschecker.model;
 import java.math.BigDecimal;
 import java.util.regex.Pattern;
 
-public record SimpleValue(String value) implements Value {
+public record SimpleValue(String value, Type type) implements Value {
     public enum Type { BOOLEAN, INTEGER, DOUBLE, STRING }
 
     private static final Pattern INTEGER_PATTERN = Pattern.compile("[-+]?\\d+");
     // Accept trailing-dot reals ("42.") and leading-dot reals (".5") in addition to the usual forms.
     private static final Pattern DOUBLE_PATTERN = Pattern.compile("[-+]?(?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][-+]?\\d+)?");
 
-    public Type type() {
+    public SimpleValue(String value) {
+        this(value, typeOf(value));
+    }
+
+    // Resolved once at construction; matches() runs per element and must not re-run the regexes.
+    private static Type typeOf(String value) {
         if (value == null) return Type.STRING;
 
         String trimmed = value.trim();
@@ -31,7 +36,7 @@ public record SimpleValue(String value) implements Value {
 
         String c = candidate.trim();
         String v = value == null ? "" : value.trim();
-        return switch (type()) {
+        return switch (type) {
             case BOOLEAN -> equalsBoolean(v, c);
             case INTEGER -> equalsAsBigDecimal(v, c, true);
             case DOUBLE  -> equalsAsBigDecimal(v, c, false);
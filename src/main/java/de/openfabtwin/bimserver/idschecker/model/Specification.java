@@ -1,8 +1,14 @@
 package de.openfabtwin.bimserver.idschecker.model;
 
+import de.openfabtwin.bimserver.idschecker.events.FacetFilterEvent;
+import de.openfabtwin.bimserver.idschecker.events.SpecificationEvent;
+import de.openfabtwin.bimserver.idschecker.metrics.FacetMetrics;
+import de.openfabtwin.bimserver.idschecker.metrics.SpecificationMetrics;
+import de.openfabtwin.bimserver.idschecker.model.access.EmfModelAccess;
 import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
 import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import de.openfabtwin.bimserver.idschecker.spill.ResultBudget;
 import org.bimserver.emf.IdEObject;
 import org.bimserver.emf.IfcModelInterface;
 import org.bimserver.interfaces.objects.SProject;
@@ -25,11 +31,13 @@ public class Specification {
     private final List<Facet> applicability = new ArrayList<>();
     private final List<Facet> requirements  = new ArrayList<>();
 
-    private final List<IdEObject> applicable_entities = new ArrayList<>();
-    private final List<IdEObject> passed_entities   = new ArrayList<>();
-    private final List<IdEObject> failed_entities   = new ArrayList<>();
+    private List<IdEObject> applicable_entities = new ArrayList<>();
+    private List<IdEObject> passed_entities   = new ArrayList<>();
+    private List<IdEObject> failed_entities   = new ArrayList<>();
     private boolean status = false;
     private boolean is_ifc_version_supported = false;
+    private boolean collectMetrics;
+    private SpecificationMetrics metrics;
 
     private boolean check_ifc_version(SProject project) {
         String projectSchema = project.getSchema().toUpperCase();
@@ -40,84 +48,185 @@ public class Specification {
     }
 
     public void validate(SProject project, IfcModelInterface model) {
-        if(!check_ifc_version(project)) return;
+        validate(project, model, null);
+    }
+
+    /**
+     * Validate, replaying the outcomes {@code cache} still holds for unchanged elements and storing
+     * freshly evaluated ones. A {@code null} cache evaluates everything.
+     */
+    public void validate(SProject project, IfcModelInterface model, SpecificationCache cache) {
+        SpecificationEvent event = new SpecificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        this.metrics = this.collectMetrics ? new SpecificationMetrics(this.name, this.applicability, this.requirements) : null;
+        int candidates = evaluate(project, model, cache);
+        if (this.metrics != null) this.metrics.finish(System.nanoTime() - start, candidates, this.applicable_entities.size());
+        if (event.shouldCommit()) {
+            event.specification = this.name;
+            event.candidates = candidates;
+            event.applicable = this.applicable_entities.size();
+            event.failures = this.failed_entities.size();
+            event.status = this.status;
+            event.commit();
+        }
+    }
+
+    /** The body of {@link #validate(SProject, IfcModelInterface, SpecificationCache)}; returns the number of candidates. */
+    private int evaluate(SProject project, IfcModelInterface model, SpecificationCache cache) {
+        if(!check_ifc_version(project)) return 0;
 
         // Applicability
-        if (this.applicability.isEmpty()) return;
-        Facet facet = this.applicability.stream().filter(f -> f instanceof Entity)
-                .findFirst()
-                .orElse(this.applicability.get(0));
+        if (this.applicability.isEmpty()) return 0;
+        Facet facet = getFilterFacet();
+        // one access for the whole run, so its per-class lookups are shared by all facets
+        EmfModelAccess access = new EmfModelAccess(model);
 
-        List<IdEObject> elements = facet.filter(model);
+        FacetFilterEvent filterEvent = new FacetFilterEvent();
+        filterEvent.begin();
+        long filterStart = System.nanoTime();
+        List<IdEObject> elements = facet.filter(access);
+        if (this.metrics != null) this.metrics.filtered(System.nanoTime() - filterStart);
+        if (filterEvent.shouldCommit()) {
+            filterEvent.specification = this.name;
+            filterEvent.facet = facet.getClass().getSimpleName();
+            filterEvent.elements = elements.size();
+            filterEvent.commit();
+        }
+        boolean prohibited = "0".equals(this.maxOccurs);
 
-        for (IdEObject element : elements) {
-            boolean isApplicable = true;
-            for (Facet f : this.applicability) {
-                if (f == facet) continue;
-                if (!f.matches(model, element).isPass()) {
-                    isApplicable = false;
-                    break;
-                }
-            }
-            if (isApplicable) {
-                this.applicable_entities.add(element);
-                for(Facet f : this.requirements) {
-                    Result result = f.matches(model, element);
-                    boolean is_pass = result.isPass();
-                    if (!"0".equals(this.maxOccurs)) { //required or optional
-                        if (is_pass) {
-                            this.passed_entities.add(element);
-                            f.addPassedEntities(element);
-                        } else {
-                            this.failed_entities.add(element);
-                            f.addFailures(element, result.to_String());
-                        }
-                    } else { //prohibited
-                        if (is_pass) {
-                            this.failed_entities.add(element);
-                            f.addFailures(element, result.to_String());
-                        } else {
-                            this.passed_entities.add(element);
-                            f.addPassedEntities(element);
-                        }
-                    }
-                }
-            } else {
+        // Indexed loops and shared pass results: a passing element costs no allocation beyond list growth.
+        for (int i = 0; i < elements.size(); i++) {
+            IdEObject element = elements.get(i);
+            if (cache != null) {
+                validateCached(access, element, facet, prohibited, cache);
                 continue;
             }
+            if (!isApplicable(access, element, facet)) continue;
+
+            this.applicable_entities.add(element);
+            for (int r = 0; r < this.requirements.size(); r++) {
+                record(r, element, match(access, element, r), prohibited);
+            }
+        }
+
+        // Nothing applicable leaves the status untouched (false), as before.
+        if (this.applicable_entities.isEmpty()) return elements.size();
+        updateStatus();
+        return elements.size();
+    }
+
+    private void validateCached(EmfModelAccess access, IdEObject element, Facet filtered, boolean prohibited, SpecificationCache cache) {
+        Result[] results = cache.lookup(element);
+        if (this.metrics != null) {
+            if (results == null) this.metrics.cacheMiss();
+            else this.metrics.cacheHit();
+        }
+        if (results == null) {
+            if (!isApplicable(access, element, filtered)) {
+                cache.store(element, SpecificationCache.NOT_APPLICABLE);
+                return;
+            }
+            results = new Result[this.requirements.size()];
+            for (int r = 0; r < results.length; r++) results[r] = match(access, element, r);
+            cache.store(element, results);
+        }
+        if (results == SpecificationCache.NOT_APPLICABLE) return;
 
-            this.status = true;
-            for (Facet f : this.requirements){
-                f.setStatus(f.getFailures().isEmpty());
-                if (!f.isStatus()) this.status = false;
+        this.applicable_entities.add(element);
+        for (int r = 0; r < results.length; r++) record(r, element, results[r], prohibited);
+    }
+
+    /** {@code matches} of requirement {@code r}, timed if metrics are collected. */
+    private Result match(EmfModelAccess access, IdEObject element, int r) {
+        Facet f = this.requirements.get(r);
+        if (this.metrics == null) return f.matches(access, element);
+        long start = System.nanoTime();
+        Result result = f.matches(access, element);
+        this.metrics.getRequirement(r).time(System.nanoTime() - start);
+        return result;
+    }
+
+    private void record(int r, IdEObject element, Result result, boolean prohibited) {
+        Facet f = this.requirements.get(r);
+        boolean passed = result.isPass() != prohibited; //required or optional: pass; prohibited: fail
+        if (passed) {
+            this.passed_entities.add(element);
+            f.addPassedEntities(element);
+        } else {
+            this.failed_entities.add(element);
+            f.addFailures(element, result);
+        }
+        if (this.metrics != null) {
+            if (passed) this.metrics.getRequirement(r).pass();
+            else this.metrics.getRequirement(r).fail();
+        }
+    }
+
+    private boolean isApplicable(EmfModelAccess access, IdEObject element, Facet filtered) {
+        for (int a = 0; a < this.applicability.size(); a++) {
+            Facet f = this.applicability.get(a);
+            if (f == filtered) continue;
+            if (this.metrics == null) {
+                if (!f.matches(access, element).isPass()) return false;
+                continue;
+            }
+            FacetMetrics m = this.metrics.getApplicability(a);
+            long start = System.nanoTime();
+            boolean pass = f.matches(access, element).isPass();
+            m.time(System.nanoTime() - start);
+            if (!pass) {
+                m.fail();
+                return false;
             }
+            m.pass();
+        }
+        return true;
+    }
 
-            if (!"0".equals(this.minOccurs)) { //required specification
-                if (this.applicable_entities.isEmpty()) {
-                    this.status = false;
-                    for (Facet f : this.requirements) {
-                        f.setStatus(false);
-                    }
+    private void updateStatus() {
+        this.status = true;
+        for (Facet f : this.requirements){
+            f.setStatus(f.getFailures().isEmpty());
+            if (!f.isStatus()) this.status = false;
+        }
+
+        if (!"0".equals(this.minOccurs)) { //required specification
+            if (this.applicable_entities.isEmpty()) {
+                this.status = false;
+                for (Facet f : this.requirements) {
+                    f.setStatus(false);
                 }
-            } else if ("0".equals(this.maxOccurs)) { //prohibited specification
-                if (!this.applicable_entities.isEmpty() && this.requirements.isEmpty()) this.status = false;
             }
+        } else if ("0".equals(this.maxOccurs)) { //prohibited specification
+            if (!this.applicable_entities.isEmpty() && this.requirements.isEmpty()) this.status = false;
         }
     }
 
 
     public String getName() { return name; }
     public List<IfcVersion> getIfcVersion() { return ifcVersion; }
+    public String getIdentifier() { return identifier; }
     public String getDescription() { return description; }
     public String getInstructions() { return instructions; }
     public List<Facet> getApplicability() { return applicability; }
     public List<Facet> getRequirements() { return requirements; }
+
+    /** The applicability facet that yields the candidates: the first entity facet, else the first one. */
+    public Facet getFilterFacet() {
+        if (this.applicability.isEmpty()) return null;
+        return this.applicability.stream().filter(f -> f instanceof Entity)
+                .findFirst()
+                .orElse(this.applicability.get(0));
+    }
     public List<IdEObject> getApplicable_entities() { return applicable_entities; }
     public List<IdEObject> getPassed_entities() { return passed_entities; }
     public List<IdEObject> getFailed_entities() { return failed_entities; }
     public boolean getStatus() { return status; }
     public boolean getIs_ifc_version_supported() { return is_ifc_version_supported; }
     public String getMinOccurs() { return minOccurs; }
+    /** Timings and counters of the last validation; {@code null} unless {@link #setCollectMetrics collected}. */
+    public SpecificationMetrics getMetrics() { return metrics; }
     public String getMaxOccurs() { return maxOccurs; }
 
     public void setName(String name) {
@@ -128,6 +237,8 @@ public class Specification {
     public void setInstructions(String instructions) { this.instructions = instructions; }
     public void setMinOccurs(String minOccurs) { this.minOccurs = minOccurs; }
     public void setMaxOccurs(String maxOccurs) { this.maxOccurs = maxOccurs; }
+    /** Time each facet and count its outcomes in the next validations; adds a clock read per {@code matches} call. */
+    public void setCollectMetrics(boolean collectMetrics) { this.collectMetrics = collectMetrics; }
 
     public enum IfcVersion {IFC2X3, IFC4, IFC4X3 }
 
@@ -140,6 +251,15 @@ public class Specification {
         };
     }
 
+    /** Keep the results of this specification and its facets within {@code budget}. Drops current results. */
+    public void setResultBudget(ResultBudget budget) {
+        this.applicable_entities = budget.elements();
+        this.passed_entities = budget.elements();
+        this.failed_entities = budget.elements();
+        for (Facet f : this.applicability) f.setResultBudget(budget);
+        for (Facet f : this.requirements) f.setResultBudget(budget);
+    }
+
     public void reset() {
         this.applicable_entities.clear();
         this.passed_entities.clear();
@@ -150,6 +270,7 @@ public class Specification {
             f.setStatus(false);
         }
         for (Facet f : this.requirements) {
+            f.getPassedEntities().clear();
             f.getFailures().clear();
             f.setStatus(false);
         }
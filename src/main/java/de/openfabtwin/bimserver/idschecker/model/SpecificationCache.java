@@ -0,0 +1,20 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import org.bimserver.emf.IdEObject;
+
+/**
+ * Per-element outcomes of one {@link Specification}, kept between validations so that unchanged
+ * elements are not evaluated again. Results are indexed like {@link Specification#getRequirements()}.
+ */
+public interface SpecificationCache {
+
+    /** Stored for elements the applicability rejected. */
+    Result[] NOT_APPLICABLE = new Result[0];
+
+    /** The element's cached requirement results, {@link #NOT_APPLICABLE}, or {@code null} to evaluate it. */
+    Result[] lookup(IdEObject element);
+
+    /** Remember freshly evaluated results (or {@link #NOT_APPLICABLE}) for the element. */
+    void store(IdEObject element, Result[] results);
+}
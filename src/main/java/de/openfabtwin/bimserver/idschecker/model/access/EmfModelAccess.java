@@ -0,0 +1,149 @@
+package de.openfabtwin.bimserver.idschecker.model.access;
+
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.emf.PackageMetaData;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ModelAccess} over a BIMserver {@link IfcModelInterface}, reading the EMF objects
+ * reflectively. Class and attribute lists are computed once per class name.
+ */
+public final class EmfModelAccess implements ModelAccess<IdEObject> {
+
+    private final IfcModelInterface model;
+    private final PackageMetaData meta;
+    private final Map<String, List<String>> attributeNames = new HashMap<>();
+    private List<String> classNames;
+
+    public EmfModelAccess(IfcModelInterface model) {
+        this.model = model;
+        this.meta = model.getPackageMetaData();
+    }
+
+    @Override
+    public String getSchema() {
+        return meta.getSchema().name().toUpperCase();
+    }
+
+    @Override
+    public List<String> getClassNames() {
+        if (classNames == null) {
+            List<String> names = new ArrayList<>();
+            for (EClassifier c : meta.getEPackage().getEClassifiers()) {
+                if (c instanceof EClass) names.add(c.getName());
+            }
+            classNames = names;
+        }
+        return classNames;
+    }
+
+    @Override
+    public boolean isSubtype(String ifcClass, String superClass) {
+        EClass sub = eClass(ifcClass);
+        if (sub == null) return false;
+        if (ifcClass.equals(superClass)) return true;
+        for (EClass s : sub.getEAllSuperTypes()) {
+            if (superClass.equals(s.getName())) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> getAttributeNames(String ifcClass) {
+        List<String> names = attributeNames.get(ifcClass);
+        if (names == null) {
+            names = new ArrayList<>();
+            EClass ec = eClass(ifcClass);
+            if (ec != null) {
+                for (EStructuralFeature f : ec.getEAllStructuralFeatures()) {
+                    if (isExplicit(f, meta)) names.add(f.getName());
+                }
+            }
+            attributeNames.put(ifcClass, names);
+        }
+        return names;
+    }
+
+    @Override
+    public boolean isIntegerAttribute(String ifcClass, String attribute) {
+        EClass ec = eClass(ifcClass);
+        EStructuralFeature f = ec == null ? null : ec.getEStructuralFeature(attribute);
+        if (!(f instanceof EAttribute)) return false;
+        EClassifier t = f.getEType();
+        if (t == null) return false;
+        String cn = t.getInstanceClassName();
+        return "int".equals(cn) || "long".equals(cn) || "short".equals(cn)
+                || "java.lang.Integer".equals(cn) || "java.lang.Long".equals(cn)
+                || "java.lang.Short".equals(cn) || "java.math.BigInteger".equals(cn);
+    }
+
+    @Override
+    public List<IdEObject> instances(String ifcClass) {
+        EClass ec = eClass(ifcClass);
+        return ec == null ? List.of() : model.getAllWithSubTypes(ec);
+    }
+
+    @Override
+    public long id(IdEObject element) {
+        return element.getOid();
+    }
+
+    @Override
+    public String className(IdEObject element) {
+        return element.eClass().getName();
+    }
+
+    @Override
+    public Object value(IdEObject element, String attribute) {
+        EStructuralFeature f = element.eClass().getEStructuralFeature(attribute);
+        return f == null ? null : element.eGet(f);
+    }
+
+    @Override
+    public String string(IdEObject element, String attribute) {
+        return Facet.getString(element, attribute);
+    }
+
+    @Override
+    public IdEObject reference(IdEObject element, String attribute) {
+        return Facet.getIdEObject(element, attribute);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<IdEObject> references(IdEObject element, String attribute) {
+        List<?> list = Facet.getList(element, attribute);
+        return list == null ? List.of() : (List<IdEObject>) list;
+    }
+
+    @Override
+    public IdEObject element(Object value) {
+        return value instanceof IdEObject e ? e : null;
+    }
+
+    @Override
+    public Object unwrap(Object value) {
+        return Facet.unwrap(value);
+    }
+
+    /** Whether {@code f} is an explicit attribute: neither derived nor inverse, so a facet can check it. */
+    public static boolean isExplicit(EStructuralFeature f, PackageMetaData meta) {
+        if (f.isDerived() || f.isTransient() || f.isVolatile()) return false;
+        return !(f instanceof EReference ref && meta != null && meta.isInverse(ref));
+    }
+
+    private EClass eClass(String name) {
+        return meta.getEPackage().getEClassifier(name) instanceof EClass ec ? ec : null;
+    }
+}
@@ -0,0 +1,112 @@
+package de.openfabtwin.bimserver.idschecker.model.access;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the facets read from a model, independent of how it is stored. {@code E} is the backend's
+ * element handle; {@link EmfModelAccess} uses BIMserver's {@code IdEObject}, other backends (columnar
+ * snapshots, STEP indexes, off-heap stores) whatever identifies an element cheaply.
+ *
+ * <p>Names follow the IFC schema: classes as in {@code IfcWall}, attributes as in {@code Name} or
+ * {@code HasAssociations}, inverse attributes included. A value of a defined type (e.g.
+ * {@code IFCLABEL('x')}) is an element of that type with a {@code wrappedValue} attribute, so that
+ * its measure type can be asked for like any class name.
+ *
+ * <p>Implementations need not be thread-safe; a facet uses one access from one thread at a time.
+ * Methods on the pass path of a facet should not allocate.
+ */
+public interface ModelAccess<E> {
+
+    /** The schema of the model, e.g. {@code IFC4} or {@code IFC2X3_TC1}. */
+    String getSchema();
+
+    /** The names of all entity classes of the schema. */
+    List<String> getClassNames();
+
+    /** Whether {@code ifcClass} is {@code superClass} or one of its subtypes; false for unknown names. */
+    boolean isSubtype(String ifcClass, String superClass);
+
+    /** The explicit attributes of {@code ifcClass}, inherited ones included; derived and inverse ones are not. */
+    List<String> getAttributeNames(String ifcClass);
+
+    /** Whether {@code attribute} of {@code ifcClass} holds an integer. */
+    boolean isIntegerAttribute(String ifcClass, String attribute);
+
+    /** All elements of {@code ifcClass} and its subtypes; empty if the schema has no such class. */
+    List<E> instances(String ifcClass);
+
+    /** A number that identifies {@code element} within the model. */
+    long id(E element);
+
+    /** The class of {@code element}, e.g. {@code IfcWall}. */
+    String className(E element);
+
+    /**
+     * The value of an attribute as stored: {@code null} if absent or unknown to the class, a
+     * primitive, an element (entity or defined-type value) or a {@link List} for aggregates.
+     */
+    Object value(E element, String attribute);
+
+    /** A scalar attribute as trimmed text; {@code null} if absent, empty or not scalar. */
+    String string(E element, String attribute);
+
+    /** The element an attribute refers to; {@code null} if absent or not a reference. */
+    E reference(E element, String attribute);
+
+    /** The elements of an aggregate attribute, or a single reference as a list of one; never {@code null}. */
+    List<E> references(E element, String attribute);
+
+    /** {@code value} as an element of this model, or {@code null} if it is none. */
+    E element(Object value);
+
+    /**
+     * The primitive a defined-type value wraps, recursively; entities and primitives are returned as
+     * they are.
+     */
+    Object unwrap(Object value);
+
+    /**
+     * The relating side of every {@code relationship} {@code element} takes part in on the related
+     * side. By default navigated through the inverse attributes; backends with a relationship index
+     * can answer directly.
+     */
+    default List<E> related(E element, Relationship relationship) {
+        List<E> out = new ArrayList<>(2);
+        List<String> inverses = relationship.getInverseAttributes();
+        for (int i = 0; i < inverses.size(); i++) {
+            List<E> rels = references(element, inverses.get(i));
+            for (int r = 0; r < rels.size(); r++) {
+                E rel = rels.get(r);
+                if (!relationship.getRelationshipClass().equals(className(rel))) continue;
+                Object relating = value(rel, relationship.getRelatingAttribute());
+                if (relating instanceof List<?> list) {
+                    for (int k = 0; k < list.size(); k++) addElement(out, list.get(k));
+                } else {
+                    addElement(out, relating);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** The first of {@link #related}, without collecting the others; {@code null} if there is none. */
+    default E relating(E element, Relationship relationship) {
+        List<String> inverses = relationship.getInverseAttributes();
+        for (int i = 0; i < inverses.size(); i++) {
+            List<E> rels = references(element, inverses.get(i));
+            for (int r = 0; r < rels.size(); r++) {
+                E rel = rels.get(r);
+                if (!relationship.getRelationshipClass().equals(className(rel))) continue;
+                E relating = reference(rel, relationship.getRelatingAttribute());
+                if (relating != null) return relating;
+            }
+        }
+        return null;
+    }
+
+    private void addElement(List<E> out, Object value) {
+        E e = element(value);
+        if (e != null) out.add(e);
+    }
+}
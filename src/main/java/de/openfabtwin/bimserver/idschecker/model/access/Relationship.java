@@ -0,0 +1,47 @@
+package de.openfabtwin.bimserver.idschecker.model.access;
+
+import java.util.List;
+
+/**
+ * The objectified relationships the facets navigate, from the related element to the relating one:
+ * the relationship class, its relating attribute and the inverse attributes of the related element
+ * that hold it.
+ */
+public enum Relationship {
+    /** Occurrence to its type object. */
+    TYPE("IfcRelDefinesByType", "RelatingType", "IsTypedBy"),
+    /** Object to its property set definitions. */
+    PROPERTIES("IfcRelDefinesByProperties", "RelatingPropertyDefinition", "IsDefinedBy"),
+    /** Object to its material, layer set, profile set, ... */
+    MATERIAL("IfcRelAssociatesMaterial", "RelatingMaterial", "HasAssociations"),
+    /** Object to its classification references or classifications. */
+    CLASSIFICATION("IfcRelAssociatesClassification", "RelatingClassification", "HasAssociations"),
+    /** Resource (material, profile, ...) to the references it is associated with. */
+    EXTERNAL_REFERENCE("IfcExternalReferenceRelationship", "RelatingReference", "HasExternalReferences"),
+    /** Part to its whole. */
+    AGGREGATE("IfcRelAggregates", "RelatingObject", "Decomposes"),
+    /** Nested object to its host. */
+    NEST("IfcRelNests", "RelatingObject", "Nests"),
+    /** Group member to its group. */
+    GROUP("IfcRelAssignsToGroup", "RelatingGroup", "HasAssignments"),
+    /** Element to its spatial container. */
+    CONTAINMENT("IfcRelContainedInSpatialStructure", "RelatingStructure", "ContainedInStructure"),
+    /** Opening to the element it voids. */
+    VOIDS("IfcRelVoidsElement", "RelatingBuildingElement", "VoidsElements"),
+    /** Filling element (door, window) to the opening it fills. */
+    FILLS("IfcRelFillsElement", "RelatingOpeningElement", "FillsVoids");
+
+    private final String relationshipClass;
+    private final String relatingAttribute;
+    private final List<String> inverseAttributes;
+
+    Relationship(String relationshipClass, String relatingAttribute, String... inverseAttributes) {
+        this.relationshipClass = relationshipClass;
+        this.relatingAttribute = relatingAttribute;
+        this.inverseAttributes = List.of(inverseAttributes);
+    }
+
+    public String getRelationshipClass() { return relationshipClass; }
+    public String getRelatingAttribute() { return relatingAttribute; }
+    public List<String> getInverseAttributes() { return inverseAttributes; }
+}
@@ -1,12 +1,16 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
 import de.openfabtwin.bimserver.idschecker.model.Value;
+import de.openfabtwin.bimserver.idschecker.model.access.EmfModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
 import de.openfabtwin.bimserver.idschecker.model.result.AttributeResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.*;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -17,6 +21,12 @@ public class Attribute extends Facet {
     private final Value value;
     private final String instructions;
 
+    // The checkable attributes whose name matches only depend on the element's class.
+    private final Map<String, List<Slot>> attributesByClass = new HashMap<>();
+
+    /** A matching attribute of one class and whether it holds an integer. */
+    private record Slot(String name, boolean integer) {}
+
     public Attribute(Value name, Value value, String cardinality, String instructions){
         this.name = name;
         this.value = value;
@@ -34,25 +44,41 @@ public class Attribute extends Facet {
         }
     }
 
-    @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> candidates = new ArrayList<>();
-        var meta = model.getPackageMetaData();
-        var epkg = meta.getEPackage();
+    public Value getName() { return name; }
+    public Value getValue() { return value; }
+    public String getInstructions() { return instructions; }
 
-        Set<Long> seen = new HashSet<>();
-        for (EClassifier c : epkg.getEClassifiers()) {
-            if (!(c instanceof EClass ec)) continue;
+    @Override
+    public void require(ModelRequirements requirements) {
+        var meta = requirements.getPackageMetaData();
+        List<EClass> referenced = new ArrayList<>();
+        requirements.requireMatching(ec -> {
+            boolean matched = false;
+            for (EStructuralFeature f : ec.getEStructuralFeatures()) {
+                if (!name.matches(f.getName()) || !EmfModelAccess.isExplicit(f, meta)) continue;
+                matched = true;
+                if (f instanceof EReference r) referenced.add(r.getEReferenceType());
+            }
+            return matched;
+        });
+        // A reference to an instance that is not loaded reads as an unset attribute.
+        referenced.forEach(requirements::require);
+    }
 
-            for (EStructuralFeature eAttr : ec.getEAllStructuralFeatures()) {
-                if (!name.matches(eAttr.getName())) continue;
+    @Override
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<E> candidates = new ArrayList<>();
 
-                if (isUncheckable(eAttr, meta)) continue; // derived / inverse attributes cannot be checked
+        Set<Long> seen = new HashSet<>();
+        for (String c : model.getClassNames()) {
+            // derived / inverse attributes cannot be checked and are not listed
+            for (String attr : model.getAttributeNames(c)) {
+                if (!name.matches(attr)) continue;
 
-                for (IdEObject inst : model.getAllWithSubTypes(ec)) {
-                    Object raw = inst.eGet(eAttr);
+                for (E inst : model.instances(c)) {
+                    Object raw = model.value(inst, attr);
                     if (raw != null) {
-                        if (!seen.add(inst.getOid())) candidates.add(inst);
+                        if (!seen.add(model.id(inst))) candidates.add(inst);
                     }
                 }
                 break;
@@ -62,116 +88,119 @@ public class Attribute extends Facet {
     }
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
-
-        List<EStructuralFeature> features = new ArrayList<>();
-        var meta = model.getPackageMetaData();
-
-        for (EStructuralFeature f : element.eClass().getEAllStructuralFeatures()) {
-            if (!name.matches(f.getName())) continue;
-
-            if (isUncheckable(f, meta)) continue; // derived / inverse attributes cannot be checked
-            features.add(f);
+    public <E> Result matches(ModelAccess<E> model, E element) {
+        String className = model.className(element);
+        List<Slot> attributes = attributesByClass.get(className);
+        if (attributes == null) {
+            attributes = new ArrayList<>();
+            // derived / inverse attributes cannot be checked and are not listed
+            for (String attr : model.getAttributeNames(className)) {
+                if (name.matches(attr)) attributes.add(new Slot(attr, model.isIntegerAttribute(className, attr)));
+            }
+            attributesByClass.put(className, attributes);
         }
 
         return switch (this.cardinality) {
-            case REQUIRED    -> evalRequired(element, features);
-            case OPTIONAL    -> evalOptional(element, features);
-            case PROHIBITED  -> evalProhibited(element, features);
+            case REQUIRED    -> evalRequired(model, element, attributes);
+            case OPTIONAL    -> evalOptional(model, element, attributes);
+            case PROHIBITED  -> evalProhibited(model, element, attributes);
         };
     }
 
-    private Result evalProhibited(IdEObject element, List<EStructuralFeature> attributes) {
+    private <E> Result evalProhibited(ModelAccess<E> model, E element, List<Slot> attributes) {
         // PROHIBITED name "-"   → the attribute must not be present at all.
         // PROHIBITED name value → the attribute must not hold that value (null/absent is allowed).
-        for (EStructuralFeature attr : attributes) {
-            Object raw = element.eGet(attr);
-            if (!isPresent(raw, attr)) continue;
-            Object val = unwrap(raw);
+        for (int i = 0; i < attributes.size(); i++) {
+            Object raw = model.value(element, attributes.get(i).name());
+            if (!isPresent(raw)) continue;
+            Object val = model.unwrap(raw);
             if (this.value == null) {
-                return fail("PROHIBITED"); // presence itself is prohibited
+                return AttributeResult.fail(Reason.PROHIBITED); // presence itself is prohibited
             }
-            if (val instanceof IdEObject) continue; // entity ref has no scalar value to match
-            String s = matchString(val);
-            if (s != null && value.matches(s)) return fail("PROHIBITED");
+            if (model.element(val) != null) continue; // entity ref has no scalar value to match
+            String s = matchString(model, val);
+            if (s != null && value.matches(s)) return AttributeResult.fail(Reason.PROHIBITED);
         }
-        return pass();
+        return AttributeResult.PASS;
     }
 
-    private Result evalOptional(IdEObject element, List<EStructuralFeature> attributes) {
+    private <E> Result evalOptional(ModelAccess<E> model, E element, List<Slot> attributes) {
         // OPTIONAL: if a matching attribute is present it must satisfy the value. When the name is a
         // restriction matching several attributes, ANY satisfying match passes ("match any result").
-        if (attributes.isEmpty()) return pass();
+        if (attributes.isEmpty()) return AttributeResult.PASS;
 
         boolean anyPresent = false;
-        Map<String, Object> lastReason = null;
-        for (EStructuralFeature attr : attributes) {
-            Object raw = element.eGet(attr);
-            if (!isPresent(raw, attr)) continue;
+        Result lastFailure = null;
+        for (int i = 0; i < attributes.size(); i++) {
+            Slot attr = attributes.get(i);
+            Object raw = model.value(element, attr.name());
+            if (!isPresent(raw)) continue;
             anyPresent = true;
 
-            Object val = unwrap(raw);
-            if (!isActualValue(val)) { lastReason = Map.of("type", "FALSEY", "actual", String.valueOf(val)); continue; }
+            Object val = model.unwrap(raw);
+            boolean entity = model.element(val) != null;
+            if (!entity && !isActualValue(val)) { lastFailure = AttributeResult.fail(Reason.FALSEY, String.valueOf(val)); continue; }
 
-            if (val instanceof IdEObject) {
-                if (this.value == null) return pass();
-                lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val));
+            if (entity) {
+                if (this.value == null) return AttributeResult.PASS;
+                lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val));
                 continue;
             }
-            if (this.value == null) return pass();
+            if (this.value == null) return AttributeResult.PASS;
             // An integer-typed attribute cannot match an IDS value that is not an integer literal
             // (e.g. "42.0" against an IfcInteger) — such a requirement can never be satisfied.
-            if (integerTypeMismatch(attr)) { lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val)); continue; }
-            String s = matchString(val);
-            if (s != null && value.matches(s)) return pass();
-            lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val));
+            if (integerTypeMismatch(attr)) { lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val)); continue; }
+            String s = matchString(model, val);
+            if (s != null && value.matches(s)) return AttributeResult.PASS;
+            lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val));
         }
-        if (!anyPresent) return pass();
-        return fail(lastReason != null ? lastReason : Map.of("type", "VALUE"));
+        if (!anyPresent) return AttributeResult.PASS;
+        return lastFailure != null ? lastFailure : AttributeResult.fail(Reason.VALUE);
     }
 
-    private Result evalRequired(IdEObject element, List<EStructuralFeature> attributes) {
+    private <E> Result evalRequired(ModelAccess<E> model, E element, List<Slot> attributes) {
         // REQUIRED: at least one matching attribute must be present and satisfy the value. When the
         // name is a restriction matching several attributes, ANY satisfying match passes.
-        if (attributes.isEmpty()) return fail("NOVALUE");
+        if (attributes.isEmpty()) return AttributeResult.fail(Reason.NOVALUE);
 
-        Map<String, Object> lastReason = Map.of("type", "NOVALUE");
-        for (EStructuralFeature attr : attributes) {
-            Object raw = element.eGet(attr);
-            if (!isPresent(raw, attr)) { lastReason = Map.of("type", "NOVALUE"); continue; }
+        Result lastFailure = AttributeResult.fail(Reason.NOVALUE);
+        for (int i = 0; i < attributes.size(); i++) {
+            Slot attr = attributes.get(i);
+            Object raw = model.value(element, attr.name());
+            if (!isPresent(raw)) { lastFailure = AttributeResult.fail(Reason.NOVALUE); continue; }
 
-            Object val = unwrap(raw);
-            if (!isActualValue(val)) { lastReason = Map.of("type", "FALSEY", "actual", String.valueOf(val)); continue; }
+            Object val = model.unwrap(raw);
+            boolean entity = model.element(val) != null;
+            if (!entity && !isActualValue(val)) { lastFailure = AttributeResult.fail(Reason.FALSEY, String.valueOf(val)); continue; }
 
-            if (val instanceof IdEObject) {
-                if (this.value == null) return pass();
-                lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val));
+            if (entity) {
+                if (this.value == null) return AttributeResult.PASS;
+                lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val));
                 continue;
             }
-            if (this.value == null) return pass();
+            if (this.value == null) return AttributeResult.PASS;
             // An integer-typed attribute cannot match an IDS value that is not an integer literal
             // (e.g. "42.0" against an IfcInteger) — such a requirement can never be satisfied.
-            if (integerTypeMismatch(attr)) { lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val)); continue; }
-            String s = matchString(val);
-            if (s != null && value.matches(s)) return pass();
-            lastReason = Map.of("type", "VALUE", "actual", String.valueOf(val));
+            if (integerTypeMismatch(attr)) { lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val)); continue; }
+            String s = matchString(model, val);
+            if (s != null && value.matches(s)) return AttributeResult.PASS;
+            lastFailure = AttributeResult.fail(Reason.VALUE, String.valueOf(val));
         }
-        return fail(lastReason);
+        return lastFailure;
     }
 
-    @SuppressWarnings("unchecked")
-    private boolean isPresent(Object raw, EStructuralFeature attr) {
+    /** Aggregates are present when they have an element. */
+    private boolean isPresent(Object raw) {
         if (raw == null) return false;
-
-        if(attr.isMany()) {
-            List<Object> list = (List<Object>) raw;
-            return !list.isEmpty();
-        }
+        if (raw instanceof List<?> list) return !list.isEmpty();
         return true;
     }
 
+    /** Whether a scalar (not an entity) is an actual value rather than empty or UNKNOWN. */
     private boolean isActualValue(Object raw) {
-        if (raw instanceof IdEObject) return true;
+        // Plain numbers and booleans are always actual values; skip the reflective getName() probe,
+        // which throws (and allocates) for every such value.
+        if (raw instanceof Number || raw instanceof Boolean) return true;
 
         if (raw instanceof CharSequence cs) {
             String s = cs.toString().trim();
@@ -199,32 +228,10 @@ public class Attribute extends Facet {
         return true;
     }
 
-    /** Derived and inverse attributes cannot be checked. */
-    private static boolean isUncheckable(EStructuralFeature f, org.bimserver.emf.PackageMetaData meta) {
-        if (f.isDerived() || f.isTransient() || f.isVolatile()) return true;        // derived
-        return f instanceof EReference ref && meta != null && meta.isInverse(ref);  // inverse
-    }
-
-    private static boolean isIntegerTyped(EStructuralFeature attr) {
-        if (!(attr instanceof EAttribute)) return false;
-        EClassifier t = attr.getEType();
-        if (t == null) return false;
-        String cn = t.getInstanceClassName();
-        return "int".equals(cn) || "long".equals(cn) || "short".equals(cn)
-                || "java.lang.Integer".equals(cn) || "java.lang.Long".equals(cn)
-                || "java.lang.Short".equals(cn) || "java.math.BigInteger".equals(cn);
-    }
-
-    private boolean integerTypeMismatch(EStructuralFeature attr) {
+    private boolean integerTypeMismatch(Slot attr) {
         return this.value instanceof SimpleValue sv
-                && isIntegerTyped(attr)
+                && attr.integer()
                 && !sv.extract().trim().matches("[-+]?\\d+");
     }
 
-    private static AttributeResult pass() { return new AttributeResult(true, null); }
-    private static AttributeResult fail(String type) { return new AttributeResult(false, Map.of("type", type)); }
-    private static AttributeResult fail(Map<String, Object> reason) {
-        return new AttributeResult(false, reason);
-    }
-
 }
@@ -1,13 +1,15 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.Value;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.access.Relationship;
 import de.openfabtwin.bimserver.idschecker.model.result.ClassificationResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.EClass;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.Cardinality.*;
 
@@ -40,19 +42,31 @@ public class Classification extends Facet {
         }
     }
 
+    public Value getSystem() { return system; }
+    public Value getValue() { return value; }
+    public String getUri() { return uri; }
+    public String getInstructions() { return instructions; }
+
     @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> results = new ArrayList<>();
-        Set<Long> seen = new HashSet<>();
+    public void require(ModelRequirements requirements) {
+        requirements.require("IfcRelAssociatesClassification", "IfcClassificationReference",
+                "IfcClassification", "IfcClassificationNotation", "IfcClassificationNotationFacet",
+                "IfcExternalReferenceRelationship", "IfcRelDefinesByType", "IfcTypeObject");
+    }
 
-        EClass relAssClass = (EClass) model.getPackageMetaData().getEClassifier("IfcRelAssociatesClassification");
-        if (relAssClass == null) return results;
+    @Override
+    public void requireCandidates(ModelRequirements requirements) {
+        requirements.requireRelationship("IfcRelAssociatesClassification", "RelatedObjects");
+    }
 
-        for (IdEObject rel : model.getAll(relAssClass)) {
-            List<IdEObject> related = (List<IdEObject>) rel.eGet(relAssClass.getEStructuralFeature("RelatedObjects"));
-            if(related == null) continue;
-            for (IdEObject obj : related) {
-                if(seen.add(obj.getOid())) results.add(obj);
+    @Override
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<E> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        for (E rel : model.instances("IfcRelAssociatesClassification")) {
+            for (E obj : model.references(rel, "RelatedObjects")) {
+                if(seen.add(model.id(obj))) results.add(obj);
             }
         }
         return results;
@@ -62,54 +76,56 @@ public class Classification extends Facet {
     private record Assoc(String system, String value) {}
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
-       List<Assoc> assocs = gather(element);
+    public <E> Result matches(ModelAccess<E> model, E element) {
+       List<Assoc> assocs = gather(model, element);
 
        boolean isPass = !assocs.isEmpty();
-       Map<String, Object> reason = new HashMap<>();
+       Result failure = null;
 
        // --- No classification at all ---
        if (!isPass) {
            if (cardinality == OPTIONAL) {
-               return new ClassificationResult(true, null);
+               return ClassificationResult.PASS;
            }
-           reason = Map.of("type", "NOVALUE");
+           failure = ClassificationResult.noValue();
        }
 
        // --- only check value when this.value is set ---
        if (isPass && this.value != null) {
-            List<String> actualValues = new ArrayList<>();
             boolean anyMatch = false;
             for (Assoc a : assocs) {
-                if (a.value() != null) {
-                    actualValues.add(a.value());
-                    if (this.value.matches(a.value())) anyMatch = true;
-                }
+                if (a.value() != null && this.value.matches(a.value())) { anyMatch = true; break; }
             }
             isPass = anyMatch;
-            if (!isPass) reason = Map.of("type", "VALUE", "actual", actualValues);
+            if (!isPass) failure = ClassificationResult.fail(Reason.VALUE, collect(assocs, Assoc::value));
        }
 
        // --- only check system when this.system is set ---
        if (isPass && this.system != null) {
-           List<String> actualSystems = new ArrayList<>();
            boolean sysMatch = false;
            for (Assoc a : assocs) {
-               if (a.system() != null) {
-                   actualSystems.add(a.system());
-                   if (system.matches(a.system())) sysMatch = true;
-               }
+               if (a.system() != null && system.matches(a.system())) { sysMatch = true; break; }
            }
            isPass = sysMatch;
-           if (!isPass) reason = Map.of("type", "SYSTEM", "actual", actualSystems);
+           if (!isPass) failure = ClassificationResult.fail(Reason.SYSTEM, collect(assocs, Assoc::system));
        }
 
        // PROHIBITED returns !isPass, not always false ---
        if (cardinality == PROHIBITED) {
-            return new ClassificationResult(!isPass, Map.of("type", "PROHIBITED"));
+            return ClassificationResult.prohibited(!isPass);
        }
 
-       return new ClassificationResult(isPass, reason);
+       return isPass ? ClassificationResult.PASS : failure;
+    }
+
+    /** Non-null values of one association field, collected only when a failure needs reporting. */
+    private static List<String> collect(List<Assoc> assocs, Function<Assoc, String> field) {
+        List<String> out = new ArrayList<>();
+        for (Assoc a : assocs) {
+            String v = field.apply(a);
+            if (v != null) out.add(v);
+        }
+        return out;
     }
 
     /**
@@ -118,14 +134,14 @@ public class Classification extends Facet {
      * classification per <b>system</b>, so a type association is dropped if the occurrence already
      * has an association in the same system.
      */
-    private List<Assoc> gather(IdEObject element) {
-        List<Assoc> occ = associationsOf(element);
+    private <E> List<Assoc> gather(ModelAccess<E> model, E element) {
+        List<Assoc> occ = associationsOf(model, element);
         Set<String> occSystems = new HashSet<>();
         for (Assoc a : occ) if (a.system() != null) occSystems.add(a.system());
 
         List<Assoc> all = new ArrayList<>(occ);
-        for (IdEObject type : definingTypes(element)) {
-            for (Assoc a : associationsOf(type)) {
+        for (E type : model.related(element, Relationship.TYPE)) {
+            for (Assoc a : associationsOf(model, type)) {
                 if (a.system() == null || !occSystems.contains(a.system())) all.add(a);
             }
         }
@@ -133,77 +149,48 @@ public class Classification extends Facet {
     }
 
     /** Associations directly on an object: rooted (HasAssociations) + non-rooted (HasExternalReferences). */
-    private List<Assoc> associationsOf(IdEObject obj) {
+    private <E> List<Assoc> associationsOf(ModelAccess<E> model, E obj) {
         List<Assoc> out = new ArrayList<>();
 
-        List<?> rels = getList(obj, "HasAssociations");
-        if (rels != null) {
-            for (Object o : rels) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if (!"IfcRelAssociatesClassification".equals(rel.eClass().getName())) continue;
-                addRelating(out, getIdEObject(rel, "RelatingClassification"));
-            }
-        }
+        for (E relating : model.related(obj, Relationship.CLASSIFICATION)) addRelating(model, out, relating);
 
         // Non-rooted resources (IfcMaterial, IfcProfileDef, ...) carry classification via
         // IfcExternalReferenceRelationship, exposed on the resource as the HasExternalReferences inverse.
-        List<?> exts = getList(obj, "HasExternalReferences");
-        if (exts != null) {
-            for (Object o : exts) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if (!"IfcExternalReferenceRelationship".equals(rel.eClass().getName())) continue;
-                addRelating(out, getIdEObject(rel, "RelatingReference"));
-            }
-        }
+        for (E relating : model.related(obj, Relationship.EXTERNAL_REFERENCE)) addRelating(model, out, relating);
         return out;
     }
 
-    private void addRelating(List<Assoc> out, IdEObject relating) {
-        if (relating == null) return;
-        String t = relating.eClass().getName();
+    private <E> void addRelating(ModelAccess<E> model, List<Assoc> out, E relating) {
+        String t = model.className(relating);
         if ("IfcClassificationReference".equals(t)) {
-            String system = systemNameOf(relating);
-            addRef(out, relating, system);
-            for (IdEObject parent : getInheritedReferences(relating)) addRef(out, parent, system);
+            String system = systemNameOf(model, relating);
+            addRef(model, out, relating, system);
+            for (E parent : getInheritedReferences(model, relating)) addRef(model, out, parent, system);
         } else if ("IfcClassification".equals(t)) {
             // A classification associated directly (no reference) is a system with no value.
-            out.add(new Assoc(getString(relating, "Name"), null));
+            out.add(new Assoc(model.string(relating, "Name"), null));
         }
     }
 
-    private void addRef(List<Assoc> out, IdEObject ref, String system) {
-        String id = getString(ref, "Identification");
-        String ir = getString(ref, "ItemReference");
+    private <E> void addRef(ModelAccess<E> model, List<Assoc> out, E ref, String system) {
+        String id = model.string(ref, "Identification");
+        String ir = model.string(ref, "ItemReference");
         out.add(new Assoc(system, id != null ? id : ir));
     }
 
-    private String systemNameOf(IdEObject ref) {
-        IdEObject cls = getClassificationOfReference(ref);
-        return cls != null ? getString(cls, "Name") : null;
-    }
-
-    private List<IdEObject> definingTypes(IdEObject element) {
-        List<IdEObject> types = new ArrayList<>();
-        List<?> rels = getList(element, "IsTypedBy");
-        if (rels != null) {
-            for (Object o : rels) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if (!"IfcRelDefinesByType".equals(rel.eClass().getName())) continue;
-                IdEObject t = getIdEObject(rel, "RelatingType");
-                if (t != null) types.add(t);
-            }
-        }
-        return types;
+    private <E> String systemNameOf(ModelAccess<E> model, E ref) {
+        E cls = getClassificationOfReference(model, ref);
+        return cls != null ? model.string(cls, "Name") : null;
     }
 
     // Inherited references: follow ReferencedSource upward while it is also an IfcClassificationReference.
-    private Set<IdEObject> getInheritedReferences(IdEObject ref) {
-        Set<IdEObject> results = new LinkedHashSet<>();
-        IdEObject current = ref;
+    private <E> Set<E> getInheritedReferences(ModelAccess<E> model, E ref) {
+        Set<E> results = new LinkedHashSet<>();
+        E current = ref;
         for (int guard = 0; guard < 50; guard++) { // small guard against cycles
-            IdEObject src = getIdEObject(current, "ReferencedSource");
+            E src = model.reference(current, "ReferencedSource");
             if (src == null) break;
-            if (!"IfcClassificationReference".equals(src.eClass().getName())) break;
+            if (!"IfcClassificationReference".equals(model.className(src))) break;
             // parent reference
             if (!results.add(src)) break;
             current = src;
@@ -212,19 +199,19 @@ public class Classification extends Facet {
         return results;
     }
 
-    private IdEObject getClassificationOfReference(IdEObject ref) {
+    private <E> E getClassificationOfReference(ModelAccess<E> model, E ref) {
         if(ref == null) return null;
 
-        IdEObject src = getIdEObject(ref, "ReferencedSource");
+        E src = model.reference(ref, "ReferencedSource");
         if (src == null) return null;
 
-        String t = src.eClass().getName();
+        String t = model.className(src);
         if(t.equals("IfcClassification")) return src;
 
-        IdEObject cur = src;
-        for (int guard = 0; guard < 50; guard++) { // small guard against cycles
-            if ("IfcClassification".equals(cur.eClass().getName())) return cur;
-            cur = getIdEObject(cur, "ReferencedSource");
+        E cur = src;
+        for (int guard = 0; guard < 50 && cur != null; guard++) { // small guard against cycles
+            if ("IfcClassification".equals(model.className(cur))) return cur;
+            cur = model.reference(cur, "ReferencedSource");
         }
         return null;
     }
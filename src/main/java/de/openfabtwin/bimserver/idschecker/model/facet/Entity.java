@@ -1,12 +1,12 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.Value;
 import de.openfabtwin.bimserver.idschecker.model.result.EntityResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EClassifier;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.access.Relationship;
 
 import java.util.*;
 
@@ -17,6 +17,9 @@ public class Entity extends Facet {
     private final String instructions;
 //    private String actualPredefVal = "";
 
+    // The name check only depends on the element's class, so it is evaluated once per class.
+    private final Map<String, Boolean> nameMatchByClass = new HashMap<>();
+
 
     public Entity(Value name, Value predefinedType, String instructions) {
         this.name = name;
@@ -34,103 +37,119 @@ public class Entity extends Facet {
         }
     }
 
+    public Value getName() { return name; }
+    public Value getPredefinedType() { return predefinedType; }
+    public String getInstructions() { return instructions; }
+
     @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> candidates = new ArrayList<>();
-        var meta = model.getPackageMetaData();
-        var epkg = meta.getEPackage();
-
-        Set<Long> seen = new HashSet<>();
-        for (EClassifier c : epkg.getEClassifiers()) {
-            if (c instanceof EClass ec) {
-                String className = ec.getName().toUpperCase(Locale.ROOT);
-                if (name.matches(className)) {
-                    for (IdEObject e : model.getAllWithSubTypes(ec)) {
-                        if(seen.add(e.getOid())) candidates.add(e);
-                    }
-                }
+    public void require(ModelRequirements requirements) {
+        requirements.requireMatching(ec -> nameMatches(ec.getName()));
+        // The predefined type and the IFC2X3 fallback to the type object both read IfcRelDefinesByType.
+        boolean ifc2x3 = requirements.getPackageMetaData().getSchema().name().contains("IFC2X3");
+        if (predefinedType != null || ifc2x3) requirements.require("IfcRelDefinesByType", "IfcTypeObject");
+    }
+
+    @Override
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<String> matching = new ArrayList<>();
+        for (String c : model.getClassNames()) {
+            if (nameMatches(c)) matching.add(c);
+        }
+
+        // instances() already covers matching subclasses, so only query the topmost matching
+        // classes; the candidate list is then duplicate-free without boxing every id into a set.
+        List<E> candidates = new ArrayList<>();
+        for (String c : matching) {
+            boolean covered = false;
+            for (String other : matching) {
+                if (!other.equals(c) && model.isSubtype(c, other)) { covered = true; break; }
             }
+            if (!covered) candidates.addAll(model.instances(c));
         }
         if (this.predefinedType == null) return candidates;
 
-        List<IdEObject> result = new ArrayList<>();
+        List<E> result = new ArrayList<>();
         String[] unused = {""};
-        for (IdEObject candidate : candidates) {
-            if(predefinedFilter(candidate, unused)) result.add(candidate);
+        for (E candidate : candidates) {
+            if(predefinedFilter(model, candidate, unused)) result.add(candidate);
         }
         return result;
     }
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
-        String entName = element.eClass().getName().toUpperCase(Locale.ROOT);
-        boolean isPass = name != null && name.matches(entName);
+    public <E> Result matches(ModelAccess<E> model, E element) {
+        boolean isPass = name != null && nameMatches(model.className(element));
 
-        Map<String, Object> reason = null;
+        Result failure = null;
 
         if (!isPass) {
-            String schema = model.getPackageMetaData().getSchema().name().toUpperCase();
+            String entName = model.className(element).toUpperCase(Locale.ROOT);
+            String schema = model.getSchema();
             String nameStr = name != null ? name.extract().toUpperCase() : "";
             if (schema.contains("IFC2X3") && !nameStr.endsWith("TYPE")) {
-                IdEObject elementType = getElementType(element);
+                E elementType = getElementType(model, element);
                 if (elementType != null) {
-                    String typeName = elementType.eClass().getName().toUpperCase(Locale.ROOT);
+                    String typeName = model.className(elementType).toUpperCase(Locale.ROOT);
                     if (typeName.equals(nameStr + "TYPE")) {
                         isPass = true;
                     }
                 }
             }
             if (!isPass) {
-                reason = Map.of("type", "NAME", "actual", entName);
+                failure = EntityResult.fail(Reason.NAME, entName);
             }
         }
 
         if (isPass && this.predefinedType != null) {
             String[] actualOut = {""};
-            isPass = predefinedFilter(element, actualOut);
+            isPass = predefinedFilter(model, element, actualOut);
             if (!isPass) {
-                reason = Map.of(
-                        "type", "PREDEFINEDTYPE",
-                        "actual", actualOut[0]
-                );
+                failure = EntityResult.fail(Reason.PREDEFINEDTYPE, actualOut[0]);
             }
         }
-        return new EntityResult(isPass, reason);
+        return isPass ? EntityResult.PASS : failure;
     }
 
-    private boolean predefinedFilter(IdEObject candidate, String[] actualOut) {
-        List<?> typedBy = getList(candidate, "IsTypedBy");
+    private boolean nameMatches(String className) {
+        Boolean cached = nameMatchByClass.get(className);
+        if (cached == null) {
+            cached = name.matches(className.toUpperCase(Locale.ROOT));
+            nameMatchByClass.put(className, cached);
+        }
+        return cached;
+    }
 
-        if (typedBy != null && !typedBy.isEmpty()) {
-            for (Object relObj : typedBy) {
-                if (!(relObj instanceof IdEObject rel)) continue;
+    private <E> boolean predefinedFilter(ModelAccess<E> model, E candidate, String[] actualOut) {
+        List<E> typedBy = model.references(candidate, "IsTypedBy");
 
-                String relClass = rel.eClass().getName();
+        if (!typedBy.isEmpty()) {
+            for (E rel : typedBy) {
+                String relClass = model.className(rel);
                 if (!"IfcRelDefinesByType".equals(relClass)) continue;
 
-                IdEObject type = getIdEObject(rel, "RelatingType");
+                E type = model.reference(rel, "RelatingType");
                 if (type == null) continue;
 
                 // A defining type object normally drives the predefined type, BUT an occurrence may
                 // override it: if the type's PredefinedType is USERDEFINED/NOTDEFINED/absent and does
                 // not match, fall back to the occurrence instance (see buildingSMART test
                 // "overridden_predefined_types_should_pass").
-                String pt = getString(type, "PredefinedType");
+                String pt = model.string(type, "PredefinedType");
                 if (eq(pt, "USERDEFINED")){
                     // IDS may require the literal "USERDEFINED" enum, or the user-defined type name.
                     if (predefinedType.matches("USERDEFINED")) { actualOut[0] = "USERDEFINED"; return true; }
-                    String val = userDefinedValue(type);
+                    String val = userDefinedValue(model, type);
                     actualOut[0] = val != null ? val : "";
                     if (predefinedType.matches(val)) return true;
                 } else if (predefinedType.matches(pt)) {
                     actualOut[0] = pt != null ? pt : "";
                     return true;
                 } else {
-                    if (objType(candidate, actualOut)) return true;
+                    if (objType(model, candidate, actualOut)) return true;
                 }
             }
         } else {
-            return objType(candidate, actualOut);
+            return objType(model, candidate, actualOut);
         }
         return false;
     }
@@ -139,12 +158,12 @@ public class Entity extends Facet {
         return a != null && a.equals(b);
     }
 
-    private boolean objType (IdEObject obj, String[] actualOut) {
-        String pdef = getString(obj,"PredefinedType");
+    private <E> boolean objType(ModelAccess<E> model, E obj, String[] actualOut) {
+        String pdef = model.string(obj, "PredefinedType");
         if (eq(pdef, "USERDEFINED")) {
             // IDS may require the literal "USERDEFINED" enum, or the user-defined type name.
             if (predefinedType.matches("USERDEFINED")) { actualOut[0] = "USERDEFINED"; return true; }
-            String val = userDefinedValue(obj);
+            String val = userDefinedValue(model, obj);
             actualOut[0] = val != null ? val : "";
             return predefinedType.matches(val);
         } //6th check
@@ -157,35 +176,23 @@ public class Entity extends Facet {
      * on the entity kind: occurrences (IfcObject) use {@code ObjectType}, element types
      * (IfcElementType) use {@code ElementType}, and process/type objects use {@code ProcessType}.
      */
-    private String userDefinedValue(IdEObject obj) {
-        String val = getString(obj, "ObjectType");
-        if (val == null) val = getString(obj, "ElementType");
-        if (val == null) val = getString(obj, "ProcessType");
+    private <E> String userDefinedValue(ModelAccess<E> model, E obj) {
+        String val = model.string(obj, "ObjectType");
+        if (val == null) val = model.string(obj, "ElementType");
+        if (val == null) val = model.string(obj, "ProcessType");
         return val;
     }
 
-    @SuppressWarnings("unchecked")
-    private IdEObject getElementType(IdEObject element) {
+    private <E> E getElementType(ModelAccess<E> model, E element) {
         // IFC4+: IsTypedBy → RelatingType
-        List<?> typedBy = getList(element, "IsTypedBy");
-        if (typedBy != null) {
-            for (Object relObj : typedBy) {
-                if (!(relObj instanceof IdEObject rel)) continue;
-                if (!"IfcRelDefinesByType".equals(rel.eClass().getName())) continue;
-                IdEObject type = getIdEObject(rel, "RelatingType");
-                if (type != null) return type;
-            }
-        }
+        E type = model.relating(element, Relationship.TYPE);
+        if (type != null) return type;
 
         // IFC2X3: IsDefinedBy → RelatingType (IfcRelDefinesByType also exists in 2x3)
-        List<?> definedBy = getList(element, "IsDefinedBy");
-        if (definedBy != null) {
-            for (Object relObj : definedBy) {
-                if (!(relObj instanceof IdEObject rel)) continue;
-                if (!"IfcRelDefinesByType".equals(rel.eClass().getName())) continue;
-                IdEObject type = getIdEObject(rel, "RelatingType");
-                if (type != null) return type;
-            }
+        for (E rel : model.references(element, "IsDefinedBy")) {
+            if (!"IfcRelDefinesByType".equals(model.className(rel))) continue;
+            type = model.reference(rel, "RelatingType");
+            if (type != null) return type;
         }
         return null;
     }
@@ -1,8 +1,10 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import de.openfabtwin.bimserver.idschecker.spill.ResultBudget;
 import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,10 +23,31 @@ public abstract class Facet {
     protected String requirement_templates;
     protected String prohibited_templates;
 
+    /** Estimated heap of a failure with its result, as charged against a {@link ResultBudget}. */
+    private static final int FAILURE_COST = 96;
+
     public enum Cardinality {REQUIRED, OPTIONAL, PROHIBITED}
 
-    public abstract List<IdEObject> filter(IfcModelInterface model);
-    public abstract Result matches(IfcModelInterface model, IdEObject element);
+    /**
+     * The elements this facet can apply to, for the applicability filter of a {@link Specification}.
+     * The built-in facets read the model only through {@code model}, so they work on any backend.
+     */
+    public abstract <E> List<E> filter(ModelAccess<E> model);
+
+    /** Whether {@code element} satisfies this facet, read through {@code model}. */
+    public abstract <E> Result matches(ModelAccess<E> model, E element);
+
+    /** Declare the IFC classes {@link #matches} reads from a loaded element; by default the whole model. */
+    public void require(ModelRequirements requirements) {
+        requirements.requireEverything();
+    }
+
+    /**
+     * Declare the IFC classes {@link #filter} reads beyond those of {@link #require}. Only asked of the
+     * facet a specification filters its candidates with.
+     */
+    public void requireCandidates(ModelRequirements requirements) {
+    }
 
     public static Cardinality cardinalityFromString(String s) {
         if (s == null || s.isBlank()) {
@@ -60,6 +83,15 @@ public abstract class Facet {
         return "This facet cannot be interpreted";
     }
 
+    /** The parsed cardinality; {@code null} if the IDS gave one this checker does not know. */
+    public Cardinality getCardinality() {
+        return this.cardinality;
+    }
+
+    public void setCardinality(Cardinality cardinality) {
+        this.cardinality = cardinality;
+    }
+
     public void addPassedEntities(IdEObject element) {
         this.passedEntities.add(element);
     }
@@ -68,8 +100,14 @@ public abstract class Facet {
         return this.passedEntities;
     }
 
-    public void addFailures(IdEObject element, String reason) {
-        this.failures.add(new FacetFailure(element, reason));
+    public void addFailures(IdEObject element, Result result) {
+        this.failures.add(new FacetFailure(element, result));
+    }
+
+    /** Keep this facet's results within {@code budget}, spilling the rest to disk. Drops current results. */
+    public void setResultBudget(ResultBudget budget) {
+        this.passedEntities = budget.elements();
+        this.failures = budget.list(FAILURE_COST, FacetFailure.codec(budget.getResolver()));
     }
 
     public void setStatus(boolean bool) {
@@ -103,17 +141,6 @@ public abstract class Facet {
         return (v instanceof IdEObject) ? (IdEObject) v : null;
     }
 
-    public Object getObject(IdEObject obj, String... features) {
-        for (String f : features) {
-            var sf = obj.eClass().getEStructuralFeature(f);
-            if (sf != null) {
-                Object v = obj.eGet(sf);
-                if (v != null) return v;
-            }
-        }
-        return null;
-    }
-
     public static List<?> getList(IdEObject obj, String featName) {
         var f = obj.eClass().getEStructuralFeature(featName);
         if (f == null) return null;
@@ -149,6 +176,17 @@ public abstract class Facet {
     public static String matchString(Object v) {
         Object u = unwrap(v);
         if (u == null || u instanceof IdEObject) return null;
+        return canonical(u);
+    }
+
+    /** {@link #matchString(Object)} of a value read through {@code model}. */
+    public static <E> String matchString(ModelAccess<E> model, Object v) {
+        Object u = model.unwrap(v);
+        if (u == null || model.element(u) != null) return null;
+        return canonical(u);
+    }
+
+    private static String canonical(Object u) {
         if (u instanceof Boolean b) return b ? "true" : "false";
         String s = u.toString().trim();
         if (s.equalsIgnoreCase("true")  || s.equals(".T.") || s.equals("T")) return "true";
@@ -1,21 +1,80 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import de.openfabtwin.bimserver.idschecker.model.result.SpilledResult;
+import de.openfabtwin.bimserver.idschecker.spill.ElementResolver;
+import de.openfabtwin.bimserver.idschecker.spill.SpillableList;
 import org.bimserver.emf.IdEObject;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class FacetFailure {
     protected final IdEObject element;
-    protected final String reason;
+    protected final Result result;
+    private String reason;
 
-    protected FacetFailure (IdEObject element, String reason) {
+    protected FacetFailure (IdEObject element, Result result) {
         this.element = element;
-        this.reason = reason;
+        this.result = result;
     }
 
     public IdEObject getElement() {
         return element;
     }
 
+    /** The facet result behind this failure; a pass when the specification prohibits matches. */
+    public Result getResult() {
+        return result;
+    }
+
+    /** Machine-readable reason: the result's reason, or {@code PROHIBITED} for a prohibited match. */
+    public Result.Reason getReasonCode() {
+        return result.isPass() ? Result.Reason.PROHIBITED : result.getReason();
+    }
+
+    /** Human-readable reason, rendered on first use only. */
     public String getReason() {
+        if (reason == null) reason = result.to_String();
         return reason;
     }
+
+    /** Spill format: oid, pass flag, reason, then actual, expected and message as optional strings. */
+    static SpillableList.Codec<FacetFailure> codec(ElementResolver resolver) {
+        return new SpillableList.Codec<>() {
+            @Override
+            public void write(DataOutput out, FacetFailure failure) throws IOException {
+                Result result = failure.result;
+                out.writeLong(failure.element.getOid());
+                out.writeBoolean(result.isPass());
+                out.writeByte(result.getReason().ordinal());
+                writeString(out, result.getActual() == null ? null : String.valueOf(result.getActual()));
+                writeString(out, result.getExpected() == null ? null : String.valueOf(result.getExpected()));
+                writeString(out, failure.getReason());
+            }
+
+            @Override
+            public FacetFailure read(DataInput in) throws IOException {
+                IdEObject element = resolver.resolve(in.readLong());
+                boolean isPass = in.readBoolean();
+                Result.Reason reason = Result.Reason.values()[in.readByte()];
+                String actual = readString(in);
+                String expected = readString(in);
+                String text = readString(in);
+                FacetFailure failure = new FacetFailure(element, new SpilledResult(isPass, reason, actual, expected, text));
+                failure.reason = text;
+                return failure;
+            }
+        };
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s.length() > 16_000 ? s.substring(0, 16_000) : s);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
 }
@@ -1,12 +1,12 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.Value;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.access.Relationship;
 import de.openfabtwin.bimserver.idschecker.model.result.MaterialResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EClassifier;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
 
 import java.util.*;
 
@@ -35,174 +35,129 @@ public class Material extends Facet {
         }
     }
 
+    public Value getValue() { return value; }
+    public String getUri() { return uri; }
+    public String getInstructions() { return instructions; }
+
+    @Override
+    public void require(ModelRequirements requirements) {
+        requirements.requireRelationship("IfcRelAssociatesMaterial", "RelatingMaterial");
+        requirements.require("IfcMaterialDefinition",
+                "IfcMaterial", "IfcMaterialList", "IfcMaterialLayerSetUsage", "IfcMaterialProfileSetUsage",
+                "IfcMaterialLayerSet", "IfcMaterialLayer", "IfcMaterialProfileSet", "IfcMaterialProfile",
+                "IfcMaterialConstituentSet", "IfcMaterialConstituent", "IfcRelDefinesByType", "IfcTypeObject");
+    }
+
+    @Override
+    public void requireCandidates(ModelRequirements requirements) {
+        requirements.require("IfcObjectDefinition");
+    }
+
     @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> results = new ArrayList<>();
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<E> results = new ArrayList<>();
         Set<Long> seen = new HashSet<>();
 
-        EClassifier c = model.getPackageMetaData().getEPackage().getEClassifier("IfcObjectDefinition");
-        if (c instanceof EClass ec) {
-            for (IdEObject inst : model.getAllWithSubTypes(ec)) {
-                if (seen.add(inst.getOid())) results.add(inst);
-            }
+        for (E inst : model.instances("IfcObjectDefinition")) {
+            if (seen.add(model.id(inst))) results.add(inst);
         }
         return results;
     }
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
+    public <E> Result matches(ModelAccess<E> model, E element) {
 
-        IdEObject material = getMaterial(element);
+        E material = getMaterial(model, element);
 
         boolean isPass = material != null;
-        Map<String, Object> reason = null;
+        Result failure = null;
 
         if (!isPass) {
-            if (cardinality == OPTIONAL) return new MaterialResult(true, null);
-            reason = Map.of("type", "NOVALUE");
+            if (cardinality == OPTIONAL) return MaterialResult.PASS;
+            failure = MaterialResult.noValue();
         }
 
         if (isPass && this.value != null) {
-            Set<String> values = collectMaterialValues(material);
-            isPass = values.stream().anyMatch(v -> v != null && this.value.matches(v));
+            Set<String> values = collectMaterialValues(model, material);
+            isPass = false;
+            for (String v : values) {
+                if (v != null && this.value.matches(v)) { isPass = true; break; }
+            }
             if (!isPass) {
-                reason = Map.of("type", "VALUE", "actual", new ArrayList<>(values));
+                failure = MaterialResult.fail(Reason.VALUE, new ArrayList<>(values));
             }
         }
 
         if (cardinality == PROHIBITED) {
-            return new MaterialResult(!isPass, Map.of("type", "PROHIBITED"));
+            return MaterialResult.prohibited(!isPass);
         }
-        return new MaterialResult(isPass, reason);
+        return isPass ? MaterialResult.PASS : failure;
     }
 
-    private IdEObject getMaterial(IdEObject element) {
+    private <E> E getMaterial(ModelAccess<E> model, E element) {
         // Direct association on the occurrence...
-        IdEObject direct = materialFrom(element);
-        if (direct != null) return direct;
+        E direct = model.relating(element, Relationship.MATERIAL);
+        if (direct != null) return skipUsage(model, direct);
         // ...otherwise inherit from the defining type (spec: occurrences inherit type materials).
-        for (IdEObject type : definingTypes(element)) {
-            IdEObject inherited = materialFrom(type);
-            if (inherited != null) return inherited;
-        }
-        return null;
-    }
-
-    private IdEObject materialFrom(IdEObject obj) {
-        List<?> rels = getList(obj, "HasAssociations");
-        if (rels == null) return null;
-
-        for (Object o : rels) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if (!"IfcRelAssociatesMaterial".equals(rel.eClass().getName())) continue;
-
-            IdEObject materialSelect = getIdEObject(rel, "RelatingMaterial");
-            if (materialSelect == null) continue;
-
-            return skipUsage(materialSelect);
+        for (E type : model.related(element, Relationship.TYPE)) {
+            E inherited = model.relating(type, Relationship.MATERIAL);
+            if (inherited != null) return skipUsage(model, inherited);
         }
         return null;
     }
 
-    private List<IdEObject> definingTypes(IdEObject element) {
-        List<IdEObject> types = new ArrayList<>();
-        List<?> rels = getList(element, "IsTypedBy");
-        if (rels != null) {
-            for (Object o : rels) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if (!"IfcRelDefinesByType".equals(rel.eClass().getName())) continue;
-                IdEObject t = getIdEObject(rel, "RelatingType");
-                if (t != null) types.add(t);
-            }
-        }
-        return types;
-    }
-
-    private IdEObject skipUsage(IdEObject mat) {
-        if (mat == null) return null;
-        String type = mat.eClass().getName();
+    private <E> E skipUsage(ModelAccess<E> model, E mat) {
+        String type = model.className(mat);
         if ("IfcMaterialLayerSetUsage".equals(type)) {
-            IdEObject inner = getIdEObject(mat, "ForLayerSet");
+            E inner = model.reference(mat, "ForLayerSet");
             return inner != null ? inner : mat;
         }
         if ("IfcMaterialProfileSetUsage".equals(type)) {
-            IdEObject inner = getIdEObject(mat, "ForProfileSet");
+            E inner = model.reference(mat, "ForProfileSet");
             return inner != null ? inner : mat;
         }
         return mat;
     }
 
-    private Set<String> collectMaterialValues(IdEObject material) {
+    private <E> Set<String> collectMaterialValues(ModelAccess<E> model, E material) {
         Set<String> values = new LinkedHashSet<>();
-        String type = material.eClass().getName();
+        String type = model.className(material);
 
         switch (type) {
-            case "IfcMaterial" -> {
-                addStr(values, getString(material, "Name"));
-                addStr(values, getString(material, "Category"));
-            }
+            case "IfcMaterial" -> addNames(model, values, material);
             case "IfcMaterialList" -> {
-                List<?> mats = getList(material, "Materials");
-                if (mats != null) {
-                    for (Object o : mats) {
-                        if (!(o instanceof IdEObject mat)) continue;
-                        addStr(values, getString(mat, "Name"));
-                        addStr(values, getString(mat, "Category"));
-                    }
-                }
+                for (E mat : model.references(material, "Materials")) addNames(model, values, mat);
             }
             case "IfcMaterialLayerSet" -> {
-                addStr(values, getString(material, "LayerSetName"));
-                List<?> layers = getList(material, "MaterialLayers");
-                if (layers != null) {
-                    for (Object o : layers) {
-                        if (!(o instanceof IdEObject layer)) continue;
-                        addStr(values, getString(layer, "Name"));
-                        addStr(values, getString(layer, "Category"));
-                        IdEObject mat = getIdEObject(layer, "Material");
-                        if (mat != null) {
-                            addStr(values, getString(mat, "Name"));
-                            addStr(values, getString(mat, "Category"));
-                        }
-                    }
-                }
+                addStr(values, model.string(material, "LayerSetName"));
+                addParts(model, values, model.references(material, "MaterialLayers"));
             }
             case "IfcMaterialProfileSet" -> {
-                addStr(values, getString(material, "Name"));
-                List<?> profiles = getList(material, "MaterialProfiles");
-                if (profiles != null) {
-                    for (Object o : profiles) {
-                        if (!(o instanceof IdEObject profile)) continue;
-                        addStr(values, getString(profile, "Name"));
-                        addStr(values, getString(profile, "Category"));
-                        IdEObject mat = getIdEObject(profile, "Material");
-                        if (mat != null) {
-                            addStr(values, getString(mat, "Name"));
-                            addStr(values, getString(mat, "Category"));
-                        }
-                    }
-                }
+                addStr(values, model.string(material, "Name"));
+                addParts(model, values, model.references(material, "MaterialProfiles"));
             }
             case "IfcMaterialConstituentSet" -> {
-                addStr(values, getString(material, "Name"));
-                List<?> constituents = getList(material, "MaterialConstituents");
-                if (constituents != null) {
-                    for (Object o : constituents) {
-                        if (!(o instanceof IdEObject constituent)) continue;
-                        addStr(values, getString(constituent, "Name"));
-                        addStr(values, getString(constituent, "Category"));
-                        IdEObject mat = getIdEObject(constituent, "Material");
-                        if (mat != null) {
-                            addStr(values, getString(mat, "Name"));
-                            addStr(values, getString(mat, "Category"));
-                        }
-                    }
-                }
+                addStr(values, model.string(material, "Name"));
+                addParts(model, values, model.references(material, "MaterialConstituents"));
             }
         }
         return values;
     }
 
+    /** Layers, profiles or constituents: their own name and category, then those of their material. */
+    private <E> void addParts(ModelAccess<E> model, Set<String> values, List<E> parts) {
+        for (E part : parts) {
+            addNames(model, values, part);
+            E mat = model.reference(part, "Material");
+            if (mat != null) addNames(model, values, mat);
+        }
+    }
+
+    private <E> void addNames(ModelAccess<E> model, Set<String> values, E obj) {
+        addStr(values, model.string(obj, "Name"));
+        addStr(values, model.string(obj, "Category"));
+    }
+
     private void addStr(Set<String> set, String value) {
         if (value != null) set.add(value);
     }
@@ -1,15 +1,15 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.Value;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
 import de.openfabtwin.bimserver.idschecker.model.result.PartOfResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EClassifier;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
 
 import java.util.*;
 
+import static de.openfabtwin.bimserver.idschecker.model.access.Relationship.*;
 import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.Cardinality.*;
 
 public class PartOf extends Facet {
@@ -42,286 +42,215 @@ public class PartOf extends Facet {
         }
     }
 
+    public Value getName() { return name; }
+    public Value getPredefinedType() { return predefinedType; }
+    public String getRelation() { return relation; }
+    public String getInstructions() { return instructions; }
+
     @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> results = new ArrayList<>();
+    public void require(ModelRequirements requirements) {
+        switch (relation == null ? "" : relation) {
+            case "IFCRELAGGREGATES" -> requirements.requireRelationship("IfcRelAggregates", "RelatingObject");
+            case "IFCRELASSIGNSTOGROUP" -> requirements.requireRelationship("IfcRelAssignsToGroup", "RelatingGroup");
+            case "IFCRELCONTAINEDINSPATIALSTRUCTURE" ->
+                    requirements.requireRelationship("IfcRelContainedInSpatialStructure", "RelatingStructure");
+            case "IFCRELNESTS" -> requirements.requireRelationship("IfcRelNests", "RelatingObject");
+            case "IFCRELVOIDSELEMENT IFCRELFILLSELEMENT" -> {
+                requirements.requireRelationship("IfcRelVoidsElement", "RelatingBuildingElement");
+                requirements.requireRelationship("IfcRelFillsElement", "RelatingOpeningElement");
+            }
+            default -> {
+                // the parent walk of getParent
+                requirements.requireRelationship("IfcRelAggregates", "RelatingObject");
+                requirements.requireRelationship("IfcRelNests", "RelatingObject");
+                requirements.requireRelationship("IfcRelAssignsToGroup", "RelatingGroup");
+            }
+        }
+    }
+
+    @Override
+    public void requireCandidates(ModelRequirements requirements) {
+        requirements.require("IfcObjectDefinition");
+    }
+
+    @Override
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<E> results = new ArrayList<>();
         Set<Long> seen = new HashSet<>();
 
-        EClassifier c = model.getPackageMetaData().getEPackage().getEClassifier("IfcObjectDefinition");
-        if (c instanceof EClass ec) {
-            for (IdEObject inst : model.getAllWithSubTypes(ec)) {
-                if (seen.add(inst.getOid())) results.add(inst);
-            }
+        for (E inst : model.instances("IfcObjectDefinition")) {
+            if (seen.add(model.id(inst))) results.add(inst);
         }
         return results;
     }
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
+    public <E> Result matches(ModelAccess<E> model, E element) {
         boolean isPass;
-        Map<String, Object> reason = null;
+        Result failure = null;
 
         if (relation == null || relation.isBlank()) {
             isPass = false;
             List<String> ancestors = new ArrayList<>();
-            IdEObject parent = getParent(element);
+            E parent = getParent(model, element);
             while (parent != null) {
-                String parentName = parent.eClass().getName().toUpperCase(Locale.ROOT);
+                String parentName = model.className(parent).toUpperCase(Locale.ROOT);
                 ancestors.add(parentName);
                 if (name != null && name.matches(parentName)) {
                     if (predefinedType != null) {
                         String[] actualOut = {""};
-                        isPass = matchesPredefinedType(parent, actualOut);
+                        isPass = matchesPredefinedType(model, parent, actualOut);
                         if (isPass) ancestors.set(ancestors.size() - 1, parentName + "." + actualOut[0]);
                     } else {
                         isPass = true;
                     }
                     break;
                 }
-                parent = getParent(parent);
+                parent = getParent(model, parent);
             }
-            if (!isPass) reason = Map.of("type", "ENTITY", "actual", ancestors);
+            if (!isPass) failure = PartOfResult.fail(Reason.ENTITY, ancestors);
 
         } else {
             switch (relation) {
 
                 case "IFCRELAGGREGATES" -> {
-                    IdEObject aggregate = getAggregate(element);
+                    E aggregate = model.relating(element, AGGREGATE);
                     isPass = aggregate != null;
                     if (!isPass) {
-                        reason = Map.of("type", "NOVALUE");
+                        failure = PartOfResult.noValue();
                     } else if (name != null) {
                         isPass = false;
                         List<String> ancestors = new ArrayList<>();
                         while (aggregate != null) {
-                            String aggName = aggregate.eClass().getName().toUpperCase(Locale.ROOT);
+                            String aggName = model.className(aggregate).toUpperCase(Locale.ROOT);
                             ancestors.add(aggName);
                             if (name.matches(aggName)) {
                                 if (predefinedType != null) {
                                     String[] actualOut = {""};
-                                    isPass = matchesPredefinedType(aggregate, actualOut);
+                                    isPass = matchesPredefinedType(model, aggregate, actualOut);
                                     if (isPass) ancestors.set(ancestors.size() - 1, aggName + "." + actualOut[0]);
                                 } else {
                                     isPass = true;
                                 }
                                 break;
                             }
-                            aggregate = getAggregate(aggregate);
+                            aggregate = model.relating(aggregate, AGGREGATE);
                         }
-                        if (!isPass) reason = Map.of("type", "ENTITY", "actual", ancestors);
+                        if (!isPass) failure = PartOfResult.fail(Reason.ENTITY, ancestors);
                     }
                 }
 
                 case "IFCRELASSIGNSTOGROUP" -> {
-                    IdEObject group = getGroup(element);
+                    E group = model.relating(element, GROUP);
                     isPass = group != null;
                     if (!isPass) {
-                        reason = Map.of("type", "NOVALUE");
+                        failure = PartOfResult.noValue();
                     } else if (name != null) {
-                        String groupName = group.eClass().getName().toUpperCase(Locale.ROOT);
+                        String groupName = model.className(group).toUpperCase(Locale.ROOT);
                         if (!name.matches(groupName)) {
                             isPass = false;
-                            reason = Map.of("type", "ENTITY", "actual", groupName);
+                            failure = PartOfResult.fail(Reason.ENTITY, groupName);
                         } else if (predefinedType != null) {
                             String[] actualOut = {""};
-                            isPass = matchesPredefinedType(group, actualOut);
-                            if (!isPass) reason = Map.of("type", "PREDEFINEDTYPE", "actual", actualOut[0]);
+                            isPass = matchesPredefinedType(model, group, actualOut);
+                            if (!isPass) failure = PartOfResult.fail(Reason.PREDEFINEDTYPE, actualOut[0]);
                         }
                     }
                 }
 
                 case "IFCRELCONTAINEDINSPATIALSTRUCTURE" -> {
-                    IdEObject container = getContainer(element);
+                    E container = model.relating(element, CONTAINMENT);
                     isPass = container != null;
                     if (!isPass) {
-                        reason = Map.of("type", "NOVALUE");
+                        failure = PartOfResult.noValue();
                     } else if (name != null) {
-                        String containerName = container.eClass().getName().toUpperCase(Locale.ROOT);
+                        String containerName = model.className(container).toUpperCase(Locale.ROOT);
                         if (!name.matches(containerName)) {
                             isPass = false;
-                            reason = Map.of("type", "ENTITY", "actual", containerName);
+                            failure = PartOfResult.fail(Reason.ENTITY, containerName);
                         } else if (predefinedType != null) {
                             String[] actualOut = {""};
-                            isPass = matchesPredefinedType(container, actualOut);
-                            if (!isPass) reason = Map.of("type", "PREDEFINEDTYPE", "actual", actualOut[0]);
+                            isPass = matchesPredefinedType(model, container, actualOut);
+                            if (!isPass) failure = PartOfResult.fail(Reason.PREDEFINEDTYPE, actualOut[0]);
                         }
                     }
                 }
 
                 case "IFCRELNESTS" -> {
-                    IdEObject nest = getNest(element);
+                    E nest = model.relating(element, NEST);
                     isPass = nest != null;
                     if (!isPass) {
-                        reason = Map.of("type", "NOVALUE");
+                        failure = PartOfResult.noValue();
                     } else if (name != null) {
                         isPass = false;
                         List<String> ancestors = new ArrayList<>();
                         while (nest != null) {
-                            String nestName = nest.eClass().getName().toUpperCase(Locale.ROOT);
+                            String nestName = model.className(nest).toUpperCase(Locale.ROOT);
                             ancestors.add(nestName);
                             if (name.matches(nestName)) {
                                 if (predefinedType != null) {
                                     String[] actualOut = {""};
-                                    isPass = matchesPredefinedType(nest, actualOut);
+                                    isPass = matchesPredefinedType(model, nest, actualOut);
                                     if (isPass) ancestors.set(ancestors.size() - 1, nestName + "." + actualOut[0]);
                                 } else {
                                     isPass = true;
                                 }
                                 break;
                             }
-                            nest = getNest(nest);
+                            nest = model.relating(nest, NEST);
                         }
-                        if (!isPass) reason = Map.of("type", "ENTITY", "actual", ancestors);
+                        if (!isPass) failure = PartOfResult.fail(Reason.ENTITY, ancestors);
                     }
                 }
 
                 case "IFCRELVOIDSELEMENT IFCRELFILLSELEMENT" -> {
-                    IdEObject buildingElement = null;
-                    if ("IfcOpeningElement".equals(element.eClass().getName())) {
-                        buildingElement = getVoidedElement(element);
+                    E buildingElement = null;
+                    if ("IfcOpeningElement".equals(model.className(element))) {
+                        buildingElement = model.relating(element, VOIDS);
                     } else {
-                        IdEObject opening = getFilledVoid(element);
-                        if (opening != null) buildingElement = getVoidedElement(opening);
+                        E opening = model.relating(element, FILLS);
+                        if (opening != null) buildingElement = model.relating(opening, VOIDS);
                     }
                     isPass = buildingElement != null;
                     if (!isPass) {
-                        reason = Map.of("type", "NOVALUE");
+                        failure = PartOfResult.noValue();
                     } else if (name != null) {
-                        String beName = buildingElement.eClass().getName().toUpperCase(Locale.ROOT);
+                        String beName = model.className(buildingElement).toUpperCase(Locale.ROOT);
                         if (!name.matches(beName)) {
                             isPass = false;
-                            reason = Map.of("type", "ENTITY", "actual", beName);
+                            failure = PartOfResult.fail(Reason.ENTITY, beName);
                         } else if (predefinedType != null) {
                             String[] actualOut = {""};
-                            isPass = matchesPredefinedType(buildingElement, actualOut);
-                            if (!isPass) reason = Map.of("type", "PREDEFINEDTYPE", "actual", actualOut[0]);
+                            isPass = matchesPredefinedType(model, buildingElement, actualOut);
+                            if (!isPass) failure = PartOfResult.fail(Reason.PREDEFINEDTYPE, actualOut[0]);
                         }
                     }
                 }
 
                 default -> {
                     isPass = false;
-                    reason = Map.of("type", "NOVALUE");
+                    failure = PartOfResult.noValue();
                 }
             }
         }
 
         if (cardinality == PROHIBITED) {
-            return new PartOfResult(!isPass, Map.of("type", "PROHIBITED"));
-        }
-        return new PartOfResult(isPass, reason);
-    }
-
-    private IdEObject getParent(IdEObject element) {
-        List<?> decomposes = getList(element, "Decomposes");
-        if (decomposes != null) {
-            for (Object o : decomposes) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if ("IfcRelAggregates".equals(rel.eClass().getName())) {
-                    IdEObject parent = getIdEObject(rel, "RelatingObject");
-                    if (parent != null) return parent;
-                }
-            }
-        }
-        List<?> nests = getList(element, "Nests");
-        if (nests != null) {
-            for (Object o : nests) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if ("IfcRelNests".equals(rel.eClass().getName())) {
-                    IdEObject parent = getIdEObject(rel, "RelatingObject");
-                    if (parent != null) return parent;
-                }
-            }
-        }
-        List<?> assignments = getList(element, "HasAssignments");
-        if (assignments != null) {
-            for (Object o : assignments) {
-                if (!(o instanceof IdEObject rel)) continue;
-                if ("IfcRelAssignsToGroup".equals(rel.eClass().getName())) {
-                    IdEObject group = getIdEObject(rel, "RelatingGroup");
-                    if (group != null) return group;
-                }
-            }
+            return PartOfResult.prohibited(!isPass);
         }
-        return null;
+        return isPass ? PartOfResult.PASS : failure;
     }
 
-    private IdEObject getAggregate(IdEObject element) {
-        List<?> decomposes = getList(element, "Decomposes");
-        if (decomposes == null) return null;
-        for (Object o : decomposes) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelAggregates".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingObject");
-            }
-        }
-        return null;
-    }
-
-    private IdEObject getContainer(IdEObject element) {
-        List<?> contained = getList(element, "ContainedInStructure");
-        if (contained == null) return null;
-        for (Object o : contained) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelContainedInSpatialStructure".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingStructure");
-            }
-        }
-        return null;
-    }
-
-    private IdEObject getNest(IdEObject element) {
-        List<?> nests = getList(element, "Nests");
-        if (nests == null) return null;
-        for (Object o : nests) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelNests".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingObject");
-            }
-        }
-        return null;
-    }
-
-    private IdEObject getGroup(IdEObject element) {
-        List<?> assignments = getList(element, "HasAssignments");
-        if (assignments == null) return null;
-        for (Object o : assignments) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelAssignsToGroup".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingGroup");
-            }
-        }
-        return null;
-    }
-
-    private IdEObject getVoidedElement(IdEObject opening) {
-        List<?> voids = getList(opening, "VoidsElements");
-        if (voids == null) return null;
-        for (Object o : voids) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelVoidsElement".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingBuildingElement");
-            }
-        }
-        return null;
-    }
-
-    private IdEObject getFilledVoid(IdEObject element) {
-        List<?> fills = getList(element, "FillsVoids");
-        if (fills == null) return null;
-        for (Object o : fills) {
-            if (!(o instanceof IdEObject rel)) continue;
-            if ("IfcRelFillsElement".equals(rel.eClass().getName())) {
-                return getIdEObject(rel, "RelatingOpeningElement");
-            }
-        }
-        return null;
+    private <E> E getParent(ModelAccess<E> model, E element) {
+        E parent = model.relating(element, AGGREGATE);
+        if (parent == null) parent = model.relating(element, NEST);
+        if (parent == null) parent = model.relating(element, GROUP);
+        return parent;
     }
 
-    private boolean matchesPredefinedType(IdEObject element, String[] actualOut) {
-        String pdef = getString(element, "PredefinedType");
+    private <E> boolean matchesPredefinedType(ModelAccess<E> model, E element, String[] actualOut) {
+        String pdef = model.string(element, "PredefinedType");
         if ("USERDEFINED".equals(pdef)) {
-            String val = getString(element, "ObjectType");
+            String val = model.string(element, "ObjectType");
             actualOut[0] = val != null ? val : "";
             return predefinedType != null && predefinedType.matches(val);
         }
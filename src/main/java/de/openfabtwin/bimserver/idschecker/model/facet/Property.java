@@ -1,15 +1,13 @@
 package de.openfabtwin.bimserver.idschecker.model.facet;
 
+import de.openfabtwin.bimserver.idschecker.model.ModelRequirements;
 import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
 import de.openfabtwin.bimserver.idschecker.model.Value;
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.access.Relationship;
 import de.openfabtwin.bimserver.idschecker.model.result.PropertyResult;
 import de.openfabtwin.bimserver.idschecker.model.result.Result;
-import org.bimserver.emf.IdEObject;
-import org.bimserver.emf.IfcModelInterface;
-import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EClassifier;
-import org.eclipse.emf.ecore.EPackage;
-import org.eclipse.emf.ecore.EStructuralFeature;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
 
 import java.util.*;
 import java.util.List;
@@ -47,24 +45,39 @@ public class Property extends Facet {
         }
     }
 
+    public Value getPropertySet() { return propertySet; }
+    public Value getBaseName() { return baseName; }
+    public Value getValue() { return value; }
+    public String getDataType() { return dataType; }
+    public String getUri() { return uri; }
+    public String getInstructions() { return instructions; }
+
     @Override
-    public List<IdEObject> filter(IfcModelInterface model) {
-        List<IdEObject> results = new ArrayList<>();
-        Set<Long> seen = new HashSet<>();
+    public void require(ModelRequirements requirements) {
+        requirements.requireRelationship("IfcRelAssociatesMaterial", "RelatingMaterial");
+        requirements.require("IfcMaterialDefinition", "IfcProfileDef",
+                "IfcRelDefinesByProperties", "IfcPropertySetDefinition", "IfcProperty", "IfcPhysicalQuantity",
+                "IfcExtendedProperties", "IfcMaterialProperties", "IfcProfileProperties",
+                "IfcPropertyEnumeration", "IfcRelDefinesByType", "IfcTypeObject");
+    }
 
-        var meta = model.getPackageMetaData();
-        EPackage epkg = meta.getEPackage();
+    @Override
+    public void requireCandidates(ModelRequirements requirements) {
+        requirements.require("IfcObjectDefinition");
+    }
+
+    @Override
+    public <E> List<E> filter(ModelAccess<E> model) {
+        List<E> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
 
         Consumer<String> addAllByName = (typeName) -> {
-            EClassifier c = epkg.getEClassifier(typeName);
-            if (c instanceof EClass ec) {
-                for (IdEObject inst : model.getAllWithSubTypes(ec)) {
-                    if (seen.add(inst.getOid())) results.add(inst);
-                }
+            for (E inst : model.instances(typeName)) {
+                if (seen.add(model.id(inst))) results.add(inst);
             }
         };
 
-        String schema = meta.getSchema().name().toUpperCase();
+        String schema = model.getSchema();
         if (schema.contains("IFC2X3")) {
             addAllByName.accept("IfcObjectDefinition");
         } else {
@@ -77,18 +90,18 @@ public class Property extends Facet {
     }
 
     @Override
-    public Result matches(IfcModelInterface model, IdEObject element) {
+    public <E> Result matches(ModelAccess<E> model, E element) {
 
         // 1. get propertySet
         Map<String, Map<String,Object>> psets = getPropertySets(model, element);
 
         boolean isPass = !psets.isEmpty();
 
-        Map<String, Object> reason = null;
+        Result failure = null;
 
         if (!isPass) {
-            if(cardinality == OPTIONAL) return new PropertyResult(true, reason);
-            reason = Map.of("type", "NOPSET");
+            if(cardinality == OPTIONAL) return PropertyResult.PASS;
+            failure = PropertyResult.noPset();
         }
 
         for (var psetEntry : psets.entrySet()) {
@@ -102,7 +115,7 @@ public class Property extends Facet {
                 String bn = sv.extract();
                 Object propVal = psetProps.get(bn);
                 if (propVal != null && !"".equals(propVal)) {
-                    if (!isLogicalUnknownForProperty(psetProps, propVal)) {
+                    if (!isLogicalUnknownForProperty(model, psetProps, propVal)) {
                         collected.put(bn, propVal);
                     }
                 }
@@ -112,7 +125,7 @@ public class Property extends Facet {
                     if ("_entity".equals(nm)) continue;
                     if (baseName.matches(nm)) {
                         Object v = e.getValue();
-                        if (v != null && !"".equals(v) && !isLogicalUnknownForProperty(psetProps,v)) {
+                        if (v != null && !"".equals(v) && !isLogicalUnknownForProperty(model, psetProps, v)) {
                             collected.put(nm, v);
                         }
                     }
@@ -121,33 +134,33 @@ public class Property extends Facet {
 
             // --- 2) if no properties found for this pset ---
             if (collected.isEmpty()) {
-                if (cardinality == OPTIONAL) return new PropertyResult(true, null);
+                if (cardinality == OPTIONAL) return PropertyResult.PASS;
                 isPass = false;
-                reason = Map.of("type", "NOVALUE");
+                failure = PropertyResult.noValue();
                 break;
             }
 
             // --- 3) datatype checks ---
             if (dataType != null && !dataType.isBlank()) {
-                IdEObject psetEntity = (IdEObject) psetProps.get("_entity");
+                E psetEntity = model.element(psetProps.get("_entity"));
                 if (psetEntity == null) {
                     isPass = false;
-                    reason = Map.of("type", "NOVALUE");
+                    failure = PropertyResult.noValue();
                     break;
                 }
 
-                List<IdEObject> propEntities = getProperties(psetEntity);
+                List<E> propEntities = getProperties(model, psetEntity);
 
-                for (IdEObject propEntity : propEntities) {
-                    String propName = getString(propEntity, "Name");
+                for (E propEntity : propEntities) {
+                    String propName = model.string(propEntity, "Name");
                     if (propName == null || !collected.containsKey(propName)) continue;
 
-                    List<String> actualTypes = actualDataTypesForProperty(propEntity);
+                    List<String> actualTypes = actualDataTypesForProperty(model, propEntity);
                     if (actualTypes.isEmpty()) continue; // some predefined etc., skip type check
 
                     if (actualTypes.stream().noneMatch(a -> dataType.equalsIgnoreCase(a))) {
                         isPass = false;
-                        reason = Map.of("type", "DATATYPE", "actual", actualTypes, "dataType", dataType);
+                        failure = PropertyResult.dataType(actualTypes, dataType);
                         break;
                     }
                 }
@@ -160,13 +173,13 @@ public class Property extends Facet {
                 if (isIntegerDataType(dataType) && this.value instanceof SimpleValue sv
                         && !isIntegerLiteral(sv.extract())) {
                     isPass = false;
-                    reason = Map.of("type", "VALUE", "actual", sv.extract());
+                    failure = PropertyResult.fail(Reason.VALUE, sv.extract());
                     break;
                 }
                 for (Object actual : collected.values()) {
                     if (!compareActualAgainstFacetValue(actual, this.value)) {
                         isPass = false;
-                        reason = Map.of("type", "VALUE", "actual", actual);
+                        failure = PropertyResult.fail(Reason.VALUE, actual);
                         break;
                     }
                 }
@@ -176,71 +189,48 @@ public class Property extends Facet {
         }
 
         if (cardinality == PROHIBITED) {
-            return new PropertyResult(!isPass, Map.of("type", "PROHIBITED"));
+            return PropertyResult.prohibited(!isPass);
         }
 
         if (!isPass) {
-            String failType = reason != null ? (String) reason.get("type") : "NOVALUE";
-            boolean isAbsence = "NOVALUE".equals(failType) || "NOPSET".equals(failType);
-            if (cardinality == OPTIONAL && isAbsence) return new PropertyResult(true, null);
-            return new PropertyResult(false, reason != null ? reason : Map.of("type", "NOVALUE"));
+            Reason failType = failure != null ? failure.getReason() : Reason.NOVALUE;
+            boolean isAbsence = failType == Reason.NOVALUE || failType == Reason.NOPSET;
+            if (cardinality == OPTIONAL && isAbsence) return PropertyResult.PASS;
+            return failure != null ? failure : PropertyResult.noValue();
         }
 
-        return new PropertyResult(true, null);
+        return PropertyResult.PASS;
     }
 
 
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Map<String,Object>> getPropertySets(IfcModelInterface model, IdEObject element) {
+    private <E> Map<String, Map<String,Object>> getPropertySets(ModelAccess<E> model, E element) {
         if (element == null) return new LinkedHashMap<>();
         Map<String, Map<String, Object>> results = new LinkedHashMap<>();
 
         // (0) The element may itself be a type object (IfcTypeObject) carrying property sets directly.
-        List<IdEObject> ownPsets = (List<IdEObject>) getList(element, "HasPropertySets");
-        if (ownPsets != null) {
-            for (IdEObject pset : ownPsets) {
-                mergeExtract(results, extractPset(model, pset));
-            }
+        for (E pset : model.references(element, "HasPropertySets")) {
+            mergeExtract(results, extractPset(model, pset));
         }
 
         // (1) From element TYPE (RelDefinesByType)
-        List<IdEObject> typeRels = (List<IdEObject>) getList(element, "IsTypedBy");
-        if (typeRels != null) {
-            for (IdEObject rel : typeRels) {
-                if (!isType(rel, "IfcRelDefinesByType")) continue;
-                IdEObject typeObj = getIdEObject(rel, "RelatingType");
-                if (typeObj == null) continue;
-
-                List<IdEObject> hasPsets = (List<IdEObject>) getList(typeObj, "HasPropertySets");
-                if (hasPsets == null) continue;
-                for (IdEObject pset : hasPsets) {
-                    Map<String,Map<String, Object>> result = extractPset(model, pset);
-                    if (!result.isEmpty()) {
-                        mergeExtract(results, result);
-                    }
+        for (E typeObj : model.related(element, Relationship.TYPE)) {
+            for (E pset : model.references(typeObj, "HasPropertySets")) {
+                Map<String,Map<String, Object>> result = extractPset(model, pset);
+                if (!result.isEmpty()) {
+                    mergeExtract(results, result);
                 }
             }
         }
 
         // (2) Direct on the element (RelDefinesByProperties)
-        List<IdEObject> rels = (List<IdEObject>) getList(element,"IsDefinedBy");
-        if (rels != null) {
-            for (IdEObject rel : rels) {
-                if (!isType(rel, "IfcRelDefinesByProperties")) continue;
-                List<IdEObject> pdefs = (List<IdEObject>) getList(rel, "RelatingPropertyDefinition");
-                if (pdefs == null) continue;
-
-                for (IdEObject pdef : pdefs) {
-                    if (isType(pdef,"IfcPropertySetDefinitionSet")) {
-                        List<IdEObject> defs = (List<IdEObject>) getList(pdef, "PropertySetDefinitions");
-                        if (defs != null) for (IdEObject d : defs) mergeExtract(results, extractPset(model, d));
-                    } else {
-                        Map<String,Map<String, Object>> result = extractPset(model, pdef);
-                        if (!result.isEmpty()) {
-                            mergeExtract(results, result);
-                        }
-                    }
+        for (E pdef : model.related(element, Relationship.PROPERTIES)) {
+            if (isType(model, pdef, "IfcPropertySetDefinitionSet")) {
+                for (E d : model.references(pdef, "PropertySetDefinitions")) mergeExtract(results, extractPset(model, d));
+            } else {
+                Map<String,Map<String, Object>> result = extractPset(model, pdef);
+                if (!result.isEmpty()) {
+                    mergeExtract(results, result);
                 }
             }
         }
@@ -251,66 +241,60 @@ public class Property extends Facet {
         return results;
     }
 
-    private Map<String, Map<String, Object>> extractPset(IfcModelInterface model, IdEObject pdef) {
-        if (isType(pdef, "IfcPropertySet")) {
-            String name = getString(pdef, "Name");
+    private <E> Map<String, Map<String, Object>> extractPset(ModelAccess<E> model, E pdef) {
+        if (isType(model, pdef, "IfcPropertySet")) {
+            String name = model.string(pdef, "Name");
             if (name != null && propertySet.matches(name)) {
                 return Map.of(name,extractBaseValueMap(model, pdef, "IfcPropertySet"));
             }
-        } else if (isType(pdef,"IfcElementQuantity")) {
-            String name = getString(pdef, "Name");
+        } else if (isType(model, pdef,"IfcElementQuantity")) {
+            String name = model.string(pdef, "Name");
             if (name != null && propertySet.matches(name)) {
                 return Map.of(name,extractBaseValueMap(model, pdef, "IfcElementQuantity"));
             }
         } else {
-            boolean isPredefined = isType(pdef,"IfcPreDefinedPropertySet")
-                    || pdef.eClass().getEAllSuperTypes().stream()
-                    .anyMatch(s -> "IfcPreDefinedPropertySet".equals(s.getName()));
+            boolean isPredefined = model.isSubtype(model.className(pdef), "IfcPreDefinedPropertySet");
             if (isPredefined) {
-                String name = getString(pdef, "Name");
+                String name = model.string(pdef, "Name");
                 if (name != null && propertySet.matches(name)) {
-                    return Map.of(name, extractPredefPropertySetMap(pdef));
+                    return Map.of(name, extractPredefPropertySetMap(model, pdef));
                 }
             }
         }
         return Map.of();
     }
 
-    @SuppressWarnings("unchecked")
-    private List<IdEObject> getProperties(IdEObject pset) {
+    private <E> List<E> getProperties(ModelAccess<E> model, E pset) {
         if (pset == null) return List.of();
 
-        String name = pset.eClass().getName();
+        String name = model.className(pset);
         if ("IfcPropertySet".equals(name)) {
-            return (List<IdEObject>) getList(pset, "HasProperties");
+            return model.references(pset, "HasProperties");
         } else if ("IfcElementQuantity".equals(name)) {
-            return (List<IdEObject>) getList(pset, "Quantities");
+            return model.references(pset, "Quantities");
         }
         return List.of();
     }
 
-    private Map<String, Object> extractBaseValueMap(IfcModelInterface model, IdEObject obj, String psetType) {
+    private <E> Map<String, Object> extractBaseValueMap(ModelAccess<E> model, E obj, String psetType) {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("_entity", obj);
 
-        List<IdEObject> props = getProperties(obj);
-
-        if (props != null) {
-            for (IdEObject prop : props) {
-                String bn = getString(prop, "Name");
-                if (bn != null) {
-                    if (psetType.equals("IfcPropertySet")) map.put(bn, extractValue(model, prop));
-                    if (psetType.equals("IfcElementQuantity")) map.put(bn, extractQuantityValue(model, prop));
-                }
+        for (E prop : getProperties(model, obj)) {
+            String bn = model.string(prop, "Name");
+            if (bn != null) {
+                if (psetType.equals("IfcPropertySet")) map.put(bn, extractValue(model, prop));
+                if (psetType.equals("IfcElementQuantity")) map.put(bn, extractQuantityValue(model, prop));
             }
         }
         return map;
     }
 
-    private Object extractQuantityValue(IfcModelInterface model, IdEObject prop) {Object raw = getObject(prop, "VolumeValue","AreaValue","WeightValue","LengthValue","TimeValue","CountValue");
-        raw = unwrapIfValue(raw);
+    private <E> Object extractQuantityValue(ModelAccess<E> model, E prop) {
+        Object raw = firstValue(model, prop, "VolumeValue","AreaValue","WeightValue","LengthValue","TimeValue","CountValue");
+        raw = unwrapIfValue(model, raw);
 
-        String qc = prop.eClass().getName();
+        String qc = model.className(prop);
         String measure = null;
         if (qc.startsWith("IfcQuantityLength"))  measure = "IfcLengthMeasure";
         else if (qc.startsWith("IfcQuantityArea"))    measure = "IfcAreaMeasure";
@@ -319,80 +303,78 @@ public class Property extends Facet {
         else if (qc.startsWith("IfcQuantityWeight"))  measure = "IfcMassMeasure";
         else if (qc.startsWith("IfcQuantityCount"))   measure = "IfcCountMeasure";
 
-        IdEObject unit = unitFor(model, prop, prop, measure);
-        return toSI(raw, unit);
+        E unit = unitFor(model, prop, measure);
+        return toSI(model, raw, unit);
     }
 
-    private Map<String, Object> extractPredefPropertySetMap(IdEObject obj) {
+    private <E> Map<String, Object> extractPredefPropertySetMap(ModelAccess<E> model, E obj) {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("_entity", obj);
-        for (EStructuralFeature f : obj.eClass().getEAllStructuralFeatures()) {
-            String fn = f.getName();
+        for (String fn : model.getAttributeNames(model.className(obj))) {
             if (baseName.matches(fn)) {
-                Object v = obj.eGet(f);
-                map.put(fn, unwrapIfValue(v));
+                Object v = model.value(obj, fn);
+                map.put(fn, unwrapIfValue(model, v));
             }
         }
         return map;
     }
 
-    @SuppressWarnings("unchecked")
-    private Object extractValue(IfcModelInterface model, IdEObject prop) {
-        String type = prop.eClass().getName();
+    private <E> Object extractValue(ModelAccess<E> model, E prop) {
+        String type = model.className(prop);
 
         if ("IfcPropertySingleValue".equals(type)) {
-            IdEObject nominal = getIdEObject(prop, "NominalValue");
-            Object raw = unwrapIfcValue(nominal);
-            String measure = (nominal != null) ? nominal.eClass().getName() : null;
-            IdEObject unit = unitFor(model, prop, prop, measure);
-            return toSI(raw, unit);
+            E nominal = model.reference(prop, "NominalValue");
+            Object raw = unwrapIfcValue(model, nominal);
+            String measure = (nominal != null) ? model.className(nominal) : null;
+            E unit = unitFor(model, prop, measure);
+            return toSI(model, raw, unit);
         }
         else if ("IfcPropertyListValue".equals(type)) {
-            List<Object> lst = (List<Object>) getList(prop,"ListValues");
-            if (lst == null || lst.isEmpty()) return List.of();
-            String measure = (lst.get(0) instanceof IdEObject e) ? e.eClass().getName() : null;
-            List<Object> flat = unwrapList(lst);
-            IdEObject unit = unitFor(model, prop, prop, measure);
-            return toSIList(flat, unit);
+            List<?> lst = valueList(model, prop, "ListValues");
+            if (lst.isEmpty()) return List.of();
+            String measure = measureOf(model, lst.get(0));
+            List<Object> flat = unwrapList(model, lst);
+            E unit = unitFor(model, prop, measure);
+            return toSIList(model, flat, unit);
         }
         else if ("IfcPropertyEnumeratedValue".equals(type)) {
-            List<Object> lst = (List<Object>) getList(prop,"EnumerationValues");
-            if (lst == null || lst.isEmpty()) return List.of();
-            String measure = (lst.get(0) instanceof IdEObject e) ? e.eClass().getName() : null;
-            List<Object> flat = unwrapList(lst);
-            IdEObject unit = unitFor(model, prop, prop, measure);
-            return toSIList(flat, unit);
+            List<?> lst = valueList(model, prop, "EnumerationValues");
+            if (lst.isEmpty()) return List.of();
+            String measure = measureOf(model, lst.get(0));
+            List<Object> flat = unwrapList(model, lst);
+            E unit = unitFor(model, prop, measure);
+            return toSIList(model, flat, unit);
         }
         else if ("IfcPropertyBoundedValue".equals(type)) {
             List<Object> vals = new ArrayList<>();
             String measure = null;
             for (String a : new String[]{"UpperBoundValue","LowerBoundValue","SetPointValue"}) {
-                IdEObject rawIfc = getIdEObject(prop, a);
+                E rawIfc = model.reference(prop, a);
                 if (rawIfc != null) {
-                    if (measure == null) measure = rawIfc.eClass().getName();
-                    vals.add(unwrapIfcValue(rawIfc));
+                    if (measure == null) measure = model.className(rawIfc);
+                    vals.add(unwrapIfcValue(model, rawIfc));
                 }
             }
-            IdEObject unit = unitFor(model, prop, prop, measure);
-            return toSIList(vals, unit);
+            E unit = unitFor(model, prop, measure);
+            return toSIList(model, vals, unit);
         }
         else if ("IfcPropertyTableValue".equals(type)) {
-            List<Object> def = (List<Object>) getList(prop,"DefiningValues");
-            List<Object> ded = (List<Object>) getList(prop,"DefinedValues");
+            List<?> def = valueList(model, prop, "DefiningValues");
+            List<?> ded = valueList(model, prop, "DefinedValues");
             List<Object> out = new ArrayList<>();
-            if (def != null && !def.isEmpty()) {
-                String measure = (def.get(0) instanceof IdEObject e) ? e.eClass().getName() : null;
-                List<Object> defFlat = unwrapList(def);
-                IdEObject du = getIdEObject(prop, "DefiningUnit");
+            if (!def.isEmpty()) {
+                String measure = measureOf(model, def.get(0));
+                List<Object> defFlat = unwrapList(model, def);
+                E du = model.reference(prop, "DefiningUnit");
                 if (du == null) du = unitFromProject(model, measure); // fall back to project unit
-                out.addAll(toSIList(defFlat, du));
+                out.addAll(toSIList(model, defFlat, du));
             }
-            if (ded != null && !ded.isEmpty()) {
-                String measure = (ded.get(0) instanceof IdEObject e) ? e.eClass().getName() : null;
-                List<Object> dedFlat = unwrapList(ded);
-                IdEObject du2 = getIdEObject(prop, "DefinedUnit");
+            if (!ded.isEmpty()) {
+                String measure = measureOf(model, ded.get(0));
+                List<Object> dedFlat = unwrapList(model, ded);
+                E du2 = model.reference(prop, "DefinedUnit");
                 if (du2 == null) du2 = unitFromProject(model, measure); // fall back to project unit
-                out.addAll(toSIList(dedFlat, du2));
+                out.addAll(toSIList(model, dedFlat, du2));
             }
             return out;
         }
@@ -400,121 +382,96 @@ public class Property extends Facet {
     }
 
     // Material and profile check
-    @SuppressWarnings("unchecked")
-    private Map<String, Map<String, Object>> collectMaterialAndProfilePsets(IfcModelInterface model, IdEObject element) {
+    private <E> Map<String, Map<String, Object>> collectMaterialAndProfilePsets(ModelAccess<E> model, E element) {
         Map<String, Map<String, Object>> out = new LinkedHashMap<>();
         if (element == null) return out;
 
-        List<IdEObject> assocs = (List<IdEObject>) getList(element, "HasAssociations");
-        if (assocs == null) return out;
-
-        for (IdEObject rel : assocs) {
-            if (!isType(rel, "IfcRelAssociatesMaterial")) continue;
-
-            IdEObject matSel = getIdEObject(rel, "RelatingMaterial");
-            if (matSel == null) continue;
-
+        for (E matSel : model.related(element, Relationship.MATERIAL)) {
             // 4a) Traverse materials
-            for (IdEObject carrier : expandMaterialSelectToMaterials(matSel)) {
-                mergeCarrierPsets(out, carrier, model);
+            for (E carrier : expandMaterialSelectToMaterials(model, matSel)) {
+                mergeCarrierPsets(model, out, carrier);
             }
             // 4b) Traverse profiles
-            for (IdEObject carrier : expandMaterialSelectToProfiles(matSel)) {
-                mergeCarrierPsets(out, carrier, model);
+            for (E carrier : expandMaterialSelectToProfiles(model, matSel)) {
+                mergeCarrierPsets(model, out, carrier);
             }
         }
         return out;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<IdEObject> expandMaterialSelectToMaterials(IdEObject matSelect) {
-        List<IdEObject> carriers = new ArrayList<>();
+    private <E> List<E> expandMaterialSelectToMaterials(ModelAccess<E> model, E matSelect) {
+        List<E> carriers = new ArrayList<>();
         if (matSelect == null) return carriers;
-        String t = matSelect.eClass().getName();
+        String t = model.className(matSelect);
 
         switch (t) {
             case "IfcMaterial" -> carriers.add(matSelect);
-            case "IfcMaterialList" -> {
-                List<IdEObject> mats = (List<IdEObject>) getList(matSelect, "Materials");
-                if (mats != null) carriers.addAll(mats);
-            }
-            case "IfcMaterialLayer" -> addIfNotNull(carriers, getIdEObject(matSelect, "Material"));
+            case "IfcMaterialList" -> carriers.addAll(model.references(matSelect, "Materials"));
+            case "IfcMaterialLayer" -> addIfNotNull(carriers, model.reference(matSelect, "Material"));
             case "IfcMaterialLayerSet" -> {
-                List<IdEObject> layers = (List<IdEObject>) getList(matSelect, "MaterialLayers");
-                if (layers != null) for (IdEObject lyr : layers)
-                    carriers.addAll(expandMaterialSelectToMaterials(lyr));
+                for (E lyr : model.references(matSelect, "MaterialLayers"))
+                    carriers.addAll(expandMaterialSelectToMaterials(model, lyr));
             }
             case "IfcMaterialLayerSetUsage" -> carriers.addAll(
-                    expandMaterialSelectToMaterials(getIdEObject(matSelect, "ForLayerSet")));
-            case "IfcMaterialConstituent" -> addIfNotNull(carriers, getIdEObject(matSelect, "Material"));
+                    expandMaterialSelectToMaterials(model, model.reference(matSelect, "ForLayerSet")));
+            case "IfcMaterialConstituent" -> addIfNotNull(carriers, model.reference(matSelect, "Material"));
             case "IfcMaterialConstituentSet" -> {
-                List<IdEObject> consts = (List<IdEObject>) getList(matSelect, "Constituents");
-                if (consts != null) for (IdEObject c : consts)
-                    carriers.addAll(expandMaterialSelectToMaterials(c));
+                for (E c : model.references(matSelect, "Constituents"))
+                    carriers.addAll(expandMaterialSelectToMaterials(model, c));
             }
-            case "IfcMaterialProfile" -> addIfNotNull(carriers, getIdEObject(matSelect, "Material"));
+            case "IfcMaterialProfile" -> addIfNotNull(carriers, model.reference(matSelect, "Material"));
             case "IfcMaterialProfileSet" -> {
-                List<IdEObject> profiles = (List<IdEObject>) getList(matSelect, "MaterialProfiles");
-                if (profiles != null) for (IdEObject mp : profiles)
-                    carriers.addAll(expandMaterialSelectToMaterials(mp));
+                for (E mp : model.references(matSelect, "MaterialProfiles"))
+                    carriers.addAll(expandMaterialSelectToMaterials(model, mp));
             }
             case "IfcMaterialProfileSetUsage" -> carriers.addAll(
-                    expandMaterialSelectToMaterials(getIdEObject(matSelect, "ForProfileSet")));
+                    expandMaterialSelectToMaterials(model, model.reference(matSelect, "ForProfileSet")));
             default -> {}
         }
         return carriers;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<IdEObject> expandMaterialSelectToProfiles(IdEObject matSelect) {
-        List<IdEObject> carriers = new ArrayList<>();
+    private <E> List<E> expandMaterialSelectToProfiles(ModelAccess<E> model, E matSelect) {
+        List<E> carriers = new ArrayList<>();
         if (matSelect == null) return carriers;
-        String t = matSelect.eClass().getName();
+        String t = model.className(matSelect);
 
         if ("IfcMaterialProfile".equals(t)) {
-            addIfNotNull(carriers, getIdEObject(matSelect, "Profile"));
+            addIfNotNull(carriers, model.reference(matSelect, "Profile"));
         } else if ("IfcMaterialProfileSet".equals(t)) {
-            List<IdEObject> mps = (List<IdEObject>) getList(matSelect, "MaterialProfiles");
-            if (mps != null) for (IdEObject mp : mps)
-                addIfNotNull(carriers, getIdEObject(mp, "Profile"));
+            for (E mp : model.references(matSelect, "MaterialProfiles"))
+                addIfNotNull(carriers, model.reference(mp, "Profile"));
         } else if ("IfcMaterialProfileSetUsage".equals(t)) {
-            IdEObject mps = getIdEObject(matSelect, "ForProfileSet");
-            if (mps != null) carriers.addAll(expandMaterialSelectToProfiles(mps));
+            E mps = model.reference(matSelect, "ForProfileSet");
+            if (mps != null) carriers.addAll(expandMaterialSelectToProfiles(model, mps));
         }
         return carriers;
     }
 
-    @SuppressWarnings("unchecked")
-    private void mergeCarrierPsets(Map<String, Map<String, Object>> out, IdEObject carrier, IfcModelInterface model) {
+    private <E> void mergeCarrierPsets(ModelAccess<E> model, Map<String, Map<String, Object>> out, E carrier) {
         if (carrier == null) return;
-        List<IdEObject> mprops = (List<IdEObject>) getList(carrier, "HasProperties");
-        if (mprops == null) return;
 
-        for (IdEObject mp : mprops) {
-            String t = mp.eClass().getName();
+        for (E mp : model.references(carrier, "HasProperties")) {
+            String t = model.className(mp);
             if ("IfcExtendedProperties".equals(t)) {
-                mergeExtendedProperties(out, mp);
+                mergeExtendedProperties(model, out, mp);
             } else if ("IfcPropertySet".equals(t)) {
-                mergePropertySet(out, mp, model);
+                mergePropertySet(model, out, mp);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void mergePropertySet(Map<String, Map<String, Object>> out, IdEObject pset, IfcModelInterface model) {
+    private <E> void mergePropertySet(ModelAccess<E> model, Map<String, Map<String, Object>> out, E pset) {
         if (pset == null) return;
 
-        String name = getString(pset, "Name");
+        String name = model.string(pset, "Name");
         if (name == null) return;
 
         Map<String, Object> props = out.computeIfAbsent(name, k -> new LinkedHashMap<>());
         props.put("_entity", pset);
 
-        List<IdEObject> list = (List<IdEObject>) getList(pset, "HasProperties");
-        if (list == null) return;
-
-        for (IdEObject prop : list) {
-            String pname = getString(prop, "Name");
+        for (E prop : model.references(pset, "HasProperties")) {
+            String pname = model.string(prop, "Name");
             if (pname == null) continue;
 
             Object val = extractValue(model, prop);
@@ -522,25 +479,20 @@ public class Property extends Facet {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void mergeExtendedProperties(Map<String, Map<String, Object>> out, IdEObject ext) {
+    private <E> void mergeExtendedProperties(ModelAccess<E> model, Map<String, Map<String, Object>> out, E ext) {
         if (ext == null) return;
 
-        String name = getString(ext, "Name");
+        String name = model.string(ext, "Name");
         if (name == null) return;
 
         Map<String, Object> bag = out.computeIfAbsent(name, k -> new LinkedHashMap<>());
         bag.put("_entity", ext);
 
-        List<IdEObject> props = (List<IdEObject>) getList(ext, "Properties");
-        if (props == null) return;
-
-        for (IdEObject p : props) {
-            String pn = getString(p, "Name");
+        for (E p : model.references(ext, "Properties")) {
+            String pn = model.string(p, "Name");
             if (pn == null) continue;
 
-            Object v = getObject(p, "NominalValue");
-            if (v instanceof IdEObject ve) v = unwrapIfcValue(ve);
+            Object v = unwrapIfValue(model, model.value(p, "NominalValue"));
 
             if (v != null) bag.put(pn, v);
         }
@@ -558,27 +510,48 @@ public class Property extends Facet {
 
     //--------helper--------------
 
-    private void addIfNotNull(List<IdEObject> list, IdEObject e) { if (e != null) list.add(e); }
+    private <E> void addIfNotNull(List<E> list, E e) { if (e != null) list.add(e); }
 
-    private boolean isType(IdEObject obj, String name) {
-        return name.equals(obj.eClass().getName());
+    private <E> boolean isType(ModelAccess<E> model, E obj, String name) {
+        return name.equals(model.className(obj));
     }
 
-    private List<Object> unwrapList(List<Object> raw) {
+    /** The first attribute of {@code obj} among {@code attributes} that has a value. */
+    private <E> Object firstValue(ModelAccess<E> model, E obj, String... attributes) {
+        for (String a : attributes) {
+            Object v = model.value(obj, a);
+            if (v != null) return v;
+        }
+        return null;
+    }
+
+    /** An aggregate of values (not entities) as stored; empty when absent. */
+    private <E> List<?> valueList(ModelAccess<E> model, E obj, String attribute) {
+        return model.value(obj, attribute) instanceof List<?> list ? list : List.of();
+    }
+
+    /** The measure type of a value, i.e. the class of its defined-type wrapper. */
+    private <E> String measureOf(ModelAccess<E> model, Object v) {
+        E e = model.element(v);
+        return e != null ? model.className(e) : null;
+    }
+
+    private <E> List<Object> unwrapList(ModelAccess<E> model, List<?> raw) {
         if (raw == null) return Collections.emptyList();
         List<Object> out = new ArrayList<>(raw.size());
-        for (Object o : raw) out.add(unwrapIfValue(o));
+        for (Object o : raw) out.add(unwrapIfValue(model, o));
         return out;
     }
 
-    private Object unwrapIfValue(Object v) {
-        if (v instanceof IdEObject e) return unwrapIfcValue(e);
+    private <E> Object unwrapIfValue(ModelAccess<E> model, Object v) {
+        E e = model.element(v);
+        if (e != null) return unwrapIfcValue(model, e);
         return v;
     }
 
-    private Object unwrapIfcValue(IdEObject ifcValue) {
+    private <E> Object unwrapIfcValue(ModelAccess<E> model, E ifcValue) {
         if (ifcValue == null) return null;
-        Object wf = getObject(ifcValue, "wrappedValue");
+        Object wf = model.value(ifcValue, "wrappedValue");
         if (wf != null) return wf;
         return ifcValue.toString();
     }
@@ -586,23 +559,22 @@ public class Property extends Facet {
 
     //---------------
 
-    @SuppressWarnings("unchecked")
-    private boolean isLogicalUnknownForProperty(Map<String,Object> psetMap, Object propVal) {
+    private <E> boolean isLogicalUnknownForProperty(ModelAccess<E> model, Map<String,Object> psetMap, Object propVal) {
         // treat only "UNKNOWN"/"UNDEFINED" as unknown; everything else passes through
         String s = String.valueOf(propVal);
         if (!"UNKNOWN".equalsIgnoreCase(s) && !"UNDEFINED".equalsIgnoreCase(s)) return false;
 
-        IdEObject psetEntity = (IdEObject) psetMap.get("_entity");
+        E psetEntity = model.element(psetMap.get("_entity"));
         if (psetEntity == null) return false;
 
-        for (IdEObject p : getProperties(psetEntity)) {
-            String nm = getString(p, "Name");
+        for (E p : getProperties(model, psetEntity)) {
+            String nm = model.string(p, "Name");
             if(!baseName.matches(nm)) continue;
 
-            String cls = p.eClass().getName();
+            String cls = model.className(p);
             if ("IfcPropertySingleValue".equals(cls)) {
-                IdEObject nominal = getIdEObject(p, "NominalValue");
-                if (nominal != null && "IfcLogical".equals(nominal.eClass().getName())) {
+                E nominal = model.reference(p, "NominalValue");
+                if (nominal != null && "IfcLogical".equals(model.className(nominal))) {
                     return true;
                 }
             }
@@ -612,67 +584,68 @@ public class Property extends Facet {
     }
 
     /** All value-type names a property exposes (a table property has both defining and defined types). */
-    private List<String> actualDataTypesForProperty(IdEObject propEntity) {
-        if ("IfcPropertyTableValue".equals(propEntity.eClass().getName())) {
+    private <E> List<String> actualDataTypesForProperty(ModelAccess<E> model, E propEntity) {
+        if ("IfcPropertyTableValue".equals(model.className(propEntity))) {
             List<String> out = new ArrayList<>();
-            addFirstType(out, getList(propEntity, "DefiningValues"));
-            addFirstType(out, getList(propEntity, "DefinedValues"));
+            addFirstType(model, out, valueList(model, propEntity, "DefiningValues"));
+            addFirstType(model, out, valueList(model, propEntity, "DefinedValues"));
             return out;
         }
-        String single = actualDataTypeForProperty(propEntity);
+        String single = actualDataTypeForProperty(model, propEntity);
         return single == null ? List.of() : List.of(single);
     }
 
-    private void addFirstType(List<String> out, List<?> vals) {
-        if (vals != null && !vals.isEmpty() && vals.get(0) instanceof IdEObject e) {
-            out.add(e.eClass().getName());
+    private <E> void addFirstType(ModelAccess<E> model, List<String> out, List<?> vals) {
+        if (!vals.isEmpty()) {
+            String measure = measureOf(model, vals.get(0));
+            if (measure != null) out.add(measure);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private String actualDataTypeForProperty(IdEObject propEntity) {
-        String t = propEntity.eClass().getName();
+    private <E> String actualDataTypeForProperty(ModelAccess<E> model, E propEntity) {
+        String t = model.className(propEntity);
 
         if ("IfcPropertySingleValue".equals(t)) {
-            IdEObject nominal = getIdEObject(propEntity, "NominalValue");
-            return (nominal != null) ? nominal.eClass().getName() : null;
+            E nominal = model.reference(propEntity, "NominalValue");
+            return (nominal != null) ? model.className(nominal) : null;
         }
 
         if ("IfcPropertyEnumeratedValue".equals(t)) {
-            List<Object> list = (List<Object>) getList(propEntity, "EnumerationValues");
-            if (list != null && !list.isEmpty()) {
+            List<?> list = valueList(model, propEntity, "EnumerationValues");
+            if (!list.isEmpty()) {
                 Object v = list.get(0);
-                return (v instanceof IdEObject e) ? e.eClass().getName() : typeFromPrimitive(v);
+                String measure = measureOf(model, v);
+                return measure != null ? measure : typeFromPrimitive(v);
             }
             return null;
         }
 
         if ("IfcPropertyListValue".equals(t)) {
-            List<Object> list = (List<Object>) getList(propEntity, "ListValues");
-            if (list != null && !list.isEmpty()) {
+            List<?> list = valueList(model, propEntity, "ListValues");
+            if (!list.isEmpty()) {
                 Object v = list.get(0);
-                return (v instanceof IdEObject e) ? e.eClass().getName() : typeFromPrimitive(v);
+                String measure = measureOf(model, v);
+                return measure != null ? measure : typeFromPrimitive(v);
             }
             return null;
         }
 
         if ("IfcPropertyBoundedValue".equals(t)) {
             for (String a : new String[]{"UpperBoundValue","LowerBoundValue","SetPointValue"}) {
-                Object raw = getObject(propEntity, a);
-                if (raw instanceof IdEObject e) return e.eClass().getName();
+                String measure = measureOf(model, model.value(propEntity, a));
+                if (measure != null) return measure;
             }
             return null;
         }
 
         if ("IfcPropertyTableValue".equals(t)) {
             // The "result" values are the DefinedValues; prefer their type for the dataType check.
-            List<Object> ded = (List<Object>) getList(propEntity,"DefinedValues");
-            List<Object> def = (List<Object>) getList(propEntity,"DefiningValues");
-            Object v = (ded != null && !ded.isEmpty()) ? ded.get(0) : (def != null && !def.isEmpty() ? def.get(0) : null);
-            if (v instanceof IdEObject e) return e.eClass().getName();
-            return typeFromPrimitive(v);
+            List<?> ded = valueList(model, propEntity, "DefinedValues");
+            List<?> def = valueList(model, propEntity, "DefiningValues");
+            Object v = !ded.isEmpty() ? ded.get(0) : (!def.isEmpty() ? def.get(0) : null);
+            String measure = measureOf(model, v);
+            return measure != null ? measure : typeFromPrimitive(v);
         }
-
         // Quantities: derive by class name → IfcLengthMeasure, IfcAreaMeasure, etc.
         if (t.startsWith("IfcQuantity") || "IfcPhysicalSimpleQuantity".equals(t)) {
             if (t.startsWith("IfcQuantityLength"))  return "IfcLengthMeasure";
@@ -773,32 +746,26 @@ public class Property extends Facet {
     );
 
     // Use this from your extractValue / extractQuantityValue
-    private IdEObject unitFor(IfcModelInterface model,
-                              IdEObject propOrQuantity,
-                              IdEObject carrierForProjectLookup,
-                              String measureTypeName) {
-        IdEObject u = getIdEObject(propOrQuantity, "Unit"); // local override on the property/quantity
+    private <E> E unitFor(ModelAccess<E> model, E propOrQuantity, String measureTypeName) {
+        E u = model.reference(propOrQuantity, "Unit"); // local override on the property/quantity
         if (u != null) return u;
         return unitFromProject(model, measureTypeName);
     }
 
-    @SuppressWarnings("unchecked")
-    private IdEObject unitFromProject(IfcModelInterface model, String measureTypeName) {
+    private <E> E unitFromProject(ModelAccess<E> model, String measureTypeName) {
         if (model == null) return null;
         String ut = unitTypeFromMeasure(measureTypeName);
         if (ut == null) return null;
 
-        IdEObject project = findAnyProject(model);
-        if (project == null) return null;
+        List<E> projects = model.instances("IfcProject");
+        if (projects.isEmpty()) return null;
+        E project = projects.get(0); // first is fine
 
-        IdEObject ua = getIdEObject(project, "UnitsInContext"); // IfcUnitAssignment
+        E ua = model.reference(project, "UnitsInContext"); // IfcUnitAssignment
         if (ua == null) return null;
 
-        List<IdEObject> units = (List<IdEObject>) getList(ua, "Units");
-        if (units == null) return null;
-
-        for (IdEObject u : units) {
-            if ("IfcSIUnit".equals(u.eClass().getName()) && ut.equals(getString(u, "UnitType"))) {
+        for (E u : model.references(ua, "Units")) {
+            if ("IfcSIUnit".equals(model.className(u)) && ut.equals(model.string(u, "UnitType"))) {
                 return u;
             }
             // TODO: IfcConversionBasedUnit / IfcDerivedUnit support if needed
@@ -806,18 +773,6 @@ public class Property extends Facet {
         return null;
     }
 
-    private IdEObject findAnyProject(IfcModelInterface model) {
-        var meta = model.getPackageMetaData();
-        var epkg = meta.getEPackage();
-        var cls  = epkg.getEClassifier("IfcProject");
-        if (cls instanceof EClass projClass) {
-            for (IdEObject e : model.getAllWithSubTypes(projClass)) {
-                return e; // first is fine
-            }
-        }
-        return null;
-    }
-
     private String unitTypeFromMeasure(String m) {
         if (m == null) return null;
         switch (m) {
@@ -832,20 +787,14 @@ public class Property extends Facet {
         }
     }
 
-    private IdEObject unitFor(IdEObject propOrQuantity, IfcModelInterface carrierForProjectLookup, String measureTypeName) {
-        IdEObject u = getIdEObject(propOrQuantity, "Unit");  // present for SingleValue, BoundedValue, Quantities (optional)
-        if (u != null) return u;
-        return unitFromProject(carrierForProjectLookup, measureTypeName);
-    }
-
-    private Double unitToSIFactor(IdEObject ifcUnit) {
+    private <E> Double unitToSIFactor(ModelAccess<E> model, E ifcUnit) {
         if (ifcUnit == null) return null;
-        String cls = ifcUnit.eClass().getName();
+        String cls = model.className(ifcUnit);
 
         if ("IfcSIUnit".equals(cls)) {
-            String unitType = getString(ifcUnit, "UnitType"); // LENGTHUNIT/AREAUNIT/...
-            String name     = getString(ifcUnit, "Name");     // e.g. METRE, SQUARE_METRE, SECOND, GRAM
-            String prefix   = getString(ifcUnit, "Prefix");   // e.g. MILLI, CENTI, null
+            String unitType = model.string(ifcUnit, "UnitType"); // LENGTHUNIT/AREAUNIT/...
+            String name     = model.string(ifcUnit, "Name");     // e.g. METRE, SQUARE_METRE, SECOND, GRAM
+            String prefix   = model.string(ifcUnit, "Prefix");   // e.g. MILLI, CENTI, null
 
             int pow = (prefix != null && PREFIX_POW10.containsKey(prefix)) ? PREFIX_POW10.get(prefix) : 0;
             double f = Math.pow(10.0, pow);
@@ -865,18 +814,18 @@ public class Property extends Facet {
     }
 
     /** Convert a single Number to SI using an IFC unit; non-numbers or null unit are returned as-is. */
-    private Object toSI(Object v, IdEObject unit) {
+    private <E> Object toSI(ModelAccess<E> model, Object v, E unit) {
         if (!(v instanceof Number) || unit == null) return v;
-        Double f = unitToSIFactor(unit);
+        Double f = unitToSIFactor(model, unit);
         if (f == null) return v;
         return ((Number) v).doubleValue() * f;
     }
 
     /** Convert a list of Numbers to SI (keeps non-number entries unchanged). */
-    private List<Object> toSIList(List<Object> src, IdEObject unit) {
+    private <E> List<Object> toSIList(ModelAccess<E> model, List<Object> src, E unit) {
         if (src == null || src.isEmpty()) return src;
         List<Object> out = new ArrayList<>(src.size());
-        for (Object o : src) out.add(toSI(o, unit));
+        for (Object o : src) out.add(toSI(model, o, unit));
         return out;
     }
 
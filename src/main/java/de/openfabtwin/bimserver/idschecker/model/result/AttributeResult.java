@@ -1,21 +1,37 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public class AttributeResult extends Result {
 
-    public AttributeResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final AttributeResult PASS = new AttributeResult(true, Reason.NONE, null);
+
+    private static final AttributeResult NOVALUE = new AttributeResult(false, Reason.NOVALUE, null);
+    private static final AttributeResult PROHIBITED = new AttributeResult(false, Reason.PROHIBITED, null);
+
+    public AttributeResult(boolean isPass, Reason reason, Object actual) {
+        super(isPass, reason, actual, null);
+    }
+
+    public static AttributeResult fail(Reason reason) {
+        return switch (reason) {
+            case NOVALUE -> NOVALUE;
+            case PROHIBITED -> PROHIBITED;
+            default -> new AttributeResult(false, reason, null);
+        };
+    }
+
+    public static AttributeResult fail(Reason reason, Object actual) {
+        return new AttributeResult(false, reason, actual);
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NOVALUE" -> "The required attribute did not exist";
-            case "FALSEY" -> "The attribute value \"" + reason.get("actual") + "\" is empty";
-            case "INVALID" -> "An invalid attribute name was specified in the IDS";
-            case "VALUE" -> "The attribute value \"" + reason.get("actual") + "\" does not match the requirement";
-            case "PROHIBITED" -> "The attribute value should not have met the requirement";
+        return switch (reason) {
+            case NOVALUE -> "The required attribute did not exist";
+            case FALSEY -> "The attribute value \"" + actual + "\" is empty";
+            case INVALID -> "An invalid attribute name was specified in the IDS";
+            case VALUE -> "The attribute value \"" + actual + "\" does not match the requirement";
+            case PROHIBITED -> "The attribute value should not have met the requirement";
             default  -> "";
         };
     }
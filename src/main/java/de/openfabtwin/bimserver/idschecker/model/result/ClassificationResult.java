@@ -1,20 +1,38 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public class ClassificationResult extends Result {
 
-    public ClassificationResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final ClassificationResult PASS = new ClassificationResult(true, Reason.NONE, null);
+
+    private static final ClassificationResult NOVALUE = new ClassificationResult(false, Reason.NOVALUE, null);
+    private static final ClassificationResult PROHIBITED_PASS = new ClassificationResult(true, Reason.PROHIBITED, null);
+    private static final ClassificationResult PROHIBITED_FAIL = new ClassificationResult(false, Reason.PROHIBITED, null);
+
+    public ClassificationResult(boolean isPass, Reason reason, Object actual) {
+        super(isPass, reason, actual, null);
+    }
+
+    public static ClassificationResult noValue() {
+        return NOVALUE;
+    }
+
+    public static ClassificationResult fail(Reason reason, Object actual) {
+        return new ClassificationResult(false, reason, actual);
+    }
+
+    /** Result of a PROHIBITED facet: passes when the requirement was not met. */
+    public static ClassificationResult prohibited(boolean isPass) {
+        return isPass ? PROHIBITED_PASS : PROHIBITED_FAIL;
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NOVALUE" -> "The entity has no classification";
-            case "VALUE" -> "The references \"" + reason.get("actual") + "\" do not match the requirements";
-            case "SYSTEM"  -> "The systems \"" + reason.get("actual") + "\" do not match the requirements";
-            case "PROHIBITED" -> "The classification should not have met the requirement";
+        return switch (reason) {
+            case NOVALUE -> "The entity has no classification";
+            case VALUE -> "The references \"" + actual + "\" do not match the requirements";
+            case SYSTEM  -> "The systems \"" + actual + "\" do not match the requirements";
+            case PROHIBITED -> "The classification should not have met the requirement";
             default -> "";
         };
     }
@@ -1,18 +1,23 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public class EntityResult extends Result {
 
-    public EntityResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final EntityResult PASS = new EntityResult(true, Reason.NONE, null);
+
+    public EntityResult(boolean isPass, Reason reason, Object actual) {
+        super(isPass, reason, actual, null);
+    }
+
+    public static EntityResult fail(Reason reason, Object actual) {
+        return new EntityResult(false, reason, actual);
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NAME" -> "The entity class \"" + reason.get("actual") + "\" does not meet the required IFC class";
-            case "PREDEFINEDTYPE" -> "The predefined type \"" + reason.get("actual") + "\" does not meet the required type";
+        return switch (reason) {
+            case NAME -> "The entity class \"" + actual + "\" does not meet the required IFC class";
+            case PREDEFINEDTYPE -> "The predefined type \"" + actual + "\" does not meet the required type";
             default -> "";
         };
     }
@@ -1,19 +1,37 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public class MaterialResult extends Result {
 
-    public MaterialResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final MaterialResult PASS = new MaterialResult(true, Reason.NONE, null);
+
+    private static final MaterialResult NOVALUE = new MaterialResult(false, Reason.NOVALUE, null);
+    private static final MaterialResult PROHIBITED_PASS = new MaterialResult(true, Reason.PROHIBITED, null);
+    private static final MaterialResult PROHIBITED_FAIL = new MaterialResult(false, Reason.PROHIBITED, null);
+
+    public MaterialResult(boolean isPass, Reason reason, Object actual) {
+        super(isPass, reason, actual, null);
+    }
+
+    public static MaterialResult noValue() {
+        return NOVALUE;
+    }
+
+    public static MaterialResult fail(Reason reason, Object actual) {
+        return new MaterialResult(false, reason, actual);
+    }
+
+    /** Result of a PROHIBITED facet: passes when the requirement was not met. */
+    public static MaterialResult prohibited(boolean isPass) {
+        return isPass ? PROHIBITED_PASS : PROHIBITED_FAIL;
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NOVALUE" -> "The entity has no material";
-            case "VALUE" -> "The material names and categories of \"" + reason.get("actual") + "\" do not match the requirement";
-            case "PROHIBITED" -> "The material should not have met the requirement";
+        return switch (reason) {
+            case NOVALUE -> "The entity has no material";
+            case VALUE -> "The material names and categories of \"" + actual + "\" do not match the requirement";
+            case PROHIBITED -> "The material should not have met the requirement";
             default -> "";
         };
     }
@@ -1,20 +1,38 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public class PartOfResult extends Result {
 
-    public PartOfResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final PartOfResult PASS = new PartOfResult(true, Reason.NONE, null);
+
+    private static final PartOfResult NOVALUE = new PartOfResult(false, Reason.NOVALUE, null);
+    private static final PartOfResult PROHIBITED_PASS = new PartOfResult(true, Reason.PROHIBITED, null);
+    private static final PartOfResult PROHIBITED_FAIL = new PartOfResult(false, Reason.PROHIBITED, null);
+
+    public PartOfResult(boolean isPass, Reason reason, Object actual) {
+        super(isPass, reason, actual, null);
+    }
+
+    public static PartOfResult noValue() {
+        return NOVALUE;
+    }
+
+    public static PartOfResult fail(Reason reason, Object actual) {
+        return new PartOfResult(false, reason, actual);
+    }
+
+    /** Result of a PROHIBITED facet: passes when the requirement was not met. */
+    public static PartOfResult prohibited(boolean isPass) {
+        return isPass ? PROHIBITED_PASS : PROHIBITED_FAIL;
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NOVALUE" -> "The entity has no relationship";
-            case "ENTITY" -> "The entity has a relationship with incorrect entities: \"" + reason.get("actual") + "\"";
-            case "PREDEFINEDTYPE"-> "The entity has a relationship with incorrect predefined type: \"" + reason.get("actual") + "\"";
-            case "PROHIBITED" -> "The relationship should not have met the requirement";
+        return switch (reason) {
+            case NOVALUE -> "The entity has no relationship";
+            case ENTITY -> "The entity has a relationship with incorrect entities: \"" + actual + "\"";
+            case PREDEFINEDTYPE-> "The entity has a relationship with incorrect predefined type: \"" + actual + "\"";
+            case PROHIBITED -> "The relationship should not have met the requirement";
             default -> "";
         };
     }
@@ -1,21 +1,49 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
 import java.util.List;
-import java.util.Map;
 
 public class PropertyResult extends Result {
-    public PropertyResult(boolean isPass, Map<String, Object> reason) {
-        super(isPass, reason);
+
+    /** Shared result for every passing check; passes carry no per-element data. */
+    public static final PropertyResult PASS = new PropertyResult(true, Reason.NONE, null, null);
+
+    private static final PropertyResult NOPSET = new PropertyResult(false, Reason.NOPSET, null, null);
+    private static final PropertyResult NOVALUE = new PropertyResult(false, Reason.NOVALUE, null, null);
+    private static final PropertyResult PROHIBITED_PASS = new PropertyResult(true, Reason.PROHIBITED, null, null);
+    private static final PropertyResult PROHIBITED_FAIL = new PropertyResult(false, Reason.PROHIBITED, null, null);
+
+    public PropertyResult(boolean isPass, Reason reason, Object actual, Object dataType) {
+        super(isPass, reason, actual, dataType);
+    }
+
+    public static PropertyResult noPset() {
+        return NOPSET;
+    }
+
+    public static PropertyResult noValue() {
+        return NOVALUE;
+    }
+
+    public static PropertyResult fail(Reason reason, Object actual) {
+        return new PropertyResult(false, reason, actual, null);
+    }
+
+    public static PropertyResult dataType(Object actual, String dataType) {
+        return new PropertyResult(false, Reason.DATATYPE, actual, dataType);
+    }
+
+    /** Result of a PROHIBITED facet: passes when the requirement was not met. */
+    public static PropertyResult prohibited(boolean isPass) {
+        return isPass ? PROHIBITED_PASS : PROHIBITED_FAIL;
     }
 
     @Override
     public String to_String() {
-        return switch (reasonType()) {
-            case "NOPSET" -> "The required property set does not exist";
-            case "NOVALUE" -> "The property set does not contain the required property";
-            case "DATATYPE"-> "The property's data type \"" + reason.get("actual") + "\" does not match the required data type of \""  + reason.get("dataType") + "\"";
-            case "VALUE" -> {
-                Object actual = reason.get("actual");
+        return switch (reason) {
+            case NOPSET -> "The required property set does not exist";
+            case NOVALUE -> "The property set does not contain the required property";
+            case DATATYPE-> "The property's data type \"" + actual + "\" does not match the required data type of \""  + expected + "\"";
+            case VALUE -> {
                 if (actual instanceof List<?> list) {
                     if (list.size() == 1)
                         yield "The property value \"" + list.get(0) + "\" does not match the requirements";
@@ -24,7 +52,7 @@ public class PropertyResult extends Result {
                 }
                 yield "The property value \"" + actual + "\" does not match the requirements";
             }
-            case "PROHIBITED" -> "The property should not have met the requirement";
+            case PROHIBITED -> "The property should not have met the requirement";
             default -> "";
         };
     }
@@ -1,25 +1,36 @@
 package de.openfabtwin.bimserver.idschecker.model.result;
 
-import java.util.Map;
-
 public abstract class Result {
+    /** Why a facet check failed; {@code NONE} for plain passes. Replaces the former {@code Map} reasons. */
+    public enum Reason { NONE, NAME, PREDEFINEDTYPE, NOPSET, NOVALUE, FALSEY, INVALID, VALUE, SYSTEM, ENTITY, DATATYPE, PROHIBITED }
+
     protected final boolean isPass;
-    protected final Map<String, Object> reason;
+    protected final Reason reason;
+    protected final Object actual;
+    protected final Object expected;
 
-    protected Result(boolean isPass, Map<String, Object> reason) {
+    protected Result(boolean isPass, Reason reason, Object actual, Object expected) {
         this.isPass = isPass;
-        this.reason = reason;
+        this.reason = reason == null ? Reason.NONE : reason;
+        this.actual = actual;
+        this.expected = expected;
     }
 
     public boolean isPass() {
         return isPass;
     }
 
-    public abstract String to_String();
+    public Reason getReason() {
+        return reason;
+    }
 
-    protected String reasonType() {
-        if (reason == null) return "";
-        Object t = reason.get("type");
-        return t instanceof String s ? s : "";
+    public Object getActual() {
+        return actual;
     }
+
+    public Object getExpected() {
+        return expected;
+    }
+
+    public abstract String to_String();
 }
@@ -0,0 +1,20 @@
+package de.openfabtwin.bimserver.idschecker.model.result;
+
+/**
+ * A result read back from a spill file. Actual and expected values come back as their string form
+ * and the message as rendered when the result was spilled.
+ */
+public class SpilledResult extends Result {
+
+    private final String text;
+
+    public SpilledResult(boolean isPass, Reason reason, String actual, String expected, String text) {
+        super(isPass, reason, actual, expected);
+        this.text = text;
+    }
+
+    @Override
+    public String to_String() {
+        return text;
+    }
+}
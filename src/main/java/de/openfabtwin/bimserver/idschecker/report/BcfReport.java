@@ -1,15 +1,223 @@
 package de.openfabtwin.bimserver.idschecker.report;
 import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.getString;
+
+/**
+ * BCF 2.1 report: a zip archive with one topic folder ({@code markup.bcf} + {@code viewpoint.bcfv})
+ * per failure, selecting the failing components by IfcGuid. Topics are written to the zip one at a
+ * time, so memory use does not grow with the number of failures.
+ *
+ * <p>Topic GUIDs are derived from the IDS (its checksum, or its title), the checked revision (see
+ * {@link #setRevision}), specification, requirement and element. Re-running the check on the same
+ * revision produces the same topics, and reports of other IDS files or revisions never share one, so
+ * merged or imported BCF files do not overwrite each other's topics.
+ */
 public class BcfReport extends Reporter {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String AUTHOR = "IDS Model Checker";
+    private static final XMLOutputFactory XML = XMLOutputFactory.newFactory();
+
+    /**
+     * {@code ELEMENT}: one topic per failing element and requirement. {@code REQUIREMENT}: one topic
+     * per failing requirement of a specification, selecting all of its failing elements.
+     */
+    public enum Grouping {
+        ELEMENT, REQUIREMENT;
+
+        public static Grouping fromString(String s) {
+            if (s == null || s.isBlank()) return ELEMENT;
+            return switch (s.trim().toLowerCase()) {
+                case "requirement", "specification", "facet" -> REQUIREMENT;
+                default -> ELEMENT;
+            };
+        }
+    }
+
+    private Grouping grouping = Grouping.ELEMENT;
+    private String revision = "";
+    private String creationDate;
+    private ZipOutputStream zip;
+    private int topics;
+
     public BcfReport(Ids ids) {
         super(ids);
     }
 
+    public BcfReport(List<Ids> sources) {
+        super(sources);
+    }
+
+    public BcfReport setGrouping(Grouping grouping) {
+        this.grouping = grouping == null ? Grouping.ELEMENT : grouping;
+        return this;
+    }
+
+    /**
+     * Identify the checked model in topic GUIDs: project and revision on a BIMserver, e.g.
+     * {@code "131073/65539"}, or the model file of a standalone check.
+     */
+    public BcfReport setRevision(String revision) {
+        this.revision = revision == null ? "" : revision;
+        return this;
+    }
+
+    /** Number of topics written by the last {@link #report(OutputStream)}. */
+    public int getTopics() {
+        return topics;
+    }
+
     @Override
-    public void report() {
+    public void report(OutputStream out) throws IOException {
+        this.creationDate = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        this.topics = 0;
+        // The zip stream is finished, not closed: the caller owns the underlying stream.
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.zip = new ZipOutputStream(buffered, StandardCharsets.UTF_8);
+        try {
+            writeVersion();
+            for (int i = 0; i < sources.size(); i++) {
+                String scope = identity(i) + "/" + revision;
+                List<Specification> specifications = sources.get(i).getSpecifications();
+                for (int s = 0; s < specifications.size(); s++) {
+                    Specification spec = specifications.get(s);
+                    List<Facet> requirements = spec.getRequirements();
+                    for (int r = 0; r < requirements.size(); r++) {
+                        Facet requirement = requirements.get(r);
+                        if (requirement.getFailures().isEmpty()) continue;
+                        String topic = scope + "/" + s + "/" + r;
+                        if (grouping == Grouping.REQUIREMENT) writeRequirementTopic(topic, spec, requirement);
+                        else writeElementTopics(topic, spec, requirement);
+                    }
+                }
+            }
+            zip.finish();
+            buffered.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write BCF markup", e);
+        } finally {
+            this.zip = null;
+        }
+    }
 
+    private void writeVersion() throws IOException, XMLStreamException {
+        XMLStreamWriter xml = entry("bcf.version");
+        xml.writeStartElement("Version");
+        xml.writeAttribute("VersionId", "2.1");
+        element(xml, "DetailedVersion", "2.1");
+        xml.writeEndElement();
+        close(xml);
+    }
+
+    /** What identifies source {@code i} across files: its checksum, else its title. */
+    private String identity(int i) {
+        Ids source = sources.get(i);
+        return source.getChecksum() != null ? source.getChecksum() : title(i);
+    }
+
+    private void writeElementTopics(String topicKey, Specification spec, Facet requirement) throws IOException, XMLStreamException {
+        List<FacetFailure> failures = requirement.getFailures();
+        int n = listed(failures.size());
+        for (int i = 0; i < n; i++) {
+            FacetFailure failure = failures.get(i);
+            String guid = getString(failure.getElement(), "GlobalId");
+            String title = spec.getName() + ": " + failure.getElement().eClass().getName()
+                    + (guid != null ? " " + guid : "");
+            String description = requirement.to_string("requirement", spec, requirement) + "\n" + failure.getReason();
+            UUID topic = uuid(topicKey + "/" + failure.getElement().getOid());
+            writeTopic(topic, title, description, List.of(failure));
+        }
+    }
+
+    private void writeRequirementTopic(String topicKey, Specification spec, Facet requirement) throws IOException, XMLStreamException {
+        List<FacetFailure> failures = requirement.getFailures();
+        String title = spec.getName() + ": " + failures.size() + " failing element" + (failures.size() == 1 ? "" : "s");
+        String description = requirement.to_string("requirement", spec, requirement);
+        writeTopic(uuid(topicKey), title, description, failures);
+    }
+
+    private void writeTopic(UUID topic, String title, String description, List<FacetFailure> failures) throws IOException, XMLStreamException {
+        UUID viewpoint = UUID.nameUUIDFromBytes(("viewpoint/" + topic).getBytes(StandardCharsets.UTF_8));
+
+        XMLStreamWriter xml = entry(topic + "/markup.bcf");
+        xml.writeStartElement("Markup");
+        xml.writeStartElement("Topic");
+        xml.writeAttribute("Guid", topic.toString());
+        xml.writeAttribute("TopicType", "Error");
+        xml.writeAttribute("TopicStatus", "Open");
+        element(xml, "Title", title);
+        element(xml, "CreationDate", creationDate);
+        element(xml, "CreationAuthor", AUTHOR);
+        element(xml, "Description", description);
+        xml.writeEndElement();
+        xml.writeStartElement("Viewpoints");
+        xml.writeAttribute("Guid", viewpoint.toString());
+        element(xml, "Viewpoint", "viewpoint.bcfv");
+        xml.writeEndElement();
+        xml.writeEndElement();
+        close(xml);
+
+        xml = entry(topic + "/viewpoint.bcfv");
+        xml.writeStartElement("VisualizationInfo");
+        xml.writeAttribute("Guid", viewpoint.toString());
+        xml.writeStartElement("Components");
+        xml.writeStartElement("Selection");
+        int n = listed(failures.size());
+        for (int i = 0; i < n; i++) {
+            String guid = getString(failures.get(i).getElement(), "GlobalId");
+            if (guid == null) continue;
+            xml.writeEmptyElement("Component");
+            xml.writeAttribute("IfcGuid", guid);
+        }
+        xml.writeEndElement();
+        xml.writeEmptyElement("Visibility");
+        xml.writeAttribute("DefaultVisibility", "true");
+        xml.writeEndElement();
+        xml.writeEndElement();
+        close(xml);
+
+        topics++;
+    }
+
+    private XMLStreamWriter entry(String name) throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry(name));
+        XMLStreamWriter xml = XML.createXMLStreamWriter(zip, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        return xml;
+    }
+
+    private void close(XMLStreamWriter xml) throws IOException, XMLStreamException {
+        xml.writeEndDocument();
+        xml.close();    // does not close the underlying zip stream
+        zip.closeEntry();
     }
-}
 
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text == null ? "" : text);
+        xml.writeEndElement();
+    }
+
+    private static UUID uuid(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
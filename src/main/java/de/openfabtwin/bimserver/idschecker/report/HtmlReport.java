@@ -0,0 +1,278 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
+import org.bimserver.emf.IdEObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.getString;
+
+/**
+ * Self-contained HTML report for one model check.
+ *
+ * <p>The summary and the specification outline are plain HTML at the top of the page. Element
+ * lists are not: each requirement's failures (and, at {@code FULL} detail, passes) are written as a
+ * {@code <script type="application/json">} data block, which the browser stores without parsing. A
+ * small script turns a block into a paginated table only when its specification is expanded, so
+ * the page opens immediately however many failures the model has.
+ */
+public class HtmlReport extends Reporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PAGE_SIZE = 100;
+
+    private Writer out;
+    private int blocks;
+
+    public HtmlReport(Ids ids) {
+        super(ids);
+    }
+
+    public HtmlReport(List<Ids> sources) {
+        super(sources);
+    }
+
+    @Override
+    public void report(OutputStream stream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.out = writer;
+        this.blocks = 0;
+        try {
+            writeHead();
+            writeSummary(specifications());
+            if (sources.size() == 1) {
+                for (Specification spec : ids.getSpecifications()) writeSpecification(spec);
+            } else {
+                for (int i = 0; i < sources.size(); i++) writeSource(i);
+            }
+            w("<script>").w(script()).w("</script>\n</body>\n</html>\n");
+            writer.flush();
+        } finally {
+            this.out = null;
+        }
+    }
+
+    private void writeHead() throws IOException {
+        Object title = sources.size() == 1 ? ids.getInfo().get("title") : sources.size() + " IDS documents";
+        w("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
+        w("<title>").esc(title != null ? "IDS Report – " + title : "IDS Report").w("</title>\n");
+        w(style());
+        w("</head>\n<body>\n<h1>IDS Report</h1>\n");
+        w("<p class=\"meta\">Generated ").esc(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        if (sources.size() == 1) writeInfo(ids);
+        w("</p>\n");
+    }
+
+    private void writeInfo(Ids ids) throws IOException {
+        for (var e : ids.getInfo().entrySet()) {
+            if (e.getValue() != null) w(" · ").esc(e.getKey()).w(": ").esc(e.getValue().toString());
+        }
+    }
+
+    /** One IDS document of a multi-document report: heading, its info, its summary and specifications. */
+    private void writeSource(int index) throws IOException {
+        Ids source = sources.get(index);
+        w("<h2>").esc(title(index)).w("</h2>\n<p class=\"meta\">IDS ").w((index + 1) + " of " + sources.size());
+        writeInfo(source);
+        w("</p>\n");
+        writeSummary(source.getSpecifications());
+        for (Specification spec : source.getSpecifications()) writeSpecification(spec);
+    }
+
+    private void writeSummary(List<Specification> specifications) throws IOException {
+        int passed = 0;
+        long failures = 0;
+        for (Specification spec : specifications) {
+            if (spec.getStatus()) passed++;
+            failures += spec.getFailed_entities().size();
+        }
+        boolean ok = passed == specifications.size() && passed > 0;
+        w("<div class=\"summary\">\n");
+        stat("Specifications passed", passed + " / " + specifications.size());
+        stat("Failed checks", String.valueOf(failures));
+        badge(ok, ok ? "PASS" : "FAIL");
+        w("</div>\n");
+    }
+
+    private void writeSpecification(Specification spec) throws IOException {
+        int checks = spec.getPassed_entities().size() + spec.getFailed_entities().size();
+        w("<details class=\"spec\">\n<summary>");
+        badge(spec.getStatus(), spec.getStatus() ? "PASS" : "FAIL");
+        w("<span class=\"name\">").esc(spec.getName()).w("</span>");
+        w("<span class=\"count\">").w(spec.getPassed_entities().size() + " / " + checks).w(" checks passed</span>");
+        w("<span class=\"count\">").w(String.valueOf(spec.getApplicable_entities().size())).w(" elements</span>");
+        w("</summary>\n<div class=\"body\">\n");
+        if (spec.getDescription() != null) w("<p>").esc(spec.getDescription()).w("</p>\n");
+
+        w("<h3>Applies to</h3>\n<ol>\n");
+        for (Facet applicability : spec.getApplicability()) {
+            w("<li>").esc(applicability.to_string("applicability", null, null)).w("</li>\n");
+        }
+        w("</ol>\n<h3>Requirements</h3>\n<ol>\n");
+        for (Facet requirement : spec.getRequirements()) {
+            List<IdEObject> passed = requirement.getPassedEntities();
+            List<FacetFailure> failures = requirement.getFailures();
+            w("<li>").esc(requirement.to_string("requirement", spec, requirement));
+            w(" <span class=\"count\">").w(passed.size() + " passed, " + failures.size() + " failed").w("</span>\n");
+            if (detail.listsFailures() && !failures.isEmpty()) writeFailures(failures);
+            if (detail.listsPasses() && !passed.isEmpty()) writePasses(passed);
+            w("</li>\n");
+        }
+        w("</ol>\n</div>\n</details>\n");
+    }
+
+    private void writeFailures(List<FacetFailure> failures) throws IOException {
+        int n = listed(failures.size());
+        openBlock("bad", "Failed", failures.size(), n, "GUID", "Class", "Name", "Reason", "Message");
+        for (int i = 0; i < n; i++) {
+            FacetFailure failure = failures.get(i);
+            w(i == 0 ? "[" : ",\n[");
+            element(failure.getElement());
+            w(",").json(failure.getReasonCode().name()).w(",").json(failure.getReason()).w("]");
+        }
+        closeBlock();
+    }
+
+    private void writePasses(List<IdEObject> passed) throws IOException {
+        int n = listed(passed.size());
+        openBlock("ok", "Passed", passed.size(), n, "GUID", "Class", "Name");
+        for (int i = 0; i < n; i++) {
+            w(i == 0 ? "[" : ",\n[");
+            element(passed.get(i));
+            w("]");
+        }
+        closeBlock();
+    }
+
+    /** Empty table shell plus the opening of its JSON data block. */
+    private void openBlock(String kind, String label, int total, int listed, String... columns) throws IOException {
+        String id = "b" + (blocks++);
+        w("<div class=\"block ").w(kind).w("\" data-src=\"").w(id).w("\">");
+        w("<div class=\"pager\"><b>").w(label).w("</b> <button class=\"prev\">&lsaquo;</button> <span></span> <button class=\"next\">&rsaquo;</button>");
+        if (listed < total) w(" <span class=\"count\">showing " + listed + " of " + total + "</span>");
+        w("</div>\n<table><thead><tr>");
+        for (String c : columns) w("<th>").w(c).w("</th>");
+        w("</tr></thead><tbody></tbody></table></div>\n");
+        w("<script type=\"application/json\" id=\"").w(id).w("\">[");
+    }
+
+    private void closeBlock() throws IOException {
+        w("]</script>\n");
+    }
+
+    private void element(IdEObject element) throws IOException {
+        json(getString(element, "GlobalId")).w(",").json(element.eClass().getName()).w(",").json(getString(element, "Name"));
+    }
+
+    private void stat(String label, String value) throws IOException {
+        w("<div class=\"stat\"><span class=\"label\">").esc(label).w("</span><span class=\"value\">").esc(value).w("</span></div>\n");
+    }
+
+    private void badge(boolean ok, String text) throws IOException {
+        w("<span class=\"badge ").w(ok ? "ok" : "bad").w("\">").esc(text).w("</span>");
+    }
+
+    // ---- writer helpers ----
+
+    private HtmlReport w(String s) throws IOException {
+        out.write(s);
+        return this;
+    }
+
+    private HtmlReport esc(String s) throws IOException {
+        if (s == null) return this;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> out.write("&amp;");
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '"' -> out.write("&quot;");
+                default -> out.write(c);
+            }
+        }
+        return this;
+    }
+
+    /** JSON string literal that is also safe inside a {@code <script>} element. */
+    private HtmlReport json(String s) throws IOException {
+        if (s == null) {
+            out.write("\"\"");
+            return this;
+        }
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                case '<' -> out.write("\\u003c");
+                case '>' -> out.write("\\u003e");
+                case '&' -> out.write("\\u0026");
+                case '\u2028' -> out.write("\\u2028");
+                case '\u2029' -> out.write("\\u2029");
+                default -> {
+                    if (c < 0x20) out.write(String.format("\\u%04x", (int) c));
+                    else out.write(c);
+                }
+            }
+        }
+        out.write('"');
+        return this;
+    }
+
+    private static String script() {
+        return "(function(){var SIZE=" + PAGE_SIZE + ";\n"
+                + "function init(b){b.dataset.done='1';var rows=JSON.parse(document.getElementById(b.dataset.src).textContent),"
+                + "page=0,pages=Math.max(1,Math.ceil(rows.length/SIZE)),tbody=b.querySelector('tbody'),info=b.querySelector('.pager span');\n"
+                + "function render(){tbody.textContent='';rows.slice(page*SIZE,(page+1)*SIZE).forEach(function(r){"
+                + "var tr=document.createElement('tr');r.forEach(function(v){var td=document.createElement('td');td.textContent=v;tr.appendChild(td);});"
+                + "tbody.appendChild(tr);});info.textContent=(page+1)+' / '+pages;}\n"
+                + "b.querySelector('.prev').onclick=function(){if(page>0){page--;render();}};\n"
+                + "b.querySelector('.next').onclick=function(){if(page<pages-1){page++;render();}};\n"
+                + "render();}\n"
+                + "document.querySelectorAll('details.spec').forEach(function(d){d.addEventListener('toggle',function(){"
+                + "if(d.open)d.querySelectorAll('.block:not([data-done])').forEach(init);});});})();\n";
+    }
+
+    private static String style() {
+        return "<style>\n"
+                + "body{font-family:system-ui,Segoe UI,Arial,sans-serif;margin:24px;color:#1c2230;background:#fff}\n"
+                + "h1{font-size:20px;margin:0 0 4px}\n"
+                + "h2{font-size:16px;margin:28px 0 4px}\n"
+                + "h3{font-size:13px;margin:12px 0 4px;color:#6b7280;text-transform:uppercase}\n"
+                + ".meta{color:#6b7280;margin:0 0 16px;font-size:13px}\n"
+                + ".summary{display:flex;gap:16px;align-items:center;flex-wrap:wrap;"
+                + "padding:12px 16px;border:1px solid #e5e7eb;border-radius:8px;margin-bottom:18px;background:#f9fafb}\n"
+                + ".stat{display:flex;flex-direction:column}\n"
+                + ".stat .label{font-size:11px;text-transform:uppercase;letter-spacing:.04em;color:#6b7280}\n"
+                + ".stat .value{font-size:18px;font-weight:600}\n"
+                + "details{border:1px solid #e5e7eb;border-radius:8px;margin-bottom:10px;overflow:hidden}\n"
+                + "summary{cursor:pointer;list-style:none;display:flex;gap:14px;align-items:center;"
+                + "padding:10px 14px;background:#f3f4f6;font-weight:600}\n"
+                + "summary::-webkit-details-marker{display:none}\n"
+                + ".body{padding:4px 14px 12px}\n"
+                + ".count{font-weight:400;color:#6b7280;font-size:13px}\n"
+                + ".block{margin:6px 0 10px}\n"
+                + ".pager{font-size:12px;margin:4px 0}\n"
+                + "table{width:100%;border-collapse:collapse;font-size:13px}\n"
+                + "th,td{text-align:left;padding:5px 10px;border-top:1px solid #eef0f3}\n"
+                + "th{background:#fafbfc;color:#6b7280;font-weight:600;font-size:11px;text-transform:uppercase}\n"
+                + "td:first-child{font-family:ui-monospace,Consolas,monospace;font-size:12px}\n"
+                + ".block.bad tbody tr{background:#fef2f2}\n"
+                + ".badge{display:inline-block;padding:2px 8px;border-radius:999px;font-size:11px;font-weight:700}\n"
+                + ".badge.ok{background:#dcfce7;color:#166534}\n"
+                + ".badge.bad{background:#fee2e2;color:#991b1b}\n"
+                + "</style>\n";
+    }
+}
@@ -0,0 +1,188 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
+import org.bimserver.emf.IdEObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static de.openfabtwin.bimserver.idschecker.model.facet.Facet.getString;
+
+/**
+ * Machine-readable report, streamed through a Jackson {@link JsonGenerator}. Layout:
+ * <pre>
+ * { "info": {...},
+ *   "summary": { "status", "specifications", "passed", "failed" },
+ *   "specifications": [ { "name", ..., "status", "applicable", "passed", "failed",
+ *       "applicability": [ { "facet", "description" } ],
+ *       "requirements":  [ { "facet", "description", "status", "passed", "failed",
+ *           "passedElements": [ { "oid", "guid", "type", "name" } ],
+ *           "failures":       [ { "oid", "guid", "type", "name", "reason", "actual", "message" } ] } ] } ] }
+ * </pre>
+ * A report on several IDS documents wraps one such object per document:
+ * {@code { "summary": {...}, "sources": [ { "info", "summary", "specifications" }, ... ] }}, the outer
+ * summary counting the specifications of all of them.
+ * {@code passedElements} and {@code failures} follow the {@link Reporter.Detail} level and the listing
+ * cap; the {@code passed}/{@code failed} counts are always complete.
+ */
+public class JsonReport extends Reporter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public JsonReport(Ids ids) {
+        super(ids);
+    }
+
+    public JsonReport(List<Ids> sources) {
+        super(sources);
+    }
+
+    @Override
+    public void report(OutputStream out) throws IOException {
+        // Jackson buffers internally; closing the generator flushes it but leaves the stream open.
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (sources.size() == 1) {
+                writeSection(json, ids);
+            } else {
+                json.writeStartObject();
+                writeSummary(json, specifications());
+                json.writeArrayFieldStart("sources");
+                for (Ids source : sources) writeSection(json, source);
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        }
+    }
+
+    private void writeSection(JsonGenerator json, Ids ids) throws IOException {
+        json.writeStartObject();
+        writeInfo(json, ids);
+        writeSummary(json, ids.getSpecifications());
+        json.writeArrayFieldStart("specifications");
+        for (Specification spec : ids.getSpecifications()) writeSpecification(json, spec);
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeInfo(JsonGenerator json, Ids ids) throws IOException {
+        json.writeObjectFieldStart("info");
+        for (Map.Entry<String, Object> e : ids.getInfo().entrySet()) {
+            if (e.getValue() != null) json.writeStringField(e.getKey(), e.getValue().toString());
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeSummary(JsonGenerator json, List<Specification> specifications) throws IOException {
+        int passed = 0;
+        for (Specification spec : specifications) if (spec.getStatus()) passed++;
+        json.writeObjectFieldStart("summary");
+        json.writeStringField("status", passed == specifications.size() && passed > 0 ? "PASS" : "FAIL");
+        json.writeNumberField("specifications", specifications.size());
+        json.writeNumberField("passed", passed);
+        json.writeNumberField("failed", specifications.size() - passed);
+        json.writeEndObject();
+    }
+
+    private void writeSpecification(JsonGenerator json, Specification spec) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", spec.getName());
+        if (spec.getDescription() != null) json.writeStringField("description", spec.getDescription());
+        if (spec.getInstructions() != null) json.writeStringField("instructions", spec.getInstructions());
+        json.writeArrayFieldStart("ifcVersion");
+        for (Specification.IfcVersion v : spec.getIfcVersion()) json.writeString(v.name());
+        json.writeEndArray();
+        if (spec.getMinOccurs() != null) json.writeStringField("minOccurs", spec.getMinOccurs());
+        if (spec.getMaxOccurs() != null) json.writeStringField("maxOccurs", spec.getMaxOccurs());
+        json.writeBooleanField("ifcVersionSupported", spec.getIs_ifc_version_supported());
+        json.writeBooleanField("status", spec.getStatus());
+        json.writeNumberField("applicable", spec.getApplicable_entities().size());
+        json.writeNumberField("passed", spec.getPassed_entities().size());
+        json.writeNumberField("failed", spec.getFailed_entities().size());
+
+        json.writeArrayFieldStart("applicability");
+        for (Facet applicability : spec.getApplicability()) {
+            json.writeStartObject();
+            json.writeStringField("facet", applicability.getClass().getSimpleName());
+            json.writeStringField("description", applicability.to_string("applicability", null, null));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("requirements");
+        for (Facet requirement : spec.getRequirements()) writeRequirement(json, spec, requirement);
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void writeRequirement(JsonGenerator json, Specification spec, Facet requirement) throws IOException {
+        List<IdEObject> passed = requirement.getPassedEntities();
+        List<FacetFailure> failures = requirement.getFailures();
+
+        json.writeStartObject();
+        json.writeStringField("facet", requirement.getClass().getSimpleName());
+        json.writeStringField("description", requirement.to_string("requirement", spec, requirement));
+        // Without applicable elements the requirement shares the specification's outcome.
+        json.writeBooleanField("status", spec.getApplicable_entities().isEmpty() ? spec.getStatus() : failures.isEmpty());
+        json.writeNumberField("passed", passed.size());
+        json.writeNumberField("failed", failures.size());
+
+        if (detail.listsPasses()) {
+            json.writeArrayFieldStart("passedElements");
+            int n = listed(passed.size());
+            for (int i = 0; i < n; i++) {
+                json.writeStartObject();
+                writeElement(json, passed.get(i));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        if (detail.listsFailures()) {
+            json.writeArrayFieldStart("failures");
+            int n = listed(failures.size());
+            for (int i = 0; i < n; i++) {
+                FacetFailure failure = failures.get(i);
+                json.writeStartObject();
+                writeElement(json, failure.getElement());
+                json.writeStringField("reason", failure.getReasonCode().name());
+                json.writeFieldName("actual");
+                writeValue(json, failure.getResult().getActual());
+                json.writeStringField("message", failure.getReason());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeElement(JsonGenerator json, IdEObject element) throws IOException {
+        json.writeNumberField("oid", element.getOid());
+        String guid = getString(element, "GlobalId");
+        if (guid != null) json.writeStringField("guid", guid);
+        json.writeStringField("type", element.eClass().getName());
+        String name = getString(element, "Name");
+        if (name != null) json.writeStringField("name", name);
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) json.writeNull();
+        else if (value instanceof Boolean b) json.writeBoolean(b);
+        else if (value instanceof Long || value instanceof Integer) json.writeNumber(((Number) value).longValue());
+        else if (value instanceof Number n) json.writeNumber(n.doubleValue());
+        else if (value instanceof Collection<?> c) {
+            json.writeStartArray();
+            for (Object v : c) writeValue(json, v);
+            json.writeEndArray();
+        } else if (value instanceof IdEObject e) json.writeString(e.eClass().getName() + "#" + e.getOid());
+        else json.writeString(value.toString());
+    }
+}
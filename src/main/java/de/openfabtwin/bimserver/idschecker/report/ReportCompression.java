@@ -0,0 +1,76 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compression applied to a report artifact before it is stored as extended data. Each mode knows
+ * the file name, MIME type and extended-data schema of the compressed artifact and wraps the
+ * report stream in the matching streaming compressor.
+ */
+public enum ReportCompression {
+    NONE(null, null, null),
+    GZIP(".gz", "application/gzip", "IDS_REPORT_GZIP_1_0"),
+    ZIP(".zip", "application/zip", "IDS_REPORT_ZIP_1_0");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+    private final String mime;
+    private final String schemaName;
+
+    ReportCompression(String extension, String mime, String schemaName) {
+        this.extension = extension;
+        this.mime = mime;
+        this.schemaName = schemaName;
+    }
+
+    public static ReportCompression fromString(String s) {
+        if (s == null || s.isBlank()) return NONE;
+        return switch (s.trim().toLowerCase()) {
+            case "gzip", "gz" -> GZIP;
+            case "zip" -> ZIP;
+            default -> NONE;
+        };
+    }
+
+    /** File name of the artifact holding {@code fileName}: {@code result.txt.gz}, {@code result.zip}, ... */
+    public String fileName(String fileName) {
+        if (this != ZIP) return extension == null ? fileName : fileName + extension;
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + extension;
+    }
+
+    /** MIME type of the artifact, or {@code uncompressed} when nothing is compressed. */
+    public String mime(String uncompressed) {
+        return mime == null ? uncompressed : mime;
+    }
+
+    /** Extended-data schema of the artifact, or {@code uncompressed} when nothing is compressed. */
+    public String schemaName(String uncompressed) {
+        return schemaName == null ? uncompressed : schemaName;
+    }
+
+    /**
+     * Wrap {@code out} so that everything written is compressed on the fly. A zip archive gets a
+     * single entry named {@code entryName}. Closing the returned stream finishes the archive and
+     * closes {@code out}.
+     */
+    public OutputStream wrap(OutputStream out, String entryName) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZIP:
+                ZipOutputStream zip = new ZipOutputStream(out);
+                zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(entryName));
+                return zip;
+            default:
+                return out;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import org.bimserver.plugins.SchemaName;
+
+/**
+ * Output formats of the plugin, with the file name, MIME type and extended-data schema under which
+ * each report is stored.
+ */
+public enum ReportFormat {
+    TEXT("result.txt", "text/plain", SchemaName.UNSTRUCTURED_UTF8_TEXT_1_0.name(), true),
+    BCF("result.bcfzip", "application/zip", "BCF_ZIP_2_1", false),
+    JSON("result.json", "application/json", "IDS_REPORT_JSON_1_0", true),
+    HTML("result.html", "text/html", "IDS_REPORT_HTML_1_0", true);
+
+    private final String fileName;
+    private final String mime;
+    private final String schemaName;
+    private final boolean compressible;
+
+    ReportFormat(String fileName, String mime, String schemaName, boolean compressible) {
+        this.fileName = fileName;
+        this.mime = mime;
+        this.schemaName = schemaName;
+        this.compressible = compressible;
+    }
+
+    public static ReportFormat fromString(String s) {
+        if (s == null || s.isBlank()) return TEXT;
+        return switch (s.trim().toLowerCase()) {
+            case "bcf", "bcfzip" -> BCF;
+            case "json" -> JSON;
+            case "html" -> HTML;
+            default -> TEXT;
+        };
+    }
+
+    public String getFileName() { return fileName; }
+    public String getMime() { return mime; }
+    public String getSchemaName() { return schemaName; }
+
+    /** Whether {@link ReportCompression} applies; already compressed containers are stored as is. */
+    public boolean isCompressible() { return compressible; }
+}
@@ -2,15 +2,95 @@ package de.openfabtwin.bimserver.idschecker.report;
 
 
 import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class Reporter {
+    /** The IDS documents the model was checked against; one section each when there are several. */
+    protected final List<Ids> sources;
+    /** The first of {@link #sources}; the only one for a single-document report. */
     protected final Ids ids;
+    protected Detail detail = Detail.FULL;
+    protected int maxListedElements = 0;
+
+    /**
+     * How much per-element detail a report lists. {@code SUMMARY} only reports specification and
+     * requirement outcomes, {@code FAILURES} additionally lists failing elements, {@code FULL} lists
+     * passing elements as well.
+     */
+    public enum Detail {
+        SUMMARY, FAILURES, FULL;
+
+        public static Detail fromString(String s) {
+            if (s == null || s.isBlank()) return FULL;
+            return switch (s.trim().toLowerCase()) {
+                case "summary" -> SUMMARY;
+                case "failures", "failures_only", "failures only" -> FAILURES;
+                default -> FULL;
+            };
+        }
+
+        public boolean listsFailures() {
+            return this != SUMMARY;
+        }
+
+        public boolean listsPasses() {
+            return this == FULL;
+        }
+    }
 
     public Reporter(Ids ids) {
-        this.ids = ids;
+        this(List.of(ids));
+    }
+
+    public Reporter(List<Ids> sources) {
+        if (sources.isEmpty()) throw new IllegalArgumentException("No IDS to report on");
+        this.sources = List.copyOf(sources);
+        this.ids = this.sources.get(0);
+    }
+
+    /** The specifications of all sources, in order. */
+    protected List<Specification> specifications() {
+        if (sources.size() == 1) return ids.getSpecifications();
+        List<Specification> all = new ArrayList<>();
+        for (Ids source : sources) all.addAll(source.getSpecifications());
+        return all;
+    }
+
+    /** Heading of a source: its title, or its position when it has none. */
+    protected String title(int source) {
+        Object title = sources.get(source).getInfo().get("title");
+        return title != null ? title.toString() : "IDS " + (source + 1);
+    }
+
+    public Reporter setDetail(Detail detail) {
+        this.detail = detail == null ? Detail.FULL : detail;
+        return this;
+    }
+
+    /**
+     * Cap on the elements listed per requirement and outcome; the remainder is summarised as
+     * "... and N more". {@code 0} (or negative) lists everything.
+     */
+    public Reporter setMaxListedElements(int maxListedElements) {
+        this.maxListedElements = Math.max(0, maxListedElements);
+        return this;
+    }
+
+    /** Number of the {@code total} elements to list under the current cap. */
+    protected int listed(int total) {
+        return maxListedElements == 0 ? total : Math.min(total, maxListedElements);
     }
 
-    public abstract void report();
+    /**
+     * Stream the report to {@code out} as it is generated. Implementations buffer internally and
+     * flush before returning; the stream is left open for the caller.
+     */
+    public abstract void report(OutputStream out) throws IOException;
 
 
 }
@@ -1,5 +1,7 @@
 package de.openfabtwin.bimserver.idschecker.report;
 
+import de.openfabtwin.bimserver.idschecker.metrics.FacetMetrics;
+import de.openfabtwin.bimserver.idschecker.metrics.SpecificationMetrics;
 import de.openfabtwin.bimserver.idschecker.model.Ids;
 import de.openfabtwin.bimserver.idschecker.model.Specification;
 import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
@@ -7,33 +9,143 @@ import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
 import org.bimserver.emf.IdEObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 
 public class TextReport extends Reporter {
 
-    private final StringBuilder text = new StringBuilder();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StringWriter text = new StringWriter();
+    private Writer out = text;
+    private boolean performance;
+
     public TextReport(Ids ids) {
         super(ids);
     }
 
-    @Override
+    public TextReport(List<Ids> sources) {
+        super(sources);
+    }
+
+    /**
+     * Append a "Performance" section with the time and counters of every specification and facet,
+     * the slowest specification first. Only specifications validated with metrics collection on
+     * (see {@link Ids#setCollectMetrics}) are listed.
+     */
+    public TextReport setPerformance(boolean performance) {
+        this.performance = performance;
+        return this;
+    }
+
+    /** Build the report in memory; read it back with {@link #to_string()}. */
     public void report() {
+        this.out = text;
+        write();
+    }
+
+    /** Stream the report as UTF-8 text without keeping it in memory. */
+    @Override
+    public void report(OutputStream stream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.out = writer;
+        try {
+            write();
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.out = text;
+        }
+    }
+
+    private void write() {
         print("IDS Report");
         print("==========");
         print("");
+        if (sources.size() == 1) {
+            writeSection(ids);
+            if (performance) writePerformance();
+            return;
+        }
+
+        print("Summary");
+        print("-------");
+        getSummary(specifications());
+        print("IDS documents: " + sources.size());
+        print("");
+        print("");
 
-        super.ids.getInfo().entrySet().stream()
+        for (int i = 0; i < sources.size(); i++) {
+            String heading = "IDS " + (i + 1) + "/" + sources.size() + ": " + title(i);
+            print(heading);
+            print("=".repeat(heading.length()));
+            print("");
+            writeSection(sources.get(i));
+        }
+        if (performance) writePerformance();
+    }
+
+    private void writePerformance() {
+        List<SpecificationMetrics> metrics = new ArrayList<>();
+        for (Specification spec : specifications()) {
+            if (spec.getMetrics() != null) metrics.add(spec.getMetrics());
+        }
+        if (metrics.isEmpty()) return;
+        metrics.sort(Comparator.comparingLong(SpecificationMetrics::getNanos).reversed());
+
+        print("Performance");
+        print("-----------");
+        for (SpecificationMetrics m : metrics) {
+            print("[" + millis(m.getNanos()) + "] ", "");
+            print("Candidates: " + m.getCandidates(), " | ");
+            print("Applicable: " + m.getApplicable(), " | ");
+            print("Matches calls: " + m.getMatchesCalls(), "");
+            if (!Double.isNaN(m.getCacheHitRate())) {
+                print(String.format(Locale.ROOT, " | Cache hits: %d/%d (%.0f%%)", m.getCacheHits(),
+                        m.getCacheHits() + m.getCacheMisses(), m.getCacheHitRate() * 100), "");
+            }
+            print("");
+            print(m.getSpecification());
+            print(" ".repeat(4) + "Filter: " + millis(m.getFilterNanos()));
+            for (int a = 0; a < m.getApplicability().size(); a++) {
+                writeFacetMetrics("Applicability " + (a + 1), m.getApplicability(a));
+            }
+            for (int r = 0; r < m.getRequirements().size(); r++) {
+                writeFacetMetrics("Requirement " + (r + 1), m.getRequirement(r));
+            }
+        }
+        print("");
+    }
+
+    private void writeFacetMetrics(String label, FacetMetrics f) {
+        if (f.getCalls() == 0 && f.getPasses() == 0 && f.getFailures() == 0) return;
+        print(" ".repeat(4) + label + " (" + f.getFacet() + "): " + millis(f.getNanos()), " | ");
+        print("Calls: " + f.getCalls(), " | ");
+        print("Passed: " + f.getPasses() + " | Failed: " + f.getFailures());
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+    }
+
+    private void writeSection(Ids ids) {
+        ids.getInfo().entrySet().stream()
                 .filter(e -> e.getValue() != null)
                 .forEach(e -> print(e.getKey() + ": " + e.getValue()));
         print("");
 
         print("Summary");
         print("-------");
-        getSummary(super.ids.getSpecifications());
+        getSummary(ids.getSpecifications());
         print("");
         print("");
 
-        for (Specification spec : super.ids.getSpecifications()) reportSpecification(spec);
+        for (Specification spec : ids.getSpecifications()) reportSpecification(spec);
     }
 
     private void getSummary(List<Specification> specifications) {
@@ -73,19 +185,37 @@ public class TextReport extends Reporter {
         int rc = 1;
         for (Facet requirement : spec.getRequirements()) {
             print(" ".repeat(8) + rc + "." + " ".repeat(2) + requirement.to_string("requirement", spec, requirement));
-            for(IdEObject passed : requirement.getPassedEntities()) {
-                print(" ".repeat(16) + "[P] ", "");
-                getElementInfo(passed);
+            if (!detail.listsFailures()) {
+                print(" ".repeat(16) + "Passed: " + requirement.getPassedEntities().size()
+                        + " | Failed: " + requirement.getFailures().size());
             }
-            for (FacetFailure failure : requirement.getFailures()) {
-                print(" ".repeat(16) + "[F] ", "");
-                reportReason(failure);
+            if (detail.listsPasses()) {
+                List<IdEObject> passedEntities = requirement.getPassedEntities();
+                int n = listed(passedEntities.size());
+                for (int i = 0; i < n; i++) {
+                    print(" ".repeat(16) + "[P] ", "");
+                    getElementInfo(passedEntities.get(i));
+                }
+                printRemainder("[P]", passedEntities.size() - n);
+            }
+            if (detail.listsFailures()) {
+                List<FacetFailure> failures = requirement.getFailures();
+                int n = listed(failures.size());
+                for (int i = 0; i < n; i++) {
+                    print(" ".repeat(16) + "[F] ", "");
+                    reportReason(failures.get(i));
+                }
+                printRemainder("[F]", failures.size() - n);
             }
             rc++;
         }
         print("");
     }
 
+    private void printRemainder(String marker, int remaining) {
+        if (remaining > 0) print(" ".repeat(16) + marker + " ... and " + remaining + " more");
+    }
+
     private void reportReason(FacetFailure failure) {
         print(failure.getReason(), " | ");
         getElementInfo(failure.getElement());
@@ -111,11 +241,16 @@ public class TextReport extends Reporter {
     }
 
     private void print(String line) {
-        text.append(line).append("\n");
+        print(line, "\n");
     }
 
     public void print(String txt, String end) {
-        text.append(txt).append(end);
+        try {
+            out.write(txt);
+            out.write(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public String to_string() {
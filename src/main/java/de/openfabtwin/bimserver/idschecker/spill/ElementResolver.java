@@ -0,0 +1,9 @@
+package de.openfabtwin.bimserver.idschecker.spill;
+
+import org.bimserver.emf.IdEObject;
+
+/** Looks an element up again by oid when it is read back from a spill file; usually {@code model::get}. */
+@FunctionalInterface
+public interface ElementResolver {
+    IdEObject resolve(long oid);
+}
@@ -0,0 +1,121 @@
+package de.openfabtwin.bimserver.idschecker.spill;
+
+import org.bimserver.emf.IdEObject;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap budget for the results of one validation run. Result lists created here keep their entries
+ * in memory while the estimated size of all of them stays below the budget; once it is used up,
+ * every further entry goes to a temporary file and is read back when the list is iterated. Spilled
+ * elements are stored by oid and looked up again with the {@link ElementResolver}, so the loaded
+ * model stays the only place holding them.
+ *
+ * <p>A budget may be shared by validations running in parallel; each list it creates must be filled
+ * by one thread only. {@link #close()} deletes all spill files.
+ */
+public class ResultBudget implements Closeable {
+
+    /** Estimated heap cost of one element reference in a result list. */
+    static final int ELEMENT_COST = 8;
+
+    private final long maxBytes;
+    private final Path directory;
+    private final ElementResolver resolver;
+    private final List<SpillableList<?>> lists = new ArrayList<>();
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    /**
+     * @param maxBytes  heap for results before spilling starts
+     * @param directory where spill files are created
+     * @param resolver  finds spilled elements again, e.g. {@code model::get}
+     */
+    public ResultBudget(long maxBytes, Path directory, ElementResolver resolver) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.resolver = resolver;
+    }
+
+    public ElementResolver getResolver() {
+        return resolver;
+    }
+
+    /** A list of elements, spilled as oids. */
+    public List<IdEObject> elements() {
+        return list(ELEMENT_COST, new SpillableList.Codec<>() {
+            @Override
+            public void write(DataOutput out, IdEObject element) throws IOException {
+                out.writeLong(element.getOid());
+            }
+
+            @Override
+            public IdEObject read(DataInput in) throws IOException {
+                return resolver.resolve(in.readLong());
+            }
+        });
+    }
+
+    /** A list of arbitrary entries, each estimated at {@code cost} bytes while held in memory. */
+    public <T> List<T> list(int cost, SpillableList.Codec<T> codec) {
+        SpillableList<T> list = new SpillableList<>(this, cost, codec);
+        synchronized (lists) {
+            lists.add(list);
+        }
+        return list;
+    }
+
+    boolean reserve(int bytes) {
+        long current;
+        do {
+            current = used.get();
+            if (current + bytes > maxBytes) return false;
+        } while (!used.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    void spilled() {
+        spilled.incrementAndGet();
+    }
+
+    void release(long bytes) {
+        used.addAndGet(-bytes);
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    /** Estimated heap held by in-memory results. */
+    public long getUsed() {
+        return used.get();
+    }
+
+    /** Entries written to disk since the budget was created. */
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        synchronized (lists) {
+            for (SpillableList<?> list : lists) {
+                try {
+                    list.deleteSpill();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            lists.clear();
+        }
+        if (failure != null) throw failure;
+    }
+}
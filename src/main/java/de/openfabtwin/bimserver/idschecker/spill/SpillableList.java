@@ -0,0 +1,143 @@
+package de.openfabtwin.bimserver.idschecker.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only list that keeps its head in memory and, once its {@link ResultBudget} is used up,
+ * writes the tail to a temporary file. Reading the tail is sequential: iterating or walking the
+ * indices in ascending order costs one pass over the file, while going back restarts from the
+ * beginning of the spill. This matches how reporters and stores consume results.
+ *
+ * <p>Only {@code add}, {@code get}, {@code size} and {@code clear} are supported; I/O failures are
+ * thrown as {@link UncheckedIOException}.
+ */
+public final class SpillableList<T> extends AbstractList<T> {
+
+    /** Writes and reads one entry of the spill file. */
+    public interface Codec<T> {
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final ResultBudget budget;
+    private final int cost;
+    private final Codec<T> codec;
+    private final List<T> memory = new ArrayList<>();
+    private long reserved;
+
+    private Path file;
+    private DataOutputStream out;
+    private boolean unflushed;
+    private int spilled;
+    private DataInputStream in;
+    private int cursor;   // index in the spill of the next entry `in` returns
+
+    SpillableList(ResultBudget budget, int cost, Codec<T> codec) {
+        this.budget = budget;
+        this.cost = cost;
+        this.codec = codec;
+    }
+
+    @Override
+    public boolean add(T value) {
+        // Once spilling started, everything goes to disk so the order of the entries is kept.
+        if (file == null && budget.reserve(cost)) {
+            reserved += cost;
+            memory.add(value);
+        } else {
+            try {
+                if (out == null) {
+                    file = Files.createTempFile(budget.getDirectory(), "ids-results-", ".spill");
+                    out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER));
+                }
+                codec.write(out, value);
+                unflushed = true;
+                spilled++;
+                budget.spilled();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < memory.size()) return memory.get(index);
+        int i = index - memory.size();
+        if (i >= spilled) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        try {
+            if (unflushed) {
+                out.flush();
+                unflushed = false;
+            }
+            if (in == null || i < cursor) {
+                if (in != null) in.close();
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER));
+                cursor = 0;
+            }
+            while (cursor < i) {
+                codec.read(in);
+                cursor++;
+            }
+            cursor++;
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return memory.size() + spilled;
+    }
+
+    @Override
+    public void clear() {
+        memory.clear();
+        budget.release(reserved);
+        reserved = 0;
+        try {
+            deleteSpill();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        modCount++;
+    }
+
+    /** Whether part of the list lives on disk. */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    void deleteSpill() throws IOException {
+        try {
+            if (in != null) in.close();
+            if (out != null) out.close();
+        } finally {
+            in = null;
+            out = null;
+            unflushed = false;
+            spilled = 0;
+            cursor = 0;
+            if (file != null) Files.deleteIfExists(file);
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package de.openfabtwin.bimserver.idschecker.step;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The entity type of every instance of a STEP file, from one pass over it, for deciding which
+ * references survive a {@link StepSlice}. Instance ids map to a type code in an open-addressing
+ * table of two {@code int[]}, about 16 bytes per instance however large the instance itself is.
+ */
+public final class StepIndex {
+
+    private static final int EMPTY = 0;   // STEP instance ids start at 1
+
+    private final List<String> types = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private int[] ids = new int[1024];
+    private int[] typeCodes = new int[1024];
+    private int size;
+
+    /** Scan the DATA section of {@code stepFile}. */
+    public static StepIndex build(Path stepFile) throws IOException {
+        try (InputStream in = Files.newInputStream(stepFile)) {
+            return build(in);
+        }
+    }
+
+    public static StepIndex build(InputStream in) throws IOException {
+        StepIndex index = new StepIndex();
+        try (StepReader reader = new StepReader(in)) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                if (!reader.inData()) continue;
+                int id = StepRecord.id(statement);
+                if (id > 0) index.put(id, StepRecord.type(statement));
+            }
+        }
+        return index;
+    }
+
+    public void put(int id, String type) {
+        if (id <= EMPTY) throw new IllegalArgumentException("Instance id " + id);
+        Integer code = codes.get(type);
+        if (code == null) {
+            code = types.size();
+            types.add(type);
+            codes.put(type, code);
+        }
+        if ((size + 1) * 2 > ids.length) grow();
+        int slot = slot(ids, id);
+        if (ids[slot] == EMPTY) {
+            ids[slot] = id;
+            size++;
+        }
+        typeCodes[slot] = code;
+    }
+
+    /** The type code of instance {@code id}, an index into {@link #getTypes}; -1 if there is no such instance. */
+    public int code(int id) {
+        int slot = slot(ids, id);
+        return ids[slot] == EMPTY ? -1 : typeCodes[slot];
+    }
+
+    /** The upper-case type of instance {@code id}, e.g. {@code IFCWALL}; {@code null} if there is no such instance. */
+    public String type(int id) {
+        int code = code(id);
+        return code < 0 ? null : types.get(code);
+    }
+
+    /** The distinct types, in order of their codes. */
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int slot(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = (id * 0x9E3779B9) >>> 1 & mask;
+        while (table[slot] != EMPTY && table[slot] != id) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldIds = ids, oldCodes = typeCodes;
+        ids = new int[oldIds.length * 2];
+        typeCodes = new int[oldIds.length * 2];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] == EMPTY) continue;
+            int slot = slot(ids, oldIds[i]);
+            ids[slot] = oldIds[i];
+            typeCodes[slot] = oldCodes[i];
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.openfabtwin.bimserver.idschecker.step;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the statements of an ISO 10303-21 (STEP) file one at a time, so that a file of any size can
+ * be scanned with a buffer of one statement. Comments and line breaks are removed; strings are kept
+ * as written, including semicolons and {@code ''} escapes.
+ */
+public final class StepReader implements Closeable {
+
+    private final Reader in;
+    private final StringBuilder statement = new StringBuilder(256);
+    private int pushedBack = -1;
+    private boolean data;
+
+    public StepReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1), 1 << 16);
+    }
+
+    /** The next statement without its {@code ;}, e.g. {@code #12=IFCWALL(...)}; {@code null} at the end. */
+    public String next() throws IOException {
+        statement.setLength(0);
+        boolean string = false;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '\r' || c == '\n') continue;
+            if (string) {
+                statement.append((char) c);
+                if (c == '\'') string = false;    // '' reopens on the next quote
+                continue;
+            }
+            if (c == '\'') {
+                string = true;
+            } else if (c == ';') {
+                String s = statement.toString().trim();
+                if (s.equals("DATA")) data = true;
+                else if (s.equals("ENDSEC")) data = false;
+                return s;
+            } else if (c == '/') {
+                int after = read();
+                if (after == '*') {
+                    skipComment();
+                    continue;
+                }
+                pushedBack = after;
+            }
+            statement.append((char) c);
+        }
+        String rest = statement.toString().trim();
+        return rest.isEmpty() ? null : rest;
+    }
+
+    /** Whether the last statement returned by {@link #next} was inside the DATA section. */
+    public boolean inData() {
+        return data;
+    }
+
+    private void skipComment() throws IOException {
+        int c, previous = 0;
+        while ((c = read()) >= 0) {
+            if (previous == '*' && c == '/') return;
+            previous = c;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack < 0) return in.read();
+        int c = pushedBack;
+        pushedBack = -1;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
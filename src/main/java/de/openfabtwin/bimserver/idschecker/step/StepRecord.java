@@ -0,0 +1,48 @@
+package de.openfabtwin.bimserver.idschecker.step;
+
+import java.util.Locale;
+
+/**
+ * Parts of an entity instance statement as {@link StepReader} returns it, e.g.
+ * {@code #12=IFCWALL('2O2Fr$t4X7Zf8NOew3FLOH',#5,'Wall',$,...)}. Complex instances
+ * ({@code #1=(IFCA()IFCB())}) have the empty type.
+ */
+final class StepRecord {
+
+    private StepRecord() {}
+
+    /** The instance id, or -1 if the statement is not an instance. */
+    static int id(String statement) {
+        if (statement.isEmpty() || statement.charAt(0) != '#') return -1;
+        int i = 1, id = 0;
+        while (i < statement.length() && Character.isDigit(statement.charAt(i))) {
+            id = id * 10 + (statement.charAt(i++) - '0');
+        }
+        return i > 1 && assignment(statement) == skipBlanks(statement, i) ? id : -1;
+    }
+
+    /** The upper-case entity type, e.g. {@code IFCWALL}. */
+    static String type(String statement) {
+        int start = skipBlanks(statement, assignment(statement) + 1);
+        int end = start;
+        while (end < statement.length() && (Character.isLetterOrDigit(statement.charAt(end)) || statement.charAt(end) == '_')) end++;
+        return statement.substring(start, end).toUpperCase(Locale.ROOT);
+    }
+
+    /** What is between the parentheses after the type. */
+    static String arguments(String statement) {
+        int open = statement.indexOf('(', assignment(statement));
+        int close = statement.lastIndexOf(')');
+        return open < 0 || close < open ? "" : statement.substring(open + 1, close);
+    }
+
+    private static int assignment(String statement) {
+        int i = statement.indexOf('=');
+        return i < 0 ? statement.length() : i;
+    }
+
+    private static int skipBlanks(String s, int i) {
+        while (i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t')) i++;
+        return i;
+    }
+}
@@ -0,0 +1,172 @@
+package de.openfabtwin.bimserver.idschecker.step;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * The second pass over a STEP file: copies the header and the instances of the types to keep, and
+ * cuts every reference to an instance that is not kept. A reference attribute becomes {@code $}; a
+ * list or set loses the element. The result is a smaller STEP file of the same schema, and any STEP
+ * deserializer reads it into a model of just those instances, with their relationships intact.
+ *
+ * <p>Whether a reference survives is looked up in the {@link StepIndex} of the first pass, since an
+ * instance may refer to instances further down the file.
+ */
+public final class StepSlice {
+
+    private StepSlice() {}
+
+    /**
+     * Write the slice of {@code in} to {@code out}, keeping the instances whose upper-case type
+     * {@code keep} accepts. Returns the number of instances written.
+     */
+    public static int write(InputStream in, StepIndex index, Predicate<String> keep, Writer out) throws IOException {
+        List<String> types = index.getTypes();
+        boolean[] keptTypes = new boolean[types.size()];
+        for (int code = 0; code < keptTypes.length; code++) keptTypes[code] = keep.test(types.get(code));
+        IntPredicate kept = id -> {
+            int code = index.code(id);
+            return code >= 0 && keptTypes[code];
+        };
+
+        int written = 0;
+        try (StepReader reader = new StepReader(in)) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                int id = reader.inData() ? StepRecord.id(statement) : -1;
+                if (id < 0) {
+                    out.write(statement);
+                    out.write(";\n");
+                } else if (kept.test(id)) {
+                    out.write('#');
+                    out.write(Integer.toString(id));
+                    out.write('=');
+                    out.write(StepRecord.type(statement));
+                    out.write('(');
+                    out.write(prune(StepRecord.arguments(statement), kept));
+                    out.write(");\n");
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    /** {@code arguments} of an instance with the references {@code kept} rejects cut out. */
+    static String prune(String arguments, IntPredicate kept) {
+        Pruner pruner = new Pruner(arguments, kept);
+        pruner.parameters(false);
+        return pruner.out.toString();
+    }
+
+    /** Recursive descent over the parameters of one instance. */
+    private static final class Pruner {
+        private final String s;
+        private final IntPredicate kept;
+        private final StringBuilder out;
+        private int pos;
+
+        Pruner(String s, IntPredicate kept) {
+            this.s = s;
+            this.kept = kept;
+            this.out = new StringBuilder(s.length());
+        }
+
+        /** Parameters up to the closing parenthesis (not consumed); in a list, cut elements are dropped. */
+        void parameters(boolean list) {
+            int count = 0;
+            while (true) {
+                skipBlanks();
+                if (pos >= s.length() || s.charAt(pos) == ')') return;
+                int mark = out.length();
+                if (count > 0) out.append(',');
+                if (parameter(list)) count++;
+                else out.setLength(mark);
+                skipBlanks();
+                if (pos < s.length() && s.charAt(pos) == ',') pos++;
+            }
+        }
+
+        /** Copy one parameter; false if it is a cut reference inside a list. */
+        boolean parameter(boolean list) {
+            char c = s.charAt(pos);
+            switch (c) {
+                case '\'' -> {
+                    int end = pos + 1;
+                    while (end < s.length()) {
+                        if (s.charAt(end) == '\'') {
+                            if (end + 1 < s.length() && s.charAt(end + 1) == '\'') end += 2;
+                            else break;
+                        } else {
+                            end++;
+                        }
+                    }
+                    copy(Math.min(end + 1, s.length()));
+                }
+                case '"' -> copy(until('"', pos + 1) + 1);
+                case '.' -> copy(until('.', pos + 1) + 1);
+                case '#' -> {
+                    int end = pos + 1, id = 0;
+                    while (end < s.length() && Character.isDigit(s.charAt(end))) id = id * 10 + (s.charAt(end++) - '0');
+                    pos = end;
+                    if (kept.test(id)) {
+                        out.append('#').append(id);
+                    } else if (list) {
+                        return false;
+                    } else {
+                        out.append('$');
+                    }
+                }
+                case '(' -> {
+                    pos++;
+                    out.append('(');
+                    parameters(true);
+                    close();
+                }
+                default -> {
+                    if (Character.isLetter(c)) {
+                        // typed parameter, e.g. IFCLABEL('x')
+                        int open = until('(', pos);
+                        copy(open);
+                        if (pos < s.length()) {
+                            pos++;
+                            out.append('(');
+                            parameters(false);
+                            close();
+                        }
+                    } else {
+                        int end = pos;
+                        while (end < s.length() && s.charAt(end) != ',' && s.charAt(end) != ')') end++;
+                        while (end > pos && s.charAt(end - 1) == ' ') end--;
+                        copy(end);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void close() {
+            if (pos < s.length()) pos++;
+            out.append(')');
+        }
+
+        private void copy(int end) {
+            end = Math.min(end, s.length());
+            out.append(s, pos, end);
+            pos = end;
+        }
+
+        private int until(char c, int from) {
+            int i = s.indexOf(c, from);
+            return i < 0 ? s.length() : i;
+        }
+
+        private void skipBlanks() {
+            while (pos < s.length() && (s.charAt(pos) == ' ' || s.charAt(pos) == '\t')) pos++;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package de.openfabtwin.bimserver.idschecker.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed set of object ids in the style of a roaring bitmap: oids are split into a 48-bit key
+ * and a 16-bit low part, and each key holds its low parts either as a sorted {@code short[]} (up to
+ * 4096 values) or as a 65536-bit bitmap. Runs of oids from one BIMserver class and revision cost
+ * about two bytes each, dense runs one bit each.
+ */
+public final class OidBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final byte ARRAY = 0, BITMAP = 1;
+
+    private final TreeMap<Long, Container> containers = new TreeMap<>();
+
+    private static final class Container {
+        short[] values = new short[4];   // sorted, unsigned; used while bits == null
+        long[] bits;
+        int cardinality;
+
+        boolean add(int low) {
+            if (bits != null) {
+                long mask = 1L << low;
+                if ((bits[low >>> 6] & mask) != 0) return false;
+                bits[low >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int i = find(low);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = (short) low;
+            cardinality++;
+            return true;
+        }
+
+        boolean contains(int low) {
+            if (bits != null) return (bits[low >>> 6] & (1L << low)) != 0;
+            return find(low) >= 0;
+        }
+
+        private int find(int low) {
+            int lo = 0, hi = cardinality - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int v = values[mid] & 0xFFFF;
+                if (v < low) lo = mid + 1;
+                else if (v > low) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        private void toBitmap() {
+            bits = new long[1024];
+            for (int i = 0; i < cardinality; i++) {
+                int v = values[i] & 0xFFFF;
+                bits[v >>> 6] |= 1L << v;
+            }
+            values = null;
+        }
+
+        void forEach(long key, LongConsumer action) {
+            long base = key << 16;
+            if (bits == null) {
+                for (int i = 0; i < cardinality; i++) action.accept(base | (values[i] & 0xFFFF));
+                return;
+            }
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    action.accept(base | ((long) w << 6) | bit);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        int serializedSize() {
+            return 8 + 1 + 4 + (bits != null ? bits.length * 8 : cardinality * 2);
+        }
+    }
+
+    public boolean add(long oid) {
+        return containers.computeIfAbsent(oid >>> 16, k -> new Container()).add((int) (oid & 0xFFFF));
+    }
+
+    public boolean contains(long oid) {
+        Container c = containers.get(oid >>> 16);
+        return c != null && c.contains((int) (oid & 0xFFFF));
+    }
+
+    public long cardinality() {
+        long n = 0;
+        for (Container c : containers.values()) n += c.cardinality;
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    /** Visit the oids in ascending order. */
+    public void forEach(LongConsumer action) {
+        for (Map.Entry<Long, Container> e : containers.entrySet()) e.getValue().forEach(e.getKey(), action);
+    }
+
+    public int serializedSize() {
+        int size = 4;
+        for (Container c : containers.values()) size += c.serializedSize();
+        return size;
+    }
+
+    /** Layout: container count, then per container key, kind, cardinality and its shorts or longs. */
+    public void writeTo(ByteBuffer out) {
+        out.putInt(containers.size());
+        for (Map.Entry<Long, Container> e : containers.entrySet()) {
+            Container c = e.getValue();
+            out.putLong(e.getKey());
+            out.put(c.bits != null ? BITMAP : ARRAY);
+            out.putInt(c.cardinality);
+            if (c.bits != null) for (long word : c.bits) out.putLong(word);
+            else for (int i = 0; i < c.cardinality; i++) out.putShort(c.values[i]);
+        }
+    }
+
+    public static OidBitmap readFrom(ByteBuffer in) {
+        OidBitmap bitmap = new OidBitmap();
+        int count = in.getInt();
+        for (int n = 0; n < count; n++) {
+            long key = in.getLong();
+            byte kind = in.get();
+            Container c = new Container();
+            c.cardinality = in.getInt();
+            if (kind == BITMAP) {
+                c.values = null;
+                c.bits = new long[1024];
+                for (int w = 0; w < c.bits.length; w++) c.bits[w] = in.getLong();
+            } else {
+                c.values = new short[Math.max(4, c.cardinality)];
+                for (int i = 0; i < c.cardinality; i++) c.values[i] = in.getShort();
+            }
+            bitmap.containers.put(key, c);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,289 @@
+package de.openfabtwin.bimserver.idschecker.store;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
+import org.bimserver.emf.IdEObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk store of per-element validation outcomes.
+ *
+ * <p>Each run of a revision appends one record per specification and one per requirement, holding
+ * the oids that passed and failed as {@link OidBitmap}s. Records go into segment files of at most
+ * {@value #SEGMENT_SIZE} bytes that are never rewritten; reads go through read-only memory maps.
+ * Opening a store scans the record headers of all segments to index them by project and revision,
+ * and cuts off a torn record left by a crash at the end of the last segment.
+ *
+ * <p>Record layout: magic, body length, then the body (poid, roid, run, specification index,
+ * requirement index or -1 for the specification itself, name, passed bitmap, failed bitmap) and a
+ * CRC32 of the body. Re-checking a revision appends a new run that supersedes the older one.
+ */
+public class ResultStore implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultStore.class);
+
+    private static final int MAGIC = 0x49445352;   // "IDSR"
+    private static final int HEADER = 8;
+    static final long SEGMENT_SIZE = 64L << 20;
+    private static final String PREFIX = "results-";
+    private static final String SUFFIX = ".seg";
+
+    /** One stored outcome. {@code requirement} is -1 for the specification as a whole. */
+    public record Entry(long poid, long roid, int specification, int requirement, String name,
+                        OidBitmap passed, OidBitmap failed) {}
+
+    /** The failures of one specification in two stored revisions of a project. */
+    public record Trend(int specification, String name, long failedBefore, long failedAfter) {}
+
+    private record Location(int segment, int offset) {}
+
+    private record Run(long run, List<Location> locations) {}
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        MappedByteBuffer map;
+
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        ByteBuffer view() throws IOException {
+            long size = channel.size();
+            if (map == null || map.capacity() < size) map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return map.duplicate();
+        }
+    }
+
+    private final Path directory;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Long, TreeMap<Long, Run>> index = new HashMap<>();
+    private long lastRun;
+
+    private ResultStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static ResultStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ResultStore store = new ResultStore(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) files.add(p);
+        }
+        Collections.sort(files);
+        for (int i = 0; i < files.size(); i++) store.load(files.get(i), i == files.size() - 1);
+        return store;
+    }
+
+    private void load(Path path, boolean last) throws IOException {
+        Segment segment = new Segment(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        int id = segments.size();
+        segments.add(segment);
+        ByteBuffer buf = segment.view();
+        int offset = 0;
+        while (offset < buf.limit()) {
+            if (!isValid(buf, offset)) break;
+            long run = buf.getLong(offset + HEADER + 16);
+            index(buf.getLong(offset + HEADER), buf.getLong(offset + HEADER + 8), run, new Location(id, offset));
+            lastRun = Math.max(lastRun, run);
+            offset += HEADER + buf.getInt(offset + 4);
+        }
+        if (offset < buf.limit()) {
+            if (last) {
+                LOGGER.warn("Truncating torn record at {} of {}", offset, path);
+                segment.map = null;
+                segment.channel.truncate(offset);
+            } else {
+                LOGGER.warn("Ignoring unreadable records from {} of {}", offset, path);
+            }
+        }
+    }
+
+    /** Whether a complete record with a matching checksum starts at {@code offset}. */
+    private static boolean isValid(ByteBuffer buf, int offset) {
+        if (offset + HEADER > buf.limit() || buf.getInt(offset) != MAGIC) return false;
+        int length = buf.getInt(offset + 4);
+        if (length < 46 || offset + HEADER + (long) length > buf.limit()) return false;
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buf.duplicate();
+        body.position(offset + HEADER).limit(offset + HEADER + length - 4);
+        crc.update(body);
+        return (int) crc.getValue() == buf.getInt(offset + HEADER + length - 4);
+    }
+
+    private void index(long poid, long roid, long run, Location location) {
+        TreeMap<Long, Run> revisions = index.computeIfAbsent(poid, k -> new TreeMap<>());
+        Run current = revisions.get(roid);
+        if (current == null || current.run() != run) {
+            if (current != null && current.run() > run) return;
+            current = new Run(run, new ArrayList<>());
+            revisions.put(roid, current);
+        }
+        current.locations().add(location);
+    }
+
+    /** Append the outcomes of a validated {@code ids} for a revision, superseding earlier runs of it. */
+    public synchronized void append(long poid, long roid, Ids ids) throws IOException {
+        append(poid, roid, List.of(ids));
+    }
+
+    /**
+     * Append the outcomes of several IDS documents checked on one revision as a single run; their
+     * specifications are numbered consecutively in the order given.
+     */
+    public synchronized void append(long poid, long roid, List<Ids> sources) throws IOException {
+        long run = ++lastRun;
+        List<ByteBuffer> records = new ArrayList<>();
+        List<Specification> specifications = new ArrayList<>();
+        for (Ids ids : sources) specifications.addAll(ids.getSpecifications());
+        for (int s = 0; s < specifications.size(); s++) {
+            Specification spec = specifications.get(s);
+            OidBitmap failed = new OidBitmap();
+            for (IdEObject e : spec.getFailed_entities()) failed.add(e.getOid());
+            OidBitmap passed = new OidBitmap();
+            for (IdEObject e : spec.getApplicable_entities()) if (!failed.contains(e.getOid())) passed.add(e.getOid());
+            records.add(encode(poid, roid, run, s, -1, spec.getName(), passed, failed));
+
+            List<Facet> requirements = spec.getRequirements();
+            for (int r = 0; r < requirements.size(); r++) {
+                Facet requirement = requirements.get(r);
+                OidBitmap p = new OidBitmap();
+                for (IdEObject e : requirement.getPassedEntities()) p.add(e.getOid());
+                OidBitmap f = new OidBitmap();
+                for (FacetFailure failure : requirement.getFailures()) f.add(failure.getElement().getOid());
+                records.add(encode(poid, roid, run, s, r, requirement.getClass().getSimpleName(), p, f));
+            }
+        }
+        write(poid, roid, run, records);
+    }
+
+    private void write(long poid, long roid, long run, List<ByteBuffer> records) throws IOException {
+        if (records.isEmpty()) return;
+        long total = 0;
+        for (ByteBuffer b : records) total += b.remaining();
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || (segment.channel.size() > 0 && segment.channel.size() + total > SEGMENT_SIZE)) {
+            segment = newSegment();
+        }
+        int id = segments.size() - 1;
+        long position = segment.channel.size();
+        List<Location> locations = new ArrayList<>(records.size());
+        for (ByteBuffer b : records) {
+            locations.add(new Location(id, (int) position));
+            position += b.remaining();
+        }
+        segment.channel.position(segment.channel.size());
+        ByteBuffer[] array = records.toArray(new ByteBuffer[0]);
+        while (array[array.length - 1].hasRemaining()) segment.channel.write(array);
+        segment.channel.force(false);
+        for (Location l : locations) index(poid, roid, run, l);
+    }
+
+    private Segment newSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", PREFIX, segments.size(), SUFFIX));
+        Segment segment = new Segment(path, FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        segments.add(segment);
+        return segment;
+    }
+
+    private static ByteBuffer encode(long poid, long roid, long run, int spec, int requirement, String name,
+                                     OidBitmap passed, OidBitmap failed) {
+        byte[] nameBytes = (name == null ? "" : name).getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(nameBytes.length, Short.MAX_VALUE);
+        int body = 8 + 8 + 8 + 4 + 4 + 2 + nameLength + passed.serializedSize() + failed.serializedSize();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + body + 4);
+        buf.putInt(MAGIC).putInt(body + 4);
+        buf.putLong(poid).putLong(roid).putLong(run).putInt(spec).putInt(requirement);
+        buf.putShort((short) nameLength).put(nameBytes, 0, nameLength);
+        passed.writeTo(buf);
+        failed.writeTo(buf);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), HEADER, body);
+        buf.putInt((int) crc.getValue());
+        return buf.flip();
+    }
+
+    /** The latest run of a revision, in the order it was written; empty if it was never stored. */
+    public synchronized List<Entry> read(long poid, long roid) throws IOException {
+        TreeMap<Long, Run> revisions = index.get(poid);
+        Run run = revisions == null ? null : revisions.get(roid);
+        if (run == null) return List.of();
+        List<Entry> entries = new ArrayList<>(run.locations().size());
+        for (Location l : run.locations()) {
+            ByteBuffer buf = segments.get(l.segment()).view();
+            buf.position(l.offset() + HEADER + 24);
+            int spec = buf.getInt();
+            int requirement = buf.getInt();
+            byte[] name = new byte[buf.getShort()];
+            buf.get(name);
+            OidBitmap passed = OidBitmap.readFrom(buf);
+            OidBitmap failed = OidBitmap.readFrom(buf);
+            entries.add(new Entry(poid, roid, spec, requirement, new String(name, StandardCharsets.UTF_8), passed, failed));
+        }
+        return entries;
+    }
+
+    /** The latest stored revision of a project before {@code roid}; -1 if there is none. */
+    public synchronized long previous(long poid, long roid) {
+        TreeMap<Long, Run> revisions = index.get(poid);
+        Long previous = revisions == null ? null : revisions.lowerKey(roid);
+        return previous == null ? -1 : previous;
+    }
+
+    /**
+     * The failures of every specification stored for revision {@code to}, next to those of the same
+     * specification (same position and name) in revision {@code from}; 0 before if it had none.
+     */
+    public synchronized List<Trend> trend(long poid, long from, long to) throws IOException {
+        Map<Integer, Entry> before = new HashMap<>();
+        for (Entry e : read(poid, from)) if (e.requirement() < 0) before.put(e.specification(), e);
+        List<Trend> trend = new ArrayList<>();
+        for (Entry e : read(poid, to)) {
+            if (e.requirement() >= 0) continue;
+            Entry old = before.get(e.specification());
+            long failedBefore = old != null && old.name().equals(e.name()) ? old.failed().cardinality() : 0;
+            trend.add(new Trend(e.specification(), e.name(), failedBefore, e.failed().cardinality()));
+        }
+        return trend;
+    }
+
+    /** Stored revisions of a project, oldest first. */
+    public synchronized List<Long> revisions(long poid) {
+        TreeMap<Long, Run> revisions = index.get(poid);
+        return revisions == null ? List.of() : new ArrayList<>(revisions.keySet());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (Segment segment : segments) {
+            segment.map = null;
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        segments.clear();
+        index.clear();
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,135 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckQueueTest {
+
+    private CheckQueue queue;
+
+    @After
+    public void tearDown() throws Exception {
+        if (queue != null) queue.shutdown(10, TimeUnit.SECONDS);
+    }
+
+    /** Occupies the single worker until {@code release} is counted down. */
+    private static CheckQueue.Check blocking(CountDownLatch started, CountDownLatch release) {
+        return () -> {
+            started.countDown();
+            release.await();
+        };
+    }
+
+    @Test
+    public void queuedCheckIsReplacedByNewerRevisionOfSameProject() throws Exception {
+        queue = new CheckQueue(1, 8);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(1, 1, blocking(started, release));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        List<Long> checked = new CopyOnWriteArrayList<>();
+        for (long roid = 10; roid <= 12; roid++) {
+            long r = roid;
+            queue.submit(2, r, () -> checked.add(r));
+        }
+        assertEquals(1, queue.getStatus().queued());
+        release.countDown();
+        assertTrue(queue.shutdown(10, TimeUnit.SECONDS));
+
+        assertEquals(List.of(12L), checked);
+        CheckQueue.Status status = queue.getStatus();
+        assertEquals(2, status.completed());
+        assertEquals(2, status.superseded());
+        assertEquals(0, status.queued());
+    }
+
+    @Test
+    public void fullQueueRunsCheckOnSubmittingThread() throws Exception {
+        queue = new CheckQueue(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(1, 1, blocking(started, release));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        queue.submit(2, 2, () -> {});
+
+        Thread[] ranOn = {null};
+        queue.submit(3, 3, () -> ranOn[0] = Thread.currentThread());
+        assertEquals(Thread.currentThread(), ranOn[0]);
+        release.countDown();
+    }
+
+    @Test
+    public void failedCheckIsCountedAndDoesNotStopTheWorker() throws Exception {
+        queue = new CheckQueue(1, 4);
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(1, 1, () -> {
+            throw new IllegalStateException("broken model");
+        });
+        queue.submit(2, 2, done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(queue.shutdown(10, TimeUnit.SECONDS));
+
+        assertEquals(1, queue.getStatus().failed());
+        assertEquals(1, queue.getStatus().completed());
+    }
+
+    @Test
+    public void queuesSharingLocksNeverCheckOneProjectAtOnce() throws Exception {
+        CheckQueue.ProjectLocks locks = new CheckQueue.ProjectLocks();
+        CheckQueue replaced = new CheckQueue(1, 4, locks);
+        queue = new CheckQueue(1, 4, locks);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        AtomicBoolean busy = new AtomicBoolean();
+        replaced.submit(1, 1, () -> {
+            busy.set(true);
+            started.countDown();
+            release.await();
+            busy.set(false);
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        replaced.close();
+
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(1, 2, () -> {
+            overlapped.set(busy.get());
+            done.countDown();
+        });
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertFalse(overlapped.get());
+        assertTrue(replaced.shutdown(10, TimeUnit.SECONDS));
+        assertTrue(queue.shutdown(10, TimeUnit.SECONDS));
+        assertEquals(0, locks.size());
+    }
+
+    @Test
+    public void errorIsCountedAndLeavesNoLockBehind() throws Exception {
+        CheckQueue.ProjectLocks locks = new CheckQueue.ProjectLocks();
+        queue = new CheckQueue(1, 4, locks);
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(1, 1, () -> {
+            throw new OutOfMemoryError("simulated");
+        });
+        queue.submit(2, 2, done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(queue.shutdown(10, TimeUnit.SECONDS));
+
+        assertEquals(1, queue.getStatus().failed());
+        assertEquals(1, queue.getStatus().completed());
+        assertEquals(0, locks.size());
+    }
+}
@@ -0,0 +1,183 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.IdsFetcher;
+import de.openfabtwin.bimserver.idschecker.model.IdsMapper;
+import de.openfabtwin.bimserver.idschecker.report.TextReport;
+import org.bimserver.emf.IfcModelInterface;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The buildingSMART facet corpora without a BIMserver: each {@code .ifc} is parsed straight into an
+ * {@link IfcModelInterface} with {@link IfcFiles}, the {@code .ids}
+ * is read with {@link IdsMapper} and validated with {@link Ids#validate}, and the verdict is taken
+ * from the {@link TextReport}, as the plugin would write it. All cases run in parallel.
+ *
+ * <p>Outcomes follow {@link IdsTestCasesTest} and are written to {@code target/ids-corpus-report.html}.
+ * A mismatch fails the build unless the case is listed in {@code testcases-known-failures.list}; a
+ * listed case that gives the expected outcome fails it too, so the entry gets removed. With
+ * {@code -Dids.corpus.strict=false} the run only reports. The corpus is downloaded once into
+ * {@code ids.corpus.dir} (default {@code ~/.cache/ids-corpus}, which survives {@code mvn clean}
+ * and can be cached by CI, or a checkout of the buildingSMART TestCases directory); a file that is
+ * neither there nor downloadable fails the run, or skips it when not strict.
+ *
+ * <p>Each case is also loaded with {@link IfcFiles#load(Path, List)}, as a slice of what its IDS
+ * reads, and checked once more in the same run; a verdict that differs from the full load fails the
+ * build, known failure or not. {@code -Dids.corpus.streaming=false} skips the sliced loads.
+ */
+public class IdsCorpusInProcessTest {
+
+    private static final Path REPORT = Paths.get("target", "ids-corpus-report.html");
+
+    private static final boolean STRICT = Boolean.parseBoolean(System.getProperty("ids.corpus.strict", "true"));
+
+    private static final boolean STREAMING = Boolean.parseBoolean(System.getProperty("ids.corpus.streaming", "true"));
+
+    private static Path corpusDir;
+    private static ExecutorService executor;
+
+    /** One case: an {@code .ids}/{@code .ifc} pair of a facet corpus. */
+    private record Case(String facet, String baseName, String expected) {}
+
+    /** The outcome of a case on a full load, and its verdict on a sliced load ({@code null} if not run). */
+    private record Outcome(HtmlReport.CaseResult full, String sliced) {}
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        corpusDir = Paths.get(System.getProperty("ids.corpus.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "ids-corpus").toString()));
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void corpus() throws Exception {
+        List<Case> cases = new ArrayList<>();
+        for (String facet : TestCorpus.FACETS) {
+            for (String base : TestCorpus.listFacet(facet)) {
+                cases.add(new Case(facet, base, TestCorpus.expectedOf(base)));
+            }
+        }
+        download(cases);
+
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (Case c : cases) {
+            futures.add(executor.submit(() -> new Outcome(run(c, false), STREAMING ? run(c, true).result() : null)));
+        }
+        List<HtmlReport.CaseResult> results = new ArrayList<>();
+        Set<String> known = TestCorpus.knownFailures();
+        List<String> mismatches = new ArrayList<>();
+        for (Future<Outcome> f : futures) {
+            Outcome o = f.get();
+            HtmlReport.CaseResult r = o.full();
+            results.add(r);
+            String id = r.facet() + "/" + r.fileName().replaceFirst("\\.ids$", "");
+            if (o.sliced() != null && !o.sliced().equals(r.result())) {
+                mismatches.add(id + ": " + r.result() + " on the full load, " + o.sliced() + " on the sliced load");
+            }
+            if (!r.ok() && !known.contains(id)) {
+                mismatches.add(id + ": expected " + r.target() + ", got " + r.result());
+            } else if (r.ok() && known.contains(id)) {
+                mismatches.add(id + ": listed as a known failure but gives " + r.result());
+            }
+        }
+        HtmlReport.write(REPORT, results);
+        System.out.println("IDS corpus report written to " + REPORT.toAbsolutePath());
+
+        if (STRICT) {
+            assertTrue(mismatches.size() + " corpus mismatches:\n" + String.join("\n", mismatches), mismatches.isEmpty());
+        }
+    }
+
+    /**
+     * Predefined property sets (e.g. IfcDoorPanelProperties) are read through the explicit attributes
+     * of their class; derived and inverse ones are no properties. Both verdicts are checked even when
+     * the run is not strict.
+     */
+    @Test
+    public void predefinedPropertySetsAreReadFromExplicitAttributes() throws Exception {
+        List<Case> cases = new ArrayList<>();
+        for (String base : List.of("pass-predefined_properties_are_supported_but_discouraged_1_2",
+                "fail-predefined_properties_are_supported_but_discouraged_2_2")) {
+            cases.add(new Case("property", base, TestCorpus.expectedOf(base)));
+        }
+        download(cases);
+
+        for (Case c : cases) {
+            HtmlReport.CaseResult r = run(c, false);
+            assertTrue(c.baseName() + ": expected " + r.target() + ", got " + r.result(), r.ok());
+        }
+    }
+
+    /** Fetch every missing pair up front, in parallel; fail (or, if not strict, skip) when the corpus is unreachable. */
+    private static void download(List<Case> cases) throws Exception {
+        List<Callable<Path>> fetches = new ArrayList<>();
+        for (Case c : cases) {
+            fetches.add(() -> TestCorpus.download(corpusDir, c.facet() + "/" + c.baseName() + ".ids"));
+            fetches.add(() -> TestCorpus.download(corpusDir, c.facet() + "/" + c.baseName() + ".ifc"));
+        }
+        try {
+            for (Future<Path> f : executor.invokeAll(fetches)) {
+                f.get();
+            }
+        } catch (Exception e) {
+            if (STRICT) {
+                throw new IllegalStateException("IDS corpus not available in " + corpusDir.toAbsolutePath()
+                        + "; fetch it once with network access, or point -Dids.corpus.dir at a checkout of "
+                        + "Documentation/ImplementersDocumentation/TestCases", e);
+            }
+            Assume.assumeNoException("IDS corpus not available in " + corpusDir.toAbsolutePath(), e);
+        }
+    }
+
+    private static HtmlReport.CaseResult run(Case c, boolean sliced) {
+        long start = System.nanoTime();
+        String result;
+        boolean ok;
+        try {
+            String report = check(corpusDir.resolve(c.facet()).resolve(c.baseName() + ".ids"),
+                    corpusDir.resolve(c.facet()).resolve(c.baseName() + ".ifc"), sliced);
+            result = TestCorpus.resultOf(report);
+            ok = TestCorpus.satisfies(c.expected(), report);
+        } catch (Exception e) {
+            result = "ERROR";
+            ok = TestCorpus.satisfies(c.expected(), null);
+        }
+        long timeMs = (System.nanoTime() - start) / 1_000_000;
+        return new HtmlReport.CaseResult(c.facet(), c.baseName() + ".ids", c.expected(), result, timeMs, ok);
+    }
+
+    /** Validate one IFC file, loaded in full or as a slice of what the IDS reads, and return the text report. */
+    static String check(Path idsFile, Path ifcFile, boolean sliced) throws Exception {
+        Ids ids = IdsMapper.read(idsFile.toString(), IdsFetcher.uncached());
+        IfcModelInterface model = sliced ? IfcFiles.load(ifcFile, List.of(ids)) : IfcFiles.load(ifcFile);
+        ids.validate(IfcFiles.project(ifcFile), model);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextReport(ids).report(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -29,15 +29,9 @@ import javax.activation.DataHandler;
 import javax.activation.FileDataSource;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.ProxySelector;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -75,47 +69,7 @@ public abstract class IdsFacetTestBase {
     protected static final boolean ONLINE = Boolean.getBoolean("ids.test.online");
 
     /** buildingSMART TestCases root (raw download base). The only GitHub access, at startup/lazily. */
-    protected static final String RAW_BASE =
-            "https://raw.githubusercontent.com/buildingSMART/IDS/refs/heads/development/"
-                    + "Documentation/ImplementersDocumentation/TestCases/";
-
-    private static final HttpClient HTTP = buildHttpClient();
-
-    /** Proxy-aware client: corporate proxies (env http(s)_proxy or -Dhttp.proxyHost) block plain Java otherwise. */
-    private static HttpClient buildHttpClient() {
-        HttpClient.Builder b = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(15))
-                .followRedirects(HttpClient.Redirect.ALWAYS);
-        ProxySelector proxy = proxyFromEnv();
-        if (proxy != null) {
-            b.proxy(proxy);
-        }
-        return b.build();
-    }
-
-    private static ProxySelector proxyFromEnv() {
-        String p = firstNonBlank(
-                System.getenv("https_proxy"), System.getenv("HTTPS_PROXY"),
-                System.getenv("http_proxy"), System.getenv("HTTP_PROXY"));
-        if (p == null) {
-            return ProxySelector.getDefault(); // honors -Dhttp.proxyHost / -Dhttps.proxyHost if set
-        }
-        if (!p.contains("://")) {
-            p = "http://" + p;
-        }
-        URI u = URI.create(p);
-        int port = u.getPort() != -1 ? u.getPort() : 3128;
-        return ProxySelector.of(new InetSocketAddress(u.getHost(), port));
-    }
-
-    private static String firstNonBlank(String... values) {
-        for (String v : values) {
-            if (v != null && !v.isBlank()) {
-                return v;
-            }
-        }
-        return null;
-    }
+    protected static final String RAW_BASE = TestCorpus.RAW_BASE;
 
     protected static Path homePath;
     protected static BimServer bimServer;
@@ -359,30 +313,7 @@ public abstract class IdsFacetTestBase {
 
     /** Download a corpus file from GitHub once (idempotent), with retry + backoff. {@code relPath} = {@code <facet>/<name>}. */
     private static synchronized Path ensureDownloaded(String relPath) throws Exception {
-        Path target = corpusDir.resolve(relPath);
-        if (Files.exists(target) && Files.size(target) > 0) {
-            return target;
-        }
-        Files.createDirectories(target.getParent());
-        HttpRequest request = HttpRequest.newBuilder(URI.create(RAW_BASE + relPath))
-                .timeout(Duration.ofSeconds(30))
-                .header("Accept", "application/octet-stream, */*")
-                .GET().build();
-        Exception last = null;
-        for (int attempt = 1; attempt <= 4; attempt++) {
-            try {
-                HttpResponse<byte[]> resp = HTTP.send(request, HttpResponse.BodyHandlers.ofByteArray());
-                if (resp.statusCode() == 200 && resp.body() != null && resp.body().length > 0) {
-                    Files.write(target, resp.body());
-                    return target;
-                }
-                last = new IllegalStateException("HTTP " + resp.statusCode() + " for " + relPath);
-            } catch (Exception e) {
-                last = e;
-            }
-            Thread.sleep(1000L * attempt); // 1s, 2s, 3s backoff
-        }
-        throw new IllegalStateException("Failed to download " + relPath + " after retries", last);
+        return TestCorpus.download(corpusDir, relPath);
     }
 
     private static void setStringParameter(SObjectType settings, String identifier, String value) {
@@ -6,18 +6,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Drives the IDS Model Checker plugin against the official buildingSMART facet corpora
@@ -35,10 +29,6 @@ import java.util.Set;
 @RunWith(Parameterized.class)
 public class IdsTestCasesTest extends IdsFacetTestBase {
 
-    /** Facets to exercise; each has a committed {@code testcases-<facet>.list} resource. */
-    private static final String[] FACETS =
-            {"entity", "attribute", "classification", "property", "material", "partof"};
-
     /** Where the HTML dashboard is written. */
     private static final Path REPORT = Paths.get("target", "ids-test-report.html");
 
@@ -58,9 +48,9 @@ public class IdsTestCasesTest extends IdsFacetTestBase {
     @Parameterized.Parameters(name = "{0}/{1}")
     public static Collection<Object[]> cases() {
         List<Object[]> params = new ArrayList<>();
-        for (String facet : FACETS) {
-            for (String base : listFacet(facet)) {
-                params.add(new Object[]{facet, base, expectedOf(base)});
+        for (String facet : TestCorpus.FACETS) {
+            for (String base : TestCorpus.listFacet(facet)) {
+                params.add(new Object[]{facet, base, TestCorpus.expectedOf(base)});
             }
         }
         return params;
@@ -89,48 +79,14 @@ public class IdsTestCasesTest extends IdsFacetTestBase {
         boolean ok;
         try {
             String report = runCase(facet, baseName);
-            boolean pass = report.contains("[PASS]");
-            boolean fail = report.contains("[FAIL]");
-            result = pass ? "PASS" : (fail ? "FAIL" : "UNKNOWN");
-            ok = switch (expected) {
-                case "pass" -> pass;
-                case "fail" -> fail;
-                case "invalid" -> !pass; // a parse/validation error counts below as ERROR (also non-pass)
-                default -> false;
-            };
+            result = TestCorpus.resultOf(report);
+            ok = TestCorpus.satisfies(expected, report);
         } catch (Exception e) {
             result = "ERROR";
-            ok = "invalid".equals(expected); // erroring on an invalid case is an acceptable non-pass
+            ok = TestCorpus.satisfies(expected, null); // erroring on an invalid case is an acceptable non-pass
         }
         long timeMs = (System.nanoTime() - start) / 1_000_000;
         RESULTS.add(new HtmlReport.CaseResult(facet, fileName, expected, result, timeMs, ok));
         // Report-only: never fail the build on a mismatch; the HTML carries the status.
     }
-
-    private static String expectedOf(String baseName) {
-        int dash = baseName.indexOf('-');
-        return dash > 0 ? baseName.substring(0, dash) : "pass";
-    }
-
-    private static Set<String> listFacet(String facet) {
-        Set<String> bases = new LinkedHashSet<>();
-        String resource = "testcases-" + facet + ".list";
-        try (InputStream in = IdsTestCasesTest.class.getClassLoader().getResourceAsStream(resource)) {
-            if (in == null) {
-                throw new IllegalStateException(resource + " not found on test classpath");
-            }
-            BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-            String line;
-            while ((line = r.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
-                }
-                bases.add(line);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        return bases;
-    }
 }
@@ -0,0 +1,169 @@
+package de.openfabtwin.bimserver.idschecker;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The buildingSMART facet corpora ({@code Documentation/ImplementersDocumentation/TestCases/<facet>})
+ * as used by the corpus tests: the committed {@code testcases-<facet>.list} case lists, the expected
+ * outcome encoded in each base name, and a proxy-aware download of the {@code .ids}/{@code .ifc}
+ * pairs.
+ */
+final class TestCorpus {
+
+    /** Facets to exercise; each has a committed {@code testcases-<facet>.list} resource. */
+    static final String[] FACETS =
+            {"entity", "attribute", "classification", "property", "material", "partof"};
+
+    /** buildingSMART TestCases root (raw download base). The only GitHub access. */
+    static final String RAW_BASE =
+            "https://raw.githubusercontent.com/buildingSMART/IDS/refs/heads/development/"
+                    + "Documentation/ImplementersDocumentation/TestCases/";
+
+    private static final HttpClient HTTP = buildHttpClient();
+
+    private TestCorpus() {}
+
+    /** Proxy-aware client: corporate proxies (env http(s)_proxy or -Dhttp.proxyHost) block plain Java otherwise. */
+    private static HttpClient buildHttpClient() {
+        HttpClient.Builder b = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(15))
+                .followRedirects(HttpClient.Redirect.ALWAYS);
+        ProxySelector proxy = proxyFromEnv();
+        if (proxy != null) {
+            b.proxy(proxy);
+        }
+        return b.build();
+    }
+
+    private static ProxySelector proxyFromEnv() {
+        String p = firstNonBlank(
+                System.getenv("https_proxy"), System.getenv("HTTPS_PROXY"),
+                System.getenv("http_proxy"), System.getenv("HTTP_PROXY"));
+        if (p == null) {
+            return ProxySelector.getDefault(); // honors -Dhttp.proxyHost / -Dhttps.proxyHost if set
+        }
+        if (!p.contains("://")) {
+            p = "http://" + p;
+        }
+        URI u = URI.create(p);
+        int port = u.getPort() != -1 ? u.getPort() : 3128;
+        return ProxySelector.of(new InetSocketAddress(u.getHost(), port));
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String v : values) {
+            if (v != null && !v.isBlank()) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Download a corpus file from GitHub into {@code dir} once (idempotent), with retry + backoff.
+     * {@code relPath} = {@code <facet>/<name>}. The file is written under a temporary name and moved
+     * into place, so concurrent callers never see a partial download.
+     */
+    static Path download(Path dir, String relPath) throws Exception {
+        Path target = dir.resolve(relPath);
+        if (Files.exists(target) && Files.size(target) > 0) {
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(RAW_BASE + relPath))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/octet-stream, */*")
+                .GET().build();
+        Exception last = null;
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            try {
+                HttpResponse<byte[]> resp = HTTP.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (resp.statusCode() == 200 && resp.body() != null && resp.body().length > 0) {
+                    Path part = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+                    Files.write(part, resp.body());
+                    Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return target;
+                }
+                last = new IllegalStateException("HTTP " + resp.statusCode() + " for " + relPath);
+            } catch (Exception e) {
+                last = e;
+            }
+            Thread.sleep(1000L * attempt); // 1s, 2s, 3s backoff
+        }
+        throw new IllegalStateException("Failed to download " + relPath + " after retries", last);
+    }
+
+    /** {@code pass}, {@code fail} or {@code invalid}, from the base-name prefix. */
+    static String expectedOf(String baseName) {
+        int dash = baseName.indexOf('-');
+        return dash > 0 ? baseName.substring(0, dash) : "pass";
+    }
+
+    /**
+     * Whether a run satisfied {@code expected}: {@code report} is the text report, or {@code null}
+     * if the case errored, which is an acceptable outcome for an invalid case only.
+     */
+    static boolean satisfies(String expected, String report) {
+        if (report == null) {
+            return "invalid".equals(expected);
+        }
+        boolean pass = report.contains("[PASS]");
+        boolean fail = report.contains("[FAIL]");
+        return switch (expected) {
+            case "pass" -> pass;
+            case "fail" -> fail;
+            case "invalid" -> !pass;
+            default -> false;
+        };
+    }
+
+    /** {@code PASS}, {@code FAIL} or {@code UNKNOWN} for a text report. */
+    static String resultOf(String report) {
+        return report.contains("[PASS]") ? "PASS" : (report.contains("[FAIL]") ? "FAIL" : "UNKNOWN");
+    }
+
+    static Set<String> listFacet(String facet) {
+        return readList("testcases-" + facet + ".list");
+    }
+
+    /** Cases the checker is known to get wrong, as {@code <facet>/<base name>}. */
+    static Set<String> knownFailures() {
+        return readList("testcases-known-failures.list");
+    }
+
+    private static Set<String> readList(String resource) {
+        Set<String> bases = new LinkedHashSet<>();
+        try (InputStream in = TestCorpus.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException(resource + " not found on test classpath");
+            }
+            BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                bases.add(line);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return bases;
+    }
+}
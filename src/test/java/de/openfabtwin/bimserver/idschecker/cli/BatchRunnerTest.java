@@ -0,0 +1,72 @@
+package de.openfabtwin.bimserver.idschecker.cli;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void reservationIsClampedToTheBudget() {
+        BatchRunner runner = new BatchRunner(4, 100L << 20);
+
+        assertEquals(1, runner.reservation(0));
+        assertEquals(1, runner.reservation(1000));
+        assertEquals(10, runner.reservation(1L << 20));
+        assertEquals(100, runner.reservation(1L << 30));
+    }
+
+    @Test
+    public void memoryBudgetLimitsConcurrency() throws Exception {
+        Path dir = Files.createTempDirectory("batch");
+        List<BatchRunner.Input> inputs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            inputs.add(new BatchRunner.Input(model(dir, "m" + i + ".ifc", 4L << 20), null));
+        }
+        // each model reserves 40 MB of 100, so at most two run at once although there are 8 threads
+        AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+        List<Path> done = Collections.synchronizedList(new ArrayList<>());
+        new BatchRunner(8, 100L << 20).run(inputs, input -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return input.model();
+        }, done::add);
+
+        assertEquals(8, done.size());
+        assertTrue("peak " + peak.get(), peak.get() <= 2);
+    }
+
+    @Test
+    public void largestModelsStartFirst() throws Exception {
+        Path dir = Files.createTempDirectory("batch");
+        List<BatchRunner.Input> inputs = List.of(
+                new BatchRunner.Input(model(dir, "small.ifc", 10), null),
+                new BatchRunner.Input(model(dir, "large.ifc", 1000), null),
+                new BatchRunner.Input(model(dir, "medium.ifc", 100), null));
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        new BatchRunner(1, 1L << 30).run(inputs, input -> {
+            started.add(input.model().getFileName().toString());
+            return input;
+        }, input -> { });
+
+        assertEquals(List.of("large.ifc", "medium.ifc", "small.ifc"), started);
+    }
+
+    private static Path model(Path dir, String name, long size) throws IOException {
+        return Files.write(dir.resolve(name), new byte[(int) size]);
+    }
+}
@@ -0,0 +1,132 @@
+package de.openfabtwin.bimserver.idschecker.cli;
+
+import de.openfabtwin.bimserver.idschecker.report.ReportFormat;
+import de.openfabtwin.bimserver.idschecker.report.Reporter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IdsCheckTest {
+
+    @Test
+    public void optionsAreParsed() {
+        IdsCheck.Options o = IdsCheck.parse(new String[]{"--ids", "a.ids", "one.ifc", "--ids", "b.idsb",
+                "--format", "json", "--detail", "failures", "--max-listed", "20", "--output", "out",
+                "--threads", "3", "--memory", "512", "--manifest", "list.txt", "--streaming", "--performance", "two.ifc"});
+
+        assertEquals(List.of("a.ids", "b.idsb"), o.ids());
+        assertEquals(List.of(Paths.get("one.ifc"), Paths.get("two.ifc")), o.models());
+        assertEquals(ReportFormat.JSON, o.format());
+        assertEquals(Reporter.Detail.FAILURES, o.detail());
+        assertEquals(20, o.maxListed());
+        assertEquals(Paths.get("out"), o.output());
+        assertEquals(3, o.threads());
+        assertEquals(512L << 20, o.memoryBytes());
+        assertEquals(List.of(Paths.get("list.txt")), o.manifests());
+        assertTrue(o.streaming());
+        assertTrue(o.performance());
+    }
+
+    @Test
+    public void defaults() {
+        IdsCheck.Options o = IdsCheck.parse(new String[]{"--ids", "a.ids", "model.ifc"});
+
+        assertEquals(ReportFormat.TEXT, o.format());
+        assertEquals(Reporter.Detail.FULL, o.detail());
+        assertEquals(0, o.maxListed());
+        assertEquals(Paths.get("."), o.output());
+        assertTrue(o.threads() >= 1);
+        assertTrue(o.memoryBytes() > 0);
+        assertTrue(o.manifests().isEmpty());
+        assertFalse(o.streaming());
+        assertFalse(o.performance());
+    }
+
+    @Test
+    public void badArgumentsAreRejected() {
+        String[][] bad = {
+                {"model.ifc"},
+                {"--ids", "a.ids"},
+                {"--ids", "a.ids", "--format", "pdf", "model.ifc"},
+                {"--ids", "a.ids", "--threads", "many", "model.ifc"},
+                {"--ids", "a.ids", "--memory", "lots", "model.ifc"},
+                {"--ids", "a.ids", "--verbose", "model.ifc"},
+                {"--ids"},
+        };
+        for (String[] args : bad) {
+            try {
+                IdsCheck.parse(args);
+                fail("Accepted " + String.join(" ", args));
+            } catch (IllegalArgumentException expected) {
+                // rejected
+            }
+        }
+    }
+
+    @Test
+    public void usageErrorsExitWithTwo() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = IdsCheck.run(new String[]{"--ids", "a.ids"}, new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(IdsCheck.ERROR, status);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("No IFC file given"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage: ids-check"));
+    }
+
+    @Test
+    public void directoriesAndManifestsKeepTheirLayout() throws IOException {
+        Path root = Files.createTempDirectory("ids-check");
+        Path site = Files.createDirectories(root.resolve("site").resolve("north"));
+        Files.writeString(site.resolve("walls.ifc"), "");
+        Files.writeString(site.resolve("Slabs.IFC"), "");
+        Files.writeString(site.resolve("notes.txt"), "");
+        Files.writeString(root.resolve("loose.ifc"), "");
+        Path manifest = Files.writeString(root.resolve("models.txt"), "# nightly\n\nsite/north/walls.ifc\n");
+
+        IdsCheck.Options o = IdsCheck.parse(new String[]{"--ids", "a.ids", "--output", "out",
+                "--manifest", manifest.toString(), root.resolve("site").toString(), root.resolve("loose.ifc").toString()});
+        List<BatchRunner.Input> inputs = IdsCheck.inputs(o);
+
+        assertEquals(4, inputs.size());
+        assertEquals(site.resolve("Slabs.IFC"), inputs.get(0).model());
+        assertEquals(Paths.get("out", "north", "Slabs.result.txt"), inputs.get(0).report());
+        assertEquals(Paths.get("out", "north", "walls.result.txt"), inputs.get(1).report());
+        assertEquals(Paths.get("out", "loose.result.txt"), inputs.get(2).report());
+        assertEquals(site.resolve("walls.ifc"), inputs.get(3).model());
+        assertEquals(Paths.get("out", "site", "north", "walls.result.txt"), inputs.get(3).report());
+    }
+
+    @Test
+    public void modelsWithTheSameNameGetTheirOwnReport() throws IOException {
+        Path root = Files.createTempDirectory("ids-check");
+        Path a = Files.writeString(Files.createDirectories(root.resolve("a")).resolve("model.ifc"), "");
+        Path b = Files.writeString(Files.createDirectories(root.resolve("b")).resolve("model.ifc"), "");
+
+        IdsCheck.Options o = IdsCheck.parse(new String[]{"--ids", "a.ids", "--output", "out", a.toString(), b.toString(), a.toString()});
+        List<BatchRunner.Input> inputs = IdsCheck.inputs(o);
+
+        assertEquals(Paths.get("out", "model.result.txt"), inputs.get(0).report());
+        assertEquals(Paths.get("out", "model-2.result.txt"), inputs.get(1).report());
+        assertEquals(Paths.get("out", "model-3.result.txt"), inputs.get(2).report());
+    }
+
+    @Test
+    public void reportsAreNamedAfterTheModel() {
+        assertEquals("wall.result.txt", IdsCheck.reportName(Paths.get("models", "wall.ifc"), ReportFormat.TEXT));
+        assertEquals("wall.v2.result.bcfzip", IdsCheck.reportName(Paths.get("wall.v2.ifc"), ReportFormat.BCF));
+        assertEquals("model.result.json", IdsCheck.reportName(Paths.get("model"), ReportFormat.JSON));
+    }
+}
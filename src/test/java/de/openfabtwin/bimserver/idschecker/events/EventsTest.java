@@ -0,0 +1,89 @@
+package de.openfabtwin.bimserver.idschecker.events;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.IdsBinary;
+import de.openfabtwin.bimserver.idschecker.model.IdsMapper;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.bimserver.interfaces.objects.SProject;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventsTest {
+
+    private static Ids sample() {
+        Ids ids = new Ids();
+        Specification spec = new Specification();
+        spec.setName("Walls");
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4);
+        spec.getApplicability().add(new Entity(new SimpleValue("IFCWALL"), null, null));
+        ids.getSpecifications().add(spec);
+        return ids;
+    }
+
+    private static List<RecordedEvent> record(String name, ThrowingRunnable action) throws Exception {
+        Path file = Files.createTempFile("ids-events-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(name).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    public void readingAnIdsRecordsFetchAndParse() throws Exception {
+        Path compiled = Files.createTempFile("events-", IdsBinary.EXTENSION);
+        try {
+            IdsBinary.write(sample(), compiled);
+
+            List<RecordedEvent> fetches = record("de.openfabtwin.ids.IdsFetch", () -> IdsMapper.read(compiled.toString()));
+            assertEquals(1, fetches.size());
+            assertEquals(compiled.toString(), fetches.get(0).getString("url"));
+            assertEquals(Files.size(compiled), fetches.get(0).getLong("bytes"));
+
+            List<RecordedEvent> parses = record("de.openfabtwin.ids.IdsParse", () -> IdsMapper.read(compiled.toString()));
+            assertEquals(1, parses.size());
+            assertTrue(parses.get(0).getBoolean("binary"));
+            assertEquals(1, parses.get(0).getInt("specifications"));
+        } finally {
+            Files.deleteIfExists(compiled);
+        }
+    }
+
+    @Test
+    public void everySpecificationIsRecorded() throws Exception {
+        Ids ids = sample();
+        SProject project = new SProject();
+        project.setSchema("ifc2x3tc1");   // not a version of the specification: nothing is evaluated
+
+        List<RecordedEvent> events = record("de.openfabtwin.ids.Specification", () -> ids.validate(project, null));
+
+        assertEquals(1, events.size());
+        assertEquals("Walls", events.get(0).getString("specification"));
+        assertEquals(0, events.get(0).getInt("candidates"));
+        assertFalse(events.get(0).getBoolean("status"));
+    }
+}
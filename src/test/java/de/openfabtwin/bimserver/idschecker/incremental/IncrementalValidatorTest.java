@@ -0,0 +1,89 @@
+package de.openfabtwin.bimserver.idschecker.incremental;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.synthetic.WallFixtures;
+import org.bimserver.ifc.BasicIfcModel;
+import org.bimserver.interfaces.objects.SProject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalValidatorTest {
+
+    private static final int WALLS = 10;
+    private static final long POID = 42;
+
+    private final SProject project = WallFixtures.project();
+
+    /** Walls 0..count-1; the ones listed in {@code unnamed} have no Name. */
+    private static BasicIfcModel walls(int count, int... unnamed) throws Exception {
+        return WallFixtures.walls(count, i -> IntStream.of(unnamed).noneMatch(u -> u == i));
+    }
+
+    private static Ids ids() {
+        Ids ids = WallFixtures.namedWalls();
+        ids.setChecksum("test");
+        return ids;
+    }
+
+    private static List<Long> failedOids(Ids ids) {
+        List<Long> oids = new ArrayList<>();
+        for (var failure : ids.getSpecifications().get(0).getRequirements().get(0).getFailures()) {
+            oids.add(failure.getElement().getOid());
+        }
+        return oids;
+    }
+
+    @Test
+    public void unchangedRevisionReplaysEverything() throws Exception {
+        IncrementalValidator validator = new IncrementalValidator();
+        IncrementalValidator.Stats first = validator.validate(POID, ids(), project, walls(WALLS, 3));
+        assertEquals(WALLS, first.added());
+        assertEquals(WALLS, first.evaluated());
+
+        Ids second = ids();
+        IncrementalValidator.Stats stats = validator.validate(POID, second, project, walls(WALLS, 3));
+        assertEquals(WALLS, stats.unchanged());
+        assertEquals(WALLS, stats.replayed());
+        assertEquals(0, stats.evaluated());
+        assertEquals(List.of(4L), failedOids(second));
+    }
+
+    @Test
+    public void onlyChangedAndAddedElementsAreEvaluated() throws Exception {
+        IncrementalValidator validator = new IncrementalValidator();
+        validator.validate(POID, ids(), project, walls(WALLS, 3));
+
+        // Wall 3 gets its name, wall 5 loses it, one wall is added and none removed.
+        Ids incremental = ids();
+        IncrementalValidator.Stats stats = validator.validate(POID, incremental, project, walls(WALLS + 1, 5));
+        assertEquals(1, stats.added());
+        assertEquals(2, stats.changed());
+        assertEquals(WALLS - 2, stats.unchanged());
+        assertEquals(3, stats.evaluated());
+
+        Ids full = ids();
+        full.validate(project, walls(WALLS + 1, 5));
+        assertEquals(failedOids(full), failedOids(incremental));
+        assertEquals(full.getSpecifications().get(0).getStatus(), incremental.getSpecifications().get(0).getStatus());
+    }
+
+    @Test
+    public void removedElementsAndOtherIdsStartOver() throws Exception {
+        IncrementalValidator validator = new IncrementalValidator();
+        validator.validate(POID, ids(), project, walls(WALLS));
+
+        IncrementalValidator.Stats shrunk = validator.validate(POID, ids(), project, walls(WALLS - 4));
+        assertEquals(4, shrunk.removed());
+
+        Ids other = ids();
+        other.setChecksum("other");
+        IncrementalValidator.Stats stats = validator.validate(POID, other, project, walls(WALLS - 4));
+        assertEquals(WALLS - 4, stats.added());
+        assertEquals(0, stats.replayed());
+    }
+}
@@ -0,0 +1,120 @@
+package de.openfabtwin.bimserver.idschecker.metrics;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.RestrictionValue;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+import de.openfabtwin.bimserver.idschecker.report.TextReport;
+import de.openfabtwin.bimserver.idschecker.synthetic.SyntheticModels;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    private static final SProject PROJECT = new SProject();
+
+    static {
+        PROJECT.setSchema("ifc4");
+    }
+
+    /** Walls named "Wall 0" to "Wall 9" with FireRating REI60; the even ones pass the Name requirement. */
+    private static Ids ids() {
+        Ids ids = new Ids();
+        ids.getInfo().put("title", "Metrics");
+        Specification spec = new Specification();
+        spec.setName("Walls");
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4);
+        spec.getApplicability().add(new Entity(new SimpleValue("IFCWALL"), null, null));
+        spec.getApplicability().add(new Property(new SimpleValue("Pset_WallCommon"), new SimpleValue("FireRating"),
+                null, null, null, "required", null));
+        spec.getRequirements().add(new Attribute(new SimpleValue("Name"),
+                new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "Wall \\d*[02468]", null, null, null, null),
+                "required", null));
+        ids.getSpecifications().add(spec);
+        return ids;
+    }
+
+    private static IfcModelInterface model() throws Exception {
+        return SyntheticModels.walls(SyntheticModels.metaData(SyntheticModels.IfcSchema.IFC4), 10);
+    }
+
+    @Test
+    public void nothingIsCollectedByDefault() throws Exception {
+        Ids ids = ids();
+        ids.validate(PROJECT, model());
+
+        assertNull(ids.getSpecifications().get(0).getMetrics());
+    }
+
+    @Test
+    public void facetsAreCountedAndTimed() throws Exception {
+        Ids ids = ids();
+        ids.setCollectMetrics(true);
+        ids.validate(PROJECT, model());
+
+        SpecificationMetrics m = ids.getSpecifications().get(0).getMetrics();
+        assertEquals(10, m.getCandidates());
+        assertEquals(10, m.getApplicable());
+        assertEquals(0, m.getApplicability(0).getCalls());   // the filtering facet is not matched again
+        assertEquals(10, m.getApplicability(1).getCalls());
+        assertEquals(10, m.getApplicability(1).getPasses());
+        assertEquals(10, m.getRequirement(0).getCalls());
+        assertEquals(5, m.getRequirement(0).getPasses());
+        assertEquals(5, m.getRequirement(0).getFailures());
+        assertEquals(20, m.getMatchesCalls());
+        assertTrue(m.getNanos() >= m.getFilterNanos());
+        assertTrue(Double.isNaN(m.getCacheHitRate()));
+    }
+
+    @Test
+    public void registryAddsUpChecks() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        IfcModelInterface model = model();
+        for (int i = 0; i < 3; i++) {
+            Ids ids = ids();
+            ids.setCollectMetrics(true);
+            ids.validate(PROJECT, model);
+            registry.record(ids);
+        }
+
+        List<MetricsRegistry.RuleStats> rules = registry.getRules();
+        assertEquals(1, rules.size());
+        MetricsRegistry.RuleStats walls = rules.get(0);
+        assertEquals("Metrics", walls.ids());
+        assertEquals("Walls", walls.specification());
+        assertEquals(3, walls.checks());
+        assertEquals(60, walls.matchesCalls());
+        assertEquals(15, walls.failures());
+        assertTrue(walls.maxNanos() <= walls.totalNanos());
+    }
+
+    @Test
+    public void textReportAppendsPerformance() throws Exception {
+        Ids ids = ids();
+        ids.setCollectMetrics(true);
+        ids.validate(PROJECT, model());
+
+        TextReport plain = new TextReport(ids);
+        plain.report();
+        assertFalse(plain.to_string().contains("Performance"));
+
+        TextReport report = new TextReport(ids).setPerformance(true);
+        report.report();
+        String text = report.to_string();
+        assertTrue(text.contains("Performance\n-----------"));
+        assertTrue(text.contains("Candidates: 10 | Applicable: 10 | Matches calls: 20"));
+        assertTrue(text.contains("Requirement 1 (Attribute): "));
+        assertTrue(text.contains("Calls: 10 | Passed: 5 | Failed: 5"));
+    }
+}
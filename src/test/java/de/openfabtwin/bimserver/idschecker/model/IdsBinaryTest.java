@@ -0,0 +1,138 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Classification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.Material;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IdsBinaryTest {
+
+    /** One specification using every facet type, simple and restriction values and a prohibited cardinality. */
+    private static Ids sample() {
+        Ids ids = new Ids();
+        ids.getInfo().put("title", "Wände – sample");
+        ids.getInfo().put("date", LocalDate.of(2024, 5, 17));
+        ids.getInfo().put("author", null);
+        ids.setChecksum(IdsMapper.sha256("<ids/>".getBytes(StandardCharsets.UTF_8)));
+
+        Specification spec = new Specification();
+        spec.setName("Walls");
+        spec.setIdentifier("S-1");
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4);
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4X3);
+        spec.setMinOccurs("1");
+        spec.setMaxOccurs("unbounded");
+        spec.getApplicability().add(new Entity(new SimpleValue("IFCWALL"), new SimpleValue("SOLIDWALL"), null));
+        spec.getRequirements().add(new Attribute(new SimpleValue("Name"),
+                new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "W-\\d+", null, null, null, null),
+                "required", "Name it"));
+        spec.getRequirements().add(new Property(new SimpleValue("Pset_WallCommon"), new SimpleValue("FireRating"),
+                new RestrictionValue(RestrictionValue.XsdBase.DOUBLE, List.of(), null, "0", null, null, "120"),
+                "IFCREAL", null, "optional", null));
+        spec.getRequirements().add(new Material(new SimpleValue("Concrete"), null, "prohibited", null));
+        spec.getRequirements().add(new Classification(new SimpleValue("Uniclass"),
+                new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of("EF_25", "EF_30"), null, null, null, null, null),
+                "https://example.org/uniclass", null, null));
+        spec.getRequirements().add(new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IFCRELCONTAINEDINSPATIALSTRUCTURE", null, null));
+        ids.getSpecifications().add(spec);
+        return ids;
+    }
+
+    private static byte[] compile(Ids ids) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IdsBinary.write(ids, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTripKeepsEverythingTheValidatorReads() throws Exception {
+        Ids original = sample();
+        byte[] compiled = compile(original);
+        Ids loaded = IdsBinary.read(compiled);
+
+        // Writing the loaded rules again yields the same bytes.
+        assertArrayEquals(compiled, compile(loaded));
+
+        assertEquals(original.getChecksum(), loaded.getChecksum());
+        assertEquals(original.getInfo(), loaded.getInfo());
+        Specification spec = loaded.getSpecifications().get(0);
+        assertEquals("S-1", spec.getIdentifier());
+        assertEquals(List.of(Specification.IfcVersion.IFC4, Specification.IfcVersion.IFC4X3), spec.getIfcVersion());
+        assertEquals(5, spec.getRequirements().size());
+        assertEquals(Facet.Cardinality.PROHIBITED, spec.getRequirements().get(2).getCardinality());
+
+        Entity entity = (Entity) spec.getApplicability().get(0);
+        assertEquals(new SimpleValue("IFCWALL"), entity.getName());
+        Attribute name = (Attribute) spec.getRequirements().get(0);
+        assertTrue(name.getValue().matches("W-12"));
+        assertFalse(name.getValue().matches("Wall"));
+        Property fireRating = (Property) spec.getRequirements().get(1);
+        assertTrue(fireRating.getValue().matches("60."));
+        assertFalse(fireRating.getValue().matches("120"));
+    }
+
+    @Test
+    public void loadsThroughAMemoryMappedFile() throws Exception {
+        Path file = Files.createTempFile("sample", IdsBinary.EXTENSION);
+        try {
+            IdsBinary.write(sample(), file);
+            Ids loaded = IdsBinary.read(file);
+            assertEquals("Walls", loaded.getSpecifications().get(0).getName());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void idsBuiltInCodeHasNoSourceChecksum() throws Exception {
+        Ids ids = sample();
+        ids.setChecksum(null);
+        assertNull(IdsBinary.read(compile(ids)).getChecksum());
+    }
+
+    @Test
+    public void corruptAndForeignFilesAreRejected() throws Exception {
+        byte[] compiled = compile(sample());
+
+        byte[] flipped = compiled.clone();
+        flipped[flipped.length - 3] ^= 0x55;
+        assertRejected(flipped, "corrupt");
+
+        byte[] otherVersion = compiled.clone();
+        otherVersion[5] = 99;
+        assertRejected(otherVersion, "version 99");
+
+        byte[] truncated = java.util.Arrays.copyOf(compiled, compiled.length - 10);
+        assertRejected(truncated, "truncated");
+
+        assertFalse(IdsBinary.isBinary("<?xml version=\"1.0\"?>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertRejected(byte[] content, String message) {
+        try {
+            IdsBinary.read(content);
+            fail("expected an IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IdsFetcherTest {
+
+    private static final byte[] CONTENT = "<ids/>".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private Path cache;
+    private volatile boolean portal;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/sample.ids", exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(String.valueOf(condition));
+            if (portal) {
+                byte[] page = "<html>Please sign in</html>".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+                exchange.sendResponseHeaders(200, page.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(page);
+                }
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "application/xml");
+                exchange.sendResponseHeaders(200, CONTENT.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(CONTENT);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        cache = Files.createTempDirectory("ids-cache-");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (var files = Files.list(cache)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(cache);
+    }
+
+    private String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/sample.ids";
+    }
+
+    @Test
+    public void cachedCopyIsRevalidatedWithItsETag() throws Exception {
+        IdsFetcher fetcher = new IdsFetcher(cache, Duration.ZERO);
+
+        IdsFetcher.Fetched first = fetcher.fetch(url());
+        IdsFetcher.Fetched second = fetcher.fetch(url());
+
+        assertEquals("sample.ids", second.fileName());
+        assertArrayEquals(first.content(), second.content());
+        assertEquals(List.of("null", "\"v1\""), ifNoneMatch);
+    }
+
+    @Test
+    public void cachedCopyIsUsedWhenTheHostIsDown() throws Exception {
+        IdsFetcher fetcher = new IdsFetcher(cache, Duration.ZERO);
+        fetcher.fetch(url());
+        String url = url();
+        server.stop(0);
+
+        IdsFetcher.Fetched fetched = fetcher.fetch(url);
+
+        assertArrayEquals(CONTENT, fetched.content());
+    }
+
+    @Test
+    public void cachedCopyIsUsedWhenTheHostAnswersWithAnHtmlPage() throws Exception {
+        IdsFetcher fetcher = new IdsFetcher(cache, Duration.ZERO);
+        fetcher.fetch(url());
+        portal = true;
+
+        IdsFetcher.Fetched fetched = fetcher.fetch(url());
+
+        assertArrayEquals(CONTENT, fetched.content());
+    }
+
+    @Test
+    public void freshCopyIsServedWithoutWaitingForTheHost() throws Exception {
+        IdsFetcher fetcher = new IdsFetcher(cache, Duration.ofHours(1));
+        fetcher.fetch(url());
+        String url = url();
+        server.stop(0);
+
+        // Within the window the host is never asked before returning; the background revalidation just fails.
+        IdsFetcher.Fetched fetched = fetcher.fetch(url);
+
+        assertArrayEquals(CONTENT, fetched.content());
+    }
+
+    @Test
+    public void localFilesBypassTheCache() throws Exception {
+        Path file = Files.createTempFile("local-", ".ids");
+        try {
+            Files.write(file, CONTENT);
+            IdsFetcher fetcher = new IdsFetcher(cache, Duration.ZERO);
+
+            assertArrayEquals(CONTENT, fetcher.fetch(file.toString()).content());
+            assertArrayEquals(CONTENT, fetcher.fetch(file.toUri().toString()).content());
+            try (var files = Files.list(cache)) {
+                assertNull(files.findFirst().orElse(null));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.access.ModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.result.Result;
+import org.bimserver.emf.MetaDataManager;
+import org.bimserver.emf.PackageMetaData;
+import org.eclipse.emf.ecore.EClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ModelRequirementsTest {
+
+    private static PackageMetaData meta;
+    private static PackageMetaData meta2x3;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        MetaDataManager metaDataManager = new MetaDataManager(Files.createTempDirectory("ids-meta-"));
+        metaDataManager.init();
+        meta = metaDataManager.getPackageMetaData("ifc4");
+        meta2x3 = metaDataManager.getPackageMetaData("ifc2x3tc1");
+    }
+
+    private static Ids ids(Facet applicability, Facet requirement) {
+        Specification spec = new Specification();
+        spec.getApplicability().add(applicability);
+        if (requirement != null) spec.getRequirements().add(requirement);
+        Ids ids = new Ids();
+        ids.getSpecifications().add(spec);
+        return ids;
+    }
+
+    @Test
+    public void entityRequiresOnlyMatchingClasses() {
+        ModelRequirements requirements = ModelRequirements.of(ids(new Entity(new SimpleValue("IFCWALL"), null, null), null), meta);
+
+        List<EClass> classes = requirements.getClasses();
+        assertFalse(requirements.isEverything());
+        assertTrue(classes.contains(meta.getEClass("IfcWall")));
+        assertTrue(classes.contains(meta.getEClass("IfcUnitAssignment")));
+        assertFalse(classes.contains(meta.getEClass("IfcRelDefinesByType")));
+        assertFalse(classes.contains(meta.getEClass("IfcShapeRepresentation")));
+    }
+
+    @Test
+    public void subtypesOfRequiredClassesAreNotListed() {
+        ModelRequirements requirements = ModelRequirements.of(ids(
+                new Entity(new SimpleValue("IFCWALL"), null, null),
+                new Attribute(new SimpleValue("GlobalId"), null, null, null)), meta);
+
+        List<EClass> classes = requirements.getClasses();
+        assertTrue(classes.contains(meta.getEClass("IfcRoot")));
+        assertFalse(classes.contains(meta.getEClass("IfcWall")));
+        assertFalse(classes.contains(meta.getEClass("IfcProject")));
+    }
+
+    @Test
+    public void typeNamesIncludeSubtypesInStepSpelling() {
+        Set<String> names = ModelRequirements.of(ids(new Entity(new SimpleValue("IFCWALL"), null, null), null), meta).getTypeNames();
+
+        assertTrue(names.contains("IFCWALL"));
+        assertTrue(names.contains("IFCWALLSTANDARDCASE"));
+        assertTrue(names.contains("IFCSIUNIT"));
+        assertFalse(names.contains("IFCSLAB"));
+        assertFalse(names.contains("IFCEXTRUDEDAREASOLID"));
+    }
+
+    @Test
+    public void attributeRequiresTheClassesItsReferencesPointTo() {
+        Set<String> names = ModelRequirements.of(ids(
+                new Entity(new SimpleValue("IFCRELASSOCIATESMATERIAL"), null, null),
+                new Attribute(new SimpleValue("RelatingMaterial"), null, null, null)), meta).getTypeNames();
+
+        // IfcMaterialSelect: the select's members, so the reference survives a sliced load
+        assertTrue(names.contains("IFCMATERIAL"));
+        assertTrue(names.contains("IFCMATERIALLAYERSET"));
+        assertFalse(names.contains("IFCWALL"));
+    }
+
+    @Test
+    public void entityOnIfc2x3RequiresTheTypeObjectsItFallsBackTo() {
+        List<EClass> classes = ModelRequirements.of(ids(new Entity(new SimpleValue("IFCWALL"), null, null), null), meta2x3).getClasses();
+
+        assertTrue(classes.contains(meta2x3.getEClass("IfcRelDefinesByType")));
+        assertTrue(classes.contains(meta2x3.getEClass("IfcTypeObject")));
+    }
+
+    @Test
+    public void partOfRequirementRequiresOnlyTheRelationshipItWalks() {
+        List<EClass> classes = ModelRequirements.of(ids(
+                new Entity(new SimpleValue("IFCWALL"), null, null),
+                new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IfcRelContainedInSpatialStructure", null, null)), meta).getClasses();
+
+        assertTrue(classes.contains(meta.getEClass("IfcRelContainedInSpatialStructure")));
+        assertTrue(classes.contains(meta.getEClass("IfcSpatialElement")));
+        assertFalse(classes.contains(meta.getEClass("IfcObjectDefinition")));
+        assertFalse(classes.contains(meta.getEClass("IfcRelAggregates")));
+    }
+
+    @Test
+    public void partOfFilteringTheCandidatesRequiresTheObjectDefinitions() {
+        List<EClass> classes = ModelRequirements.of(ids(
+                new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IfcRelContainedInSpatialStructure", null, null), null), meta).getClasses();
+
+        assertTrue(classes.contains(meta.getEClass("IfcObjectDefinition")));
+    }
+
+    @Test
+    public void unknownFacetRequiresEverything() {
+        Facet custom = new Facet() {
+            @Override
+            public <E> List<E> filter(ModelAccess<E> model) {
+                return List.of();
+            }
+
+            @Override
+            public <E> Result matches(ModelAccess<E> model, E element) {
+                return null;
+            }
+        };
+        assertTrue(ModelRequirements.of(ids(custom, null), meta).isEverything());
+    }
+}
@@ -0,0 +1,102 @@
+package de.openfabtwin.bimserver.idschecker.model;
+
+import de.openfabtwin.bimserver.idschecker.model.access.EmfModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.synthetic.WallFixtures;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.interfaces.objects.SProject;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budget of the pass path: an in-memory IFC4 model of walls that all satisfy an
+ * Entity + Attribute specification. Measures the bytes the validating thread allocates per passing
+ * element, after warm-up, with {@code com.sun.management.ThreadMXBean}, and fails above the budget.
+ *
+ * <p>The facet {@code matches} calls must not allocate at all for a passing element. A full
+ * {@link Specification#validate} run may only allocate what the applicability filter needs to build
+ * its candidate list (the result lists keep their capacity across {@link Specification#reset()}).
+ */
+public class PassPathAllocationTest {
+
+    private static final int ELEMENTS = 20_000;
+    private static final int WARMUP_ROUNDS = 30;
+    /** Bytes per passing element; below one byte means no allocation beyond measurement noise. */
+    private static final double MATCHES_BUDGET = 1.0;
+    /** Bytes per passing element: one candidate list reference plus array growth. */
+    private static final double VALIDATE_BUDGET = 48.0;
+
+    private static IfcModelInterface model;
+    private static SProject project;
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("thread allocation accounting unavailable", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        model = WallFixtures.walls(ELEMENTS, i -> true);
+        project = WallFixtures.project();
+    }
+
+    @Test
+    public void passingMatchesDoNotAllocate() {
+        Entity entity = new Entity(new SimpleValue("IFCWALL"), null, null);
+        Attribute attribute = new Attribute(new SimpleValue("Name"), null, null, null);
+        EmfModelAccess access = new EmfModelAccess(model);
+        List<IdEObject> walls = entity.filter(access);
+        assertEquals(ELEMENTS, walls.size());
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) matchAll(access, walls, entity, attribute);
+
+        long bytes = allocatedBy(() -> matchAll(access, walls, entity, attribute));
+        double perElement = bytes / (double) ELEMENTS;
+        assertTrue("passing matches() allocated " + perElement + " B/element", perElement < MATCHES_BUDGET);
+    }
+
+    @Test
+    public void passingValidateAllocatesOnlyTheCandidateList() {
+        Specification spec = WallFixtures.namedWalls().getSpecifications().get(0);
+        spec.getRequirements().add(new Entity(new SimpleValue("IFCWALL"), null, null));
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            spec.reset();
+            spec.validate(project, model);
+        }
+        spec.reset();
+
+        long bytes = allocatedBy(() -> spec.validate(project, model));
+        double perElement = bytes / (double) ELEMENTS;
+
+        assertTrue(spec.getStatus());
+        assertEquals(2 * ELEMENTS, spec.getPassed_entities().size());
+        assertTrue("validate() allocated " + perElement + " B/element", perElement < VALIDATE_BUDGET);
+    }
+
+    private static void matchAll(EmfModelAccess access, List<IdEObject> elements, Facet... facets) {
+        for (int i = 0; i < elements.size(); i++) {
+            for (Facet f : facets) {
+                if (!f.matches(access, elements.get(i)).isPass()) throw new AssertionError("expected a pass");
+            }
+        }
+    }
+
+    private static long allocatedBy(Runnable work) {
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        work.run();
+        return threads.getThreadAllocatedBytes(tid) - before;
+    }
+}
@@ -0,0 +1,268 @@
+package de.openfabtwin.bimserver.idschecker.model.access;
+
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Classification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Material;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+import de.openfabtwin.bimserver.idschecker.model.result.Result.Reason;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** The facets evaluated on a backend that is not EMF: plain nodes in maps. */
+public class ModelAccessTest {
+
+    private MapModel model;
+    private Node wall;
+    private Node slab;
+    private Node wallType;
+    private Node storey;
+
+    @Before
+    public void setUp() {
+        model = new MapModel();
+        storey = model.add("IfcBuildingStorey", "Name", "Level 1");
+        wallType = model.add("IfcWallType", "Name", "WT-01", "PredefinedType", "SOLIDWALL");
+        wall = model.add("IfcWall", "Name", "Wall 1", "GlobalId", "2O2Fr$t4X7Zf8NOew3FLOH", "PredefinedType", "NOTDEFINED");
+        slab = model.add("IfcSlab", "Name", "Slab 1", "PredefinedType", "FLOOR");
+
+        model.relate("IfcRelDefinesByType", "RelatingType", wallType, "IsTypedBy", wall);
+        model.relate("IfcRelContainedInSpatialStructure", "RelatingStructure", storey, "ContainedInStructure", wall, slab);
+
+        Node common = model.add("IfcPropertySet", "Name", "Pset_WallCommon", "HasProperties", List.of(
+                model.add("IfcPropertySingleValue", "Name", "IsExternal", "NominalValue", model.add("IfcBoolean", "wrappedValue", true))));
+        model.relate("IfcRelDefinesByProperties", "RelatingPropertyDefinition", common, "IsDefinedBy", wall);
+        Node typeSet = model.add("IfcPropertySet", "Name", "Pset_WallCommon", "HasProperties", List.of(
+                model.add("IfcPropertySingleValue", "Name", "FireRating", "NominalValue", model.add("IfcLabel", "wrappedValue", "EI60"))));
+        wallType.values.put("HasPropertySets", List.of(typeSet));
+
+        model.relate("IfcRelAssociatesMaterial", "RelatingMaterial",
+                model.add("IfcMaterial", "Name", "Concrete", "Category", "concrete"), "HasAssociations", wall);
+        Node system = model.add("IfcClassification", "Name", "Uniclass");
+        model.relate("IfcRelAssociatesClassification", "RelatingClassification",
+                model.add("IfcClassificationReference", "Identification", "EF_25_10", "ReferencedSource", system), "HasAssociations", slab);
+    }
+
+    @Test
+    public void entityFiltersAndMatchesThroughTheTypeObject() {
+        Entity walls = new Entity(new SimpleValue("IFCWALL"), null, null);
+        assertEquals(List.of(wall), walls.filter(model));
+
+        Entity solid = new Entity(new SimpleValue("IFCWALL"), new SimpleValue("SOLIDWALL"), null);
+        assertTrue(solid.matches(model, wall).isPass());
+        assertEquals(Reason.NAME, solid.matches(model, slab).getReason());
+    }
+
+    @Test
+    public void attributeReadsExplicitAttributesOnly() {
+        assertTrue(new Attribute(new SimpleValue("Name"), new SimpleValue("Wall 1"), null, null).matches(model, wall).isPass());
+        assertFalse(new Attribute(new SimpleValue("Name"), new SimpleValue("Wall 2"), null, null).matches(model, wall).isPass());
+        // an inverse attribute is not an attribute a facet can check
+        assertEquals(Reason.NOVALUE, new Attribute(new SimpleValue("IsTypedBy"), null, null, null).matches(model, wall).getReason());
+    }
+
+    @Test
+    public void propertyMergesOccurrenceAndTypeSets() {
+        Property external = new Property(new SimpleValue("Pset_WallCommon"), new SimpleValue("IsExternal"),
+                new SimpleValue("true"), "IFCBOOLEAN", null, null, null);
+        Property fireRating = new Property(new SimpleValue("Pset_WallCommon"), new SimpleValue("FireRating"),
+                new SimpleValue("EI60"), null, null, null, null);
+
+        assertTrue(external.matches(model, wall).isPass());
+        assertTrue(fireRating.matches(model, wall).isPass());
+        assertEquals(Reason.NOPSET, fireRating.matches(model, slab).getReason());
+    }
+
+    @Test
+    public void relationshipsAreNavigatedFromTheRelatedSide() {
+        assertTrue(new Material(new SimpleValue("Concrete"), null, null, null).matches(model, wall).isPass());
+        assertFalse(new Material(null, null, null, null).matches(model, slab).isPass());
+
+        Classification uniclass = new Classification(new SimpleValue("Uniclass"), new SimpleValue("EF_25_10"), null, null, null);
+        assertEquals(List.of(slab), uniclass.filter(model));
+        assertTrue(uniclass.matches(model, slab).isPass());
+
+        PartOf onStorey = new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IfcRelContainedInSpatialStructure", null, null);
+        assertTrue(onStorey.matches(model, wall).isPass());
+        assertEquals(storey, model.relating(slab, Relationship.CONTAINMENT));
+        assertNull(model.relating(storey, Relationship.CONTAINMENT));
+    }
+
+    /** An element of {@link MapModel}: its class and attribute values, inverse attributes included. */
+    static final class Node {
+        final long id;
+        final String cls;
+        final Map<String, Object> values = new HashMap<>();
+
+        Node(long id, String cls) {
+            this.id = id;
+            this.cls = cls;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + id + "=" + cls;
+        }
+    }
+
+    /** Just enough of the IFC4 schema for the facets above. */
+    static final class MapModel implements ModelAccess<Node> {
+        private static final Map<String, String> SUPERTYPE = Map.ofEntries(
+                Map.entry("IfcObjectDefinition", "IfcRoot"),
+                Map.entry("IfcObject", "IfcObjectDefinition"),
+                Map.entry("IfcTypeObject", "IfcObjectDefinition"),
+                Map.entry("IfcWallType", "IfcTypeObject"),
+                Map.entry("IfcProduct", "IfcObject"),
+                Map.entry("IfcElement", "IfcProduct"),
+                Map.entry("IfcBuildingElement", "IfcElement"),
+                Map.entry("IfcWall", "IfcBuildingElement"),
+                Map.entry("IfcSlab", "IfcBuildingElement"),
+                Map.entry("IfcBuildingStorey", "IfcProduct"),
+                Map.entry("IfcRelDefinesByType", "IfcRoot"),
+                Map.entry("IfcRelDefinesByProperties", "IfcRoot"),
+                Map.entry("IfcRelAssociatesMaterial", "IfcRoot"),
+                Map.entry("IfcRelAssociatesClassification", "IfcRoot"),
+                Map.entry("IfcRelContainedInSpatialStructure", "IfcRoot"),
+                Map.entry("IfcPropertySet", "IfcRoot"));
+        private static final Map<String, List<String>> ATTRIBUTES = Map.ofEntries(
+                Map.entry("IfcRoot", List.of("GlobalId", "Name")),
+                Map.entry("IfcObject", List.of("ObjectType")),
+                Map.entry("IfcWall", List.of("PredefinedType")),
+                Map.entry("IfcSlab", List.of("PredefinedType")),
+                Map.entry("IfcWallType", List.of("PredefinedType")),
+                Map.entry("IfcPropertySet", List.of("HasProperties")),
+                Map.entry("IfcPropertySingleValue", List.of("Name", "NominalValue")),
+                Map.entry("IfcMaterial", List.of("Name", "Category")),
+                Map.entry("IfcClassification", List.of("Name")),
+                Map.entry("IfcClassificationReference", List.of("Identification", "ReferencedSource")),
+                Map.entry("IfcBoolean", List.of("wrappedValue")),
+                Map.entry("IfcLabel", List.of("wrappedValue")));
+        private static final Set<String> RELATED = Set.of("RelatedObjects", "RelatedElements");
+
+        private final Map<String, List<Node>> byClass = new LinkedHashMap<>();
+        private long nextId = 1;
+
+        Node add(String cls, Object... values) {
+            Node node = new Node(nextId++, cls);
+            for (int i = 0; i < values.length; i += 2) node.values.put((String) values[i], values[i + 1]);
+            byClass.computeIfAbsent(cls, k -> new ArrayList<>()).add(node);
+            return node;
+        }
+
+        @SuppressWarnings("unchecked")
+        void relate(String relClass, String relatingAttribute, Node relating, String inverse, Node... related) {
+            Node rel = add(relClass, relatingAttribute, relating,
+                    "IfcRelContainedInSpatialStructure".equals(relClass) ? "RelatedElements" : "RelatedObjects", List.of(related));
+            for (Node node : related) {
+                ((List<Node>) node.values.computeIfAbsent(inverse, k -> new ArrayList<Node>())).add(rel);
+            }
+        }
+
+        @Override
+        public String getSchema() {
+            return "IFC4";
+        }
+
+        @Override
+        public List<String> getClassNames() {
+            Set<String> names = new LinkedHashSet<>(SUPERTYPE.keySet());
+            names.addAll(SUPERTYPE.values());
+            names.addAll(ATTRIBUTES.keySet());
+            return new ArrayList<>(names);
+        }
+
+        @Override
+        public boolean isSubtype(String ifcClass, String superClass) {
+            for (String c = ifcClass; c != null; c = SUPERTYPE.get(c)) {
+                if (c.equals(superClass)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public List<String> getAttributeNames(String ifcClass) {
+            List<String> names = new ArrayList<>();
+            for (String c = ifcClass; c != null; c = SUPERTYPE.get(c)) {
+                names.addAll(0, ATTRIBUTES.getOrDefault(c, List.of()));
+            }
+            for (String r : RELATED) if (ifcClass.startsWith("IfcRel")) names.add(r);
+            return names;
+        }
+
+        @Override
+        public boolean isIntegerAttribute(String ifcClass, String attribute) {
+            return false;
+        }
+
+        @Override
+        public List<Node> instances(String ifcClass) {
+            List<Node> out = new ArrayList<>();
+            byClass.forEach((cls, nodes) -> {
+                if (isSubtype(cls, ifcClass)) out.addAll(nodes);
+            });
+            return out;
+        }
+
+        @Override
+        public long id(Node element) {
+            return element.id;
+        }
+
+        @Override
+        public String className(Node element) {
+            return element.cls;
+        }
+
+        @Override
+        public Object value(Node element, String attribute) {
+            return element.values.get(attribute);
+        }
+
+        @Override
+        public String string(Node element, String attribute) {
+            Object v = element.values.get(attribute);
+            if (v == null || v instanceof Node || v instanceof List) return null;
+            String s = v.toString().trim();
+            return s.isEmpty() ? null : s;
+        }
+
+        @Override
+        public Node reference(Node element, String attribute) {
+            return element.values.get(attribute) instanceof Node n ? n : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Node> references(Node element, String attribute) {
+            Object v = element.values.get(attribute);
+            if (v instanceof Node n) return List.of(n);
+            return v instanceof List<?> list ? (List<Node>) list : List.of();
+        }
+
+        @Override
+        public Node element(Object value) {
+            return value instanceof Node n ? n : null;
+        }
+
+        @Override
+        public Object unwrap(Object value) {
+            while (value instanceof Node n && n.values.containsKey("wrappedValue")) value = n.values.get("wrappedValue");
+            return value;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedWalls;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BcfReportTest {
+
+    private static Map<String, String> unzip(byte[] data) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(data))) {
+            for (ZipEntry e = in.getNextEntry(); e != null; e = in.getNextEntry()) {
+                entries.put(e.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static Map<String, String> render(BcfReport report) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.report(out);
+        return unzip(out.toByteArray());
+    }
+
+    @Test
+    public void oneTopicPerFailingElement() throws Exception {
+        BcfReport report = new BcfReport(validatedWalls());
+        Map<String, String> entries = render(report);
+
+        assertEquals(3, report.getTopics());
+        assertEquals(1 + 3 * 2, entries.size());
+        assertTrue(entries.get("bcf.version").contains("VersionId=\"2.1\""));
+        long viewpoints = entries.entrySet().stream()
+                .filter(e -> e.getKey().endsWith("/viewpoint.bcfv"))
+                .filter(e -> e.getValue().contains("IfcGuid=\"0wall"))
+                .count();
+        assertEquals(3, viewpoints);
+    }
+
+    @Test
+    public void requirementGroupingSelectsAllFailures() throws Exception {
+        BcfReport report = new BcfReport(validatedWalls()).setGrouping(BcfReport.Grouping.REQUIREMENT);
+        Map<String, String> entries = render(report);
+
+        assertEquals(1, report.getTopics());
+        String viewpoint = entries.entrySet().stream()
+                .filter(e -> e.getKey().endsWith("/viewpoint.bcfv"))
+                .findFirst().orElseThrow().getValue();
+        assertEquals(3, viewpoint.split("<Component ", -1).length - 1);
+    }
+
+    @Test
+    public void topicGuidsAreStableAcrossRuns() throws Exception {
+        assertEquals(render(new BcfReport(validatedWalls()).setRevision("1/2")).keySet(),
+                render(new BcfReport(validatedWalls()).setRevision("1/2")).keySet());
+    }
+
+    @Test
+    public void topicGuidsDifferBetweenRevisionsAndIdsFiles() throws Exception {
+        Set<String> topics = render(new BcfReport(validatedWalls()).setRevision("1/2")).keySet();
+
+        Set<String> otherRevision = new HashSet<>(render(new BcfReport(validatedWalls()).setRevision("1/3")).keySet());
+        otherRevision.retainAll(topics);
+        assertEquals(Set.of("bcf.version"), otherRevision);
+
+        Ids renamed = validatedWalls();
+        renamed.getInfo().put("title", "Other walls");
+        Set<String> otherIds = new HashSet<>(render(new BcfReport(renamed).setRevision("1/2")).keySet());
+        otherIds.retainAll(topics);
+        assertEquals(Set.of("bcf.version"), otherIds);
+    }
+}
@@ -0,0 +1,54 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedWalls;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlReportTest {
+
+    private static final Pattern DATA_BLOCK =
+            Pattern.compile("<script type=\"application/json\" id=\"(b\\d+)\">(.*?)</script>", Pattern.DOTALL);
+
+    private static String render(Reporter reporter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reporter.report(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void elementListsAreDeferredToJsonDataBlocks() throws Exception {
+        String html = render(new HtmlReport(validatedWalls()));
+
+        assertTrue(html.contains("Specifications passed"));
+        // No element rows are rendered server-side; the tables start empty.
+        assertFalse(html.contains("<td"));
+
+        Matcher m = DATA_BLOCK.matcher(html);
+        assertTrue(m.find());
+        JsonNode failures = new ObjectMapper().readTree(m.group(2).getBytes(StandardCharsets.UTF_8));
+        assertEquals(3, failures.size());
+        assertEquals("IfcWall", failures.get(0).get(1).asText());
+        assertEquals("NOVALUE", failures.get(0).get(3).asText());
+
+        assertTrue(m.find());
+        assertEquals(2, new ObjectMapper().readTree(m.group(2).getBytes(StandardCharsets.UTF_8)).size());
+        assertFalse(m.find());
+    }
+
+    @Test
+    public void summaryDetailWritesNoDataBlocks() throws Exception {
+        String html = render(new HtmlReport(validatedWalls()).setDetail(Reporter.Detail.SUMMARY));
+        assertFalse(DATA_BLOCK.matcher(html).find());
+        assertTrue(html.contains("2 passed, 3 failed"));
+    }
+}
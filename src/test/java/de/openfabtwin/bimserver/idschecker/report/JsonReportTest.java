@@ -0,0 +1,71 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedSources;
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedWalls;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonReportTest {
+
+    private static JsonNode render(Reporter reporter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reporter.report(out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+
+    @Test
+    public void failuresCarryReasonCodesAndElementIdentity() throws Exception {
+        JsonNode report = render(new JsonReport(validatedWalls()));
+
+        assertEquals("FAIL", report.get("summary").get("status").asText());
+        assertEquals("Wände – sample", report.get("info").get("title").asText());
+
+        JsonNode requirement = report.get("specifications").get(0).get("requirements").get(0);
+        assertEquals("Attribute", requirement.get("facet").asText());
+        assertFalse(requirement.get("status").asBoolean());
+        assertEquals(2, requirement.get("passed").asInt());
+        assertEquals(3, requirement.get("failed").asInt());
+        assertEquals(2, requirement.get("passedElements").size());
+
+        JsonNode failure = requirement.get("failures").get(0);
+        assertEquals("NOVALUE", failure.get("reason").asText());
+        assertEquals("IfcWall", failure.get("type").asText());
+        assertTrue(failure.get("guid").asText().startsWith("0wall"));
+        assertTrue(failure.get("oid").asLong() > 0);
+        assertTrue(failure.has("message"));
+    }
+
+    @Test
+    public void detailAndCapLimitListsButNotCounts() throws Exception {
+        JsonNode requirement = render(new JsonReport(validatedWalls())
+                .setDetail(Reporter.Detail.FAILURES)
+                .setMaxListedElements(1))
+                .get("specifications").get(0).get("requirements").get(0);
+
+        assertFalse(requirement.has("passedElements"));
+        assertEquals(1, requirement.get("failures").size());
+        assertEquals(3, requirement.get("failed").asInt());
+    }
+
+    @Test
+    public void severalSourcesAreReportedAsSections() throws Exception {
+        JsonNode report = render(new JsonReport(validatedSources()));
+
+        assertEquals("FAIL", report.get("summary").get("status").asText());
+        assertEquals(2, report.get("summary").get("specifications").asInt());
+        assertEquals(1, report.get("summary").get("passed").asInt());
+
+        JsonNode sources = report.get("sources");
+        assertEquals(2, sources.size());
+        assertEquals("Identifiers", sources.get(1).get("info").get("title").asText());
+        assertEquals("PASS", sources.get(1).get("summary").get("status").asText());
+        assertEquals(5, sources.get(1).get("specifications").get(0).get("requirements").get(0).get("passed").asInt());
+    }
+}
@@ -0,0 +1,59 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReportCompressionTest {
+
+    private static final String TEXT = "[F] Class: IfcWall | Name: - | GUID: 0wall\n".repeat(1000);
+
+    private static byte[] compress(ReportCompression compression) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = compression.wrap(buffer, "result.txt")) {
+            out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
+
+    @Test
+    public void gzipRoundTrips() throws Exception {
+        byte[] data = compress(ReportCompression.GZIP);
+        assertTrue(data.length < TEXT.length() / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            assertEquals(TEXT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void zipHoldsASingleEntry() throws Exception {
+        byte[] data = compress(ReportCompression.ZIP);
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(data))) {
+            ZipEntry entry = in.getNextEntry();
+            assertEquals("result.txt", entry.getName());
+            assertEquals(TEXT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void namesAndTypes() {
+        assertEquals("result.txt", ReportCompression.NONE.fileName("result.txt"));
+        assertEquals("result.txt.gz", ReportCompression.GZIP.fileName("result.txt"));
+        assertEquals("result.zip", ReportCompression.ZIP.fileName("result.txt"));
+        assertEquals("text/plain", ReportCompression.NONE.mime("text/plain"));
+        assertEquals("application/gzip", ReportCompression.GZIP.mime("text/plain"));
+        assertEquals(ReportCompression.GZIP, ReportCompression.fromString(" gzip "));
+        assertEquals(ReportCompression.NONE, ReportCompression.fromString(null));
+    }
+}
@@ -0,0 +1,56 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.synthetic.WallFixtures;
+import org.bimserver.ifc.BasicIfcModel;
+
+import java.util.List;
+
+/** Shared IDS and model fixtures for the reporter tests. */
+final class ReportFixtures {
+
+    private ReportFixtures() {}
+
+    /** One IFC4 specification: every IfcWall must have a Name. */
+    static Ids sampleIds() {
+        Ids ids = WallFixtures.namedWalls();
+        ids.getInfo().put("title", "Wände – sample");
+        return ids;
+    }
+
+    /** Five IFC4 walls of which the first two have a name, validated against {@link #sampleIds()}. */
+    static Ids validatedWalls() throws Exception {
+        Ids ids = sampleIds();
+        ids.validate(WallFixtures.project(), walls());
+        return ids;
+    }
+
+    /**
+     * The walls of {@link #validatedWalls()} checked against two IDS documents: {@link #sampleIds()}
+     * and one requiring a GlobalId, which all walls pass.
+     */
+    static List<Ids> validatedSources() throws Exception {
+        Ids guids = new Ids();
+        guids.getInfo().put("title", "Identifiers");
+        Specification spec = new Specification();
+        spec.setName("Walls have a GlobalId");
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4);
+        spec.setMinOccurs("1");
+        spec.getApplicability().add(new Entity(new SimpleValue("IFCWALL"), null, null));
+        spec.getRequirements().add(new Attribute(new SimpleValue("GlobalId"), null, null, null));
+        guids.getSpecifications().add(spec);
+
+        BasicIfcModel model = walls();
+        List<Ids> sources = List.of(sampleIds(), guids);
+        for (Ids ids : sources) ids.validate(WallFixtures.project(), model);
+        return sources;
+    }
+
+    private static BasicIfcModel walls() throws Exception {
+        return WallFixtures.walls(5, i -> i < 2);
+    }
+}
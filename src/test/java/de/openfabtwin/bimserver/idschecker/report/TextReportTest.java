@@ -0,0 +1,92 @@
+package de.openfabtwin.bimserver.idschecker.report;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.sampleIds;
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedSources;
+import static de.openfabtwin.bimserver.idschecker.report.ReportFixtures.validatedWalls;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TextReportTest {
+
+    @Test
+    public void streamedReportMatchesInMemoryReport() throws Exception {
+        TextReport inMemory = new TextReport(sampleIds());
+        inMemory.report();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextReport(sampleIds()).report(out);
+
+        String streamed = out.toString(StandardCharsets.UTF_8);
+        assertEquals(inMemory.to_string(), streamed);
+        assertTrue(streamed.contains("title: Wände – sample"));
+        assertTrue(streamed.contains("[FAIL]"));
+    }
+
+    private static String render(Reporter reporter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reporter.report(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int count(String text, String token) {
+        int n = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) n++;
+        return n;
+    }
+
+    @Test
+    public void fullDetailListsEveryElement() throws Exception {
+        String text = render(new TextReport(validatedWalls()));
+        assertEquals(2, count(text, "[P] Class"));
+        assertEquals(3, count(text, "[F] "));
+        assertFalse(text.contains("more"));
+    }
+
+    @Test
+    public void failuresDetailOmitsPassedElements() throws Exception {
+        String text = render(new TextReport(validatedWalls()).setDetail(Reporter.Detail.FAILURES));
+        assertEquals(0, count(text, "[P] "));
+        assertEquals(3, count(text, "[F] "));
+    }
+
+    @Test
+    public void summaryDetailOnlyCountsOutcomes() throws Exception {
+        String text = render(new TextReport(validatedWalls()).setDetail(Reporter.Detail.SUMMARY));
+        assertEquals(0, count(text, "[P] "));
+        assertEquals(0, count(text, "[F] "));
+        assertTrue(text.contains("Passed: 2 | Failed: 3"));
+    }
+
+    @Test
+    public void capSummarisesTheRemainder() throws Exception {
+        String text = render(new TextReport(validatedWalls()).setMaxListedElements(1));
+        assertEquals(1, count(text, "[P] Class"));
+        assertTrue(text.contains("[P] ... and 1 more"));
+        assertTrue(text.contains("[F] ... and 2 more"));
+    }
+
+    @Test
+    public void detailParsesSettingValues() {
+        assertEquals(Reporter.Detail.FULL, Reporter.Detail.fromString(null));
+        assertEquals(Reporter.Detail.SUMMARY, Reporter.Detail.fromString(" summary "));
+        assertEquals(Reporter.Detail.FAILURES, Reporter.Detail.fromString("FAILURES"));
+    }
+
+    @Test
+    public void severalSourcesGetACombinedSummaryAndOneSectionEach() throws Exception {
+        String text = render(new TextReport(validatedSources()));
+
+        assertTrue(text.contains("Specifications passed: 1/2"));
+        assertTrue(text.contains("IDS documents: 2"));
+        assertTrue(text.contains("IDS 1/2: Wände – sample"));
+        assertTrue(text.contains("IDS 2/2: Identifiers"));
+        assertTrue(text.indexOf("Walls have a name") < text.indexOf("IDS 2/2"));
+        assertTrue(text.indexOf("Walls have a GlobalId") > text.indexOf("IDS 2/2"));
+    }
+}
@@ -0,0 +1,62 @@
+package de.openfabtwin.bimserver.idschecker.spill;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.FacetFailure;
+import de.openfabtwin.bimserver.idschecker.report.TextReport;
+import de.openfabtwin.bimserver.idschecker.synthetic.WallFixtures;
+import org.bimserver.ifc.BasicIfcModel;
+import org.bimserver.interfaces.objects.SProject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResultBudgetTest {
+
+    private static BasicIfcModel model;
+    private static SProject project;
+
+    /** 200 IFC4 walls; every third one lacks a name. */
+    @BeforeClass
+    public static void setUp() throws Exception {
+        model = WallFixtures.walls(200, i -> i % 3 != 0);
+        project = WallFixtures.project();
+    }
+
+    private static Ids ids() {
+        return WallFixtures.namedWalls();
+    }
+
+    private static String report(Ids ids) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextReport(ids).report(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void spilledResultsReportLikeInMemoryOnes() throws Exception {
+        Ids inMemory = ids();
+        inMemory.validate(project, model);
+
+        try (ResultBudget budget = new ResultBudget(1024, Files.createTempDirectory("ids-spill-"), model::get)) {
+            Ids spilled = ids();
+            spilled.setResultBudget(budget);
+            spilled.validate(project, model);
+
+            assertTrue(budget.getSpilled() > 0);
+            assertTrue(budget.getUsed() <= 1024);
+            assertEquals(report(inMemory), report(spilled));
+
+            Facet requirement = spilled.getSpecifications().get(0).getRequirements().get(0);
+            FacetFailure last = requirement.getFailures().get(requirement.getFailures().size() - 1);
+            assertSame(model.get(199L), last.getElement());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.openfabtwin.bimserver.idschecker.spill;
+
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillableListTest {
+
+    private static final SpillableList.Codec<String> STRINGS = new SpillableList.Codec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    private static long spillFiles(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void entriesBeyondTheBudgetAreReadBackInOrder() throws Exception {
+        Path dir = Files.createTempDirectory("ids-spill-");
+        try (ResultBudget budget = new ResultBudget(10 * 16, dir, oid -> null)) {
+            List<String> list = budget.list(16, STRINGS);
+            for (int i = 0; i < 1000; i++) list.add("e" + i);
+
+            assertEquals(1000, list.size());
+            assertTrue(((SpillableList<String>) list).isSpilled());
+            assertEquals(990, budget.getSpilled());
+            assertEquals(new ArrayList<>(list), list);
+            assertEquals("e500", list.get(500));
+            assertEquals("e20", list.get(20));     // going back restarts the spill
+            assertEquals("e999", list.get(999));
+            assertEquals(1, spillFiles(dir));
+        }
+        assertEquals(0, spillFiles(dir));
+    }
+
+    @Test
+    public void appendsAfterReadingAreVisible() throws Exception {
+        Path dir = Files.createTempDirectory("ids-spill-");
+        try (ResultBudget budget = new ResultBudget(0, dir, oid -> null)) {
+            List<String> list = budget.list(16, STRINGS);
+            list.add("a");
+            assertEquals("a", list.get(0));
+            list.add("b");
+            assertEquals(List.of("a", "b"), new ArrayList<>(list));
+        }
+    }
+
+    @Test
+    public void clearReleasesTheBudgetAndDeletesTheSpill() throws Exception {
+        Path dir = Files.createTempDirectory("ids-spill-");
+        try (ResultBudget budget = new ResultBudget(4 * 16, dir, oid -> null)) {
+            List<String> first = budget.list(16, STRINGS);
+            for (int i = 0; i < 10; i++) first.add("x" + i);
+            assertEquals(64, budget.getUsed());
+
+            first.clear();
+            assertEquals(0, budget.getUsed());
+            assertEquals(0, spillFiles(dir));
+            assertFalse(((SpillableList<String>) first).isSpilled());
+
+            List<String> second = budget.list(16, STRINGS);
+            second.add("y");
+            assertFalse(((SpillableList<String>) second).isSpilled());
+        }
+    }
+}
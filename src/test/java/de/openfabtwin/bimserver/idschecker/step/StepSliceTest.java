@@ -0,0 +1,98 @@
+package de.openfabtwin.bimserver.idschecker.step;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StepSliceTest {
+
+    private static final String FILE = String.join("\n",
+            "ISO-10303-21;",
+            "HEADER;",
+            "FILE_DESCRIPTION(('ViewDefinition [CoordinationView]'),'2;1');",
+            "FILE_SCHEMA(('IFC4'));",
+            "ENDSEC;",
+            "DATA;",
+            "/* geometry first */",
+            "#1=IFCCARTESIANPOINT((0.,0.,0.));",
+            "#2=IFCAXIS2PLACEMENT3D(#1,$,$);",
+            "#3=IFCLOCALPLACEMENT($,#2);",
+            "#10= IFCWALL('2O2Fr$t4X7Zf8NOew3FLOH',$,'Wall; north',",
+            "  'It''s #4',#3,#11,$,.STANDARD.);",
+            "#11=IFCPRODUCTDEFINITIONSHAPE($,$,(#12));",
+            "#12=IFCSHAPEREPRESENTATION(#13,'Body','SweptSolid',(#1));",
+            "#20=IFCPROPERTYSINGLEVALUE('FireRating',$,IFCLABEL('EI60'),$);",
+            "#21=IFCPROPERTYSET('1fX2j0aGz0$RmYz7nfQeIz',$,'Pset_WallCommon',$,(#20,#22));",
+            "#22=IFCPROPERTYSINGLEVALUE('IsExternal',$,IFCBOOLEAN(.T.),$);",
+            "#30=IFCRELDEFINESBYPROPERTIES('0Kt2bRJAH4jwpNX_$Wp7q3',$,$,$,(#10,#1),#21);",
+            "ENDSEC;",
+            "END-ISO-10303-21;");
+
+    private static final Set<String> KEEP = Set.of("IFCWALL", "IFCPROPERTYSET", "IFCPROPERTYSINGLEVALUE", "IFCRELDEFINESBYPROPERTIES");
+
+    @Test
+    public void indexHasTheTypeOfEveryInstance() throws IOException {
+        StepIndex index = StepIndex.build(stream(FILE));
+
+        assertEquals(10, index.size());
+        assertEquals("IFCWALL", index.type(10));
+        assertEquals("IFCCARTESIANPOINT", index.type(1));
+        assertEquals("IFCRELDEFINESBYPROPERTIES", index.type(30));
+        assertNull(index.type(13));
+        assertEquals(-1, index.code(99));
+    }
+
+    @Test
+    public void indexGrows() {
+        StepIndex index = new StepIndex();
+        for (int id = 1; id <= 100_000; id++) index.put(id * 7, id % 2 == 0 ? "IFCWALL" : "IFCSLAB");
+
+        assertEquals(100_000, index.size());
+        assertEquals(2, index.getTypes().size());
+        assertEquals("IFCWALL", index.type(14));
+        assertEquals("IFCSLAB", index.type(700_000 - 7));
+        assertNull(index.type(15));
+    }
+
+    @Test
+    public void sliceKeepsOnlyTheRequestedTypes() throws IOException {
+        StepIndex index = StepIndex.build(stream(FILE));
+        StringWriter out = new StringWriter();
+        int written = StepSlice.write(stream(FILE), index, KEEP::contains, out);
+        String slice = out.toString();
+
+        assertEquals(5, written);
+        assertTrue(slice.startsWith("ISO-10303-21;\nHEADER;\nFILE_DESCRIPTION(('ViewDefinition [CoordinationView]'),'2;1');\n"));
+        assertTrue(slice.contains("FILE_SCHEMA(('IFC4'));\nENDSEC;\nDATA;\n"));
+        assertTrue(slice.endsWith("ENDSEC;\nEND-ISO-10303-21;\n"));
+        // references to dropped instances become $, strings and enums stay as they were
+        assertTrue(slice, slice.contains("#10=IFCWALL('2O2Fr$t4X7Zf8NOew3FLOH',$,'Wall; north','It''s #4',$,$,$,.STANDARD.);\n"));
+        assertTrue(slice.contains("#21=IFCPROPERTYSET('1fX2j0aGz0$RmYz7nfQeIz',$,'Pset_WallCommon',$,(#20,#22));\n"));
+        assertTrue(slice.contains("#20=IFCPROPERTYSINGLEVALUE('FireRating',$,IFCLABEL('EI60'),$);\n"));
+        // a dropped list element disappears
+        assertTrue(slice.contains("#30=IFCRELDEFINESBYPROPERTIES('0Kt2bRJAH4jwpNX_$Wp7q3',$,$,$,(#10),#21);\n"));
+        assertFalse(slice.contains("IFCCARTESIANPOINT"));
+        assertFalse(slice.contains("IFCSHAPEREPRESENTATION"));
+    }
+
+    @Test
+    public void pruneHandlesNestedAndTypedParameters() {
+        assertEquals("((#2),()),IFCREAL(1.5),$,*,-3.E-2", StepSlice.prune("((#1, #2),(#3)), IFCREAL(1.5), #3, *, -3.E-2", id -> id == 2));
+        assertEquals("'a'',(#9)'", StepSlice.prune("'a'',(#9)'", id -> false));
+        assertEquals("", StepSlice.prune("", id -> true));
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,70 @@
+package de.openfabtwin.bimserver.idschecker.store;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OidBitmapTest {
+
+    private static OidBitmap roundTrip(OidBitmap bitmap) {
+        ByteBuffer buf = ByteBuffer.allocate(bitmap.serializedSize());
+        bitmap.writeTo(buf);
+        assertFalse(buf.hasRemaining());
+        return OidBitmap.readFrom(buf.flip());
+    }
+
+    private static List<Long> toList(OidBitmap bitmap) {
+        List<Long> oids = new ArrayList<>();
+        bitmap.forEach(oids::add);
+        return oids;
+    }
+
+    @Test
+    public void sparseAndDenseContainersRoundTrip() {
+        TreeSet<Long> expected = new TreeSet<>();
+        OidBitmap bitmap = new OidBitmap();
+        Random random = new Random(7);
+        // Sparse oids spread over many keys, and one dense key that switches to a bitmap container.
+        for (int i = 0; i < 2000; i++) {
+            long oid = random.nextLong() >>> 4;
+            expected.add(oid);
+            bitmap.add(oid);
+        }
+        for (long oid = 5L << 16; oid < (5L << 16) + 10_000; oid++) {
+            expected.add(oid);
+            bitmap.add(oid);
+        }
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertEquals(new ArrayList<>(expected), toList(bitmap));
+        OidBitmap copy = roundTrip(bitmap);
+        assertEquals(new ArrayList<>(expected), toList(copy));
+        for (long oid : expected) assertTrue(copy.contains(oid));
+        assertFalse(copy.contains((5L << 16) + 10_000));
+    }
+
+    @Test
+    public void denseRunsCostAboutOneBitPerOid() {
+        OidBitmap bitmap = new OidBitmap();
+        for (long oid = 0; oid < 1_000_000; oid++) bitmap.add(oid);
+        // 16 bitmap containers of 8 KiB each, against 8 MB for a long[].
+        assertTrue(bitmap.serializedSize() < 1_000_000 / 7);
+    }
+
+    @Test
+    public void duplicatesAreIgnored() {
+        OidBitmap bitmap = new OidBitmap();
+        assertTrue(bitmap.add(42));
+        assertFalse(bitmap.add(42));
+        assertEquals(1, bitmap.cardinality());
+        assertTrue(roundTrip(new OidBitmap()).isEmpty());
+    }
+}
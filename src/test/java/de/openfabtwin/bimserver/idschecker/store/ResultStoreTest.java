@@ -0,0 +1,92 @@
+package de.openfabtwin.bimserver.idschecker.store;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.synthetic.WallFixtures;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResultStoreTest {
+
+    /** Five IFC4 walls (oids 1..5) of which {@code unnamed} fail the Name requirement. */
+    private static Ids validated(int unnamed) throws Exception {
+        Ids ids = WallFixtures.namedWalls();
+        ids.validate(WallFixtures.project(), WallFixtures.walls(5, i -> i >= unnamed));
+        return ids;
+    }
+
+    @Test
+    public void outcomesSurviveReopening() throws Exception {
+        Path dir = Files.createTempDirectory("ids-store-");
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.append(1, 100, validated(3));
+            store.append(1, 101, validated(1));
+        }
+        try (ResultStore store = ResultStore.open(dir)) {
+            assertEquals(List.of(100L, 101L), store.revisions(1));
+            List<ResultStore.Entry> entries = store.read(1, 100);
+            assertEquals(2, entries.size());
+            ResultStore.Entry spec = entries.get(0);
+            assertEquals(-1, spec.requirement());
+            assertEquals(WallFixtures.SPECIFICATION, spec.name());
+            assertEquals(2, spec.passed().cardinality());
+            assertEquals(3, spec.failed().cardinality());
+            assertTrue(spec.failed().contains(1) && spec.failed().contains(3));
+            assertEquals("Attribute", entries.get(1).name());
+            assertEquals(1, store.read(1, 101).get(1).failed().cardinality());
+        }
+    }
+
+    @Test
+    public void trendComparesWithThePreviousRevision() throws Exception {
+        Path dir = Files.createTempDirectory("ids-store-");
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.append(1, 100, validated(3));
+            store.append(1, 101, validated(1));
+            assertEquals(-1, store.previous(1, 100));
+            assertEquals(100, store.previous(1, 101));
+            assertEquals(List.of(new ResultStore.Trend(0, WallFixtures.SPECIFICATION, 3, 1)), store.trend(1, 100, 101));
+        }
+    }
+
+    @Test
+    public void recheckSupersedesEarlierRun() throws Exception {
+        Path dir = Files.createTempDirectory("ids-store-");
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.append(1, 100, validated(3));
+            store.append(1, 100, validated(0));
+            assertEquals(0, store.read(1, 100).get(0).failed().cardinality());
+        }
+        try (ResultStore store = ResultStore.open(dir)) {
+            assertEquals(2, store.read(1, 100).size());
+            assertEquals(0, store.read(1, 100).get(0).failed().cardinality());
+        }
+    }
+
+    @Test
+    public void tornTailIsCutOff() throws Exception {
+        Path dir = Files.createTempDirectory("ids-store-");
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.append(1, 100, validated(2));
+        }
+        Path segment;
+        try (var files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        long size = Files.size(segment);
+        Files.write(segment, new byte[]{0x49, 0x44, 0x53, 0x52, 0, 0, 1}, StandardOpenOption.APPEND);
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            assertEquals(size, Files.size(segment));
+            assertEquals(2, store.read(1, 100).get(0).failed().cardinality());
+            store.append(2, 200, validated(1));
+            assertEquals(1, store.read(2, 200).get(0).failed().cardinality());
+        }
+    }
+}
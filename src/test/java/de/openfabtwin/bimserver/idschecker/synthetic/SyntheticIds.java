@@ -0,0 +1,63 @@
+package de.openfabtwin.bimserver.idschecker.synthetic;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.RestrictionValue;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Classification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import de.openfabtwin.bimserver.idschecker.model.facet.Material;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+
+import java.util.List;
+
+/**
+ * IDS documents written against the data of {@link SyntheticModels}, so every specification has
+ * applicable elements and a mix of passing and failing requirements.
+ */
+public final class SyntheticIds {
+
+    private SyntheticIds() {}
+
+    /**
+     * {@code count} specifications. Specification {@code i} applies to one element class and
+     * requires, in turn, a property value, a Name pattern, a classification, a material and spatial
+     * containment, so all facet types are exercised as the count grows.
+     */
+    public static Ids generate(int count, SyntheticModels.Shape shape) {
+        Ids ids = new Ids();
+        ids.getInfo().put("title", "Synthetic " + count);
+        Specification.IfcVersion version = shape.getSchema() == SyntheticModels.IfcSchema.IFC2X3
+                ? Specification.IfcVersion.IFC2X3 : Specification.IfcVersion.IFC4;
+        List<String> classes = SyntheticModels.ELEMENT_CLASSES;
+
+        for (int i = 0; i < count; i++) {
+            Specification spec = new Specification();
+            spec.setName("Synthetic " + i);
+            spec.getIfcVersion().add(version);
+            spec.setMinOccurs("0");
+            String entity = classes.get(i % classes.size()).toUpperCase();
+            spec.getApplicability().add(new Entity(new SimpleValue(entity), null, null));
+
+            int k = i % Math.max(1, shape.psetsPerElement);
+            int j = (i / classes.size()) % Math.max(1, shape.propertiesPerPset);
+            spec.getRequirements().add(switch (i % 5) {
+                // Passes for roughly 1 in distinctValues elements.
+                case 0 -> new Property(new SimpleValue("Pset_Synthetic" + k), new SimpleValue("Prop" + j),
+                        new SimpleValue("V" + (i % Math.max(1, shape.distinctValues))), "IFCLABEL", null, "required", null);
+                case 1 -> new Attribute(new SimpleValue("Name"),
+                        new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "[A-Za-z]+ \\d*[02468]", null, null, null, null),
+                        "required", null);
+                case 2 -> new Classification(new SimpleValue(SyntheticModels.CLASSIFICATION_SYSTEM),
+                        new RestrictionValue(RestrictionValue.XsdBase.STRING, List.of(), "C" + (i % 4) + ".*", null, null, null, null),
+                        null, "required", null);
+                case 3 -> new Material(new SimpleValue("LayerSet" + (i % Math.max(1, shape.materialLayerSets))), null, "required", null);
+                default -> new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IFCRELCONTAINEDINSPATIALSTRUCTURE", "required", null);
+            });
+            ids.getSpecifications().add(spec);
+        }
+        return ids;
+    }
+}
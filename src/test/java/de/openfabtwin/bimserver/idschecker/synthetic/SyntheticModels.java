@@ -0,0 +1,352 @@
+package de.openfabtwin.bimserver.idschecker.synthetic;
+
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterfaceException;
+import org.bimserver.emf.MetaDataManager;
+import org.bimserver.emf.PackageMetaData;
+import org.bimserver.ifc.BasicIfcModel;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory IFC models built without BIMserver storage or IFC files, for benchmarks and scale
+ * tests. Both directions of every relationship are set, since the facets navigate the inverses.
+ *
+ * <p>{@link #generate} builds a model of any size from a {@link Shape}. The output only depends on
+ * the shape: oids are consecutive, GlobalIds are derived from them and property values come from a
+ * {@link Random} seeded by {@link Shape#seed}.
+ */
+public final class SyntheticModels {
+
+    /** Schemas the generator writes; the name is the BIMserver package name. */
+    public enum IfcSchema {
+        IFC2X3("ifc2x3tc1"), IFC4("ifc4");
+
+        private final String packageName;
+
+        IfcSchema(String packageName) {
+            this.packageName = packageName;
+        }
+    }
+
+    /** Element classes used round robin; each has a {@code <class>Type} in both schemas. */
+    static final List<String> ELEMENT_CLASSES = List.of("IfcWall", "IfcSlab", "IfcColumn", "IfcBeam", "IfcMember", "IfcPlate");
+
+    /** Spatial containers from the project down; {@link Shape#spatialDepth} picks how many are used. */
+    static final List<String> SPATIAL_LEVELS = List.of("IfcSite", "IfcBuilding", "IfcBuildingStorey", "IfcSpace");
+
+    public static final String CLASSIFICATION_SYSTEM = "Synthetic";
+
+    private static final Map<IfcSchema, PackageMetaData> META = new ConcurrentHashMap<>();
+
+    private SyntheticModels() {}
+
+    /** Schema metadata, initialised once per JVM. */
+    public static PackageMetaData metaData(IfcSchema schema) {
+        return META.computeIfAbsent(schema, s -> {
+            try {
+                MetaDataManager manager = new MetaDataManager(Files.createTempDirectory("ids-meta-"));
+                manager.init();
+                return manager.getPackageMetaData(s.packageName);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot load the " + s + " schema", e);
+            }
+        });
+    }
+
+    /**
+     * What {@link #generate} builds. Every element gets {@code psetsPerElement} own property sets of
+     * {@code propertiesPerPset} labels, is typed by one of {@code types} type objects carrying
+     * {@code sharedTypePsets} property sets, uses one of {@code materialLayerSets} layer sets, is
+     * classified by a leaf of a classification tree {@code classificationDepth} levels deep with
+     * {@code classificationBranching} children per node, and is contained in the deepest of
+     * {@code spatialDepth} nested spatial levels below the project.
+     *
+     * <p>Property {@code Prop<j>} of {@code Pset_Synthetic<k>} has the value {@code V<n>} with
+     * {@code n} drawn from {@code 0..distinctValues-1}. Type property sets are {@code Pset_SyntheticType<k>},
+     * layer sets {@code LayerSet<i>} of materials {@code Material<i>_<layer>}, classification
+     * references {@code C<path>} such as {@code C1.0.2}. IFC2X3 has no reference trees, so there
+     * every reference points to the classification directly.
+     */
+    public static final class Shape {
+        IfcSchema schema = IfcSchema.IFC4;
+        int elements = 1_000;
+        int types = 10;
+        int psetsPerElement = 2;
+        int propertiesPerPset = 5;
+        int sharedTypePsets = 1;
+        int materialLayerSets = 5;
+        int layersPerSet = 3;
+        int classificationDepth = 3;
+        int classificationBranching = 4;
+        int spatialDepth = 3;
+        int distinctValues = 10;
+        long seed = 42;
+
+        public Shape schema(IfcSchema schema) { this.schema = schema; return this; }
+        public Shape elements(int elements) { this.elements = elements; return this; }
+        public Shape types(int types) { this.types = types; return this; }
+        public Shape psetsPerElement(int psetsPerElement) { this.psetsPerElement = psetsPerElement; return this; }
+        public Shape propertiesPerPset(int propertiesPerPset) { this.propertiesPerPset = propertiesPerPset; return this; }
+        public Shape sharedTypePsets(int sharedTypePsets) { this.sharedTypePsets = sharedTypePsets; return this; }
+        public Shape materialLayerSets(int materialLayerSets) { this.materialLayerSets = materialLayerSets; return this; }
+        public Shape layersPerSet(int layersPerSet) { this.layersPerSet = layersPerSet; return this; }
+        public Shape classificationDepth(int classificationDepth) { this.classificationDepth = classificationDepth; return this; }
+        public Shape classificationBranching(int classificationBranching) { this.classificationBranching = classificationBranching; return this; }
+        public Shape spatialDepth(int spatialDepth) { this.spatialDepth = spatialDepth; return this; }
+        public Shape distinctValues(int distinctValues) { this.distinctValues = distinctValues; return this; }
+        public Shape seed(long seed) { this.seed = seed; return this; }
+
+        public IfcSchema getSchema() { return schema; }
+        public int getElements() { return elements; }
+
+        /** Rough number of objects {@link #generate} creates, for sizing scenarios by object count. */
+        public long estimatedObjects() {
+            // The element, and per property set a relationship, the set and a property plus label per property.
+            long perElement = 1 + psetsPerElement * (2 + 2L * propertiesPerPset);
+            return elements * perElement;
+        }
+    }
+
+    public static Shape shape() {
+        return new Shape();
+    }
+
+    /** Build the model {@code shape} describes, with the metadata of its schema. */
+    public static BasicIfcModel generate(Shape shape) throws IfcModelInterfaceException {
+        return generate(metaData(shape.schema), shape);
+    }
+
+    public static BasicIfcModel generate(PackageMetaData meta, Shape shape) throws IfcModelInterfaceException {
+        Builder b = new Builder(meta);
+        Random random = new Random(shape.seed);
+        boolean ifc2x3 = shape.schema == IfcSchema.IFC2X3;
+
+        // Spatial structure: project > site > building > storey > space, as deep as asked.
+        IdEObject container = b.root("IfcProject", "Project");
+        int depth = Math.max(1, Math.min(shape.spatialDepth, SPATIAL_LEVELS.size()));
+        for (int level = 0; level < depth; level++) {
+            IdEObject child = b.root(SPATIAL_LEVELS.get(level), SPATIAL_LEVELS.get(level).substring(3) + " 0");
+            IdEObject aggregates = b.root("IfcRelAggregates", null);
+            b.link(aggregates, "RelatingObject", container, "IsDecomposedBy");
+            b.link(aggregates, "RelatedObjects", child, "Decomposes");
+            container = child;
+        }
+        IdEObject containment = b.root("IfcRelContainedInSpatialStructure", null);
+        b.link(containment, "RelatingStructure", container, "ContainsElements");
+
+        // Types, each with its shared property sets.
+        List<IdEObject> typeRels = new ArrayList<>();
+        for (int t = 0; t < shape.types; t++) {
+            String elementClass = ELEMENT_CLASSES.get(t % ELEMENT_CLASSES.size());
+            IdEObject type = b.root(elementClass + "Type", "Type " + t);
+            for (int k = 0; k < shape.sharedTypePsets; k++) {
+                b.add(type, "HasPropertySets", b.pset("Pset_SyntheticType" + k, shape, random));
+            }
+            IdEObject rel = b.root("IfcRelDefinesByType", null);
+            b.link(rel, "RelatingType", type, ifc2x3 ? "ObjectTypeOf" : "Types");
+            typeRels.add(rel);
+        }
+
+        // Material layer sets, associated through a layer set usage.
+        List<IdEObject> materialRels = new ArrayList<>();
+        for (int m = 0; m < shape.materialLayerSets; m++) {
+            IdEObject set = b.create("IfcMaterialLayerSet");
+            b.set(set, "LayerSetName", "LayerSet" + m);
+            for (int l = 0; l < shape.layersPerSet; l++) {
+                IdEObject material = b.create("IfcMaterial");
+                b.set(material, "Name", "Material" + m + "_" + l);
+                IdEObject layer = b.create("IfcMaterialLayer");
+                b.set(layer, "Material", material);
+                b.add(set, "MaterialLayers", layer);
+            }
+            IdEObject usage = b.create("IfcMaterialLayerSetUsage");
+            b.set(usage, "ForLayerSet", set);
+            IdEObject rel = b.root("IfcRelAssociatesMaterial", null);
+            b.set(rel, "RelatingMaterial", usage);
+            materialRels.add(rel);
+        }
+
+        // Classification tree; elements are classified by its leaves.
+        List<IdEObject> classificationRels = new ArrayList<>();
+        if (shape.classificationDepth > 0) {
+            IdEObject system = b.create("IfcClassification");
+            b.set(system, "Name", CLASSIFICATION_SYSTEM);
+            List<IdEObject> level = List.of(system);
+            List<String> paths = List.of("C");
+            for (int d = 0; d < shape.classificationDepth; d++) {
+                List<IdEObject> next = new ArrayList<>();
+                List<String> nextPaths = new ArrayList<>();
+                for (int p = 0; p < level.size(); p++) {
+                    for (int c = 0; c < shape.classificationBranching; c++) {
+                        String path = paths.get(p) + (d == 0 ? "" : ".") + c;
+                        IdEObject reference = b.create("IfcClassificationReference");
+                        b.set(reference, ifc2x3 ? "ItemReference" : "Identification", path);
+                        b.set(reference, "ReferencedSource", ifc2x3 ? system : level.get(p));
+                        next.add(reference);
+                        nextPaths.add(path);
+                    }
+                }
+                level = next;
+                paths = nextPaths;
+            }
+            for (IdEObject leaf : level) {
+                IdEObject rel = b.root("IfcRelAssociatesClassification", null);
+                b.set(rel, "RelatingClassification", leaf);
+                classificationRels.add(rel);
+            }
+        }
+
+        for (int i = 0; i < shape.elements; i++) {
+            String elementClass = ELEMENT_CLASSES.get(i % ELEMENT_CLASSES.size());
+            IdEObject element = b.root(elementClass, elementClass.substring(3) + " " + i);
+            b.link(containment, "RelatedElements", element, "ContainedInStructure");
+            for (int k = 0; k < shape.psetsPerElement; k++) {
+                IdEObject defines = b.root("IfcRelDefinesByProperties", null);
+                b.set(defines, "RelatingPropertyDefinition", b.pset("Pset_Synthetic" + k, shape, random));
+                b.link(defines, "RelatedObjects", element, "IsDefinedBy");
+            }
+            if (!typeRels.isEmpty()) {
+                b.link(typeRels.get(typeOf(i, typeRels.size())), "RelatedObjects", element, ifc2x3 ? "IsDefinedBy" : "IsTypedBy");
+            }
+            if (!materialRels.isEmpty()) {
+                b.link(materialRels.get(i % materialRels.size()), "RelatedObjects", element, "HasAssociations");
+            }
+            if (!classificationRels.isEmpty()) {
+                b.link(classificationRels.get(i % classificationRels.size()), "RelatedObjects", element, "HasAssociations");
+            }
+        }
+        return b.model();
+    }
+
+    /** A type of the same class as element {@code i} (types are created round robin too), if there is one. */
+    static int typeOf(int i, int types) {
+        int classes = ELEMENT_CLASSES.size();
+        int elementClass = i % classes;
+        int sameClass = (types - elementClass + classes - 1) / classes;
+        return sameClass > 0 ? elementClass + classes * ((i / classes) % sameClass) : i % types;
+    }
+
+    /**
+     * {@code count} walls contained in one storey. Every wall has a GlobalId and a Name, a
+     * Pset_WallCommon with FireRating {@code REI60} and a Uniclass reference {@code EF_25_10}.
+     */
+    public static BasicIfcModel walls(PackageMetaData meta, int count) throws IfcModelInterfaceException {
+        Builder b = new Builder(meta);
+        IdEObject storey = b.create("IfcBuildingStorey");
+        b.set(storey, "Name", "Level 0");
+
+        IdEObject system = b.create("IfcClassification");
+        b.set(system, "Name", "Uniclass");
+        IdEObject reference = b.create("IfcClassificationReference");
+        b.set(reference, "Identification", "EF_25_10");
+        b.set(reference, "ReferencedSource", system);
+
+        IdEObject containment = b.create("IfcRelContainedInSpatialStructure");
+        b.link(containment, "RelatingStructure", storey, "ContainsElements");
+        IdEObject association = b.create("IfcRelAssociatesClassification");
+        b.set(association, "RelatingClassification", reference);
+
+        for (int i = 0; i < count; i++) {
+            IdEObject wall = b.create("IfcWall");
+            b.set(wall, "GlobalId", String.format("0wall%017d", i));
+            b.set(wall, "Name", "Wall " + i);
+            b.link(containment, "RelatedElements", wall, "ContainedInStructure");
+            b.link(association, "RelatedObjects", wall, "HasAssociations");
+
+            IdEObject pset = b.create("IfcPropertySet");
+            b.set(pset, "GlobalId", String.format("0pset%017d", i));
+            b.set(pset, "Name", "Pset_WallCommon");
+            b.add(pset, "HasProperties", b.label("FireRating", "REI60"));
+            IdEObject defines = b.create("IfcRelDefinesByProperties");
+            b.set(defines, "RelatingPropertyDefinition", pset);
+            b.link(defines, "RelatedObjects", wall, "IsDefinedBy");
+        }
+        return b.model();
+    }
+
+    /** Creates objects with consecutive oids and sets features by name. */
+    static final class Builder {
+        private final PackageMetaData meta;
+        private final BasicIfcModel model;
+        private long oid = 1;
+
+        Builder(PackageMetaData meta) {
+            this.meta = meta;
+            this.model = new BasicIfcModel(meta, null);
+        }
+
+        BasicIfcModel model() {
+            return model;
+        }
+
+        IdEObject create(String type) throws IfcModelInterfaceException {
+            return model.create(meta.getEClass(type), oid++);
+        }
+
+        /** An IfcRoot with a GlobalId derived from its oid and, if given, a Name. */
+        IdEObject root(String type, String name) throws IfcModelInterfaceException {
+            IdEObject object = create(type);
+            // 22 characters from the IFC GlobalId alphabet, unique per oid.
+            set(object, "GlobalId", String.format("%022x", object.getOid()));
+            if (name != null) set(object, "Name", name);
+            return object;
+        }
+
+        void set(IdEObject object, String feature, Object value) {
+            object.eSet(feature(object, feature), value);
+        }
+
+        /** Append to a many-valued feature unless the value is already there. */
+        @SuppressWarnings("unchecked")
+        void add(IdEObject object, String feature, Object value) {
+            List<Object> list = (List<Object>) object.eGet(feature(object, feature));
+            if (!list.contains(value)) list.add(value);
+        }
+
+        /**
+         * Point {@code from.feature} at {@code to} and add {@code from} to the inverse on {@code to}.
+         * EMF may already maintain the inverse; adding is skipped then.
+         */
+        void link(IdEObject from, String feature, IdEObject to, String inverse) {
+            if (feature(from, feature).isMany()) add(from, feature, to);
+            else set(from, feature, to);
+            add(to, inverse, from);
+        }
+
+        /** An IfcPropertySingleValue with an IfcLabel nominal value. */
+        IdEObject label(String name, String value) throws IfcModelInterfaceException {
+            IdEObject property = create("IfcPropertySingleValue");
+            set(property, "Name", name);
+            IdEObject label = create("IfcLabel");
+            set(label, "wrappedValue", value);
+            set(property, "NominalValue", label);
+            return property;
+        }
+
+        /** A property set of {@code Prop<j>} labels with values drawn from {@code random}. */
+        IdEObject pset(String name, Shape shape, Random random) throws IfcModelInterfaceException {
+            IdEObject pset = root("IfcPropertySet", name);
+            for (int j = 0; j < shape.propertiesPerPset; j++) {
+                add(pset, "HasProperties", label("Prop" + j, "V" + random.nextInt(Math.max(1, shape.distinctValues))));
+            }
+            return pset;
+        }
+
+        private static EStructuralFeature feature(IdEObject object, String name) {
+            EStructuralFeature f = object.eClass().getEStructuralFeature(name);
+            if (f == null) throw new IllegalArgumentException(object.eClass().getName() + " has no feature " + name);
+            return f;
+        }
+    }
+}
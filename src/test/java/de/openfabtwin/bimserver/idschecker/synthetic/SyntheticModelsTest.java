@@ -0,0 +1,97 @@
+package de.openfabtwin.bimserver.idschecker.synthetic;
+
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.access.EmfModelAccess;
+import de.openfabtwin.bimserver.idschecker.model.facet.Classification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Facet;
+import de.openfabtwin.bimserver.idschecker.model.facet.Material;
+import de.openfabtwin.bimserver.idschecker.model.facet.PartOf;
+import de.openfabtwin.bimserver.idschecker.model.facet.Property;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterface;
+import org.bimserver.ifc.BasicIfcModel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticModelsTest {
+
+    private static SyntheticModels.Shape small(SyntheticModels.IfcSchema schema) {
+        return SyntheticModels.shape().schema(schema).elements(120).types(12).classificationDepth(2).classificationBranching(3);
+    }
+
+    private static List<String> fingerprint(IfcModelInterface model) {
+        List<String> out = new ArrayList<>();
+        for (long oid : new TreeSet<>(model.keySet())) {
+            IdEObject o = model.get(oid);
+            var wrapped = o.eClass().getEStructuralFeature("wrappedValue");
+            out.add(oid + " " + o.eClass().getName() + (wrapped == null ? "" : " " + o.eGet(wrapped)));
+        }
+        return out;
+    }
+
+    private static long passing(IfcModelInterface model, Facet facet) {
+        // IfcBuildingElement is abstract, so an Entity facet would find nothing.
+        List<IdEObject> elements = model.getAllWithSubTypes(model.getPackageMetaData().getEClass("IfcBuildingElement"));
+        EmfModelAccess access = new EmfModelAccess(model);
+        return elements.stream().filter(e -> facet.matches(access, e).isPass()).count();
+    }
+
+    @Test
+    public void sameShapeBuildsTheSameModel() throws Exception {
+        BasicIfcModel first = SyntheticModels.generate(small(SyntheticModels.IfcSchema.IFC4));
+        BasicIfcModel second = SyntheticModels.generate(small(SyntheticModels.IfcSchema.IFC4));
+
+        assertEquals(fingerprint(first), fingerprint(second));
+    }
+
+    @Test
+    public void countsFollowTheShape() throws Exception {
+        SyntheticModels.Shape shape = small(SyntheticModels.IfcSchema.IFC4);
+        IfcModelInterface model = SyntheticModels.generate(shape);
+        var meta = model.getPackageMetaData();
+
+        assertEquals(120, model.getAllWithSubTypes(meta.getEClass("IfcBuildingElement")).size());
+        assertEquals(20, model.getAll(meta.getEClass("IfcWall")).size());
+        assertEquals(12, model.getAllWithSubTypes(meta.getEClass("IfcTypeObject")).size());
+        assertEquals(5, model.getAll(meta.getEClass("IfcMaterialLayerSet")).size());
+        assertEquals(3 + 9, model.getAll(meta.getEClass("IfcClassificationReference")).size());
+        assertEquals(1, model.getAll(meta.getEClass("IfcBuildingStorey")).size());
+        assertTrue(model.size() >= shape.estimatedObjects());
+    }
+
+    @Test
+    public void facetsFindTheGeneratedData() throws Exception {
+        IfcModelInterface model = SyntheticModels.generate(small(SyntheticModels.IfcSchema.IFC4));
+
+        assertEquals(120, passing(model, new Property(new SimpleValue("Pset_Synthetic1"), new SimpleValue("Prop4"), null, null, null, "required", null)));
+        assertEquals(120, passing(model, new Property(new SimpleValue("Pset_SyntheticType0"), new SimpleValue("Prop0"), null, null, null, "required", null)));
+        assertEquals(24, passing(model, new Material(new SimpleValue("LayerSet0"), null, "required", null)));
+        assertEquals(120, passing(model, new Classification(new SimpleValue(SyntheticModels.CLASSIFICATION_SYSTEM), null, null, "required", null)));
+        assertEquals(120, passing(model, new PartOf(new SimpleValue("IFCBUILDINGSTOREY"), null, "IFCRELCONTAINEDINSPATIALSTRUCTURE", "required", null)));
+    }
+
+    @Test
+    public void ifc2x3ModelsUseFlatClassificationReferences() throws Exception {
+        IfcModelInterface model = SyntheticModels.generate(small(SyntheticModels.IfcSchema.IFC2X3));
+
+        assertEquals(120, model.getAllWithSubTypes(model.getPackageMetaData().getEClass("IfcBuildingElement")).size());
+        assertEquals(120, passing(model, new Classification(new SimpleValue(SyntheticModels.CLASSIFICATION_SYSTEM), null, null, "required", null)));
+        assertEquals(120, passing(model, new Property(new SimpleValue("Pset_Synthetic0"), new SimpleValue("Prop0"), null, null, null, "required", null)));
+    }
+
+    @Test
+    public void elementsAreTypedByATypeOfTheirClass() {
+        int classes = SyntheticModels.ELEMENT_CLASSES.size();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % classes, SyntheticModels.typeOf(i, 12) % classes);
+        }
+        assertEquals(1, SyntheticModels.typeOf(7, 3));   // the only type of its class
+        assertEquals(5 % 2, SyntheticModels.typeOf(5, 2));   // no type of its class: round robin
+    }
+}
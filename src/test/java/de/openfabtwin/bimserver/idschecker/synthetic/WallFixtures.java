@@ -0,0 +1,58 @@
+package de.openfabtwin.bimserver.idschecker.synthetic;
+
+import de.openfabtwin.bimserver.idschecker.model.Ids;
+import de.openfabtwin.bimserver.idschecker.model.SimpleValue;
+import de.openfabtwin.bimserver.idschecker.model.Specification;
+import de.openfabtwin.bimserver.idschecker.model.facet.Attribute;
+import de.openfabtwin.bimserver.idschecker.model.facet.Entity;
+import org.bimserver.emf.IdEObject;
+import org.bimserver.emf.IfcModelInterfaceException;
+import org.bimserver.emf.PackageMetaData;
+import org.bimserver.ifc.BasicIfcModel;
+import org.bimserver.interfaces.objects.SProject;
+import org.eclipse.emf.ecore.EClass;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The "walls have a name" fixture shared by the result, report, store and spill tests: IFC4 walls
+ * with oids {@code 1..count} and an IDS whose one specification requires every IfcWall to have a Name.
+ */
+public final class WallFixtures {
+
+    public static final String SPECIFICATION = "Walls have a name";
+
+    private WallFixtures() {}
+
+    /** Walls {@code 0..count-1} with oid {@code i + 1}; the ones {@code named} accepts get a Name. */
+    public static BasicIfcModel walls(int count, IntPredicate named) throws IfcModelInterfaceException {
+        PackageMetaData meta = SyntheticModels.metaData(SyntheticModels.IfcSchema.IFC4);
+        BasicIfcModel model = new BasicIfcModel(meta, null);
+        EClass wall = meta.getEClass("IfcWall");
+        for (int i = 0; i < count; i++) {
+            IdEObject w = model.create(wall, i + 1);
+            w.eSet(wall.getEStructuralFeature("GlobalId"), String.format("0wall%017d", i));
+            if (named.test(i)) w.eSet(wall.getEStructuralFeature("Name"), "Wall " + i);
+        }
+        return model;
+    }
+
+    /** One IFC4 specification: every IfcWall must have a Name. */
+    public static Ids namedWalls() {
+        Ids ids = new Ids();
+        Specification spec = new Specification();
+        spec.setName(SPECIFICATION);
+        spec.getIfcVersion().add(Specification.IfcVersion.IFC4);
+        spec.setMinOccurs("1");
+        spec.getApplicability().add(new Entity(new SimpleValue("IFCWALL"), null, null));
+        spec.getRequirements().add(new Attribute(new SimpleValue("Name"), null, null, null));
+        ids.getSpecifications().add(spec);
+        return ids;
+    }
+
+    public static SProject project() {
+        SProject project = new SProject();
+        project.setSchema("ifc4");
+        return project;
+    }
+}